@@ -19,12 +19,16 @@
  * under the License.
  */
 
+import org.apache.maven.model.building.BoundedModelCache;
 import org.apache.maven.model.building.ModelCache;
 import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
- * A model builder cache backed by the repository system cache.
+ * A model builder cache backed by the repository system cache. The cached models of a session are kept in a single
+ * thread-safe store which can be bounded by the configuration property {@value #MAX_SIZE_PROPERTY}, in which case the
+ * least recently used entries are evicted. The store counts the hits and misses per tag.
  *
  * @author Benjamin Bentmann
  */
@@ -32,9 +36,14 @@
     implements ModelCache
 {
 
-    private final RepositorySystemSession session;
+    /**
+     * The name of the configuration property that limits the number of models cached per session.
+     */
+    static final String MAX_SIZE_PROPERTY = "maven.modelCache.maxSize";
 
-    private final RepositoryCache cache;
+    private static final Object STORE_KEY = DefaultModelCache.class.getName() + ".store";
+
+    private final BoundedModelCache store;
 
     public static ModelCache newInstance( RepositorySystemSession session )
     {
@@ -50,70 +59,43 @@ public static ModelCache newInstance( RepositorySystemSession session )
 
     private DefaultModelCache( RepositorySystemSession session )
     {
-        this.session = session;
-        this.cache = session.getCache();
+        this.store = getStore( session );
+    }
+
+    private static BoundedModelCache getStore( RepositorySystemSession session )
+    {
+        RepositoryCache cache = session.getCache();
+
+        synchronized ( cache )
+        {
+            BoundedModelCache store = (BoundedModelCache) cache.get( session, STORE_KEY );
+            if ( store == null )
+            {
+                store = new BoundedModelCache( ConfigUtils.getInteger( session, 0, MAX_SIZE_PROPERTY ) );
+                cache.put( session, STORE_KEY, store );
+            }
+            return store;
+        }
     }
 
     public Object get( String groupId, String artifactId, String version, String tag )
     {
-        return cache.get( session, new Key( groupId, artifactId, version, tag ) );
+        return store.get( groupId, artifactId, version, tag );
     }
 
     public void put( String groupId, String artifactId, String version, String tag, Object data )
     {
-        cache.put( session, new Key( groupId, artifactId, version, tag ), data );
+        store.put( groupId, artifactId, version, tag, data );
     }
 
-    static class Key
+    public long getHitCount( String tag )
     {
+        return store.getHitCount( tag );
+    }
 
-        private final String groupId;
-
-        private final String artifactId;
-
-        private final String version;
-
-        private final String tag;
-
-        private final int hash;
-
-        public Key( String groupId, String artifactId, String version, String tag )
-        {
-            this.groupId = groupId;
-            this.artifactId = artifactId;
-            this.version = version;
-            this.tag = tag;
-
-            int h = 17;
-            h = h * 31 + this.groupId.hashCode();
-            h = h * 31 + this.artifactId.hashCode();
-            h = h * 31 + this.version.hashCode();
-            h = h * 31 + this.tag.hashCode();
-            hash = h;
-        }
-
-        @Override
-        public boolean equals( Object obj )
-        {
-            if ( this == obj )
-            {
-                return true;
-            }
-            if ( null == obj || !getClass().equals( obj.getClass() ) )
-            {
-                return false;
-            }
-
-            Key that = (Key) obj;
-            return artifactId.equals( that.artifactId ) && groupId.equals( that.groupId )
-                && version.equals( that.version ) && tag.equals( that.tag );
-        }
-
-        @Override
-        public int hashCode()
-        {
-            return hash;
-        }
-
+    public long getMissCount( String tag )
+    {
+        return store.getMissCount( tag );
     }
+
 }
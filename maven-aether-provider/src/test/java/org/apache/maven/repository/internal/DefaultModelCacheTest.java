@@ -0,0 +1,67 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+
+import junit.framework.TestCase;
+
+public class DefaultModelCacheTest
+    extends TestCase
+{
+
+    public void testNoCacheWithoutRepositoryCache()
+    {
+        assertNull( DefaultModelCache.newInstance( new DefaultRepositorySystemSession() ) );
+    }
+
+    public void testStoreIsSharedAcrossInstancesOfSession()
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+
+        DefaultModelCache first = (DefaultModelCache) DefaultModelCache.newInstance( session );
+        assertNull( first.get( "g", "a", "1", "import" ) );
+        first.put( "g", "a", "1", "import", "bom" );
+
+        DefaultModelCache second = (DefaultModelCache) DefaultModelCache.newInstance( session );
+        assertEquals( "bom", second.get( "g", "a", "1", "import" ) );
+
+        assertEquals( 1, second.getHitCount( "import" ) );
+        assertEquals( 1, second.getMissCount( "import" ) );
+        assertEquals( 0, second.getHitCount( "raw" ) );
+    }
+
+    public void testEvictsBeyondMaxSize()
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setCache( new DefaultRepositoryCache() );
+        session.setConfigProperty( DefaultModelCache.MAX_SIZE_PROPERTY, "1" );
+
+        DefaultModelCache cache = (DefaultModelCache) DefaultModelCache.newInstance( session );
+        cache.put( "g", "a", "1", "raw", "a" );
+        cache.put( "g", "b", "1", "raw", "b" );
+
+        assertNull( cache.get( "g", "a", "1", "raw" ) );
+        assertEquals( "b", cache.get( "g", "b", "1", "raw" ) );
+    }
+
+}
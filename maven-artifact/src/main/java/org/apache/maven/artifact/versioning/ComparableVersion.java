@@ -22,11 +22,9 @@
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
-import java.util.Stack;
 
 /**
  * Generic implementation of version comparison.
@@ -60,6 +58,10 @@
 public class ComparableVersion
     implements Comparable<ComparableVersion>
 {
+    private static final int MAX_INT_ITEM_LENGTH = 9;
+
+    private static final int MAX_LONG_ITEM_LENGTH = 18;
+
     private String value;
 
     private String canonical;
@@ -68,9 +70,11 @@
 
     private interface Item
     {
-        int INTEGER_ITEM = 0;
+        int BIGINTEGER_ITEM = 0;
         int STRING_ITEM = 1;
         int LIST_ITEM = 2;
+        int INT_ITEM = 3;
+        int LONG_ITEM = 4;
 
         int compareTo( Item item );
 
@@ -80,48 +84,161 @@
     }
 
     /**
-     * Represents a numeric item in the version item list.
+     * Represents a numeric item in the version item list that can be represented with an int.
      */
-    private static class IntegerItem
+    private static class IntItem
         implements Item
     {
-        private static final BigInteger BIG_INTEGER_ZERO = new BigInteger( "0" );
+        private final int value;
 
-        private final BigInteger value;
+        public static final IntItem ZERO = new IntItem( 0 );
 
-        public static final IntegerItem ZERO = new IntegerItem();
+        IntItem( int value )
+        {
+            this.value = value;
+        }
 
-        private IntegerItem()
+        public int getType()
         {
-            this.value = BIG_INTEGER_ZERO;
+            return INT_ITEM;
         }
 
-        public IntegerItem( String str )
+        public boolean isNull()
+        {
+            return value == 0;
+        }
+
+        public int compareTo( Item item )
+        {
+            if ( item == null )
+            {
+                return ( value == 0 ) ? 0 : 1; // 1.0 == 1, 1.1 > 1
+            }
+
+            switch ( item.getType() )
+            {
+                case INT_ITEM:
+                    int itemValue = ( (IntItem) item ).value;
+                    return ( value < itemValue ) ? -1 : ( ( value == itemValue ) ? 0 : 1 );
+
+                case LONG_ITEM:
+                case BIGINTEGER_ITEM:
+                    return -1;
+
+                case STRING_ITEM:
+                    return 1; // 1.1 > 1-sp
+
+                case LIST_ITEM:
+                    return 1; // 1.1 > 1-1
+
+                default:
+                    throw new RuntimeException( "invalid item: " + item.getClass() );
+            }
+        }
+
+        public String toString()
+        {
+            return Integer.toString( value );
+        }
+    }
+
+    /**
+     * Represents a numeric item in the version item list that can be represented with a long.
+     */
+    private static class LongItem
+        implements Item
+    {
+        private final long value;
+
+        LongItem( long value )
+        {
+            this.value = value;
+        }
+
+        public int getType()
+        {
+            return LONG_ITEM;
+        }
+
+        public boolean isNull()
+        {
+            return value == 0;
+        }
+
+        public int compareTo( Item item )
+        {
+            if ( item == null )
+            {
+                return ( value == 0 ) ? 0 : 1; // 1.0 == 1, 1.1 > 1
+            }
+
+            switch ( item.getType() )
+            {
+                case INT_ITEM:
+                    return 1;
+
+                case LONG_ITEM:
+                    long itemValue = ( (LongItem) item ).value;
+                    return ( value < itemValue ) ? -1 : ( ( value == itemValue ) ? 0 : 1 );
+
+                case BIGINTEGER_ITEM:
+                    return -1;
+
+                case STRING_ITEM:
+                    return 1; // 1.1 > 1-sp
+
+                case LIST_ITEM:
+                    return 1; // 1.1 > 1-1
+
+                default:
+                    throw new RuntimeException( "invalid item: " + item.getClass() );
+            }
+        }
+
+        public String toString()
+        {
+            return Long.toString( value );
+        }
+    }
+
+    /**
+     * Represents a numeric item in the version item list that is too large for a long.
+     */
+    private static class BigIntegerItem
+        implements Item
+    {
+        private final BigInteger value;
+
+        BigIntegerItem( String str )
         {
             this.value = new BigInteger( str );
         }
 
         public int getType()
         {
-            return INTEGER_ITEM;
+            return BIGINTEGER_ITEM;
         }
 
         public boolean isNull()
         {
-            return BIG_INTEGER_ZERO.equals( value );
+            return BigInteger.ZERO.equals( value );
         }
 
         public int compareTo( Item item )
         {
             if ( item == null )
             {
-                return BIG_INTEGER_ZERO.equals( value ) ? 0 : 1; // 1.0 == 1, 1.1 > 1
+                return BigInteger.ZERO.equals( value ) ? 0 : 1; // 1.0 == 1, 1.1 > 1
             }
 
             switch ( item.getType() )
             {
-                case INTEGER_ITEM:
-                    return value.compareTo( ( (IntegerItem) item ).value );
+                case INT_ITEM:
+                case LONG_ITEM:
+                    return 1;
+
+                case BIGINTEGER_ITEM:
+                    return value.compareTo( ( (BigIntegerItem) item ).value );
 
                 case STRING_ITEM:
                     return 1; // 1.1 > 1-sp
@@ -167,6 +284,12 @@ public String toString()
 
         private String value;
 
+        /**
+         * The result of {@link #comparableQualifier(String)} for the value, computed once so that comparisons do not
+         * allocate.
+         */
+        private String comparable;
+
         public StringItem( String value, boolean followedByDigit )
         {
             if ( followedByDigit && value.length() == 1 )
@@ -187,6 +310,7 @@ public StringItem( String value, boolean followedByDigit )
                 }
             }
             this.value = ALIASES.getProperty( value , value );
+            this.comparable = comparableQualifier( this.value );
         }
 
         public int getType()
@@ -196,7 +320,7 @@ public int getType()
 
         public boolean isNull()
         {
-            return ( comparableQualifier( value ).compareTo( RELEASE_VERSION_INDEX ) == 0 );
+            return ( comparable.compareTo( RELEASE_VERSION_INDEX ) == 0 );
         }
 
         /**
@@ -224,15 +348,17 @@ public int compareTo( Item item )
             if ( item == null )
             {
                 // 1-rc < 1, 1-ga > 1
-                return comparableQualifier( value ).compareTo( RELEASE_VERSION_INDEX );
+                return comparable.compareTo( RELEASE_VERSION_INDEX );
             }
             switch ( item.getType() )
             {
-                case INTEGER_ITEM:
+                case INT_ITEM:
+                case LONG_ITEM:
+                case BIGINTEGER_ITEM:
                     return -1; // 1.any < 1.1 ?
 
                 case STRING_ITEM:
-                    return comparableQualifier( value ).compareTo( comparableQualifier( ( (StringItem) item ).value ) );
+                    return comparable.compareTo( ( (StringItem) item ).comparable );
 
                 case LIST_ITEM:
                     return -1; // 1.any < 1-1
@@ -256,6 +382,16 @@ public String toString()
         extends ArrayList<Item>
         implements Item
     {
+        /**
+         * The list this list is nested in, only needed to normalize the lists bottom up once parsing is complete.
+         */
+        private final ListItem parent;
+
+        ListItem( ListItem parent )
+        {
+            this.parent = parent;
+        }
+
         public int getType()
         {
             return LIST_ITEM;
@@ -297,20 +433,23 @@ public int compareTo( Item item )
             }
             switch ( item.getType() )
             {
-                case INTEGER_ITEM:
+                case INT_ITEM:
+                case LONG_ITEM:
+                case BIGINTEGER_ITEM:
                     return -1; // 1-1 < 1.0.x
 
                 case STRING_ITEM:
                     return 1; // 1-1 > 1-sp
 
                 case LIST_ITEM:
-                    Iterator<Item> left = iterator();
-                    Iterator<Item> right = ( (ListItem) item ).iterator();
+                    ListItem other = (ListItem) item;
+                    int size = size();
+                    int otherSize = other.size();
 
-                    while ( left.hasNext() || right.hasNext() )
+                    for ( int i = 0, n = Math.max( size, otherSize ); i < n; i++ )
                     {
-                        Item l = left.hasNext() ? left.next() : null;
-                        Item r = right.hasNext() ? right.next() : null;
+                        Item l = ( i < size ) ? get( i ) : null;
+                        Item r = ( i < otherSize ) ? other.get( i ) : null;
 
                         // if this is shorter, then invert the compare and mul with -1
                         int result = l == null ? ( r == null ? 0 : -1 * r.compareTo( l ) ) : l.compareTo( r );
@@ -352,15 +491,12 @@ public final void parseVersion( String version )
     {
         this.value = version;
 
-        items = new ListItem();
+        items = new ListItem( null );
 
         version = version.toLowerCase( Locale.ENGLISH );
 
         ListItem list = items;
 
-        Stack<Item> stack = new Stack<>();
-        stack.push( list );
-
         boolean isDigit = false;
 
         int startIndex = 0;
@@ -373,11 +509,11 @@ public final void parseVersion( String version )
             {
                 if ( i == startIndex )
                 {
-                    list.add( IntegerItem.ZERO );
+                    list.add( IntItem.ZERO );
                 }
                 else
                 {
-                    list.add( parseItem( isDigit, version.substring( startIndex, i ) ) );
+                    list.add( parseItem( isDigit, version, startIndex, i ) );
                 }
                 startIndex = i + 1;
             }
@@ -385,16 +521,15 @@ else if ( c == '-' )
             {
                 if ( i == startIndex )
                 {
-                    list.add( IntegerItem.ZERO );
+                    list.add( IntItem.ZERO );
                 }
                 else
                 {
-                    list.add( parseItem( isDigit, version.substring( startIndex, i ) ) );
+                    list.add( parseItem( isDigit, version, startIndex, i ) );
                 }
                 startIndex = i + 1;
 
-                list.add( list = new ListItem() );
-                stack.push( list );
+                list.add( list = new ListItem( list ) );
             }
             else if ( Character.isDigit( c ) )
             {
@@ -403,8 +538,7 @@ else if ( Character.isDigit( c ) )
                     list.add( new StringItem( version.substring( startIndex, i ), true ) );
                     startIndex = i;
 
-                    list.add( list = new ListItem() );
-                    stack.push( list );
+                    list.add( list = new ListItem( list ) );
                 }
 
                 isDigit = true;
@@ -413,11 +547,10 @@ else if ( Character.isDigit( c ) )
             {
                 if ( isDigit && i > startIndex )
                 {
-                    list.add( parseItem( true, version.substring( startIndex, i ) ) );
+                    list.add( parseItem( true, version, startIndex, i ) );
                     startIndex = i;
 
-                    list.add( list = new ListItem() );
-                    stack.push( list );
+                    list.add( list = new ListItem( list ) );
                 }
 
                 isDigit = false;
@@ -426,21 +559,55 @@ else if ( Character.isDigit( c ) )
 
         if ( version.length() > startIndex )
         {
-            list.add( parseItem( isDigit, version.substring( startIndex ) ) );
+            list.add( parseItem( isDigit, version, startIndex, version.length() ) );
         }
 
-        while ( !stack.isEmpty() )
+        // each sub-list is the last item of its parent, normalize the innermost first
+        for ( ; list != null; list = list.parent )
         {
-            list = (ListItem) stack.pop();
             list.normalize();
         }
 
         canonical = items.toString();
     }
 
-    private static Item parseItem( boolean isDigit, String buf )
+    private static Item parseItem( boolean isDigit, String version, int start, int end )
+    {
+        if ( !isDigit )
+        {
+            return new StringItem( version.substring( start, end ), false );
+        }
+
+        // strip leading zeros so that the number of digits determines the representation
+        while ( start < end && Character.digit( version.charAt( start ), 10 ) == 0 )
+        {
+            start++;
+        }
+
+        int digits = end - start;
+        if ( digits == 0 )
+        {
+            return IntItem.ZERO;
+        }
+        else if ( digits <= MAX_INT_ITEM_LENGTH )
+        {
+            return new IntItem( (int) parseDigits( version, start, end ) );
+        }
+        else if ( digits <= MAX_LONG_ITEM_LENGTH )
+        {
+            return new LongItem( parseDigits( version, start, end ) );
+        }
+        return new BigIntegerItem( version.substring( start, end ) );
+    }
+
+    private static long parseDigits( String version, int start, int end )
     {
-        return isDigit ? new IntegerItem( buf ) : new StringItem( buf, false );
+        long result = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            result = result * 10 + Character.digit( version.charAt( i ), 10 );
+        }
+        return result;
     }
 
     public int compareTo( ComparableVersion o )
@@ -48,6 +48,32 @@ public DefaultArtifactVersion( String version )
         parseVersion( version );
     }
 
+    private DefaultArtifactVersion( DefaultArtifactVersion version )
+    {
+        majorVersion = version.majorVersion;
+        minorVersion = version.minorVersion;
+        incrementalVersion = version.incrementalVersion;
+        buildNumber = version.buildNumber;
+        qualifier = version.qualifier;
+        comparable = version.comparable;
+    }
+
+    /**
+     * Copies a version held by a shared instance, e.g. an interned {@link VersionRange}, without parsing it again.
+     *
+     * @param version The version to copy, may be {@code null}.
+     * @return A private copy of the version, or the version itself if it is not a {@code DefaultArtifactVersion}.
+     * @since 3.4.0
+     */
+    static ArtifactVersion copyOf( ArtifactVersion version )
+    {
+        if ( version != null && version.getClass() == DefaultArtifactVersion.class )
+        {
+            return new DefaultArtifactVersion( (DefaultArtifactVersion) version );
+        }
+        return version;
+    }
+
     @Override
     public int hashCode()
     {
@@ -47,7 +47,8 @@ public Restriction( ArtifactVersion lowerBound, boolean lowerBoundInclusive, Art
 
     public ArtifactVersion getLowerBound()
     {
-        return lowerBound;
+        // restrictions of interned version ranges are shared, hand out a copy of the bound
+        return DefaultArtifactVersion.copyOf( lowerBound );
     }
 
     public boolean isLowerBoundInclusive()
@@ -57,7 +58,7 @@ public boolean isLowerBoundInclusive()
 
     public ArtifactVersion getUpperBound()
     {
-        return upperBound;
+        return DefaultArtifactVersion.copyOf( upperBound );
     }
 
     public boolean isUpperBoundInclusive()
@@ -0,0 +1,94 @@
+package org.apache.maven.artifact.versioning;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, thread-safe cache that interns parsed versions and version ranges by their string representation, so that
+ * the same specification used by many artifacts is parsed once and shared. Once the cache is full, it is cleared and
+ * filled anew, which keeps lookups lock-free. The size can be set with the system property {@value #SIZE_PROPERTY}, a
+ * size of {@code 0} disables the cache.
+ *
+ * @param <V> The type of the cached instances, which must not be modified once cached.
+ * @since 3.4.0
+ */
+final class VersionCache<V>
+{
+
+    static final String SIZE_PROPERTY = "maven.versionCache.size";
+
+    private static final int DEFAULT_SIZE = 4096;
+
+    private final ConcurrentMap<String, V> instances = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    VersionCache()
+    {
+        this( Integer.getInteger( SIZE_PROPERTY, DEFAULT_SIZE ) );
+    }
+
+    VersionCache( int maxSize )
+    {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the instance interned for the given key.
+     *
+     * @param key The string representation, must not be {@code null}.
+     * @return The interned instance or {@code null} if none.
+     */
+    V get( String key )
+    {
+        return instances.get( key );
+    }
+
+    /**
+     * Interns the given instance unless another thread interned one for the same key first.
+     *
+     * @param key The string representation, must not be {@code null}.
+     * @param value The parsed instance, must not be {@code null}.
+     * @return The interned instance, never {@code null}.
+     */
+    V intern( String key, V value )
+    {
+        if ( maxSize <= 0 )
+        {
+            return value;
+        }
+
+        if ( instances.size() >= maxSize )
+        {
+            instances.clear();
+        }
+
+        V existing = instances.putIfAbsent( key, value );
+        return ( existing != null ) ? existing : value;
+    }
+
+    int size()
+    {
+        return instances.size();
+    }
+
+}
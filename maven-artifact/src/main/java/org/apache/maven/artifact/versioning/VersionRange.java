@@ -27,12 +27,18 @@
 import org.apache.maven.artifact.Artifact;
 
 /**
- * Construct a version range from a specification.
+ * Construct a version range from a specification. The ranges created from a string are interned in a
+ * {@link VersionCache}, so they are shared. Their restrictions can't be modified and the versions they hand out are
+ * copies, so a caller that parses a version again does not affect the shared range.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  */
 public class VersionRange
 {
+    private static final VersionCache<VersionRange> SPECS = new VersionCache<>();
+
+    private static final VersionCache<VersionRange> VERSIONS = new VersionCache<>();
+
     private final ArtifactVersion recommendedVersion;
 
     private final List<Restriction> restrictions;
@@ -46,9 +52,12 @@ private VersionRange( ArtifactVersion recommendedVersion,
 
     public ArtifactVersion getRecommendedVersion()
     {
-        return recommendedVersion;
+        return DefaultArtifactVersion.copyOf( recommendedVersion );
     }
 
+    /**
+     * @return the restrictions of this range, unmodifiable for ranges created from a string since they are shared
+     */
     public List<Restriction> getRestrictions()
     {
         return restrictions;
@@ -96,6 +105,18 @@ public static VersionRange createFromVersionSpec( String spec )
             return null;
         }
 
+        VersionRange cached = SPECS.get( spec );
+        if ( cached != null )
+        {
+            return cached;
+        }
+
+        return SPECS.intern( spec, parseVersionSpec( spec ) );
+    }
+
+    private static VersionRange parseVersionSpec( String spec )
+        throws InvalidVersionSpecificationException
+    {
         List<Restriction> restrictions = new ArrayList<>();
         String process = spec;
         ArtifactVersion version = null;
@@ -158,7 +179,7 @@ public static VersionRange createFromVersionSpec( String spec )
             }
         }
 
-        return new VersionRange( version, restrictions );
+        return new VersionRange( version, Collections.unmodifiableList( restrictions ) );
     }
 
     private static Restriction parseRestriction( String spec )
@@ -217,8 +238,14 @@ private static Restriction parseRestriction( String spec )
 
     public static VersionRange createFromVersion( String version )
     {
+        VersionRange cached = VERSIONS.get( version );
+        if ( cached != null )
+        {
+            return cached;
+        }
+
         List<Restriction> restrictions = Collections.emptyList();
-        return new VersionRange( new DefaultArtifactVersion( version ), restrictions );
+        return VERSIONS.intern( version, new VersionRange( new DefaultArtifactVersion( version ), restrictions ) );
     }
 
     /**
@@ -275,11 +302,11 @@ public VersionRange restrict( VersionRange restriction )
                     version = recommendedVersion;
                     break;
                 }
-                else if ( version == null && restriction.getRecommendedVersion() != null
-                    && r.containsVersion( restriction.getRecommendedVersion() ) )
+                else if ( version == null && restriction.recommendedVersion != null
+                    && r.containsVersion( restriction.recommendedVersion ) )
                 {
                     // use this if we can, but prefer the original if possible
-                    version = restriction.getRecommendedVersion();
+                    version = restriction.recommendedVersion;
                 }
             }
         }
@@ -358,15 +385,19 @@ else if ( comparison == 0 )
                         }
                     }
 
+                    // the bounds are copies, remember which restriction the upper bound came from
+                    boolean upperFromRes2;
                     if ( res1.getUpperBound() == null )
                     {
                         upper = res2.getUpperBound();
                         upperInclusive = res2.isUpperBoundInclusive();
+                        upperFromRes2 = true;
                     }
                     else if ( res2.getUpperBound() == null )
                     {
                         upper = res1.getUpperBound();
                         upperInclusive = res1.isUpperBoundInclusive();
+                        upperFromRes2 = false;
                     }
                     else
                     {
@@ -375,16 +406,19 @@ else if ( res2.getUpperBound() == null )
                         {
                             upper = res1.getUpperBound();
                             upperInclusive = res1.isUpperBoundInclusive();
+                            upperFromRes2 = false;
                         }
                         else if ( comparison == 0 )
                         {
                             upper = res1.getUpperBound();
                             upperInclusive = res1.isUpperBoundInclusive() && res2.isUpperBoundInclusive();
+                            upperFromRes2 = false;
                         }
                         else
                         {
                             upper = res2.getUpperBound();
                             upperInclusive = res2.isUpperBoundInclusive();
+                            upperFromRes2 = true;
                         }
                     }
 
@@ -398,8 +432,7 @@ else if ( lowerInclusive && upperInclusive )
                         restrictions.add( new Restriction( lower, lowerInclusive, upper, upperInclusive ) );
                     }
 
-                    //noinspection ObjectEquality
-                    if ( upper == res2.getUpperBound() )
+                    if ( upperFromRes2 )
                     {
                         // advance res2
                         if ( i2.hasNext() )
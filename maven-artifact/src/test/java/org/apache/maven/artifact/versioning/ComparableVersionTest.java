@@ -183,6 +183,23 @@ public void testVersionComparing()
         checkVersionsOrder( "2.0.1-xyz", "2.0.1-123" );
     }
 
+    public void testVersionsNumberRepresentation()
+    {
+        checkVersionsOrder( new String[] { "1", "999999999", "1000000000", "2147483647", "2147483648",
+            "999999999999999999", "1000000000000000000", "9223372036854775807", "9223372036854775808",
+            "99999999999999999999" } );
+        checkVersionsOrder( "1.2147483647", "1.2147483648" );
+        checkVersionsOrder( "1.9223372036854775807", "1.9223372036854775808" );
+
+        checkVersionsEqual( "1", "0001" );
+        checkVersionsEqual( "1", "000000000000000000001" );
+        checkVersionsEqual( "1", "1.0000000000000000000000" );
+        checkVersionsEqual( "9223372036854775808", "09223372036854775808" );
+        checkVersionsEqual( "1-0000000000000000000000", "1" );
+        checkVersionsOrder( "1-2147483648", "1.1" );
+        checkVersionsOrder( "1-sp", "1-99999999999999999999" );
+    }
+
     /**
      * Test <a href="https://issues.apache.org/jira/browse/MNG-5568">MNG-5568</a> edge case
      * which was showing transitive inconsistency: since A > B and B > C then we should have A > C
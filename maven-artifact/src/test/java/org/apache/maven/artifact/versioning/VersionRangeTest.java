@@ -723,6 +723,53 @@ public boolean enforceVersion( String requiredVersionRange, ArtifactVersion actu
         return vr.containsVersion( actualVersion );
     }
 
+    public void testInternedInstances()
+        throws InvalidVersionSpecificationException
+    {
+        VersionRange range = VersionRange.createFromVersionSpec( "[1.0,2.0)" );
+        assertSame( range, VersionRange.createFromVersionSpec( "[1.0,2.0)" ) );
+        assertSame( VersionRange.createFromVersion( "3.1.0" ), VersionRange.createFromVersion( "3.1.0" ) );
+        assertSame( range.getRestrictions(), range.getRestrictions() );
+
+        try
+        {
+            range.getRestrictions().clear();
+            fail( "restrictions of shared ranges must not be modifiable" );
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            // expected
+        }
+
+        // plugins may parse the versions they get again, that must not change the shared range
+        DefaultArtifactVersion upper = (DefaultArtifactVersion) range.getRestrictions().get( 0 ).getUpperBound();
+        upper.parseVersion( "3.0" );
+        assertEquals( "3.0", upper.toString() );
+        assertEquals( "2.0", range.getRestrictions().get( 0 ).getUpperBound().toString() );
+
+        VersionRange version = VersionRange.createFromVersion( "3.1.0" );
+        DefaultArtifactVersion recommended = (DefaultArtifactVersion) version.getRecommendedVersion();
+        recommended.parseVersion( "4.0" );
+        assertEquals( 4, recommended.getMajorVersion() );
+        assertEquals( "3.1.0", version.getRecommendedVersion().toString() );
+        assertEquals( 3, ( (DefaultArtifactVersion) version.getRecommendedVersion() ).getMajorVersion() );
+    }
+
+    public void testVersionCacheBounded()
+    {
+        VersionCache<String> cache = new VersionCache<>( 2 );
+        assertEquals( "a", cache.intern( "1", "a" ) );
+        assertEquals( "a", cache.intern( "1", "b" ) );
+        cache.intern( "2", "c" );
+        cache.intern( "3", "d" );
+        assertTrue( cache.size() <= 2 );
+        assertEquals( "d", cache.get( "3" ) );
+
+        VersionCache<String> disabled = new VersionCache<>( 0 );
+        assertEquals( "a", disabled.intern( "1", "a" ) );
+        assertNull( disabled.get( "1" ) );
+    }
+
     public void testOrder0()
     {
         // assertTrue( new DefaultArtifactVersion( "1.0-alpha10" ).compareTo( new DefaultArtifactVersion( "1.0-alpha1" ) ) > 0 );
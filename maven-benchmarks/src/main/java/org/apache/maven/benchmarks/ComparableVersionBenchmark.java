@@ -0,0 +1,90 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing and comparison of {@link ComparableVersion}.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ComparableVersionBenchmark
+{
+
+    static final String[] VERSIONS =
+        { "1", "1.0", "1.2.3", "3.1.0", "2.0-alpha-1", "2.0-beta2", "1.0.0-SNAPSHOT", "1.0-rc1", "4.12", "19.0",
+            "1.7.16", "3.0.24", "1.0.2.v20150114", "2.10", "20160101.123456-12", "1.0-sp1", "9223372036854775808" };
+
+    private ComparableVersion[] parsed;
+
+    @Setup
+    public void setUp()
+    {
+        parsed = new ComparableVersion[VERSIONS.length];
+        for ( int i = 0; i < VERSIONS.length; i++ )
+        {
+            parsed[i] = new ComparableVersion( VERSIONS[i] );
+        }
+    }
+
+    @Benchmark
+    public void parse( Blackhole blackhole )
+    {
+        for ( String version : VERSIONS )
+        {
+            blackhole.consume( new ComparableVersion( version ) );
+        }
+    }
+
+    @Benchmark
+    public int compare()
+    {
+        int result = 0;
+        for ( ComparableVersion left : parsed )
+        {
+            for ( ComparableVersion right : parsed )
+            {
+                result += left.compareTo( right );
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link PluginParameterExpressionEvaluator} on the kinds of expressions found in mojo configurations.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ExpressionEvaluatorBenchmark
+{
+
+    static final String[] EXPRESSIONS =
+        { "${project.version}", "${project.build.directory}", "${project.build.finalName}.jar", "${basedir}/src",
+            "${session.executionRootDirectory}", "${lib.version}", "${mojoExecution.executionId}",
+            "prefix-${project.artifactId}-${project.version}-suffix", "${settings.offline}", "plain value" };
+
+    private PluginParameterExpressionEvaluator evaluator;
+
+    @Setup
+    public void setUp()
+    {
+        Model model = SyntheticModels.newModel( "evaluator", 10 );
+        Build build = model.getBuild();
+        build.setDirectory( "target" );
+        MavenProject project = new MavenProject( model );
+        project.setFile( new File( "evaluator/pom.xml" ).getAbsoluteFile() );
+
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory( project.getBasedir() );
+        request.setSystemProperties( System.getProperties() );
+
+        @SuppressWarnings( "deprecation" )
+        MavenSession session = new MavenSession( null, request, new DefaultMavenExecutionResult(), project );
+        session.setCurrentProject( project );
+
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( SyntheticModels.GROUP_ID );
+        pluginDescriptor.setArtifactId( "benchmark-plugin" );
+        pluginDescriptor.setVersion( SyntheticModels.VERSION );
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( "run" );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        MojoExecution mojoExecution = new MojoExecution( mojoDescriptor, "default-run" );
+
+        evaluator = new PluginParameterExpressionEvaluator( session, mojoExecution );
+    }
+
+    @Benchmark
+    public void evaluate( Blackhole blackhole )
+        throws ExpressionEvaluationException
+    {
+        for ( String expression : EXPRESSIONS )
+        {
+            blackhole.consume( evaluator.evaluate( expression ) );
+        }
+    }
+
+}
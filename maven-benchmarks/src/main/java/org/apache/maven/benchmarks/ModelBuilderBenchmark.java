@@ -0,0 +1,125 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuilder;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DefaultModelBuilder#build(ModelBuildingRequest)} on a synthetic hierarchy of POMs on disk, where
+ * each module inherits from the POM in its parent directory.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ModelBuilderBenchmark
+{
+
+    /**
+     * The number of POMs in the hierarchy.
+     */
+    @Param( { "1", "5", "10" } )
+    public int depth;
+
+    /**
+     * The number of dependencies in each POM.
+     */
+    @Param( { "10", "100" } )
+    public int size;
+
+    private File directory;
+
+    private File pomFile;
+
+    private DefaultModelBuilder modelBuilder;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        directory = File.createTempFile( "model-builder", "" );
+        directory.delete();
+
+        File dir = directory;
+        Model parent = null;
+        for ( int i = 0; i < depth; i++ )
+        {
+            Model model = ( parent == null ) ? SyntheticModels.newModel( "level" + i, size )
+                            : SyntheticModels.newChild( parent, "level" + i, size );
+            model.setPackaging( ( i < depth - 1 ) ? "pom" : "jar" );
+
+            dir.mkdirs();
+            pomFile = new File( dir, "pom.xml" );
+            FileUtils.fileWrite( pomFile, "UTF-8", SyntheticModels.toXml( model ) );
+
+            parent = model;
+            dir = new File( dir, "level" + ( i + 1 ) );
+        }
+
+        modelBuilder = new DefaultModelBuilderFactory().newInstance();
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        FileUtils.deleteDirectory( directory );
+    }
+
+    @Benchmark
+    public ModelBuildingResult build()
+        throws ModelBuildingException
+    {
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile( pomFile );
+        request.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
+        request.setProcessPlugins( false );
+        request.setSystemProperties( System.getProperties() );
+        return modelBuilder.build( request );
+    }
+
+}
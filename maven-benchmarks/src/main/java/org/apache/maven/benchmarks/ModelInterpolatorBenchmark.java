@@ -0,0 +1,113 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelProblemCollector;
+import org.apache.maven.model.building.ModelProblemCollectorRequest;
+import org.apache.maven.model.interpolation.StringSearchModelInterpolator;
+import org.apache.maven.model.path.DefaultPathTranslator;
+import org.apache.maven.model.path.DefaultUrlNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link StringSearchModelInterpolator} on a model full of property references. The interpolator modifies the
+ * model in place, so each invocation interpolates a fresh clone; {@link #cloneOnly()} gives the baseline to subtract.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ModelInterpolatorBenchmark
+{
+
+    private static final ModelProblemCollector IGNORE_PROBLEMS = new ModelProblemCollector()
+    {
+        @Override
+        public void add( ModelProblemCollectorRequest req )
+        {
+            // ignore
+        }
+    };
+
+    /**
+     * The number of dependencies in the model.
+     */
+    @Param( { "10", "100" } )
+    public int size;
+
+    private Model model;
+
+    private File projectDir;
+
+    private ModelBuildingRequest request;
+
+    private StringSearchModelInterpolator interpolator;
+
+    @Setup
+    public void setUp()
+    {
+        model = SyntheticModels.newModel( "interpolator", size );
+        projectDir = new File( "interpolator" ).getAbsoluteFile();
+
+        Properties userProperties = new Properties();
+        userProperties.setProperty( "encoding", "ISO-8859-1" );
+        request = new DefaultModelBuildingRequest();
+        request.setSystemProperties( System.getProperties() );
+        request.setUserProperties( userProperties );
+
+        interpolator = new StringSearchModelInterpolator();
+        interpolator.setPathTranslator( new DefaultPathTranslator() );
+        interpolator.setUrlNormalizer( new DefaultUrlNormalizer() );
+    }
+
+    @Benchmark
+    public Model interpolate()
+    {
+        return interpolator.interpolateModel( model.clone(), projectDir, request, IGNORE_PROBLEMS );
+    }
+
+    @Benchmark
+    public Model cloneOnly()
+    {
+        return model.clone();
+    }
+
+}
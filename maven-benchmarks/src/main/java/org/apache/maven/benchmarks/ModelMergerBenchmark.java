@@ -0,0 +1,93 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.merge.MavenModelMerger;
+import org.apache.maven.model.merge.ModelMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures merging a parent model into a child with the generic {@link ModelMerger} and the {@link MavenModelMerger}
+ * used for inheritance. The merge modifies the target, so each invocation merges into a fresh clone.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ModelMergerBenchmark
+{
+
+    /**
+     * The number of dependencies in each model.
+     */
+    @Param( { "10", "100", "1000" } )
+    public int size;
+
+    private Model parent;
+
+    private Model child;
+
+    private ModelMerger modelMerger;
+
+    private MavenModelMerger mavenModelMerger;
+
+    @Setup
+    public void setUp()
+    {
+        parent = SyntheticModels.newModel( "parent", size );
+        child = SyntheticModels.newChild( parent, "child", size / 2 );
+        modelMerger = new ModelMerger();
+        mavenModelMerger = new MavenModelMerger();
+    }
+
+    @Benchmark
+    public Model merge()
+    {
+        Model target = child.clone();
+        modelMerger.merge( target, parent, false, null );
+        return target;
+    }
+
+    @Benchmark
+    public Model mavenMerge()
+    {
+        Model target = child.clone();
+        mavenModelMerger.merge( target, parent, false, null );
+        return target;
+    }
+
+}
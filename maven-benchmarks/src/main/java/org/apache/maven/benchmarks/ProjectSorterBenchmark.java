@@ -0,0 +1,102 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.DuplicateProjectException;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectSorter;
+import org.codehaus.plexus.util.dag.CycleDetectedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ProjectSorter} on generated reactors where each module depends on up to five earlier modules, which
+ * keeps the graph acyclic.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ProjectSorterBenchmark
+{
+
+    private static final int MAX_DEPENDENCIES = 5;
+
+    /**
+     * The number of modules in the reactor.
+     */
+    @Param( { "10", "100", "1000", "10000" } )
+    public int modules;
+
+    private List<MavenProject> projects;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random( 42 );
+        projects = new ArrayList<>( modules );
+        for ( int i = 0; i < modules; i++ )
+        {
+            Model model = new Model();
+            model.setGroupId( SyntheticModels.GROUP_ID );
+            model.setArtifactId( "module" + i );
+            model.setVersion( SyntheticModels.VERSION );
+
+            for ( int j = Math.min( i, random.nextInt( MAX_DEPENDENCIES + 1 ) ); j > 0; j-- )
+            {
+                Dependency dependency = new Dependency();
+                dependency.setGroupId( SyntheticModels.GROUP_ID );
+                dependency.setArtifactId( "module" + random.nextInt( i ) );
+                dependency.setVersion( SyntheticModels.VERSION );
+                model.addDependency( dependency );
+            }
+
+            projects.add( new MavenProject( model ) );
+        }
+    }
+
+    @Benchmark
+    public List<MavenProject> sort()
+        throws CycleDetectedException, DuplicateProjectException
+    {
+        return new ProjectSorter( projects ).getSortedProjects();
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+
+/**
+ * Generates the synthetic POMs used by the benchmarks.
+ *
+ * @since 3.4.0
+ */
+final class SyntheticModels
+{
+
+    static final String GROUP_ID = "org.apache.maven.benchmarks";
+
+    static final String VERSION = "1.0-SNAPSHOT";
+
+    private SyntheticModels()
+    {
+        // hide constructor
+    }
+
+    /**
+     * Creates a model with the given number of dependencies, managed dependencies and plugins, using property
+     * references in the places real POMs use them.
+     */
+    static Model newModel( String artifactId, int size )
+    {
+        Model model = new Model();
+        model.setModelVersion( "4.0.0" );
+        model.setGroupId( GROUP_ID );
+        model.setArtifactId( artifactId );
+        model.setVersion( VERSION );
+        model.setName( "${project.artifactId} module" );
+        model.setUrl( "https://maven.apache.org/${project.artifactId}" );
+        model.addProperty( "lib.version", "2.1" );
+        model.addProperty( "encoding", "UTF-8" );
+
+        DependencyManagement dependencyManagement = new DependencyManagement();
+        Build build = new Build();
+        build.setFinalName( "${project.artifactId}-${project.version}" );
+        for ( int i = 0; i < size; i++ )
+        {
+            Dependency dependency = new Dependency();
+            dependency.setGroupId( "org.example.group" + ( i % 7 ) );
+            dependency.setArtifactId( "lib" + i );
+            dependency.setVersion( "${lib.version}" );
+            dependency.setScope( ( i % 3 == 0 ) ? "test" : "compile" );
+            model.addDependency( dependency );
+
+            Dependency managed = dependency.clone();
+            managed.setArtifactId( "managed" + i );
+            managed.setVersion( "1." + i );
+            dependencyManagement.addDependency( managed );
+
+            if ( i % 4 == 0 )
+            {
+                Plugin plugin = new Plugin();
+                plugin.setArtifactId( "plugin" + i );
+                plugin.setVersion( "3." + i );
+                build.addPlugin( plugin );
+            }
+        }
+        model.setDependencyManagement( dependencyManagement );
+        model.setBuild( build );
+        return model;
+    }
+
+    static Model newChild( Model parent, String artifactId, int size )
+    {
+        Model model = newModel( artifactId, size );
+        model.setGroupId( null );
+        model.setVersion( null );
+
+        Parent ref = new Parent();
+        ref.setGroupId( GROUP_ID );
+        ref.setArtifactId( parent.getArtifactId() );
+        ref.setVersion( VERSION );
+        model.setParent( ref );
+        return model;
+    }
+
+    static String toXml( Model model )
+    {
+        StringWriter writer = new StringWriter();
+        try
+        {
+            new MavenXpp3Writer().write( writer, model );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( e );
+        }
+        return writer.toString();
+    }
+
+}
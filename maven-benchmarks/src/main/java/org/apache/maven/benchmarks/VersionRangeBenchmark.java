@@ -0,0 +1,109 @@
+package org.apache.maven.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the intersection of {@link VersionRange}s as done during conflict mediation and the creation of ranges from
+ * their specification, both with the version cache filled and with the cache disabled.
+ *
+ * @since 3.4.0
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class VersionRangeBenchmark
+{
+
+    static final String[] SPECS =
+        { "1.0", "[1.0,2.0)", "[1.5,)", "(,1.0],[1.2,)", "[1.0,1.1],[1.3,1.5),[1.7,2.0)", "[1.2.3]", "2.1",
+            "(1.0,3.0]" };
+
+    private VersionRange[] ranges;
+
+    @Setup
+    public void setUp()
+        throws InvalidVersionSpecificationException
+    {
+        ranges = new VersionRange[SPECS.length];
+        for ( int i = 0; i < SPECS.length; i++ )
+        {
+            ranges[i] = VersionRange.createFromVersionSpec( SPECS[i] );
+        }
+    }
+
+    @Benchmark
+    public void restrict( Blackhole blackhole )
+    {
+        for ( VersionRange left : ranges )
+        {
+            for ( VersionRange right : ranges )
+            {
+                blackhole.consume( left.restrict( right ) );
+            }
+        }
+    }
+
+    /**
+     * Measures the lookup of ranges that are already interned, i.e. cache hits only.
+     */
+    @Benchmark
+    public void createFromVersionSpecCached( Blackhole blackhole )
+        throws InvalidVersionSpecificationException
+    {
+        for ( String spec : SPECS )
+        {
+            blackhole.consume( VersionRange.createFromVersionSpec( spec ) );
+        }
+    }
+
+    /**
+     * Measures the parsing of ranges, the version cache is disabled in the forked JVM.
+     */
+    @Benchmark
+    @Fork( value = 1, jvmArgsAppend = "-Dmaven.versionCache.size=0" )
+    public void createFromVersionSpecUncached( Blackhole blackhole )
+        throws InvalidVersionSpecificationException
+    {
+        for ( String spec : SPECS )
+        {
+            blackhole.consume( VersionRange.createFromVersionSpec( spec ) );
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ComparableVersionBenchmark_jmhType extends ComparableVersionBenchmark_jmhType_B3 {
+}
+
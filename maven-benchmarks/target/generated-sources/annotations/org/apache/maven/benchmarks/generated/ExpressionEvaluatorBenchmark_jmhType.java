@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ExpressionEvaluatorBenchmark_jmhType extends ExpressionEvaluatorBenchmark_jmhType_B3 {
+}
+
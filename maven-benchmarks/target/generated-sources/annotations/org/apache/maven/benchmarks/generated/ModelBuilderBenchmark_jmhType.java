@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ModelBuilderBenchmark_jmhType extends ModelBuilderBenchmark_jmhType_B3 {
+}
+
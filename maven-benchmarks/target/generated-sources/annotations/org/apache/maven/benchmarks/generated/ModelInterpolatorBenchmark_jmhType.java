@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ModelInterpolatorBenchmark_jmhType extends ModelInterpolatorBenchmark_jmhType_B3 {
+}
+
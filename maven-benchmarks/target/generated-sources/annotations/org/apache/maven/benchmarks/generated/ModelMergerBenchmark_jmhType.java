@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ModelMergerBenchmark_jmhType extends ModelMergerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ModelReaderBenchmark_jmhType extends ModelReaderBenchmark_jmhType_B3 {
+}
+
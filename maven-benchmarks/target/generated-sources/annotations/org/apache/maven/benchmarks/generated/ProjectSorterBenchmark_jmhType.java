@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class ProjectSorterBenchmark_jmhType extends ProjectSorterBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.apache.maven.benchmarks.generated;
+public class VersionRangeBenchmark_jmhType extends VersionRangeBenchmark_jmhType_B3 {
+}
+
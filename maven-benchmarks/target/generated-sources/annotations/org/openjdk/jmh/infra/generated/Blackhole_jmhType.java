@@ -0,0 +1,4 @@
+package org.openjdk.jmh.infra.generated;
+public class Blackhole_jmhType extends Blackhole_jmhType_B3 {
+}
+
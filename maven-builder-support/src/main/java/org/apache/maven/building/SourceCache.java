@@ -0,0 +1,160 @@
+package org.apache.maven.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the results built from file sources. An entry is keyed by the path, size and modification time of each source
+ * plus the additional inputs that went into the result, so that editing a file or changing one of the inputs simply
+ * misses the cache. Sources that are not backed by a file cannot be stamped and are never cached.
+ *
+ * @param <V> The type of the cached results.
+ * @since 3.4.0
+ */
+public class SourceCache<V>
+{
+
+    /**
+     * The name of the system property that makes builders share their caches across all containers and sessions of the
+     * JVM instead of keeping them per component instance.
+     */
+    public static final String SHARED_PROPERTY = "maven.sourceCache.shared";
+
+    private static final int MAX_SIZE = 16;
+
+    private static final Map<String, SourceCache<?>> SHARED = new HashMap<>();
+
+    private final Map<Object, V> entries = new LinkedHashMap<Object, V>( 16, 0.75f, true )
+    {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<Object, V> eldest )
+        {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * Gets the JVM-wide cache of the given name.
+     *
+     * @param name The name of the cache, must not be {@code null}.
+     * @return The shared cache, never {@code null}.
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <V> SourceCache<V> getShared( String name )
+    {
+        synchronized ( SHARED )
+        {
+            SourceCache<V> cache = (SourceCache<V>) SHARED.get( name );
+            if ( cache == null )
+            {
+                cache = new SourceCache<>();
+                SHARED.put( name, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Indicates whether builders should use the shared caches, as requested by the system property
+     * {@value #SHARED_PROPERTY}.
+     *
+     * @return {@code true} if the shared caches should be used, {@code false} otherwise.
+     */
+    public static boolean isSharingEnabled()
+    {
+        return Boolean.parseBoolean( System.getProperty( SHARED_PROPERTY ) );
+    }
+
+    /**
+     * Creates the cache key for the given sources and inputs.
+     *
+     * @param sources The sources, individual elements may be {@code null} for absent sources.
+     * @param inputs The additional inputs, must implement {@link Object#equals(Object)} by value. Maps are copied.
+     * @return The cache key or {@code null} if any of the sources is not backed by a file.
+     */
+    public static Object newKey( List<? extends Source> sources, Object... inputs )
+    {
+        List<Object> key = new ArrayList<>( sources.size() * 3 + inputs.length );
+
+        for ( Source source : sources )
+        {
+            if ( source == null )
+            {
+                key.add( null );
+            }
+            else if ( source instanceof FileSource )
+            {
+                File file = ( (FileSource) source ).getFile();
+                key.add( file.getPath() );
+                key.add( file.length() );
+                key.add( file.lastModified() );
+            }
+            else
+            {
+                return null;
+            }
+        }
+
+        for ( Object input : inputs )
+        {
+            key.add( ( input instanceof Map ) ? new HashMap<>( (Map<?, ?>) input ) : input );
+        }
+
+        return Collections.unmodifiableList( key );
+    }
+
+    /**
+     * Gets the result cached for the given key.
+     *
+     * @param key The cache key, may be {@code null}.
+     * @return The cached result or {@code null} if none.
+     */
+    public synchronized V get( Object key )
+    {
+        return ( key != null ) ? entries.get( key ) : null;
+    }
+
+    /**
+     * Caches the given result.
+     *
+     * @param key The cache key, may be {@code null} in which case nothing is cached.
+     * @param value The result to cache, must not be {@code null}.
+     */
+    public synchronized void put( Object key, V value )
+    {
+        if ( key != null )
+        {
+            entries.put( key, value );
+        }
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.apache.maven.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class SourceCacheTest
+{
+
+    @Test
+    public void testStampedSources()
+        throws Exception
+    {
+        File file = File.createTempFile( "source", ".xml", new File( "target" ) );
+        file.deleteOnExit();
+        file.setLastModified( 10000 );
+
+        SourceCache<String> cache = new SourceCache<>();
+        Object key = SourceCache.newKey( Arrays.asList( new FileSource( file ), null ),
+                                         Collections.singletonMap( "a", "b" ) );
+        cache.put( key, "result" );
+
+        assertEquals( "result", cache.get( SourceCache.newKey( Arrays.asList( new FileSource( file ), null ),
+                                                               Collections.singletonMap( "a", "b" ) ) ) );
+        assertNull( cache.get( SourceCache.newKey( Arrays.asList( new FileSource( file ), null ),
+                                                   Collections.singletonMap( "a", "c" ) ) ) );
+
+        file.setLastModified( 20000 );
+        assertNull( cache.get( SourceCache.newKey( Arrays.asList( new FileSource( file ), null ),
+                                                   Collections.singletonMap( "a", "b" ) ) ) );
+    }
+
+    @Test
+    public void testNonFileSourcesAreNotCached()
+    {
+        SourceCache<String> cache = new SourceCache<>();
+        Object key = SourceCache.newKey( Arrays.asList( new StringSource( "<settings/>" ) ) );
+        cache.put( key, "result" );
+
+        assertNull( key );
+        assertNull( cache.get( key ) );
+    }
+
+}
@@ -27,9 +27,14 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -66,6 +71,7 @@
 import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  * @author Jason van Zyl
@@ -98,11 +104,25 @@
     @Requirement
     private RepositorySystem repoSystem;
 
+    /**
+     * The name of the property that sets the number of threads used to download the artifacts of a transitive
+     * resolution. It is read from the JVM system properties when the resolver is created and from the configuration of
+     * each repository session, which may grow the pool.
+     */
+    static final String THREADS_PROPERTY = "maven.artifact.threads";
+
     private final Executor executor;
 
+    /**
+     * The downloads in progress, keyed by repository session, artifact and remote repositories, so that threads asking
+     * for the same artifact wait for the first download instead of fetching it again.
+     */
+    private final ConcurrentMap<DownloadKey, FutureTask<org.eclipse.aether.artifact.Artifact>> downloads =
+        new ConcurrentHashMap<>();
+
     public DefaultArtifactResolver()
     {
-        int threads = Integer.getInteger( "maven.artifact.threads", 5 );
+        int threads = Integer.getInteger( THREADS_PROPERTY, 5 );
         if ( threads <= 1 )
         {
             executor = new Executor()
@@ -199,11 +219,11 @@ private void resolve( Artifact artifact, List<ArtifactRepository> remoteReposito
 
         if ( !artifact.isResolved() )
         {
-            ArtifactResult result;
+            org.eclipse.aether.artifact.Artifact resolved;
 
             try
             {
-                ArtifactRequest artifactRequest = new ArtifactRequest();
+                final ArtifactRequest artifactRequest = new ArtifactRequest();
                 artifactRequest.setArtifact( RepositoryUtils.toArtifact( artifact ) );
                 artifactRequest.setRepositories( RepositoryUtils.toRepos( remoteRepositories ) );
 
@@ -212,7 +232,7 @@ private void resolve( Artifact artifact, List<ArtifactRepository> remoteReposito
                 String path = lrm.getPathForLocalArtifact( artifactRequest.getArtifact() );
                 artifact.setFile( new File( lrm.getRepository().getBasedir(), path ) );
 
-                result = repoSystem.resolveArtifact( session, artifactRequest );
+                resolved = resolveShared( session, artifactRequest );
             }
             catch ( org.eclipse.aether.resolution.ArtifactResolutionException e )
             {
@@ -226,8 +246,8 @@ private void resolve( Artifact artifact, List<ArtifactRepository> remoteReposito
                 }
             }
 
-            artifact.selectVersion( result.getArtifact().getVersion() );
-            artifact.setFile( result.getArtifact().getFile() );
+            artifact.selectVersion( resolved.getVersion() );
+            artifact.setFile( resolved.getFile() );
             artifact.setResolved( true );
 
             if ( artifact.isSnapshot() )
@@ -251,6 +271,85 @@ private void resolve( Artifact artifact, List<ArtifactRepository> remoteReposito
         }
     }
 
+    /**
+     * Resolves the given artifact, joining a download of the same artifact that another thread already started.
+     */
+    private org.eclipse.aether.artifact.Artifact resolveShared( final RepositorySystemSession session,
+                                                                final ArtifactRequest artifactRequest )
+        throws org.eclipse.aether.resolution.ArtifactResolutionException
+    {
+        DownloadKey key = new DownloadKey( session, artifactRequest );
+
+        FutureTask<org.eclipse.aether.artifact.Artifact> download =
+            new FutureTask<>( new Callable<org.eclipse.aether.artifact.Artifact>()
+            {
+                public org.eclipse.aether.artifact.Artifact call()
+                    throws Exception
+                {
+                    ArtifactResult result = repoSystem.resolveArtifact( session, artifactRequest );
+                    return result.getArtifact();
+                }
+            } );
+
+        FutureTask<org.eclipse.aether.artifact.Artifact> pending = downloads.putIfAbsent( key, download );
+        if ( pending == null )
+        {
+            try
+            {
+                download.run();
+            }
+            finally
+            {
+                downloads.remove( key, download );
+            }
+            pending = download;
+        }
+
+        try
+        {
+            return pending.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new org.eclipse.aether.resolution.ArtifactResolutionException(
+                Collections.singletonList( new ArtifactResult( artifactRequest ) ), "Resolution interrupted", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof org.eclipse.aether.resolution.ArtifactResolutionException )
+            {
+                throw (org.eclipse.aether.resolution.ArtifactResolutionException) e.getCause();
+            }
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException( e.getCause() );
+        }
+    }
+
+    /**
+     * Grows the download pool to the number of threads configured for the given session, if any.
+     */
+    private void configureThreads( RepositorySystemSession session )
+    {
+        if ( executor instanceof ThreadPoolExecutor )
+        {
+            int threads = ConfigUtils.getInteger( session, 0, THREADS_PROPERTY );
+
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            synchronized ( pool )
+            {
+                if ( threads > pool.getMaximumPoolSize() )
+                {
+                    pool.setMaximumPoolSize( threads );
+                    pool.setCorePoolSize( threads );
+                }
+            }
+        }
+    }
+
     public ArtifactResolutionResult resolveTransitively( Set<Artifact> artifacts, Artifact originatingArtifact,
                                                          ArtifactRepository localRepository,
                                                          List<ArtifactRepository> remoteRepositories,
@@ -513,6 +612,8 @@ public ArtifactResolutionResult resolve( ArtifactResolutionRequest request )
         {
             ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
 
+            configureThreads( session );
+
             CountDownLatch latch = new CountDownLatch( result.getArtifactResolutionNodes().size() );
 
             for ( ResolutionNode node : result.getArtifactResolutionNodes() )
@@ -657,4 +758,47 @@ public void dispose()
         }
     }
 
+    /**
+     * Identifies a download. Only requests of the same repository session share a download, the session carries the
+     * offline mode, the update policies, the mirrors, the proxies and the authentication that the download depends on.
+     */
+    private static final class DownloadKey
+    {
+
+        private final RepositorySystemSession session;
+
+        private final String request;
+
+        private final int hashCode;
+
+        DownloadKey( RepositorySystemSession session, ArtifactRequest request )
+        {
+            this.session = session;
+            this.request = request.getArtifact() + "|" + request.getRepositories();
+            this.hashCode = System.identityHashCode( session ) * 31 + this.request.hashCode();
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof DownloadKey ) )
+            {
+                return false;
+            }
+            DownloadKey that = (DownloadKey) obj;
+            return session == that.session && request.equals( that.request );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
 }
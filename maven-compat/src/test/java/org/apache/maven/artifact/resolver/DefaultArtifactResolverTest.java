@@ -19,11 +19,21 @@
  * under the License.
  */
 
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.artifact.AbstractArtifactComponentTestCase;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.DefaultArtifactResolver.DaemonThreadCreator;
+import org.eclipse.aether.RepositorySystem;
 
 public class DefaultArtifactResolverTest
     extends AbstractArtifactComponentTestCase
@@ -103,6 +113,87 @@ public void testMNG4738()
         assertTrue( "Could not find ThreadGroup: " + DaemonThreadCreator.THREADGROUP_NAME, seen );
     }
 
+    public void testConcurrentResolutionOfSameArtifact()
+        throws Exception
+    {
+        Artifact remote = createRemoteArtifact( "shared", "1.0" );
+        deleteLocalArtifact( remote );
+
+        // count the downloads and keep the first one running long enough for the other threads to join it
+        Field field = DefaultArtifactResolver.class.getDeclaredField( "repoSystem" );
+        field.setAccessible( true );
+        final RepositorySystem repoSystem = (RepositorySystem) field.get( artifactResolver );
+        final AtomicInteger downloads = new AtomicInteger();
+        field.set( artifactResolver, Proxy.newProxyInstance( getClass().getClassLoader(), new Class<?>[] {
+            RepositorySystem.class }, new InvocationHandler()
+        {
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Throwable
+            {
+                if ( "resolveArtifact".equals( method.getName() ) )
+                {
+                    downloads.incrementAndGet();
+                    Thread.sleep( 500 );
+                }
+                try
+                {
+                    return method.invoke( repoSystem, args );
+                }
+                catch ( InvocationTargetException e )
+                {
+                    throw e.getCause();
+                }
+            }
+        } ) );
+
+        final CyclicBarrier barrier = new CyclicBarrier( 4 );
+        final List<Artifact> artifacts = new ArrayList<>();
+        final List<Throwable> errors = Collections.synchronizedList( new ArrayList<Throwable>() );
+        List<Thread> threads = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            final Artifact artifact = createArtifact( "shared", "1.0" );
+            artifacts.add( artifact );
+            Thread thread = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        barrier.await();
+                        artifactResolver.resolve( artifact, remoteRepositories(), localRepository() );
+                    }
+                    catch ( Throwable e )
+                    {
+                        errors.add( e );
+                    }
+                }
+            };
+            thread.start();
+            threads.add( thread );
+        }
+        try
+        {
+            for ( Thread thread : threads )
+            {
+                thread.join();
+            }
+        }
+        finally
+        {
+            field.set( artifactResolver, repoSystem );
+        }
+
+        assertEquals( Collections.emptyList(), errors );
+        assertEquals( 1, downloads.get() );
+        for ( Artifact artifact : artifacts )
+        {
+            assertTrue( artifact.isResolved() );
+            assertLocalArtifactPresent( artifact );
+        }
+    }
+
     public void testLookup()
         throws Exception
     {
@@ -32,6 +32,7 @@
 import java.util.Map;
 
 import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.execution.BuildDurationHistory;
 import org.apache.maven.execution.DefaultMavenExecutionResult;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.MavenExecutionRequest;
@@ -96,6 +97,9 @@
     @Requirement( hint = GraphBuilder.HINT )
     private GraphBuilder graphBuilder;
 
+    @Requirement
+    private BuildDurationHistory buildDurationHistory;
+
     @Override
     public MavenExecutionResult execute( MavenExecutionRequest request )
     {
@@ -200,6 +204,32 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request )
 
     private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSession session,
                                             MavenExecutionResult result, DefaultRepositorySystemSession repoSession )
+    {
+        //
+        // The participants are notified about the end of the session even if the build failed before the lifecycle
+        // was started, so that they can release whatever they acquired in afterSessionStart(session).
+        //
+        try
+        {
+            return doExecuteSession( request, session, result, repoSession );
+        }
+        finally
+        {
+            try
+            {
+                List<MavenProject> projects = session.getProjects();
+                afterSessionEnd( ( projects != null ) ? projects : Collections.<MavenProject>emptyList(), session );
+            }
+            catch ( MavenExecutionException e )
+            {
+                return addExceptionToResult( result, e );
+            }
+        }
+    }
+
+    private MavenExecutionResult doExecuteSession( MavenExecutionRequest request, MavenSession session,
+                                                   MavenExecutionResult result,
+                                                   DefaultRepositorySystemSession repoSession )
     {
         try
         {
@@ -293,36 +323,30 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request, MavenSess
                                              .getException() );
         }
 
-        try
+        if ( result.hasExceptions() )
         {
-            if ( result.hasExceptions() )
-            {
-                return result;
-            }
+            return result;
+        }
 
-            result.setTopologicallySortedProjects( session.getProjects() );
+        result.setTopologicallySortedProjects( session.getProjects() );
 
-            result.setProject( session.getTopLevelProject() );
+        result.setProject( session.getTopLevelProject() );
 
+        buildDurationHistory.load( session );
+        try
+        {
             lifecycleStarter.execute( session );
-
-            validateActivatedProfiles( session.getProjects(), request.getActiveProfiles() );
-
-            if ( session.getResult().hasExceptions() )
-            {
-                return addExceptionToResult( result, session.getResult().getExceptions().get( 0 ) );
-            }
         }
         finally
         {
-            try
-            {
-                afterSessionEnd( session.getProjects(), session );
-            }
-            catch ( MavenExecutionException e )
-            {
-                return addExceptionToResult( result, e );
-            }
+            buildDurationHistory.save( session );
+        }
+
+        validateActivatedProfiles( session.getProjects(), request.getActiveProfiles() );
+
+        if ( session.getResult().hasExceptions() )
+        {
+            return addExceptionToResult( result, session.getResult().getExceptions().get( 0 ) );
         }
 
         return result;
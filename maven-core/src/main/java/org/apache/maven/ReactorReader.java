@@ -57,6 +57,8 @@
     private static final Collection<String> COMPILE_PHASE_TYPES =
         Arrays.asList( "jar", "ejb-client", "war", "rar", "ejb3", "par", "sar", "wsr", "har", "app-client" );
 
+    private MavenSession session;
+
     private Map<String, MavenProject> projectsByGAV;
 
     private Map<String, List<MavenProject>> projectsByGA;
@@ -66,6 +68,8 @@
     @Inject
     public ReactorReader( MavenSession session )
     {
+        this.session = session;
+
         projectsByGAV = session.getProjectMap();
 
         projectsByGA = new HashMap<>( projectsByGAV.size() * 2 );
@@ -197,8 +201,16 @@ private boolean hasArtifactFileFromPackagePhase( Artifact projectArtifact )
 
     private boolean hasBeenPackaged( MavenProject project )
     {
-        return project.hasLifecyclePhase( "package" ) || project.hasLifecyclePhase( "install" )
-            || project.hasLifecyclePhase( "deploy" );
+        if ( !project.hasLifecyclePhase( "package" ) && !project.hasLifecyclePhase( "install" )
+            && !project.hasLifecyclePhase( "deploy" ) )
+        {
+            return false;
+        }
+
+        // a project that is still being built, e.g. by the pipelined builder, may have entered the package phase
+        // without having created its artifact yet, so keep using its loose class files until either is done
+        return ( project.getArtifact() != null && project.getArtifact().getFile() != null )
+            || session.getResult().getBuildSummary( project ) != null;
     }
 
     /**
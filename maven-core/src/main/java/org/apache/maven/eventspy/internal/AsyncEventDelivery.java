@@ -0,0 +1,230 @@
+package org.apache.maven.eventspy.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers events to the event spies on a dedicated consumer thread. Build threads only publish the events into a
+ * bounded {@link EventRingBuffer}, the consumer takes them out in publication order and passes each event to all spies
+ * before moving on to the next one, so every spy observes the events in the same order as with synchronous dispatch.
+ *
+ * @since 3.4.0
+ */
+class AsyncEventDelivery
+    implements Runnable
+{
+
+    /**
+     * Controls what happens to an event when the buffer is full.
+     */
+    enum Overflow
+    {
+        /**
+         * The publishing thread waits until the consumer freed a slot.
+         */
+        BLOCK,
+
+        /**
+         * The event is discarded.
+         */
+        DROP,
+
+        /**
+         * Once the buffer is more than half full, only every {@link AsyncEventDelivery#SAMPLE_RATE}th event is
+         * accepted, the others are discarded, and events are discarded altogether when the buffer is full.
+         */
+        SAMPLE;
+
+        static Overflow valueOf( String value, Overflow defaultValue )
+        {
+            return ( value != null ) ? valueOf( value.trim().toUpperCase( Locale.ENGLISH ) ) : defaultValue;
+        }
+    }
+
+    static final int SAMPLE_RATE = 10;
+
+    interface Consumer
+    {
+        void deliver( Object event );
+    }
+
+    private final EventRingBuffer buffer;
+
+    private final Overflow overflow;
+
+    private final Consumer consumer;
+
+    /**
+     * The events that spies published from the consumer thread while the buffer was full, only accessed by the
+     * consumer thread.
+     */
+    private final Queue<Reentrant> reentrant = new ArrayDeque<>();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong sampled = new AtomicLong();
+
+    private volatile Thread thread;
+
+    private volatile boolean waiting;
+
+    private volatile boolean closed;
+
+    AsyncEventDelivery( int capacity, Overflow overflow, Consumer consumer )
+    {
+        this.buffer = new EventRingBuffer( capacity );
+        this.overflow = overflow;
+        this.consumer = consumer;
+    }
+
+    public void start()
+    {
+        Thread thread = new Thread( this, "maven-event-spy-dispatcher" );
+        thread.setDaemon( true );
+        this.thread = thread;
+        thread.start();
+    }
+
+    public void publish( Object event )
+    {
+        if ( closed )
+        {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        if ( overflow == Overflow.SAMPLE && buffer.size() > buffer.capacity() / 2
+            && sampled.incrementAndGet() % SAMPLE_RATE != 0 )
+        {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        while ( !buffer.offer( event ) )
+        {
+            if ( overflow != Overflow.BLOCK || closed )
+            {
+                dropped.incrementAndGet();
+                return;
+            }
+            if ( Thread.currentThread() == thread )
+            {
+                // a spy published while being notified, waiting for ourselves to free a slot would never end, so
+                // queue the event behind those that already claimed a slot to keep the order of publication
+                reentrant.add( new Reentrant( buffer.tail(), event ) );
+                return;
+            }
+            LockSupport.parkNanos( 10000L );
+        }
+
+        if ( waiting )
+        {
+            LockSupport.unpark( thread );
+        }
+    }
+
+    public long getDroppedEvents()
+    {
+        return dropped.get();
+    }
+
+    @Override
+    public void run()
+    {
+        while ( true )
+        {
+            Object event = next();
+            if ( event == null )
+            {
+                waiting = true;
+                event = next();
+                if ( event == null )
+                {
+                    if ( closed )
+                    {
+                        waiting = false;
+                        return;
+                    }
+                    LockSupport.park( this );
+                }
+                waiting = false;
+            }
+            if ( event != null )
+            {
+                consumer.deliver( event );
+            }
+        }
+    }
+
+    /**
+     * Delivers all pending events and stops the consumer thread.
+     */
+    public void close()
+        throws InterruptedException
+    {
+        closed = true;
+        Thread thread = this.thread;
+        if ( thread != null )
+        {
+            LockSupport.unpark( thread );
+            thread.join();
+        }
+        // pick up events that were published while the consumer was shutting down
+        for ( Object event = next(); event != null; event = next() )
+        {
+            consumer.deliver( event );
+        }
+    }
+
+    private Object next()
+    {
+        Reentrant pending = reentrant.peek();
+        if ( pending != null && pending.position <= buffer.head() )
+        {
+            reentrant.remove();
+            return pending.event;
+        }
+        return buffer.poll();
+    }
+
+    /**
+     * An event published by the consumer thread that is due once the buffer delivered everything before its position.
+     */
+    private static final class Reentrant
+    {
+
+        final long position;
+
+        final Object event;
+
+        Reentrant( long position, Object event )
+        {
+            this.position = position;
+            this.event = event;
+        }
+
+    }
+
+}
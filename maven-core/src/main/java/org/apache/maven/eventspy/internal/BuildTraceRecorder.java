@@ -0,0 +1,395 @@
+package org.apache.maven.eventspy.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.DependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.WriterFactory;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.repository.ArtifactRepository;
+
+/**
+ * Records the timing of the build from the execution and repository events and writes it as a JSON file in the
+ * Chrome trace event format, which can be loaded into timeline viewers like {@code chrome://tracing}. Each thread
+ * records into its own buffer of primitive arrays, an event only stores its timestamp and references to objects that
+ * exist anyway, and the names are formatted when the trace is written.
+ *
+ * @since 3.4.0
+ */
+class BuildTraceRecorder
+{
+
+    /**
+     * The name of the property holding the path of the trace file to write, tracing is disabled if not set.
+     */
+    static final String FILE_PROPERTY = "maven.trace.file";
+
+    private static final int MAX_EVENTS_PER_THREAD = 1 << 20;
+
+    private static final byte SESSION = 0;
+
+    private static final byte PROJECT = 1;
+
+    private static final byte MOJO = 2;
+
+    private static final byte DEPENDENCIES = 3;
+
+    private static final byte TRANSFER = 4;
+
+    private static final String[] CATEGORIES = { "session", "project", "mojo", "dependencies", "transfer" };
+
+    private static final byte BEGIN = 'B';
+
+    private static final byte END = 'E';
+
+    private static final byte ASYNC_BEGIN = 'b';
+
+    private static final byte ASYNC_END = 'e';
+
+    private static final byte INSTANT = 'i';
+
+    private final File file;
+
+    private final long start = System.nanoTime();
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    private final Queue<ThreadBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<ThreadBuffer> buffer = new ThreadLocal<ThreadBuffer>()
+    {
+        @Override
+        protected ThreadBuffer initialValue()
+        {
+            ThreadBuffer buffer = new ThreadBuffer( threadIds.incrementAndGet(), Thread.currentThread().getName() );
+            buffers.add( buffer );
+            return buffer;
+        }
+    };
+
+    BuildTraceRecorder( File file )
+    {
+        this.file = file;
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Records the given event if it is relevant for the timeline.
+     *
+     * @param event The event, must not be {@code null}.
+     */
+    public void record( Object event )
+    {
+        if ( event instanceof ExecutionEvent )
+        {
+            record( (ExecutionEvent) event );
+        }
+        else if ( event instanceof RepositoryEvent )
+        {
+            record( (RepositoryEvent) event );
+        }
+        else if ( event instanceof DependencyResolutionRequest )
+        {
+            // no result is reported when the resolution fails, hence an async span that may stay open
+            ThreadBuffer thread = buffer.get();
+            thread.resolving = ( (DependencyResolutionRequest) event ).getMavenProject();
+            thread.add( System.nanoTime(), ASYNC_BEGIN, DEPENDENCIES, thread.resolving, null );
+        }
+        else if ( event instanceof DependencyResolutionResult )
+        {
+            ThreadBuffer thread = buffer.get();
+            boolean failed = !( (DependencyResolutionResult) event ).getCollectionErrors().isEmpty();
+            thread.add( System.nanoTime(), ASYNC_END, DEPENDENCIES, thread.resolving, failed ? Boolean.TRUE : null );
+            thread.resolving = null;
+        }
+    }
+
+    private void record( ExecutionEvent event )
+    {
+        switch ( event.getType() )
+        {
+            case SessionStarted:
+                add( BEGIN, SESSION, null, null );
+                break;
+            case SessionEnded:
+                add( END, SESSION, null, null );
+                break;
+            case ProjectStarted:
+                add( BEGIN, PROJECT, event.getProject(), null );
+                break;
+            case ProjectSucceeded:
+                add( END, PROJECT, event.getProject(), null );
+                break;
+            case ProjectFailed:
+                add( END, PROJECT, event.getProject(), Boolean.TRUE );
+                break;
+            case ProjectSkipped:
+                add( INSTANT, PROJECT, event.getProject(), null );
+                break;
+            case MojoStarted:
+                add( BEGIN, MOJO, event.getMojoExecution(), event.getProject() );
+                break;
+            case MojoSucceeded:
+                add( END, MOJO, event.getMojoExecution(), null );
+                break;
+            case MojoFailed:
+                add( END, MOJO, event.getMojoExecution(), Boolean.TRUE );
+                break;
+            default:
+        }
+    }
+
+    private void record( RepositoryEvent event )
+    {
+        switch ( event.getType() )
+        {
+            case ARTIFACT_DOWNLOADING:
+                add( ASYNC_BEGIN, TRANSFER, event.getArtifact(), event.getRepository() );
+                break;
+            case ARTIFACT_DOWNLOADED:
+                add( ASYNC_END, TRANSFER, event.getArtifact(), ( event.getException() != null ) ? Boolean.TRUE : null );
+                break;
+            case METADATA_DOWNLOADING:
+                add( ASYNC_BEGIN, TRANSFER, event.getMetadata(), event.getRepository() );
+                break;
+            case METADATA_DOWNLOADED:
+                add( ASYNC_END, TRANSFER, event.getMetadata(), ( event.getException() != null ) ? Boolean.TRUE : null );
+                break;
+            default:
+        }
+    }
+
+    private void add( byte phase, byte category, Object subject, Object detail )
+    {
+        buffer.get().add( System.nanoTime(), phase, category, subject, detail );
+    }
+
+    /**
+     * Writes the recorded events to the trace file. Must only be called once the build threads stopped recording.
+     *
+     * @throws IOException If the trace file could not be written.
+     */
+    public void write()
+        throws IOException
+    {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if ( parent != null )
+        {
+            parent.mkdirs();
+        }
+
+        Writer writer = null;
+        try
+        {
+            writer = WriterFactory.newWriter( file, "UTF-8" );
+            StringBuilder buffer = new StringBuilder( 256 );
+            writer.write( "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n" );
+            boolean first = true;
+            for ( ThreadBuffer thread : buffers )
+            {
+                buffer.setLength( 0 );
+                buffer.append( first ? "" : ",\n" );
+                buffer.append( "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" ).append( thread.id );
+                buffer.append( ",\"args\":{\"name\":" );
+                appendString( buffer, thread.name ).append( "}}" );
+                writer.write( buffer.toString() );
+                first = false;
+
+                int size = thread.size;
+                for ( int i = 0; i < size; i++ )
+                {
+                    buffer.setLength( 0 );
+                    appendEvent( buffer.append( ",\n" ), thread, i );
+                    writer.write( buffer.toString() );
+                }
+            }
+            writer.write( "\n]}\n" );
+            writer.close();
+            writer = null;
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    private void appendEvent( StringBuilder buffer, ThreadBuffer thread, int index )
+    {
+        byte phase = thread.phases[index];
+        byte category = thread.categories[index];
+        Object subject = thread.subjects[index];
+        Object detail = thread.details[index];
+
+        buffer.append( "{\"ph\":\"" ).append( (char) phase ).append( "\",\"cat\":\"" );
+        buffer.append( CATEGORIES[category] ).append( "\",\"pid\":1,\"tid\":" ).append( thread.id );
+        long time = thread.times[index] - start;
+        buffer.append( ",\"ts\":" ).append( time / 1000 ).append( '.' );
+        buffer.append( (char) ( '0' + time % 1000 / 100 ) ).append( (char) ( '0' + time % 100 / 10 ) );
+        buffer.append( (char) ( '0' + time % 10 ) );
+        if ( phase == INSTANT )
+        {
+            buffer.append( ",\"s\":\"t\"" );
+        }
+
+        String name = getName( category, subject );
+        if ( name != null )
+        {
+            buffer.append( ",\"name\":" );
+            appendString( buffer, name );
+            if ( phase == ASYNC_BEGIN || phase == ASYNC_END )
+            {
+                buffer.append( ",\"id\":" );
+                appendString( buffer, name );
+            }
+        }
+
+        buffer.append( ",\"args\":{" );
+        if ( detail == Boolean.TRUE )
+        {
+            buffer.append( "\"failed\":true" );
+        }
+        else if ( detail instanceof MavenProject )
+        {
+            buffer.append( "\"project\":" );
+            appendString( buffer, ( (MavenProject) detail ).getId() );
+        }
+        else if ( detail instanceof ArtifactRepository )
+        {
+            buffer.append( "\"repository\":" );
+            appendString( buffer, ( (ArtifactRepository) detail ).getId() );
+        }
+        buffer.append( "}}" );
+    }
+
+    private static String getName( byte category, Object subject )
+    {
+        if ( subject instanceof MavenProject )
+        {
+            MavenProject project = (MavenProject) subject;
+            return ( category == DEPENDENCIES ) ? "dependencies " + project.getId() : project.getId();
+        }
+        else if ( subject instanceof MojoExecution )
+        {
+            MojoExecution execution = (MojoExecution) subject;
+            return execution.getArtifactId() + ':' + execution.getGoal() + " (" + execution.getExecutionId() + ')';
+        }
+        else if ( subject != null )
+        {
+            return subject.toString();
+        }
+        return ( category == SESSION ) ? "session" : null;
+    }
+
+    private static StringBuilder appendString( StringBuilder buffer, String value )
+    {
+        buffer.append( '"' );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            if ( c == '"' || c == '\\' )
+            {
+                buffer.append( '\\' ).append( c );
+            }
+            else if ( c < ' ' )
+            {
+                buffer.append( "\\u00" ).append( Character.forDigit( c >> 4, 16 ) );
+                buffer.append( Character.forDigit( c & 0x0F, 16 ) );
+            }
+            else
+            {
+                buffer.append( c );
+            }
+        }
+        return buffer.append( '"' );
+    }
+
+    /**
+     * The events recorded by a single thread, kept in parallel arrays to avoid an object per event.
+     */
+    private static final class ThreadBuffer
+    {
+
+        final int id;
+
+        final String name;
+
+        long[] times = new long[256];
+
+        byte[] phases = new byte[256];
+
+        byte[] categories = new byte[256];
+
+        Object[] subjects = new Object[256];
+
+        Object[] details = new Object[256];
+
+        volatile int size;
+
+        MavenProject resolving;
+
+        ThreadBuffer( int id, String name )
+        {
+            this.id = id;
+            this.name = name;
+        }
+
+        void add( long time, byte phase, byte category, Object subject, Object detail )
+        {
+            int index = size;
+            if ( index >= times.length )
+            {
+                if ( index >= MAX_EVENTS_PER_THREAD )
+                {
+                    return;
+                }
+                int capacity = index * 2;
+                times = Arrays.copyOf( times, capacity );
+                phases = Arrays.copyOf( phases, capacity );
+                categories = Arrays.copyOf( categories, capacity );
+                subjects = Arrays.copyOf( subjects, capacity );
+                details = Arrays.copyOf( details, capacity );
+            }
+            times[index] = time;
+            phases[index] = phase;
+            categories[index] = category;
+            subjects[index] = subject;
+            details[index] = detail;
+            size = index + 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.apache.maven.eventspy.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free ring buffer that accepts elements from any number of threads and hands them to a single
+ * consumer in the order in which they were claimed. Each slot carries a sequence number that tells producers when the
+ * slot is free again and the consumer when the slot has been published.
+ *
+ * @since 3.4.0
+ */
+class EventRingBuffer
+{
+
+    private final int mask;
+
+    private final AtomicReferenceArray<Object> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile long head;
+
+    EventRingBuffer( int capacity )
+    {
+        int size = Integer.highestOneBit( Math.max( 2, capacity - 1 ) ) << 1;
+        mask = size - 1;
+        elements = new AtomicReferenceArray<>( size );
+        sequences = new AtomicLongArray( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            sequences.set( i, i );
+        }
+    }
+
+    public int capacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the approximate number of elements that are waiting for the consumer.
+     */
+    public int size()
+    {
+        long size = tail.get() - head;
+        return (int) Math.max( 0, Math.min( size, capacity() ) );
+    }
+
+    /**
+     * Gets the position of the next element that will be claimed by a producer.
+     */
+    public long tail()
+    {
+        return tail.get();
+    }
+
+    /**
+     * Gets the position of the next element that will be removed by the consumer.
+     */
+    public long head()
+    {
+        return head;
+    }
+
+    /**
+     * Adds the element to the buffer, unless the buffer is full.
+     *
+     * @param element The element to add, must not be {@code null}.
+     * @return {@code true} if the element was added, {@code false} if the buffer is full.
+     */
+    public boolean offer( Object element )
+    {
+        while ( true )
+        {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get( index );
+            if ( sequence == position )
+            {
+                if ( tail.compareAndSet( position, position + 1 ) )
+                {
+                    elements.lazySet( index, element );
+                    sequences.set( index, position + 1 );
+                    return true;
+                }
+            }
+            else if ( sequence < position )
+            {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes the next element from the buffer. Must only be called by the consumer thread.
+     *
+     * @return The next element or {@code null} if no element has been published yet.
+     */
+    public Object poll()
+    {
+        long position = head;
+        int index = (int) position & mask;
+        if ( sequences.get( index ) != position + 1 )
+        {
+            return null;
+        }
+        Object element = elements.get( index );
+        elements.lazySet( index, null );
+        head = position + 1;
+        sequences.set( index, position + capacity() );
+        return element;
+    }
+
+}
@@ -19,10 +19,15 @@
  * under the License.
  */
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import org.apache.maven.eventspy.EventSpy;
+import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.ExecutionListener;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
@@ -37,12 +42,35 @@
 public class EventSpyDispatcher
 {
 
+    /**
+     * The name of the property that selects how events are dispatched, either {@code sync} (the default) to notify
+     * the spies on the calling thread or {@code async} to notify them on a dedicated consumer thread.
+     */
+    static final String DISPATCH_PROPERTY = "maven.eventspy.dispatch";
+
+    /**
+     * The name of the property that configures the capacity of the event buffer for asynchronous dispatch.
+     */
+    static final String QUEUE_SIZE_PROPERTY = "maven.eventspy.queueSize";
+
+    /**
+     * The name of the property that selects the overflow behavior for asynchronous dispatch, one of {@code block}
+     * (the default), {@code drop} or {@code sample}.
+     */
+    static final String OVERFLOW_PROPERTY = "maven.eventspy.overflow";
+
+    private static final int DEFAULT_QUEUE_SIZE = 8192;
+
     @Requirement
     private Logger logger;
 
     @Requirement( role = EventSpy.class )
     private List<EventSpy> eventSpies;
 
+    private AsyncEventDelivery asyncDelivery;
+
+    private volatile BuildTraceRecorder traceRecorder;
+
     public void setEventSpies( List<EventSpy> eventSpies )
     {
         // make copy to get rid of needless overhead for dynamic lookups
@@ -56,7 +84,7 @@ public List<EventSpy> getEventSpies()
 
     public ExecutionListener chainListener( ExecutionListener listener )
     {
-        if ( eventSpies.isEmpty() )
+        if ( eventSpies.isEmpty() && traceRecorder == null )
         {
             return listener;
         }
@@ -65,7 +93,7 @@ public ExecutionListener chainListener( ExecutionListener listener )
 
     public RepositoryListener chainListener( RepositoryListener listener )
     {
-        if ( eventSpies.isEmpty() )
+        if ( eventSpies.isEmpty() && traceRecorder == null )
         {
             return listener;
         }
@@ -74,6 +102,20 @@ public RepositoryListener chainListener( RepositoryListener listener )
 
     public void init( EventSpy.Context context )
     {
+        // the dispatcher is reused by resident containers, so drop the recorder of an earlier invocation
+        traceRecorder = null;
+        String traceFile = getProperty( context, BuildTraceRecorder.FILE_PROPERTY );
+        if ( traceFile != null && traceFile.length() > 0 )
+        {
+            File file = new File( traceFile );
+            Object workingDirectory = context.getData().get( "workingDirectory" );
+            if ( !file.isAbsolute() && workingDirectory != null )
+            {
+                file = new File( workingDirectory.toString(), traceFile );
+            }
+            traceRecorder = new BuildTraceRecorder( file );
+        }
+
         if ( eventSpies.isEmpty() )
         {
             return;
@@ -89,14 +131,87 @@ public void init( EventSpy.Context context )
                 logError( "initialize", e, eventSpy );
             }
         }
+
+        if ( "async".equalsIgnoreCase( getProperty( context, DISPATCH_PROPERTY ) ) )
+        {
+            AsyncEventDelivery.Overflow overflow;
+            int queueSize;
+            try
+            {
+                overflow =
+                    AsyncEventDelivery.Overflow.valueOf( getProperty( context, OVERFLOW_PROPERTY ),
+                                                         AsyncEventDelivery.Overflow.BLOCK );
+                String size = getProperty( context, QUEUE_SIZE_PROPERTY );
+                queueSize = ( size != null ) ? Integer.parseInt( size.trim() ) : DEFAULT_QUEUE_SIZE;
+            }
+            catch ( IllegalArgumentException e )
+            {
+                logger.warn( "Invalid event spy dispatch configuration, falling back to synchronous dispatch: "
+                    + e.getMessage() );
+                return;
+            }
+
+            asyncDelivery = new AsyncEventDelivery( queueSize, overflow, new AsyncEventDelivery.Consumer()
+            {
+                @Override
+                public void deliver( Object event )
+                {
+                    notifySpies( event );
+                }
+            } );
+            asyncDelivery.start();
+        }
+    }
+
+    private static String getProperty( EventSpy.Context context, String key )
+    {
+        Map<String, Object> data = context.getData();
+        for ( String properties : new String[] { "userProperties", "systemProperties" } )
+        {
+            Object props = data.get( properties );
+            if ( props instanceof Properties && ( (Properties) props ).getProperty( key ) != null )
+            {
+                return ( (Properties) props ).getProperty( key );
+            }
+        }
+        return null;
     }
 
     public void onEvent( Object event )
     {
+        BuildTraceRecorder recorder = traceRecorder;
+        if ( recorder != null )
+        {
+            recorder.record( event );
+            if ( event instanceof ExecutionEvent
+                && ( (ExecutionEvent) event ).getType() == ExecutionEvent.Type.SessionEnded )
+            {
+                // the recorder references the projects of the build, don't keep them alive in a resident container
+                traceRecorder = null;
+                writeTrace( recorder );
+            }
+        }
         if ( eventSpies.isEmpty() )
         {
             return;
         }
+        if ( asyncDelivery != null )
+        {
+            if ( event instanceof ExecutionEvent )
+            {
+                // the current project of the session changes before the consumer gets to the event
+                event = new ExecutionEventSnapshot( (ExecutionEvent) event );
+            }
+            asyncDelivery.publish( event );
+        }
+        else
+        {
+            notifySpies( event );
+        }
+    }
+
+    private void notifySpies( Object event )
+    {
         for ( EventSpy eventSpy : eventSpies )
         {
             try
@@ -110,12 +225,43 @@ public void onEvent( Object event )
         }
     }
 
+    private void writeTrace( BuildTraceRecorder recorder )
+    {
+        try
+        {
+            recorder.write();
+            logger.info( "Build trace written to " + recorder.getFile() );
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Failed to write build trace " + recorder.getFile() + ": " + e.getMessage() );
+        }
+    }
+
     public void close()
     {
+        traceRecorder = null;
         if ( eventSpies.isEmpty() )
         {
             return;
         }
+        if ( asyncDelivery != null )
+        {
+            try
+            {
+                asyncDelivery.close();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            if ( asyncDelivery.getDroppedEvents() > 0 )
+            {
+                logger.warn( "Event spies missed " + asyncDelivery.getDroppedEvents()
+                    + " events because the event buffer was full" );
+            }
+            asyncDelivery = null;
+        }
         for ( EventSpy eventSpy : eventSpies )
         {
             try
@@ -0,0 +1,96 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Keeps the build durations of projects and mojo executions across builds so that the cost of a project can be
+ * estimated before it is built. The history of a reactor is stored in the build directory of its top-level project and
+ * holds a rolling average of the recent builds for every project and mojo execution. Recording is opt-in and enabled
+ * by setting the user or system property {@value #ENABLED_PROPERTY} to {@code true}. <strong>Warning:</strong> This is
+ * an internal utility interface that is only public for technical reasons, it is not part of the public API. In
+ * particular, this interface can be changed or deleted without prior notice.
+ *
+ * @since 3.4.0
+ */
+public interface BuildDurationHistory
+{
+
+    /**
+     * The name of the property that enables the build duration history.
+     */
+    String ENABLED_PROPERTY = "maven.buildDurationHistory";
+
+    /**
+     * Loads the history of the reactor of the specified session. The loaded history is attached to the session, so
+     * several sessions can be active in the same container at the same time.
+     *
+     * @param session The session being started, must not be {@code null}.
+     */
+    void load( MavenSession session );
+
+    /**
+     * Indicates whether durations are recorded for the specified session.
+     *
+     * @param session The session, must not be {@code null}.
+     * @return {@code true} if the history is enabled for the session, {@code false} otherwise.
+     */
+    boolean isEnabled( MavenSession session );
+
+    /**
+     * Gets the average build duration of the specified project.
+     *
+     * @param session The session, must not be {@code null}.
+     * @param project The project, must not be {@code null}.
+     * @return The average build duration in milliseconds or {@code null} if unknown.
+     */
+    Long getProjectDuration( MavenSession session, MavenProject project );
+
+    /**
+     * Gets the average duration of the specified mojo execution within the specified project.
+     *
+     * @param session The session, must not be {@code null}.
+     * @param project The project, must not be {@code null}.
+     * @param mojoExecution The mojo execution, must not be {@code null}.
+     * @return The average execution duration in milliseconds or {@code null} if unknown.
+     */
+    Long getMojoDuration( MavenSession session, MavenProject project, MojoExecution mojoExecution );
+
+    /**
+     * Records the duration of a successful mojo execution. This method may be called concurrently.
+     *
+     * @param session The session, must not be {@code null}.
+     * @param project The project, must not be {@code null}.
+     * @param mojoExecution The mojo execution, must not be {@code null}.
+     * @param time The execution duration in milliseconds.
+     */
+    void recordMojoDuration( MavenSession session, MavenProject project, MojoExecution mojoExecution, long time );
+
+    /**
+     * Merges the durations of the successfully built projects and the recorded mojo executions into the history and
+     * writes it back to disk. The history is detached from the session afterwards.
+     *
+     * @param session The session being finished, must not be {@code null}.
+     */
+    void save( MavenSession session );
+
+}
@@ -0,0 +1,306 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Stores the build duration history as a properties file in the build directory of the top-level project. Each entry
+ * maps a project or mojo execution key to its average duration and the number of builds that contributed to it. The
+ * average is a rolling one: once {@link #WINDOW} builds have been recorded, every new sample replaces a
+ * {@code 1/WINDOW} share of the average so that old builds fade out.
+ *
+ * @since 3.4.0
+ */
+@Component( role = BuildDurationHistory.class )
+public class DefaultBuildDurationHistory
+    implements BuildDurationHistory
+{
+
+    static final String FILE_NAME = "maven-status/build-durations.properties";
+
+    static final int WINDOW = 10;
+
+    private static final String STATE_KEY = DefaultBuildDurationHistory.class.getName();
+
+    @Requirement
+    private Logger logger;
+
+    @Override
+    public void load( MavenSession session )
+    {
+        Map<String, Object> data = session.getRequest().getData();
+        data.remove( STATE_KEY );
+
+        File file = getHistoryFile( session );
+        if ( file == null )
+        {
+            return;
+        }
+
+        Map<String, Duration> history = new HashMap<>();
+        if ( file.isFile() )
+        {
+            Properties props = new Properties();
+            try ( InputStream is = Files.newInputStream( file.toPath() ) )
+            {
+                props.load( is );
+                for ( String key : props.stringPropertyNames() )
+                {
+                    Duration duration = Duration.parse( props.getProperty( key ) );
+                    if ( duration != null )
+                    {
+                        history.put( key, duration );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                warn( "Failed to read build duration history from " + file, e );
+                history.clear();
+            }
+        }
+
+        data.put( STATE_KEY, new State( file, history ) );
+    }
+
+    @Override
+    public boolean isEnabled( MavenSession session )
+    {
+        return getState( session ) != null;
+    }
+
+    @Override
+    public Long getProjectDuration( MavenSession session, MavenProject project )
+    {
+        return getDuration( session, getProjectKey( project ) );
+    }
+
+    @Override
+    public Long getMojoDuration( MavenSession session, MavenProject project, MojoExecution mojoExecution )
+    {
+        return getDuration( session, getMojoKey( project, mojoExecution ) );
+    }
+
+    private Long getDuration( MavenSession session, String key )
+    {
+        State state = getState( session );
+        Duration duration = state != null ? state.history.get( key ) : null;
+        return duration != null ? duration.average : null;
+    }
+
+    @Override
+    public void recordMojoDuration( MavenSession session, MavenProject project, MojoExecution mojoExecution,
+                                    long time )
+    {
+        State state = getState( session );
+        if ( state == null )
+        {
+            return;
+        }
+
+        // forked executions may run the same mojo execution more than once within a project
+        String key = getMojoKey( project, mojoExecution );
+        ConcurrentMap<String, Long> mojoDurations = state.mojoDurations;
+        Long previous = mojoDurations.putIfAbsent( key, time );
+        while ( previous != null && !mojoDurations.replace( key, previous, previous + time ) )
+        {
+            previous = mojoDurations.get( key );
+        }
+    }
+
+    @Override
+    public void save( MavenSession session )
+    {
+        State state = (State) session.getRequest().getData().remove( STATE_KEY );
+        if ( state == null )
+        {
+            return;
+        }
+
+        Map<String, Duration> updated = new HashMap<>( state.history );
+        for ( MavenProject project : session.getProjects() )
+        {
+            BuildSummary summary = session.getResult().getBuildSummary( project );
+            if ( summary instanceof BuildSuccess )
+            {
+                merge( updated, getProjectKey( project ), summary.getTime() );
+            }
+        }
+        for ( Map.Entry<String, Long> entry : state.mojoDurations.entrySet() )
+        {
+            merge( updated, entry.getKey(), entry.getValue() );
+        }
+
+        Properties props = new Properties();
+        for ( Map.Entry<String, Duration> entry : updated.entrySet() )
+        {
+            props.setProperty( entry.getKey(), entry.getValue().toString() );
+        }
+
+        File file = state.file;
+        try
+        {
+            Files.createDirectories( file.getParentFile().toPath() );
+            try ( OutputStream os = Files.newOutputStream( file.toPath() ) )
+            {
+                props.store( os, "Maven build duration history" );
+            }
+        }
+        catch ( IOException e )
+        {
+            warn( "Failed to write build duration history to " + file, e );
+        }
+    }
+
+    private static State getState( MavenSession session )
+    {
+        return (State) session.getRequest().getData().get( STATE_KEY );
+    }
+
+    private static void merge( Map<String, Duration> durations, String key, long time )
+    {
+        Duration duration = durations.get( key );
+        durations.put( key, duration != null ? duration.add( time ) : new Duration( time, 1 ) );
+    }
+
+    private File getHistoryFile( MavenSession session )
+    {
+        if ( !Boolean.parseBoolean( session.getUserProperties().getProperty( ENABLED_PROPERTY,
+                                     session.getSystemProperties().getProperty( ENABLED_PROPERTY ) ) ) )
+        {
+            return null;
+        }
+
+        MavenProject topLevelProject = session.getTopLevelProject();
+        if ( topLevelProject == null || topLevelProject.getBuild() == null
+            || topLevelProject.getBuild().getDirectory() == null )
+        {
+            return null;
+        }
+
+        return new File( topLevelProject.getBuild().getDirectory(), FILE_NAME );
+    }
+
+    static String getProjectKey( MavenProject project )
+    {
+        return project.getGroupId() + ':' + project.getArtifactId();
+    }
+
+    static String getMojoKey( MavenProject project, MojoExecution mojoExecution )
+    {
+        return getProjectKey( project ) + '/' + mojoExecution.getArtifactId() + ':' + mojoExecution.getGoal() + '@'
+            + mojoExecution.getExecutionId();
+    }
+
+    private void warn( String message, IOException e )
+    {
+        if ( logger.isDebugEnabled() )
+        {
+            logger.warn( message + ": " + e.getMessage(), e );
+        }
+        else
+        {
+            logger.warn( message + ": " + e.getMessage() );
+        }
+    }
+
+    /**
+     * The history of one session, kept in the data of its execution request so that concurrent sessions in the same
+     * container do not see each other's durations.
+     */
+    static final class State
+    {
+
+        final File file;
+
+        final Map<String, Duration> history;
+
+        final ConcurrentMap<String, Long> mojoDurations = new ConcurrentHashMap<>();
+
+        State( File file, Map<String, Duration> history )
+        {
+            this.file = file;
+            this.history = history;
+        }
+
+    }
+
+    static final class Duration
+    {
+
+        final long average;
+
+        final int count;
+
+        Duration( long average, int count )
+        {
+            this.average = average;
+            this.count = count;
+        }
+
+        Duration add( long time )
+        {
+            int n = Math.min( count + 1, WINDOW );
+            return new Duration( average + ( time - average ) / n, count < Integer.MAX_VALUE ? count + 1 : count );
+        }
+
+        static Duration parse( String value )
+        {
+            int comma = value.indexOf( ',' );
+            try
+            {
+                if ( comma < 0 )
+                {
+                    return new Duration( Long.parseLong( value.trim() ), 1 );
+                }
+                return new Duration( Long.parseLong( value.substring( 0, comma ).trim() ),
+                                     Integer.parseInt( value.substring( comma + 1 ).trim() ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return average + "," + count;
+        }
+
+    }
+
+}
@@ -20,10 +20,13 @@
  */
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.maven.execution.ProjectDependencyGraph;
@@ -33,7 +36,10 @@
 import org.codehaus.plexus.util.dag.CycleDetectedException;
 
 /**
- * Describes the inter-dependencies between projects in the reactor.
+ * Describes the inter-dependencies between projects in the reactor. The dependencies are indexed by the position of the
+ * projects in the build order when the graph is created, the transitive closures are kept as bit sets. The lists
+ * behind {@link #getUpstreamProjects(MavenProject, boolean)} and {@link #getDownstreamProjects(MavenProject, boolean)}
+ * are computed once per project, callers get a modifiable copy of them.
  *
  * @author Benjamin Bentmann
  */
@@ -41,7 +47,21 @@
     implements ProjectDependencyGraph
 {
 
-    private ProjectSorter sorter;
+    private final List<MavenProject> sortedProjects;
+
+    private final Map<MavenProject, Integer> indices;
+
+    private final List<List<MavenProject>> upstreamProjects;
+
+    private final List<List<MavenProject>> downstreamProjects;
+
+    private final BitSet[] transitiveUpstream;
+
+    private final BitSet[] transitiveDownstream;
+
+    private final AtomicReferenceArray<List<MavenProject>> transitiveUpstreamProjects;
+
+    private final AtomicReferenceArray<List<MavenProject>> transitiveDownstreamProjects;
 
     /**
      * Creates a new project dependency graph based on the specified projects.
@@ -53,77 +73,155 @@
     public DefaultProjectDependencyGraph( Collection<MavenProject> projects )
         throws CycleDetectedException, DuplicateProjectException
     {
-        this.sorter = new ProjectSorter( projects );
+        ProjectSorter sorter = new ProjectSorter( projects );
+
+        this.sortedProjects = Collections.unmodifiableList( new ArrayList<>( sorter.getSortedProjects() ) );
+
+        int size = sortedProjects.size();
+
+        Map<String, Integer> ids = new HashMap<>( size * 2 );
+        this.indices = new HashMap<>( size * 2 );
+        for ( int i = 0; i < size; i++ )
+        {
+            MavenProject project = sortedProjects.get( i );
+            ids.put( ProjectSorter.getId( project ), i );
+            indices.put( project, i );
+        }
+
+        BitSet[] upstream = new BitSet[size];
+        BitSet[] downstream = new BitSet[size];
+        for ( int i = 0; i < size; i++ )
+        {
+            upstream[i] = new BitSet( size );
+            downstream[i] = new BitSet( size );
+        }
+
+        for ( int i = 0; i < size; i++ )
+        {
+            for ( String id : sorter.getDependencies( ProjectSorter.getId( sortedProjects.get( i ) ) ) )
+            {
+                Integer j = ids.get( id );
+                if ( j != null )
+                {
+                    upstream[i].set( j );
+                    downstream[j].set( i );
+                }
+            }
+        }
+
+        this.upstreamProjects = new ArrayList<>( size );
+        this.downstreamProjects = new ArrayList<>( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            upstreamProjects.add( toProjects( upstream[i] ) );
+            downstreamProjects.add( toProjects( downstream[i] ) );
+        }
+
+        // the build order is a topological order, so the closures of the upstream projects are complete before a
+        // project and the closures of the downstream projects are complete after it
+        this.transitiveUpstream = new BitSet[size];
+        for ( int i = 0; i < size; i++ )
+        {
+            BitSet closure = (BitSet) upstream[i].clone();
+            for ( int j = upstream[i].nextSetBit( 0 ); j >= 0; j = upstream[i].nextSetBit( j + 1 ) )
+            {
+                closure.or( transitiveUpstream[j] );
+            }
+            transitiveUpstream[i] = closure;
+        }
+
+        this.transitiveDownstream = new BitSet[size];
+        for ( int i = size - 1; i >= 0; i-- )
+        {
+            BitSet closure = (BitSet) downstream[i].clone();
+            for ( int j = downstream[i].nextSetBit( 0 ); j >= 0; j = downstream[i].nextSetBit( j + 1 ) )
+            {
+                closure.or( transitiveDownstream[j] );
+            }
+            transitiveDownstream[i] = closure;
+        }
+
+        this.transitiveUpstreamProjects = new AtomicReferenceArray<>( size );
+        this.transitiveDownstreamProjects = new AtomicReferenceArray<>( size );
     }
 
     public List<MavenProject> getSortedProjects()
     {
-        return new ArrayList<>( sorter.getSortedProjects() );
+        return new ArrayList<>( sortedProjects );
     }
 
     public List<MavenProject> getDownstreamProjects( MavenProject project, boolean transitive )
     {
         Validate.notNull( project, "project cannot be null" );
 
-        Set<String> projectIds = new HashSet<>();
-
-        getDownstreamProjects( ProjectSorter.getId( project ), projectIds, transitive );
-
-        return getSortedProjects( projectIds );
-    }
+        Integer index = indices.get( project );
+        if ( index == null )
+        {
+            return new ArrayList<>();
+        }
 
-    private void getDownstreamProjects( String projectId, Set<String> projectIds, boolean transitive )
-    {
-        for ( String id : sorter.getDependents( projectId ) )
+        if ( !transitive )
         {
-            if ( projectIds.add( id ) && transitive )
-            {
-                getDownstreamProjects( id, projectIds, transitive );
-            }
+            return new ArrayList<>( downstreamProjects.get( index ) );
         }
+
+        return new ArrayList<>( getProjects( transitiveDownstreamProjects, transitiveDownstream, index ) );
     }
 
     public List<MavenProject> getUpstreamProjects( MavenProject project, boolean transitive )
     {
         Validate.notNull( project, "project cannot be null" );
 
-        Set<String> projectIds = new HashSet<>();
+        Integer index = indices.get( project );
+        if ( index == null )
+        {
+            return new ArrayList<>();
+        }
 
-        getUpstreamProjects( ProjectSorter.getId( project ), projectIds, transitive );
+        if ( !transitive )
+        {
+            return new ArrayList<>( upstreamProjects.get( index ) );
+        }
 
-        return getSortedProjects( projectIds );
+        return new ArrayList<>( getProjects( transitiveUpstreamProjects, transitiveUpstream, index ) );
     }
 
-    private void getUpstreamProjects( String projectId, Collection<String> projectIds, boolean transitive )
+    private List<MavenProject> getProjects( AtomicReferenceArray<List<MavenProject>> projects, BitSet[] closures,
+                                            int index )
     {
-        for ( String id : sorter.getDependencies( projectId ) )
+        List<MavenProject> result = projects.get( index );
+
+        if ( result == null )
         {
-            if ( projectIds.add( id ) && transitive )
-            {
-                getUpstreamProjects( id, projectIds, transitive );
-            }
+            // racing threads compute equal lists, so it does not matter which one wins
+            result = toProjects( closures[index] );
+            projects.set( index, result );
         }
+
+        return result;
     }
 
-    private List<MavenProject> getSortedProjects( Set<String> projectIds )
+    private List<MavenProject> toProjects( BitSet bits )
     {
-        List<MavenProject> result = new ArrayList<>( projectIds.size() );
+        int count = bits.cardinality();
+        if ( count <= 0 )
+        {
+            return Collections.emptyList();
+        }
 
-        for ( MavenProject mavenProject : sorter.getSortedProjects() )
+        List<MavenProject> result = new ArrayList<>( count );
+        for ( int i = bits.nextSetBit( 0 ); i >= 0; i = bits.nextSetBit( i + 1 ) )
         {
-            if ( projectIds.contains( ProjectSorter.getId( mavenProject ) ) )
-            {
-                result.add( mavenProject );
-            }
+            result.add( sortedProjects.get( i ) );
         }
 
-        return result;
+        return Collections.unmodifiableList( result );
     }
 
     @Override
     public String toString()
     {
-        return sorter.getSortedProjects().toString();
+        return sortedProjects.toString();
     }
 
 }
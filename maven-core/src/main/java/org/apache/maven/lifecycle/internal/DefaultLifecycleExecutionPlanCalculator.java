@@ -124,11 +124,35 @@ public MavenExecutionPlan calculateExecutionPlan( MavenSession session, MavenPro
     {
         lifecyclePluginResolver.resolveMissingPluginVersions( project, session );
 
-        final List<MojoExecution> executions = calculateMojoExecutions( session, project, tasks );
+        ExecutionPlanTemplateCache templateCache = null;
+        ExecutionPlanTemplateCache.Key templateKey = null;
 
-        if ( setup )
+        if ( setup && isShareable( tasks ) )
         {
-            setupMojoExecutions( session, project, executions );
+            templateCache = ExecutionPlanTemplateCache.newInstance( session );
+        }
+
+        List<MojoExecution> executions = null;
+
+        if ( templateCache != null )
+        {
+            templateKey = templateCache.createKey( project, tasks );
+            executions = templateCache.get( templateKey, session, project, pluginManager );
+        }
+
+        if ( executions == null )
+        {
+            executions = calculateMojoExecutions( session, project, tasks );
+
+            if ( setup )
+            {
+                setupMojoExecutions( session, project, executions );
+            }
+
+            if ( templateCache != null && usesDefaultConfigurator( executions ) )
+            {
+                templateCache.put( templateKey, executions );
+            }
         }
 
         final List<ExecutionPlanItem> planItem = ExecutionPlanItem.createExecutionPlanItems( project, executions );
@@ -145,6 +169,45 @@ public MavenExecutionPlan calculateExecutionPlan( MavenSession session, MavenPro
         return calculateExecutionPlan( session, project, tasks, true );
     }
 
+    /**
+     * Tells whether the plan for the specified tasks can be shared between projects, i.e. whether no lifecycle of the
+     * tasks is mapped by a custom delegate which may consider arbitrary state of the project.
+     */
+    private boolean isShareable( List<Object> tasks )
+    {
+        for ( Object task : tasks )
+        {
+            if ( task instanceof LifecycleTask )
+            {
+                Lifecycle lifecycle = defaultLifeCycles.get( ( (LifecycleTask) task ).getLifecyclePhase() );
+
+                if ( lifecycle == null || getLifecycleMappingDelegate( lifecycle ) != standardDelegate )
+                {
+                    return false;
+                }
+            }
+            else if ( !( task instanceof GoalTask ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean usesDefaultConfigurator( List<MojoExecution> mojoExecutions )
+    {
+        MojoExecutionConfigurator defaultConfigurator = mojoExecutionConfigurators.get( "default" );
+
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            if ( mojoExecutionConfigurator( mojoExecution ) != defaultConfigurator )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void setupMojoExecutions( MavenSession session, MavenProject project, List<MojoExecution> mojoExecutions )
         throws PluginNotFoundException, PluginResolutionException, PluginDescriptorParsingException,
         MojoNotFoundException, InvalidPluginDescriptorException, NoPluginFoundForPrefixException,
@@ -249,6 +312,13 @@ private Map<String, List<MojoExecution>> calculateLifecycleMappings( MavenSessio
                 + defaultLifeCycles.getLifecyclePhaseList() + ".", lifecyclePhase );
         }
 
+        LifecycleMappingDelegate delegate = getLifecycleMappingDelegate( lifecycle );
+
+        return delegate.calculateLifecycleMappings( session, project, lifecycle, lifecyclePhase );
+    }
+
+    private LifecycleMappingDelegate getLifecycleMappingDelegate( Lifecycle lifecycle )
+    {
         LifecycleMappingDelegate delegate;
         if ( Arrays.binarySearch( DefaultLifecycles.STANDARD_LIFECYCLES, lifecycle.getId() ) >= 0 )
         {
@@ -262,8 +332,7 @@ private Map<String, List<MojoExecution>> calculateLifecycleMappings( MavenSessio
                 delegate = standardDelegate;
             }
         }
-
-        return delegate.calculateLifecycleMappings( session, project, lifecycle, lifecyclePhase );
+        return delegate;
     }
 
     /**
@@ -55,9 +55,23 @@
 
     private volatile int lastDependencyArtifactCount = -1;
 
+    private final Boolean aggregating;
+
     public DependencyContext( MavenProject project, Collection<String> scopesToCollect,
                               Collection<String> scopesToResolve )
     {
+        this( project, scopesToCollect, scopesToResolve, null );
+    }
+
+    /**
+     * @param aggregating Whether the first mojo that requires the dependencies of the current project is an
+     *            aggregator, may be {@code null} to use the flag of the mojo that happens to trigger the resolution.
+     * @since 3.4.0
+     */
+    public DependencyContext( MavenProject project, Collection<String> scopesToCollect,
+                              Collection<String> scopesToResolve, Boolean aggregating )
+    {
+        this.aggregating = aggregating;
         this.project = project;
         scopesToCollectForCurrentProject = scopesToCollect;
         scopesToResolveForCurrentProject = scopesToResolve;
@@ -70,6 +84,18 @@ public MavenProject getProject()
         return project;
     }
 
+    /**
+     * Tells whether the dependencies of the current project are resolved on behalf of an aggregator.
+     *
+     * @param defaultValue The value to use if the context was created without this information.
+     * @return {@code true} if the dependencies are resolved for an aggregator, {@code false} otherwise.
+     * @since 3.4.0
+     */
+    public boolean isAggregating( boolean defaultValue )
+    {
+        return ( aggregating != null ) ? aggregating : defaultValue;
+    }
+
     public Collection<String> getScopesToCollectForCurrentProject()
     {
         return scopesToCollectForCurrentProject;
@@ -0,0 +1,314 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.InvalidPluginDescriptorException;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoNotFoundException;
+import org.apache.maven.plugin.PluginDescriptorParsingException;
+import org.apache.maven.plugin.PluginNotFoundException;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Shares calculated execution plans between the projects of a build session. Within a session, the mojo executions
+ * of a plan are derived solely from the tasks, the packaging, the build plugins and plugin management (including
+ * their configurations), the build extensions, the project realm and the plugin repositories of a project, so
+ * projects that agree on these, e.g. because they share a parent, get copies of the plan calculated for the first of
+ * them. The mojo descriptors are looked up again for each project since they carry the plugin realm the project
+ * uses. Plans with forking mojos are not shared since their forked executions refer to specific projects.
+ *
+ * @since 3.4.0
+ */
+class ExecutionPlanTemplateCache
+{
+
+    /**
+     * The name of the configuration property that controls sharing execution plans between projects, disabled by
+     * default.
+     */
+    static final String ENABLED_PROPERTY = "maven.executionPlan.shareTemplates";
+
+    private static final Object STORE_KEY = ExecutionPlanTemplateCache.class.getName() + ".store";
+
+    private final ConcurrentMap<Key, List<Template>> store;
+
+    @SuppressWarnings( "unchecked" )
+    private ExecutionPlanTemplateCache( RepositorySystemSession session )
+    {
+        RepositoryCache cache = session.getCache();
+
+        synchronized ( cache )
+        {
+            Object store = cache.get( session, STORE_KEY );
+            if ( store == null )
+            {
+                store = new ConcurrentHashMap<Key, List<Template>>();
+                cache.put( session, STORE_KEY, store );
+            }
+            this.store = (ConcurrentMap<Key, List<Template>>) store;
+        }
+    }
+
+    public static ExecutionPlanTemplateCache newInstance( MavenSession session )
+    {
+        RepositorySystemSession repoSession = session.getRepositorySession();
+
+        if ( repoSession == null || repoSession.getCache() == null
+            || !ConfigUtils.getBoolean( repoSession, false, ENABLED_PROPERTY ) )
+        {
+            return null;
+        }
+        else
+        {
+            return new ExecutionPlanTemplateCache( repoSession );
+        }
+    }
+
+    public Key createKey( MavenProject project, List<Object> tasks )
+    {
+        return new Key( project, tasks );
+    }
+
+    /**
+     * Gets fresh copies of the mojo executions shared under the specified key, set up for the given project.
+     *
+     * @param key The key of the plan, must not be {@code null}.
+     * @param session The current build session, must not be {@code null}.
+     * @param project The project to get the plan for, must not be {@code null}.
+     * @param pluginManager The plugin manager to look up the mojo descriptors of the project with, must not be
+     *            {@code null}.
+     * @return The mojo executions or {@code null} if no plan has been shared yet.
+     */
+    public List<MojoExecution> get( Key key, MavenSession session, MavenProject project,
+                                    BuildPluginManager pluginManager )
+        throws PluginNotFoundException, PluginResolutionException, PluginDescriptorParsingException,
+        MojoNotFoundException, InvalidPluginDescriptorException
+    {
+        List<Template> templates = store.get( key );
+
+        if ( templates == null )
+        {
+            return null;
+        }
+
+        List<MojoExecution> mojoExecutions = new ArrayList<>( templates.size() );
+        for ( Template template : templates )
+        {
+            mojoExecutions.add( template.newMojoExecution( session, project, pluginManager ) );
+        }
+        return mojoExecutions;
+    }
+
+    /**
+     * Shares the specified fully set up mojo executions under the given key unless they are project-specific.
+     *
+     * @param key The key of the plan, must not be {@code null}.
+     * @param mojoExecutions The mojo executions of the plan, must not be {@code null}.
+     */
+    public void put( Key key, List<MojoExecution> mojoExecutions )
+    {
+        List<Template> templates = new ArrayList<>( mojoExecutions.size() );
+
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+
+            if ( mojoDescriptor == null || mojoDescriptor.isForking()
+                || !mojoExecution.getForkedExecutions().isEmpty() )
+            {
+                return;
+            }
+
+            templates.add( new Template( mojoExecution ) );
+        }
+
+        store.putIfAbsent( key, templates );
+    }
+
+    /**
+     * The inputs of an execution plan.
+     */
+    static final class Key
+    {
+
+        private final List<Object> inputs;
+
+        private final int hashCode;
+
+        Key( MavenProject project, List<Object> tasks )
+        {
+            inputs = new ArrayList<>();
+
+            inputs.add( project.getPackaging() );
+            for ( Object task : tasks )
+            {
+                inputs.add( task.getClass() );
+                inputs.add( task.toString() );
+            }
+            inputs.add( new ArrayList<>( project.getRemotePluginRepositories() ) );
+            // the realm of a project with extensions is specific to it and provides its plugins' realms
+            inputs.add( project.getClassRealm() );
+            for ( Extension extension : project.getBuildExtensions() )
+            {
+                inputs.add( extension.getGroupId() + ':' + extension.getArtifactId() + ':' + extension.getVersion() );
+            }
+            addPlugins( project.getBuildPlugins() );
+            if ( project.getPluginManagement() != null )
+            {
+                addPlugins( project.getPluginManagement().getPlugins() );
+            }
+
+            hashCode = inputs.hashCode();
+        }
+
+        private void addPlugins( List<Plugin> plugins )
+        {
+            inputs.add( plugins.size() );
+
+            for ( Plugin plugin : plugins )
+            {
+                inputs.add( plugin.getId() );
+                inputs.add( plugin.getExtensions() );
+                inputs.add( copy( plugin.getConfiguration() ) );
+
+                inputs.add( plugin.getDependencies().size() );
+                for ( Dependency dependency : plugin.getDependencies() )
+                {
+                    inputs.add( dependency.getManagementKey() );
+                    inputs.add( dependency.getVersion() );
+                    inputs.add( dependency.getScope() );
+                    inputs.add( dependency.getOptional() );
+                    inputs.add( dependency.getSystemPath() );
+                    for ( Exclusion exclusion : dependency.getExclusions() )
+                    {
+                        inputs.add( exclusion.getGroupId() + ':' + exclusion.getArtifactId() );
+                    }
+                }
+
+                inputs.add( plugin.getExecutions().size() );
+                for ( PluginExecution execution : plugin.getExecutions() )
+                {
+                    inputs.add( execution.getId() );
+                    inputs.add( execution.getPhase() );
+                    inputs.add( execution.getPriority() );
+                    inputs.add( new ArrayList<>( execution.getGoals() ) );
+                    inputs.add( copy( execution.getConfiguration() ) );
+                }
+            }
+        }
+
+        private static Xpp3Dom copy( Object configuration )
+        {
+            // the key must not change along with the model of the project
+            return ( configuration != null ) ? new Xpp3Dom( (Xpp3Dom) configuration ) : null;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+
+            Key that = (Key) obj;
+
+            return hashCode == that.hashCode && inputs.equals( that.inputs );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+    /**
+     * The project-independent state of a fully set up mojo execution.
+     */
+    private static final class Template
+    {
+
+        private final Plugin plugin;
+
+        private final String goal;
+
+        private final String executionId;
+
+        private final MojoExecution.Source source;
+
+        private final String lifecyclePhase;
+
+        private final Xpp3Dom configuration;
+
+        Template( MojoExecution mojoExecution )
+        {
+            plugin = mojoExecution.getPlugin().clone();
+            goal = mojoExecution.getGoal();
+            executionId = mojoExecution.getExecutionId();
+            source = mojoExecution.getSource();
+            lifecyclePhase = mojoExecution.getLifecyclePhase();
+            configuration = ( mojoExecution.getConfiguration() != null )
+                ? new Xpp3Dom( mojoExecution.getConfiguration() ) : null;
+        }
+
+        MojoExecution newMojoExecution( MavenSession session, MavenProject project, BuildPluginManager pluginManager )
+            throws PluginNotFoundException, PluginResolutionException, PluginDescriptorParsingException,
+            MojoNotFoundException, InvalidPluginDescriptorException
+        {
+            Plugin projectPlugin = project.getPlugin( plugin.getKey() );
+            MojoDescriptor mojoDescriptor =
+                pluginManager.getMojoDescriptor( ( projectPlugin != null ) ? projectPlugin : plugin.clone(), goal,
+                                                 project.getRemotePluginRepositories(),
+                                                 session.getRepositorySession() );
+
+            MojoExecution mojoExecution = new MojoExecution( mojoDescriptor, executionId, source );
+            mojoExecution.setLifecyclePhase( lifecyclePhase );
+            mojoExecution.setConfiguration( ( configuration != null ) ? new Xpp3Dom( configuration ) : null );
+            return mojoExecution;
+        }
+
+    }
+
+}
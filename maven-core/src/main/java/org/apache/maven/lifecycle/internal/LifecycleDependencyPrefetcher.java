@@ -0,0 +1,227 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Resolves the dependencies of all projects of the reactor concurrently before the lifecycle starts, so that the
+ * remote collection and the downloads are no longer spread over the critical path of every project build. The
+ * required scopes are computed from the execution plans of the projects, just like the {@link MojoExecutor} does.
+ * Projects without upstream reactor projects are resolved exactly like the lifecycle would resolve them which fills
+ * the project artifacts cache, so that the resolution of the lifecycle is a cache hit. The reactor dependencies of
+ * the other projects only exist once their upstream projects have been built, for those projects only the external
+ * dependencies are downloaded into the local repository. Failures are merely logged, the lifecycle will run into
+ * them again and report them properly.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Named
+public class LifecycleDependencyPrefetcher
+{
+
+    /**
+     * The name of the user or system property that sets the number of threads used to resolve the dependencies of
+     * the reactor projects ahead of the build. Values greater than {@code 0} enable the prefetch, the default leaves
+     * the dependency resolution to the mojo executions.
+     */
+    public static final String THREADS_PROPERTY = "maven.dependencyPrefetch.threads";
+
+    @Inject
+    private Logger logger;
+
+    @Inject
+    private LifecycleExecutionPlanCalculator lifecycleExecutionPlanCalculator;
+
+    @Inject
+    private MojoExecutor mojoExecutor;
+
+    @Inject
+    private LifecycleDependencyResolver lifecycleDependencyResolver;
+
+    /**
+     * Tells whether the dependencies of the reactor projects are prefetched for the given session.
+     *
+     * @param session The current build session, must not be {@code null}.
+     * @return {@code true} if the prefetch is enabled, {@code false} otherwise.
+     */
+    public static boolean isEnabled( MavenSession session )
+    {
+        return getInteger( session, THREADS_PROPERTY, 0 ) > 0;
+    }
+
+    public void prefetch( MavenSession session, ProjectBuildList projectBuilds )
+        throws InterruptedException
+    {
+        int threads = getInteger( session, THREADS_PROPERTY, 0 );
+        if ( threads <= 0 || projectBuilds.isEmpty() )
+        {
+            return;
+        }
+
+        Map<MavenProject, List<ProjectSegment>> taskSegments = new LinkedHashMap<>();
+        for ( ProjectSegment projectBuild : projectBuilds )
+        {
+            List<ProjectSegment> segments = taskSegments.get( projectBuild.getProject() );
+            if ( segments == null )
+            {
+                segments = new ArrayList<>();
+                taskSegments.put( projectBuild.getProject(), segments );
+            }
+            segments.add( projectBuild );
+        }
+
+        long start = System.currentTimeMillis();
+
+        ExecutorService executor =
+            Executors.newFixedThreadPool( Math.min( threads, taskSegments.size() ), new BuildThreadFactory() );
+        try
+        {
+            List<Future<MavenProject>> futures = new ArrayList<>( taskSegments.size() );
+            for ( Map.Entry<MavenProject, List<ProjectSegment>> entry : taskSegments.entrySet() )
+            {
+                futures.add( executor.submit( createPrefetchCallable( entry.getKey(), entry.getValue() ) ) );
+            }
+            for ( Future<MavenProject> future : futures )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch ( ExecutionException e )
+                {
+                    logger.debug( "Failed to prefetch dependencies: " + e.getCause(), e.getCause() );
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        logger.debug( "Prefetched dependencies of " + taskSegments.size() + " projects in "
+            + ( System.currentTimeMillis() - start ) + " ms" );
+    }
+
+    private Callable<MavenProject> createPrefetchCallable( final MavenProject project,
+                                                           final List<ProjectSegment> segments )
+    {
+        return new Callable<MavenProject>()
+        {
+            public MavenProject call()
+                throws Exception
+            {
+                ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+                try
+                {
+                    // like the builders, work on the session of the project segment with the project realm attached
+                    BuilderCommon.attachToThread( project );
+
+                    for ( ProjectSegment segment : segments )
+                    {
+                        MavenSession session = segment.getSession();
+
+                        boolean reactorDependencies =
+                            !session.getProjectDependencyGraph().getUpstreamProjects( project, false ).isEmpty();
+
+                        prefetch( session, project, segment.getTaskSegment(), reactorDependencies );
+                    }
+                }
+                finally
+                {
+                    Thread.currentThread().setContextClassLoader( tccl );
+                }
+
+                return project;
+            }
+        };
+    }
+
+    private void prefetch( MavenSession session, MavenProject project, TaskSegment segment,
+                           boolean reactorDependencies )
+        throws Exception
+    {
+        List<MojoExecution> mojoExecutions =
+            lifecycleExecutionPlanCalculator.calculateExecutionPlan( session, project, segment.getTasks() )
+                .getMojoExecutions();
+        if ( mojoExecutions.isEmpty() )
+        {
+            return;
+        }
+
+        DependencyContext dependencyContext = mojoExecutor.newDependencyContext( project, mojoExecutions );
+        Collection<String> scopesToCollect = dependencyContext.getScopesToCollectForCurrentProject();
+        Collection<String> scopesToResolve = dependencyContext.getScopesToResolveForCurrentProject();
+
+        if ( reactorDependencies )
+        {
+            lifecycleDependencyResolver.prefetchExternalDependencies( project, scopesToCollect, scopesToResolve,
+                                                                      session );
+        }
+        else
+        {
+            // use the same cache key as the lifecycle, which takes the flag from the first mojo needing dependencies
+            boolean aggregating = dependencyContext.isAggregating( false );
+
+            lifecycleDependencyResolver.resolveProjectDependencies( project, scopesToCollect, scopesToResolve,
+                                                                    session, aggregating,
+                                                                    Collections.<Artifact>emptySet() );
+        }
+    }
+
+    private static int getInteger( MavenSession session, String key, int defaultValue )
+    {
+        String value = session.getUserProperties().getProperty( key );
+        if ( value == null )
+        {
+            value = session.getSystemProperties().getProperty( key );
+        }
+        try
+        {
+            return ( value != null ) ? Integer.parseInt( value.trim() ) : defaultValue;
+        }
+        catch ( NumberFormatException e )
+        {
+            return defaultValue;
+        }
+    }
+}
@@ -206,10 +206,8 @@ private Set<Artifact> getDependencies( MavenProject project, Collection<String>
         scopesToCollect.addAll( scopesToResolve );
 
         DependencyFilter collectionFilter = new ScopeDependencyFilter( null, negate( scopesToCollect ) );
-        DependencyFilter resolutionFilter = new ScopeDependencyFilter( null, negate( scopesToResolve ) );
-        resolutionFilter = AndDependencyFilter.newInstance( collectionFilter, resolutionFilter );
-        resolutionFilter =
-            AndDependencyFilter.newInstance( resolutionFilter, new ReactorDependencyFilter( projectArtifacts ) );
+        DependencyFilter resolutionFilter =
+            newResolutionFilter( collectionFilter, scopesToResolve, projectArtifacts );
 
         DependencyResolutionResult result;
         try
@@ -261,6 +259,53 @@ private Set<Artifact> getDependencies( MavenProject project, Collection<String>
         return artifacts;
     }
 
+    /**
+     * Resolves the dependencies of the given project that are not part of the reactor. Neither the project nor the
+     * project artifacts cache are updated, the sole purpose is to download the external dependencies of a project
+     * into the local repository before the project is built.
+     *
+     * @param project The project whose external dependencies should be resolved, must not be {@code null}.
+     * @param scopesToCollect The dependency scopes to collect, must not be {@code null}.
+     * @param scopesToResolve The dependency scopes to resolve, must not be {@code null}.
+     * @param session The current build session, must not be {@code null}.
+     * @throws DependencyResolutionException If the external dependencies could not be resolved.
+     * @since 3.4.0
+     */
+    public void prefetchExternalDependencies( MavenProject project, Collection<String> scopesToCollect,
+                                              Collection<String> scopesToResolve, MavenSession session )
+        throws DependencyResolutionException
+    {
+        Set<String> scopes = new HashSet<>( scopesToCollect );
+        scopes.addAll( scopesToResolve );
+        if ( scopes.isEmpty() )
+        {
+            return;
+        }
+
+        Set<Artifact> reactorArtifacts = new HashSet<>();
+        for ( MavenProject reactorProject : session.getProjects() )
+        {
+            reactorArtifacts.add( reactorProject.getArtifact() );
+        }
+
+        DependencyFilter collectionFilter = new ScopeDependencyFilter( null, negate( scopes ) );
+
+        DefaultDependencyResolutionRequest request =
+            new DefaultDependencyResolutionRequest( project, session.getRepositorySession() );
+        request.setResolutionFilter( newResolutionFilter( collectionFilter, scopesToResolve, reactorArtifacts ) );
+
+        dependenciesResolver.resolve( request );
+    }
+
+    private DependencyFilter newResolutionFilter( DependencyFilter collectionFilter,
+                                                  Collection<String> scopesToResolve,
+                                                  Collection<Artifact> projectArtifacts )
+    {
+        DependencyFilter resolutionFilter = new ScopeDependencyFilter( null, negate( scopesToResolve ) );
+        resolutionFilter = AndDependencyFilter.newInstance( collectionFilter, resolutionFilter );
+        return AndDependencyFilter.newInstance( resolutionFilter, new ReactorDependencyFilter( projectArtifacts ) );
+    }
+
     private boolean areAllDependenciesInReactor( Collection<MavenProject> projects,
                                                  Collection<Dependency> dependencies )
     {
@@ -127,6 +127,18 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
         }
         catch ( Throwable t )
         {
+            if ( isUpstreamFailure( t )
+                && reactorContext.getReactorBuildStatus().isHaltedOrBlacklisted( currentProject ) )
+            {
+                // an upstream failure banned this project while it was already running
+
+                projectExecutionListener.afterProjectExecutionFailure( new ProjectExecutionEvent( session,
+                                                                                                  currentProject, t ) );
+
+                eventCatapult.fire( ExecutionEvent.Type.ProjectSkipped, session, null );
+                return;
+            }
+
             builderCommon.handleBuildError( reactorContext, rootSession, session, currentProject, t, buildStartTime );
 
             projectExecutionListener.afterProjectExecutionFailure( new ProjectExecutionEvent( session, currentProject,
@@ -151,4 +163,16 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
             Thread.currentThread().setContextClassLoader( reactorContext.getOriginalContextClassLoader() );
         }
     }
+
+    private static boolean isUpstreamFailure( Throwable t )
+    {
+        for ( Throwable cause = t; cause != null; cause = cause.getCause() )
+        {
+            if ( cause instanceof UpstreamFailureException )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
 }
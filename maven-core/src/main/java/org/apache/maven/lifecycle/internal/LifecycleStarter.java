@@ -63,6 +63,9 @@
     @Requirement
     private LifecycleTaskSegmentCalculator lifecycleTaskSegmentCalculator;
 
+    @Requirement
+    private LifecycleDependencyPrefetcher lifecycleDependencyPrefetcher;
+
     @Requirement
     private Map<String, Builder> builders;
     
@@ -104,6 +107,8 @@ public void execute( MavenSession session )
                 lifecycleDebugLogger.debugReactorPlan( projectBuilds );
             }
 
+            lifecycleDependencyPrefetcher.prefetch( session, projectBuilds );
+
             ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
             ReactorBuildStatus reactorBuildStatus = new ReactorBuildStatus( session.getProjectDependencyGraph() );
             reactorContext =
@@ -22,6 +22,7 @@
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.artifact.resolver.filter.CumulativeScopeArtifactFilter;
+import org.apache.maven.execution.BuildDurationHistory;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.lifecycle.LifecycleExecutionException;
@@ -75,18 +76,58 @@
     @Requirement
     private ExecutionEventCatapult eventCatapult;
 
+    @Requirement
+    private BuildDurationHistory buildDurationHistory;
+
     public MojoExecutor()
     {
     }
 
     public DependencyContext newDependencyContext( MavenSession session, List<MojoExecution> mojoExecutions )
+    {
+        // only pin the aggregating flag if the prefetcher may have cached the dependencies under it
+        boolean pinAggregating = LifecycleDependencyPrefetcher.isEnabled( session );
+
+        return newDependencyContext( session.getCurrentProject(), mojoExecutions, pinAggregating );
+    }
+
+    public DependencyContext newDependencyContext( MavenProject project, List<MojoExecution> mojoExecutions )
+    {
+        return newDependencyContext( project, mojoExecutions, true );
+    }
+
+    private DependencyContext newDependencyContext( MavenProject project, List<MojoExecution> mojoExecutions,
+                                                    boolean pinAggregating )
     {
         Set<String> scopesToCollect = new TreeSet<>();
         Set<String> scopesToResolve = new TreeSet<>();
 
         collectDependencyRequirements( scopesToResolve, scopesToCollect, mojoExecutions );
 
-        return new DependencyContext( session.getCurrentProject(), scopesToCollect, scopesToResolve );
+        Boolean aggregating = pinAggregating ? isAggregating( mojoExecutions ) : null;
+
+        return new DependencyContext( project, scopesToCollect, scopesToResolve, aggregating );
+    }
+
+    /**
+     * Determines whether the dependencies of the current project are needed by an aggregator, i.e. whether the first
+     * mojo that requires dependency resolution or collection is an aggregator. This is part of the key under which
+     * the resolved dependencies are cached, so it must not depend on unrelated mojos that happen to run first.
+     */
+    private static boolean isAggregating( List<MojoExecution> mojoExecutions )
+    {
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+
+            if ( StringUtils.isNotEmpty( mojoDescriptor.getDependencyResolutionRequired() )
+                || StringUtils.isNotEmpty( mojoDescriptor.getDependencyCollectionRequired() ) )
+            {
+                return mojoDescriptor.isAggregator();
+            }
+        }
+
+        return !mojoExecutions.isEmpty() && mojoExecutions.get( 0 ).getMojoDescriptor().isAggregator();
     }
 
     private void collectDependencyRequirements( Set<String> scopesToResolve, Set<String> scopesToCollect,
@@ -206,7 +247,12 @@ private void execute( MavenSession session, MojoExecution mojoExecution, Project
         {
             try
             {
+                long mojoStartTime = System.currentTimeMillis();
+
                 pluginManager.executeMojo( session, mojoExecution );
+
+                buildDurationHistory.recordMojoDuration( session, session.getCurrentProject(), mojoExecution,
+                                                         System.currentTimeMillis() - mojoStartTime );
             }
             catch ( MojoFailureException | PluginManagerException | PluginConfigurationException
                 | MojoExecutionException e )
@@ -245,7 +291,8 @@ public void ensureDependenciesAreResolved( MojoDescriptor mojoDescriptor, MavenS
             Collection<String> scopesToResolve = dependencyContext.getScopesToResolveForCurrentProject();
 
             lifeCycleDependencyResolver.resolveProjectDependencies( project, scopesToCollect, scopesToResolve, session,
-                                                                    aggregating, Collections.<Artifact>emptySet() );
+                                                                    dependencyContext.isAggregating( aggregating ),
+                                                                    Collections.<Artifact>emptySet() );
 
             dependencyContext.synchronizeWithProjectState();
         }
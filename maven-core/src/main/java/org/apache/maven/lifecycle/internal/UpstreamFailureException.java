@@ -0,0 +1,45 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Signals that a project stopped its build because an upstream project failed while the project was already running.
+ * If the reactor banned the project in the meantime, it is reported as skipped rather than as failed, just like a
+ * project that is banned before it starts.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public class UpstreamFailureException
+    extends MojoExecutionException
+{
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamFailureException( MavenProject project, MavenProject upstream )
+    {
+        super( "Upstream project " + upstream.getId() + " failed, cannot continue the build of " + project.getId() );
+    }
+
+}
@@ -0,0 +1,220 @@
+package org.apache.maven.lifecycle.internal.builder.criticalpath;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.execution.BuildDurationHistory;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.internal.BuildThreadFactory;
+import org.apache.maven.lifecycle.internal.LifecycleModuleBuilder;
+import org.apache.maven.lifecycle.internal.ProjectBuildList;
+import org.apache.maven.lifecycle.internal.ProjectSegment;
+import org.apache.maven.lifecycle.internal.ReactorBuildStatus;
+import org.apache.maven.lifecycle.internal.ReactorContext;
+import org.apache.maven.lifecycle.internal.TaskSegment;
+import org.apache.maven.lifecycle.internal.builder.Builder;
+import org.apache.maven.lifecycle.internal.builder.multithreaded.ConcurrencyDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Builds the projects concurrently like the multithreaded builder, but instead of handing every project to the
+ * executor as soon as its upstream projects are done, ready projects are queued and dispatched by descending
+ * {@link CriticalPathRanking rank} whenever a build thread becomes available. This starts long chains of downstream
+ * projects first and keeps the tail of the build from running on a single thread.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Component( role = Builder.class, hint = "criticalpath" )
+public class CriticalPathBuilder
+    implements Builder
+{
+
+    @Requirement
+    private Logger logger;
+
+    @Requirement
+    private LifecycleModuleBuilder lifecycleModuleBuilder;
+
+    @Requirement
+    private BuildDurationHistory buildDurationHistory;
+
+    public CriticalPathBuilder()
+    {
+    }
+
+    @Override
+    public void build( MavenSession session, ReactorContext reactorContext, ProjectBuildList projectBuilds,
+                       List<TaskSegment> taskSegments, ReactorBuildStatus reactorBuildStatus )
+        throws ExecutionException, InterruptedException
+    {
+        int nThreads = Math.min( session.getRequest().getDegreeOfConcurrency(), session.getProjects().size() );
+        ExecutorService executor = Executors.newFixedThreadPool( nThreads, new BuildThreadFactory() );
+        CompletionService<ProjectSegment> service = new ExecutorCompletionService<>( executor );
+
+        try
+        {
+            for ( TaskSegment taskSegment : taskSegments )
+            {
+                ProjectBuildList segmentBuilds = projectBuilds.getByTaskSegment( taskSegment );
+                ConcurrencyDependencyGraph analyzer =
+                    new ConcurrencyDependencyGraph( segmentBuilds, session.getProjectDependencyGraph() );
+                CriticalPathRanking ranking =
+                    new CriticalPathRanking( segmentBuilds, session.getProjectDependencyGraph(),
+                                             getEstimatedDurations( session ) );
+                try
+                {
+                    criticalPathTaskSegmentBuild( analyzer, ranking, reactorContext, session, service, nThreads,
+                                                  taskSegment, projectBuilds.selectSegment( taskSegment ) );
+                    if ( reactorContext.getReactorBuildStatus().isHalted() )
+                    {
+                        break;
+                    }
+                }
+                catch ( Exception e )
+                {
+                    session.getResult().addException( e );
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Gets the estimated build durations of the reactor projects from the build duration history, in milliseconds.
+     */
+    private Map<MavenProject, Long> getEstimatedDurations( MavenSession session )
+    {
+        Map<MavenProject, Long> durations = new HashMap<>();
+        for ( MavenProject project : session.getProjects() )
+        {
+            Long duration = buildDurationHistory.getProjectDuration( session, project );
+            if ( duration != null )
+            {
+                durations.put( project, duration );
+            }
+        }
+        return durations;
+    }
+
+    private void criticalPathTaskSegmentBuild( ConcurrencyDependencyGraph analyzer, CriticalPathRanking ranking,
+                                               ReactorContext reactorContext, MavenSession rootSession,
+                                               CompletionService<ProjectSegment> service, int nThreads,
+                                               TaskSegment taskSegment,
+                                               Map<MavenProject, ProjectSegment> projectBuildList )
+    {
+        PriorityQueue<MavenProject> ready = new PriorityQueue<>( Math.max( 1, projectBuildList.size() ), ranking );
+        ready.addAll( analyzer.getRootSchedulableBuilds() );
+
+        int running = 0;
+        int finished = 0;
+        while ( finished < analyzer.getNumberOfBuilds() )
+        {
+            // dispatch the highest ranked projects to the idle build threads
+            while ( running < nThreads && !ready.isEmpty() )
+            {
+                ProjectSegment projectSegment = projectBuildList.get( ready.poll() );
+                if ( projectSegment == null )
+                {
+                    continue;
+                }
+                logger.debug( "Scheduling: " + projectSegment.getProject() + " (rank "
+                    + ranking.getRank( projectSegment.getProject() ) + ")" );
+                service.submit( createBuildCallable( rootSession, projectSegment, reactorContext, taskSegment ) );
+                running++;
+            }
+
+            if ( running == 0 )
+            {
+                break;
+            }
+
+            try
+            {
+                ProjectSegment projectBuild = service.take().get();
+                running--;
+                finished++;
+                if ( reactorContext.getReactorBuildStatus().isHalted() )
+                {
+                    break;
+                }
+                ready.addAll( analyzer.markAsFinished( projectBuild.getProject() ) );
+            }
+            catch ( InterruptedException e )
+            {
+                rootSession.getResult().addException( e );
+                break;
+            }
+            catch ( ExecutionException e )
+            {
+                rootSession.getResult().addException( e );
+                break;
+            }
+        }
+
+        // wait for outstanding builds (if any) - this can happen if the build was halted or failed above
+        for ( ; running > 0; running-- )
+        {
+            try
+            {
+                service.take().get();
+            }
+            catch ( InterruptedException | ExecutionException e )
+            {
+                rootSession.getResult().addException( e );
+            }
+        }
+    }
+
+    private Callable<ProjectSegment> createBuildCallable( final MavenSession rootSession,
+                                                          final ProjectSegment projectBuild,
+                                                          final ReactorContext reactorContext,
+                                                          final TaskSegment taskSegment )
+    {
+        return new Callable<ProjectSegment>()
+        {
+            public ProjectSegment call()
+            {
+                lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
+                                                     projectBuild.getProject(), taskSegment );
+
+                return projectBuild;
+            }
+        };
+    }
+}
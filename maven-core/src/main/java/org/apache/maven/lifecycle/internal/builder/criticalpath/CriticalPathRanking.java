@@ -0,0 +1,137 @@
+package org.apache.maven.lifecycle.internal.builder.criticalpath;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.lifecycle.internal.ProjectBuildList;
+import org.apache.maven.lifecycle.internal.ProjectSegment;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Ranks the projects of a build by the length of the longest chain of downstream projects that still has to be built
+ * after them. Each project contributes its estimated duration to the chain; projects without an estimate are weighted
+ * with the average of the known estimates, or 1 if nothing is known, so that an empty estimate map ranks projects by
+ * the number of modules on their longest downstream path.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public class CriticalPathRanking
+    implements Comparator<MavenProject>
+{
+
+    private final Map<MavenProject, Long> ranks = new HashMap<>();
+
+    private final Map<MavenProject, Integer> positions = new HashMap<>();
+
+    /**
+     * @param projectBuilds The projects to rank, in reactor order.
+     * @param projectDependencyGraph The dependency graph of the reactor.
+     * @param estimatedDurations The estimated build duration of the projects, may be empty but not {@code null}.
+     */
+    public CriticalPathRanking( ProjectBuildList projectBuilds, ProjectDependencyGraph projectDependencyGraph,
+                                Map<MavenProject, Long> estimatedDurations )
+    {
+        List<MavenProject> projects = new ArrayList<>( projectBuilds.size() );
+        for ( ProjectSegment projectBuild : projectBuilds )
+        {
+            positions.put( projectBuild.getProject(), projects.size() );
+            projects.add( projectBuild.getProject() );
+        }
+
+        long defaultDuration = getDefaultDuration( projects, estimatedDurations );
+
+        // downstream projects always come after their upstream projects in reactor order
+        Collections.reverse( projects );
+        for ( MavenProject project : projects )
+        {
+            long longestDownstreamPath = 0;
+            for ( MavenProject downstream : projectDependencyGraph.getDownstreamProjects( project, false ) )
+            {
+                Long rank = ranks.get( downstream );
+                if ( rank != null && rank > longestDownstreamPath )
+                {
+                    longestDownstreamPath = rank;
+                }
+            }
+
+            Long duration = estimatedDurations.get( project );
+            ranks.put( project, ( duration != null ? duration : defaultDuration ) + longestDownstreamPath );
+        }
+    }
+
+    private static long getDefaultDuration( List<MavenProject> projects, Map<MavenProject, Long> estimatedDurations )
+    {
+        long total = 0;
+        int count = 0;
+        for ( MavenProject project : projects )
+        {
+            Long duration = estimatedDurations.get( project );
+            if ( duration != null )
+            {
+                total += duration;
+                count++;
+            }
+        }
+        return count > 0 ? Math.max( 1, total / count ) : 1;
+    }
+
+    /**
+     * Gets the estimated cost of the longest path from the start of the given project to the end of the build.
+     *
+     * @param project The project, must not be {@code null}.
+     * @return The rank of the project or {@code 0} if the project is not part of the ranked builds.
+     */
+    public long getRank( MavenProject project )
+    {
+        Long rank = ranks.get( project );
+        return rank != null ? rank : 0;
+    }
+
+    /**
+     * Orders projects by descending rank, projects of equal rank retain their reactor order.
+     */
+    @Override
+    public int compare( MavenProject p1, MavenProject p2 )
+    {
+        long r1 = getRank( p1 );
+        long r2 = getRank( p2 );
+        if ( r1 != r2 )
+        {
+            return r1 > r2 ? -1 : 1;
+        }
+        return Integer.compare( getPosition( p1 ), getPosition( p2 ) );
+    }
+
+    private int getPosition( MavenProject project )
+    {
+        Integer position = positions.get( project );
+        return position != null ? position : Integer.MAX_VALUE;
+    }
+
+}
@@ -25,12 +25,18 @@
 import org.apache.maven.project.MavenProject;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Presents a view of the Dependency Graph that is suited for concurrent building.
+ * Presents a view of the Dependency Graph that is suited for concurrent building. Each project keeps a counter of its
+ * unfinished upstream projects, so marking a project as finished only touches its direct downstream projects.
  *
  * @since 3.0
  * @author Kristian Rosenvold
@@ -44,12 +50,33 @@
 
     private final ProjectDependencyGraph projectDependencyGraph;
 
-    private final HashSet<MavenProject> finishedProjects = new HashSet<>();
+    private final Set<MavenProject> finishedProjects =
+        Collections.newSetFromMap( new ConcurrentHashMap<MavenProject, Boolean>() );
+
+    private final Map<MavenProject, AtomicInteger> unfinishedUpstreamProjects = new HashMap<>();
 
     public ConcurrencyDependencyGraph( ProjectBuildList projectBuilds, ProjectDependencyGraph projectDependencyGraph )
     {
         this.projectDependencyGraph = projectDependencyGraph;
         this.projectBuilds = projectBuilds;
+
+        for ( MavenProject project : projectDependencyGraph.getSortedProjects() )
+        {
+            addCounter( project );
+        }
+        for ( ProjectSegment projectBuild : projectBuilds )
+        {
+            addCounter( projectBuild.getProject() );
+        }
+    }
+
+    private void addCounter( MavenProject project )
+    {
+        if ( !unfinishedUpstreamProjects.containsKey( project ) )
+        {
+            int upstreamProjects = projectDependencyGraph.getUpstreamProjects( project, false ).size();
+            unfinishedUpstreamProjects.put( project, new AtomicInteger( upstreamProjects ) );
+        }
     }
 
     public int getNumberOfBuilds()
@@ -84,19 +111,24 @@ public List<MavenProject> getRootSchedulableBuilds()
      */
     public List<MavenProject> markAsFinished( MavenProject mavenProject )
     {
-        finishedProjects.add( mavenProject );
-        return getSchedulableNewProcesses( mavenProject );
+        boolean newlyFinished = finishedProjects.add( mavenProject );
+        return getSchedulableNewProcesses( mavenProject, newlyFinished );
     }
 
-    private List<MavenProject> getSchedulableNewProcesses( MavenProject finishedProject )
+    private List<MavenProject> getSchedulableNewProcesses( MavenProject finishedProject, boolean newlyFinished )
     {
         List<MavenProject> result = new ArrayList<>();
         // schedule dependent projects, if all of their requirements are met
         for ( MavenProject dependentProject : projectDependencyGraph.getDownstreamProjects( finishedProject, false ) )
         {
-            final List<MavenProject> upstreamProjects =
-                projectDependencyGraph.getUpstreamProjects( dependentProject, false );
-            if ( finishedProjects.containsAll( upstreamProjects ) )
+            AtomicInteger unfinished = unfinishedUpstreamProjects.get( dependentProject );
+            if ( unfinished == null )
+            {
+                continue;
+            }
+            // a project finished again only reports the dependents that were already complete
+            int remaining = newlyFinished ? unfinished.decrementAndGet() : unfinished.get();
+            if ( remaining == 0 )
             {
                 result.add( dependentProject );
             }
@@ -110,7 +142,7 @@ private List<MavenProject> getSchedulableNewProcesses( MavenProject finishedProj
     public Set<MavenProject> getUnfinishedProjects()
     {
         Set<MavenProject> unfinished = new HashSet<>( projectBuilds.getProjects() );
-        unfinished.remove( finishedProjects );
+        unfinished.removeAll( finishedProjects );
         return unfinished;
     }
 
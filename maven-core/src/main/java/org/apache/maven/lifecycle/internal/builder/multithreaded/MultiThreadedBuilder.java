@@ -80,28 +80,65 @@ public void build( MavenSession session, ReactorContext reactorContext, ProjectB
         ConcurrencyDependencyGraph analyzer =
             new ConcurrencyDependencyGraph( projectBuilds, session.getProjectDependencyGraph() );
 
-        // Currently disabled
-        ThreadOutputMuxer muxer = null; // new ThreadOutputMuxer( analyzer.getProjectBuilds(), System.out );
+        ThreadOutputMuxer muxer = null;
+        if ( Boolean.parseBoolean( getProperty( session, ThreadOutputMuxer.ENABLED_PROPERTY ) ) )
+        {
+            muxer = new ThreadOutputMuxer( analyzer.getProjectBuilds(), System.out, getMemoryLimit( session ) );
+        }
 
-        for ( TaskSegment taskSegment : taskSegments )
+        try
         {
-            Map<MavenProject, ProjectSegment> projectBuildMap = projectBuilds.selectSegment( taskSegment );
-            try
+            for ( TaskSegment taskSegment : taskSegments )
             {
-                multiThreadedProjectTaskSegmentBuild( analyzer, reactorContext, session, service, taskSegment,
-                                                      projectBuildMap, muxer );
-                if ( reactorContext.getReactorBuildStatus().isHalted() )
+                Map<MavenProject, ProjectSegment> projectBuildMap = projectBuilds.selectSegment( taskSegment );
+                try
                 {
+                    multiThreadedProjectTaskSegmentBuild( analyzer, reactorContext, session, service, taskSegment,
+                                                          projectBuildMap, muxer );
+                    if ( reactorContext.getReactorBuildStatus().isHalted() )
+                    {
+                        break;
+                    }
+                }
+                catch ( Exception e )
+                {
+                    session.getResult().addException( e );
                     break;
                 }
+
             }
-            catch ( Exception e )
+        }
+        finally
+        {
+            if ( muxer != null )
             {
-                session.getResult().addException( e );
-                break;
+                muxer.close();
             }
+        }
+    }
 
+    private long getMemoryLimit( MavenSession session )
+    {
+        String memory = getProperty( session, ThreadOutputMuxer.MEMORY_PROPERTY );
+        if ( memory != null )
+        {
+            try
+            {
+                return Long.parseLong( memory.trim() );
+            }
+            catch ( NumberFormatException e )
+            {
+                logger.warn( "Invalid value for " + ThreadOutputMuxer.MEMORY_PROPERTY + ": " + memory
+                    + ", using the default of " + ThreadOutputMuxer.DEFAULT_MEMORY_LIMIT + " bytes" );
+            }
         }
+        return ThreadOutputMuxer.DEFAULT_MEMORY_LIMIT;
+    }
+
+    private static String getProperty( MavenSession session, String key )
+    {
+        String value = session.getRequest().getUserProperties().getProperty( key );
+        return ( value != null ) ? value : session.getRequest().getSystemProperties().getProperty( key );
     }
 
     private void multiThreadedProjectTaskSegmentBuild( ConcurrencyDependencyGraph analyzer,
@@ -181,10 +218,22 @@ private Callable<ProjectSegment> createBuildCallable( final MavenSession rootSes
         {
             public ProjectSegment call()
             {
-                // muxer.associateThreadWithProjectSegment( projectBuild );
-                lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
-                                                     projectBuild.getProject(), taskSegment );
-                // muxer.setThisModuleComplete( projectBuild );
+                if ( muxer != null )
+                {
+                    muxer.associateThreadWithProjectSegment( projectBuild );
+                }
+                try
+                {
+                    lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
+                                                         projectBuild.getProject(), taskSegment );
+                }
+                finally
+                {
+                    if ( muxer != null )
+                    {
+                        muxer.setThisModuleComplete( projectBuild );
+                    }
+                }
 
                 return projectBuild;
             }
@@ -19,459 +19,513 @@
  * under the License.
  */
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.maven.lifecycle.internal.ProjectBuildList;
 import org.apache.maven.lifecycle.internal.ProjectSegment;
+import org.codehaus.plexus.util.IOUtil;
 
 /**
+ * Buffers the console output of concurrently built projects so that the output of each project appears contiguously
+ * and in build order. The project at the head of the build order writes directly to the console, the output of all
+ * other projects is kept in memory until they become the head. Once the buffered output of all projects exceeds the
+ * configured memory limit, further output of a project is spilled into a temporary file. Each project writes to its
+ * own buffer, so build threads of different projects never contend for a common lock.
+ *
  * @since 3.0
  * @author Kristian Rosenvold
  *         <p/>
  *         NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
- *         This class in particular may spontaneusly self-combust and be replaced by a plexus-compliant thread aware
- *         logger implementation at any time.
  */
-@SuppressWarnings( { "SynchronizationOnLocalVariableOrMethodParameter" } )
 public class ThreadOutputMuxer
 {
-    private final Iterator<ProjectSegment> projects;
 
-    private final ThreadLocal<ProjectSegment> projectBuildThreadLocal = new ThreadLocal<>();
+    /**
+     * The name of the property that enables the buffering of project output during parallel builds.
+     *
+     * @since 3.4.0
+     */
+    public static final String ENABLED_PROPERTY = "maven.threads.muxOutput";
 
-    private final Map<ProjectSegment, ByteArrayOutputStream> streams =
-        new HashMap<>();
+    /**
+     * The name of the property that sets the number of bytes that may be buffered in memory before project output is
+     * spilled into temporary files.
+     *
+     * @since 3.4.0
+     */
+    public static final String MEMORY_PROPERTY = "maven.threads.muxOutput.memory";
 
-    private final Map<ProjectSegment, PrintStream> printStreams = new HashMap<>();
+    static final long DEFAULT_MEMORY_LIMIT = 8 * 1024 * 1024;
 
-    private final ByteArrayOutputStream defaultOutputStreamForUnknownData = new ByteArrayOutputStream();
+    private static volatile ThreadOutputMuxer active;
 
-    private final PrintStream defaultPringStream = new PrintStream( defaultOutputStreamForUnknownData );
+    private final List<ProjectOutput> outputs = new ArrayList<>();
 
-    private final Set<ProjectSegment> completedBuilds = Collections.synchronizedSet( new HashSet<ProjectSegment>() );
+    private final Map<ProjectSegment, ProjectOutput> outputsBySegment = new HashMap<>();
 
-    private volatile ProjectSegment currentBuild;
+    private final ThreadLocal<ProjectOutput> threadOutput = new InheritableThreadLocal<>();
 
-    private final PrintStream originalSystemOUtStream;
+    private final AtomicLong memory = new AtomicLong();
 
-    private final ConsolePrinter printer;
+    private final long memoryLimit;
 
-    /**
-     * A simple but safe solution for printing to the console.
-     */
+    private final PrintStream console;
 
-    class ConsolePrinter
-        implements Runnable
-    {
-        public volatile boolean running;
+    private final PrintStream previousSystemOut;
 
-        private final ProjectBuildList projectBuildList;
+    public ThreadOutputMuxer( ProjectBuildList segmentChunks, PrintStream originalSystemOut )
+    {
+        this( segmentChunks, originalSystemOut, DEFAULT_MEMORY_LIMIT );
+    }
 
-        ConsolePrinter( ProjectBuildList projectBuildList )
+    /**
+     * @since 3.4.0
+     */
+    public ThreadOutputMuxer( ProjectBuildList segmentChunks, PrintStream originalSystemOut, long memoryLimit )
+    {
+        this.memoryLimit = memoryLimit;
+        for ( ProjectSegment segmentChunk : segmentChunks )
         {
-            this.projectBuildList = projectBuildList;
+            ProjectOutput output = new ProjectOutput( outputs.size() );
+            outputs.add( output );
+            outputsBySegment.put( segmentChunk, output );
         }
-
-        public void run()
+        if ( !outputs.isEmpty() )
         {
-            running = true;
-            for ( ProjectSegment projectBuild : projectBuildList )
-            {
-                final PrintStream projectStream = printStreams.get( projectBuild );
-                ByteArrayOutputStream projectOs = streams.get( projectBuild );
-
-                do
-                {
-                    synchronized ( projectStream )
-                    {
-                        try
-                        {
-                            projectStream.wait( 100 );
-                        }
-                        catch ( InterruptedException e )
-                        {
-                            throw new RuntimeException( e );
-                        }
-                        try
-                        {
-                            projectOs.writeTo( originalSystemOUtStream );
-                        }
-                        catch ( IOException e )
-                        {
-                            throw new RuntimeException( e );
-                        }
-
-                        projectOs.reset();
-                    }
-                }
-                while ( !completedBuilds.contains( projectBuild ) );
-            }
-            running = false;
+            outputs.get( 0 ).direct = true;
         }
 
-        /*
-        Wait until we are sure the print-stream thread is running.
-         */
+        if ( originalSystemOut instanceof ThreadBoundPrintStream )
+        {
+            console = ( (ThreadBoundPrintStream) originalSystemOut ).console;
+        }
+        else
+        {
+            console = originalSystemOut;
+        }
 
-        public void waitUntilRunning( boolean expect )
+        if ( System.out instanceof ThreadBoundPrintStream && ( (ThreadBoundPrintStream) System.out ).muxer == null )
         {
-            while ( !running == expect )
-            {
-                try
-                {
-                    Thread.sleep( 10 );
-                }
-                catch ( InterruptedException e )
-                {
-                    throw new RuntimeException( e );
-                }
-            }
+            // the console installed at startup routes to the active muxer
+            previousSystemOut = null;
+        }
+        else
+        {
+            previousSystemOut = System.out;
+            System.setOut( new ThreadBoundPrintStream( console, this ) );
         }
+        active = this;
     }
 
-    public ThreadOutputMuxer( ProjectBuildList segmentChunks, PrintStream originalSystemOut )
+    /**
+     * Replaces {@link System#out} with a stream that routes the output of build threads to the active muxer. This
+     * needs to happen before loggers capture {@link System#out}, otherwise their output bypasses the muxer.
+     *
+     * @since 3.4.0
+     */
+    public static synchronized void installConsole()
     {
-        projects = segmentChunks.iterator();
-        for ( ProjectSegment segmentChunk : segmentChunks )
+        if ( !( System.out instanceof ThreadBoundPrintStream ) )
         {
-            final ByteArrayOutputStream value = new ByteArrayOutputStream();
-            streams.put( segmentChunk, value );
-            printStreams.put( segmentChunk, new PrintStream( value ) );
+            System.setOut( new ThreadBoundPrintStream( System.out, null ) );
         }
-        setNext();
-        this.originalSystemOUtStream = originalSystemOut;
-        System.setOut( new ThreadBoundPrintStream( this.originalSystemOUtStream ) );
-        printer = new ConsolePrinter( segmentChunks );
-        new Thread( printer ).start();
-        printer.waitUntilRunning( true );
     }
 
+    /**
+     * Writes all pending output and restores {@link System#out}.
+     */
     public void close()
     {
-        printer.waitUntilRunning( false );
-        System.setOut( this.originalSystemOUtStream );
-    }
-
-    private void setNext()
-    {
-        currentBuild = projects.hasNext() ? projects.next() : null;
-    }
-
-    private boolean ownsRealOutputStream( ProjectSegment projectBuild )
-    {
-        return projectBuild.equals( currentBuild );
-    }
-
-    private PrintStream getThreadBoundPrintStream()
-    {
-        ProjectSegment threadProject = projectBuildThreadLocal.get();
-        if ( threadProject == null )
+        if ( previousSystemOut != null )
+        {
+            System.setOut( previousSystemOut );
+        }
+        if ( active == this )
         {
-            return defaultPringStream;
+            active = null;
         }
-        if ( ownsRealOutputStream( threadProject ) )
+        for ( ProjectOutput output : outputs )
         {
-            return originalSystemOUtStream;
+            synchronized ( output )
+            {
+                output.drain();
+                output.direct = true;
+            }
         }
-        return printStreams.get( threadProject );
     }
 
     public void associateThreadWithProjectSegment( ProjectSegment projectBuild )
     {
-        projectBuildThreadLocal.set( projectBuild );
+        threadOutput.set( outputsBySegment.get( projectBuild ) );
     }
 
     public void setThisModuleComplete( ProjectSegment projectBuild )
     {
-        completedBuilds.add( projectBuild );
-        PrintStream stream = printStreams.get( projectBuild );
-        synchronized ( stream )
+        ProjectOutput output = outputsBySegment.get( projectBuild );
+        boolean head;
+        synchronized ( output )
+        {
+            output.completed = true;
+            head = output.direct;
+        }
+        threadOutput.remove();
+
+        if ( head )
         {
-            stream.notifyAll();
+            // hand the console to the next unfinished project, writing out everything that finished meanwhile
+            for ( int i = output.index + 1; i < outputs.size(); i++ )
+            {
+                ProjectOutput next = outputs.get( i );
+                synchronized ( next )
+                {
+                    next.drain();
+                    if ( !next.completed )
+                    {
+                        next.direct = true;
+                        break;
+                    }
+                }
+            }
         }
-        disconnectThreadFromProject();
     }
 
-    private void disconnectThreadFromProject()
+    private PrintStream getThreadBoundPrintStream()
     {
-        projectBuildThreadLocal.remove();
+        ProjectOutput output = threadOutput.get();
+        return ( output != null ) ? output.stream : console;
     }
 
-    private class ThreadBoundPrintStream
-        extends PrintStream
+    /**
+     * The output of a single project. Writes go to the console while the project is at the head of the build order,
+     * otherwise into a memory buffer or, when the memory limit is exhausted, into a temporary file.
+     */
+    private class ProjectOutput
+        extends OutputStream
     {
 
-        public ThreadBoundPrintStream( PrintStream systemOutStream )
+        final int index;
+
+        final PrintStream stream = new PrintStream( this );
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private File spillFile;
+
+        private OutputStream spill;
+
+        boolean direct;
+
+        boolean completed;
+
+        ProjectOutput( int index )
         {
-            super( systemOutStream );
+            this.index = index;
         }
 
-        private PrintStream getOutputStreamForCurrentThread()
+        @Override
+        public void write( int b )
+            throws IOException
         {
-            return getThreadBoundPrintStream();
+            write( new byte[] { (byte) b }, 0, 1 );
         }
 
         @Override
-        public void println()
+        public synchronized void write( byte[] b, int off, int len )
+            throws IOException
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            if ( direct )
             {
-                currentStream.println();
-                currentStream.notifyAll();
+                console.write( b, off, len );
+                return;
+            }
+            if ( spill == null && memory.addAndGet( len ) > memoryLimit )
+            {
+                memory.addAndGet( -len );
+                if ( !spill() )
+                {
+                    memory.addAndGet( len );
+                }
+            }
+            if ( spill != null )
+            {
+                spill.write( b, off, len );
+            }
+            else
+            {
+                buffer.write( b, off, len );
             }
         }
 
         @Override
-        public void print( char c )
+        public synchronized void flush()
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            if ( direct )
             {
-                currentStream.print( c );
-                currentStream.notifyAll();
+                console.flush();
             }
         }
 
-        @Override
-        public void println( char x )
+        private boolean spill()
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            try
+            {
+                spillFile = File.createTempFile( "maven-output-", ".log" );
+                spillFile.deleteOnExit();
+                spill = new BufferedOutputStream( new FileOutputStream( spillFile ) );
+                buffer.writeTo( spill );
+                memory.addAndGet( -buffer.size() );
+                buffer.reset();
+                return true;
+            }
+            catch ( IOException e )
             {
-                currentStream.println( x );
-                currentStream.notifyAll();
+                // keep buffering in memory
+                IOUtil.close( spill );
+                spill = null;
+                if ( spillFile != null )
+                {
+                    spillFile.delete();
+                    spillFile = null;
+                }
+                return false;
             }
         }
 
-        @Override
-        public void print( double d )
+        void drain()
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
+            if ( spill != null )
             {
-                currentStream.print( d );
-                currentStream.notifyAll();
+                InputStream in = null;
+                try
+                {
+                    spill.close();
+                    in = new FileInputStream( spillFile );
+                    IOUtil.copy( in, console );
+                }
+                catch ( IOException e )
+                {
+                    console.println( "[WARNING] Could not read buffered output from " + spillFile + ": " + e );
+                }
+                finally
+                {
+                    IOUtil.close( in );
+                    spillFile.delete();
+                    spill = null;
+                    spillFile = null;
+                }
             }
+            memory.addAndGet( -buffer.size() );
+            console.write( buffer.toByteArray(), 0, buffer.size() );
+            buffer.reset();
+            console.flush();
+        }
+
+    }
+
+    /**
+     * Routes everything written by a thread to the output of the project the thread is associated with. None of the
+     * methods locks the stream itself, so build threads only synchronize on the output of their own project.
+     */
+    private static class ThreadBoundPrintStream
+        extends PrintStream
+    {
+
+        final PrintStream console;
+
+        final ThreadOutputMuxer muxer;
+
+        ThreadBoundPrintStream( PrintStream console, ThreadOutputMuxer muxer )
+        {
+            super( console );
+            this.console = console;
+            this.muxer = muxer;
+        }
+
+        private PrintStream out()
+        {
+            ThreadOutputMuxer muxer = ( this.muxer != null ) ? this.muxer : active;
+            return ( muxer != null ) ? muxer.getThreadBoundPrintStream() : console;
+        }
+
+        @Override
+        public void print( char c )
+        {
+            out().print( c );
+        }
+
+        @Override
+        public void println( char c )
+        {
+            out().println( c );
+        }
+
+        @Override
+        public void print( double x )
+        {
+            out().print( x );
         }
 
         @Override
         public void println( double x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( float f )
+        public void print( float x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( f );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
         public void println( float x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( int i )
+        public void print( int x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( i );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
         public void println( int x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( long l )
+        public void print( long x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( l );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
         public void println( long x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( boolean b )
+        public void print( boolean x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( b );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
         public void println( boolean x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( char s[] )
+        public void print( char[] x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( s );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
-        public void println( char x[] )
+        public void println( char[] x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( Object obj )
+        public void print( Object x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( obj );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
         public void println( Object x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void print( String s )
+        public void print( String x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.print( s );
-                currentStream.notifyAll();
-            }
+            out().print( x );
         }
 
         @Override
         public void println( String x )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.println( x );
-                currentStream.notifyAll();
-            }
+            out().println( x );
         }
 
         @Override
-        public void write( byte b[], int off, int len )
+        public void println()
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.write( b, off, len );
-                currentStream.notifyAll();
-            }
+            out().println();
         }
 
         @Override
-        public void close()
+        public PrintStream format( String format, Object... args )
         {
-            getOutputStreamForCurrentThread().close();
+            out().format( format, args );
+            return this;
         }
 
         @Override
-        public void flush()
+        public PrintStream format( Locale l, String format, Object... args )
         {
-            getOutputStreamForCurrentThread().flush();
+            out().format( l, format, args );
+            return this;
         }
 
         @Override
         public void write( int b )
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.write( b );
-                currentStream.notifyAll();
-            }
+            out().write( b );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+            out().write( b, off, len );
         }
 
         @Override
-        public void write( byte b[] )
+        public void write( byte[] b )
             throws IOException
         {
-            final PrintStream currentStream = getOutputStreamForCurrentThread();
-            synchronized ( currentStream )
-            {
-                currentStream.write( b );
-                currentStream.notifyAll();
-            }
+            out().write( b );
+        }
+
+        @Override
+        public void flush()
+        {
+            out().flush();
         }
+
+        @Override
+        public void close()
+        {
+            out().flush();
+        }
+
+        @Override
+        public boolean checkError()
+        {
+            return out().checkError();
+        }
+
     }
+
 }
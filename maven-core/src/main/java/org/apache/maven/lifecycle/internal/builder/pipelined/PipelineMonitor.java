@@ -0,0 +1,77 @@
+package org.apache.maven.lifecycle.internal.builder.pipelined;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.execution.MojoExecutionEvent;
+import org.apache.maven.execution.MojoExecutionListener;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+
+/**
+ * Reports the mojo executions of the projects of a pipelined build to their {@link ProjectProgress}. Projects that
+ * are not built by the {@link PipelinedBuilder} are not registered and thus left alone.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Component( role = MojoExecutionListener.class, hint = "pipelined" )
+public class PipelineMonitor
+    implements MojoExecutionListener
+{
+
+    private final ConcurrentMap<MavenProject, ProjectProgress> progresses = new ConcurrentHashMap<>();
+
+    void register( ProjectProgress progress )
+    {
+        progresses.put( progress.getProject(), progress );
+    }
+
+    void unregister( ProjectProgress progress )
+    {
+        progresses.remove( progress.getProject(), progress );
+    }
+
+    @Override
+    public void beforeMojoExecution( MojoExecutionEvent event )
+        throws MojoExecutionException
+    {
+        ProjectProgress progress = progresses.get( event.getProject() );
+        if ( progress != null )
+        {
+            progress.beforeMojoExecution( event.getExecution() );
+        }
+    }
+
+    @Override
+    public void afterMojoExecutionSuccess( MojoExecutionEvent event )
+        throws MojoExecutionException
+    {
+    }
+
+    @Override
+    public void afterExecutionFailure( MojoExecutionEvent event )
+    {
+    }
+}
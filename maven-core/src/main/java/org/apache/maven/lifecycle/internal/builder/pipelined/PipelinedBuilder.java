@@ -0,0 +1,346 @@
+package org.apache.maven.lifecycle.internal.builder.pipelined;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.MojoExecutionListener;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.lifecycle.DefaultLifecycles;
+import org.apache.maven.lifecycle.Lifecycle;
+import org.apache.maven.lifecycle.internal.BuildThreadFactory;
+import org.apache.maven.lifecycle.internal.LifecycleModuleBuilder;
+import org.apache.maven.lifecycle.internal.ProjectBuildList;
+import org.apache.maven.lifecycle.internal.ProjectSegment;
+import org.apache.maven.lifecycle.internal.ReactorBuildStatus;
+import org.apache.maven.lifecycle.internal.ReactorContext;
+import org.apache.maven.lifecycle.internal.TaskSegment;
+import org.apache.maven.lifecycle.internal.builder.Builder;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Builds the projects concurrently like the multithreaded builder, but starts a project as soon as its upstream
+ * projects have progressed through the phase it actually needs instead of waiting for them to finish. A project
+ * that depends on the main artifact of an upstream project only needs the compiled classes, a project that depends
+ * on the test artifact needs the compiled test classes. Any other kind of dependency, e.g. on a parent, a plugin or
+ * a differently packaged artifact, still waits for the upstream project to finish. While started early, a project
+ * resolves its upstream projects to their output directories, just like {@code mvn compile} does for a reactor.
+ * Before a project enters the packaging phases, it waits for all its upstream projects to finish so that packaged
+ * artifacts are never assembled from incomplete upstream builds. A project banned by the failure of an upstream
+ * project while it was running is reported as skipped, like the multithreaded builder does for projects that did not
+ * start yet.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Component( role = Builder.class, hint = "pipelined" )
+public class PipelinedBuilder
+    implements Builder
+{
+
+    @Requirement
+    private Logger logger;
+
+    @Requirement
+    private LifecycleModuleBuilder lifecycleModuleBuilder;
+
+    @Requirement
+    private DefaultLifecycles defaultLifecycles;
+
+    @Requirement( role = MojoExecutionListener.class, hint = "pipelined" )
+    private PipelineMonitor pipelineMonitor;
+
+    public PipelinedBuilder()
+    {
+    }
+
+    @Override
+    public void build( MavenSession session, ReactorContext reactorContext, ProjectBuildList projectBuilds,
+                       List<TaskSegment> taskSegments, ReactorBuildStatus reactorBuildStatus )
+        throws ExecutionException, InterruptedException
+    {
+        int nThreads = Math.min( session.getRequest().getDegreeOfConcurrency(), session.getProjects().size() );
+        ExecutorService executor = Executors.newFixedThreadPool( nThreads, new BuildThreadFactory() );
+
+        Lifecycle lifecycle = defaultLifecycles.get( "compile" );
+        List<String> phases = ( lifecycle != null ) ? lifecycle.getPhases() : new ArrayList<String>();
+
+        try
+        {
+            for ( TaskSegment taskSegment : taskSegments )
+            {
+                try
+                {
+                    pipelinedTaskSegmentBuild( reactorContext, session, executor, phases, taskSegment,
+                                               projectBuilds.getByTaskSegment( taskSegment ) );
+                    if ( reactorContext.getReactorBuildStatus().isHalted() )
+                    {
+                        break;
+                    }
+                }
+                catch ( Exception e )
+                {
+                    session.getResult().addException( e );
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void pipelinedTaskSegmentBuild( ReactorContext reactorContext, MavenSession rootSession,
+                                            ExecutorService executor, List<String> phases, TaskSegment taskSegment,
+                                            ProjectBuildList segmentBuilds )
+    {
+        ProjectDependencyGraph graph = rootSession.getProjectDependencyGraph();
+        BlockingQueue<ProjectProgress> events = new LinkedBlockingQueue<>();
+
+        Map<MavenProject, ProjectProgress> progresses = new LinkedHashMap<>();
+        for ( ProjectSegment projectBuild : segmentBuilds )
+        {
+            MavenProject project = projectBuild.getProject();
+            progresses.put( project, new ProjectProgress( project, phases, events,
+                                                          reactorContext.getReactorBuildStatus() ) );
+        }
+        for ( ProjectProgress progress : progresses.values() )
+        {
+            for ( MavenProject upstream : graph.getUpstreamProjects( progress.getProject(), false ) )
+            {
+                ProjectProgress upstreamProgress = progresses.get( upstream );
+                if ( upstreamProgress != null )
+                {
+                    String phase = getRequiredPhase( progress.getProject(), upstream );
+                    progress.addUpstream( upstreamProgress, progress.getPhaseIndex( phase ) );
+                }
+            }
+            pipelineMonitor.register( progress );
+        }
+
+        Set<MavenProject> pending = new LinkedHashSet<>( progresses.keySet() );
+        Set<MavenProject> finished = new HashSet<>();
+        List<Future<ProjectSegment>> futures = new ArrayList<>();
+
+        try
+        {
+            startReadyProjects( pending, pending, progresses, segmentBuilds, reactorContext, rootSession, executor,
+                                taskSegment, futures );
+
+            while ( finished.size() < futures.size() )
+            {
+                ProjectProgress event = events.take();
+                if ( event.isFinished() )
+                {
+                    finished.add( event.getProject() );
+                }
+                if ( reactorContext.getReactorBuildStatus().isHalted() )
+                {
+                    break;
+                }
+                startReadyProjects( graph.getDownstreamProjects( event.getProject(), false ), pending, progresses,
+                                    segmentBuilds, reactorContext, rootSession, executor, taskSegment, futures );
+            }
+
+            // wait for outstanding builds (if any) - this can happen if the build was halted above
+            for ( Future<ProjectSegment> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException | ExecutionException e )
+        {
+            rootSession.getResult().addException( e );
+        }
+        finally
+        {
+            for ( ProjectProgress progress : progresses.values() )
+            {
+                pipelineMonitor.unregister( progress );
+            }
+        }
+    }
+
+    private void startReadyProjects( Iterable<MavenProject> candidates, Set<MavenProject> pending,
+                                     Map<MavenProject, ProjectProgress> progresses, ProjectBuildList segmentBuilds,
+                                     ReactorContext reactorContext, MavenSession rootSession,
+                                     ExecutorService executor, TaskSegment taskSegment,
+                                     List<Future<ProjectSegment>> futures )
+    {
+        List<MavenProject> ready = new ArrayList<>();
+        for ( MavenProject candidate : candidates )
+        {
+            if ( pending.contains( candidate ) && progresses.get( candidate ).isReady() )
+            {
+                ready.add( candidate );
+            }
+        }
+        for ( MavenProject project : ready )
+        {
+            pending.remove( project );
+            logger.debug( "Scheduling: " + project );
+            futures.add( executor.submit( createBuildCallable( rootSession, segmentBuilds.findByMavenProject( project ),
+                                                               progresses.get( project ), reactorContext,
+                                                               taskSegment ) ) );
+        }
+    }
+
+    private Callable<ProjectSegment> createBuildCallable( final MavenSession rootSession,
+                                                          final ProjectSegment projectBuild,
+                                                          final ProjectProgress progress,
+                                                          final ReactorContext reactorContext,
+                                                          final TaskSegment taskSegment )
+    {
+        return new Callable<ProjectSegment>()
+        {
+            public ProjectSegment call()
+            {
+                try
+                {
+                    lifecycleModuleBuilder.buildProject( projectBuild.getSession(), rootSession, reactorContext,
+                                                         projectBuild.getProject(), taskSegment );
+                }
+                finally
+                {
+                    progress.markFinished();
+                }
+
+                return projectBuild;
+            }
+        };
+    }
+
+    /**
+     * Determines the phase the given upstream project must have completed before the given project can start.
+     *
+     * @param project The downstream project, must not be {@code null}.
+     * @param upstream The upstream project, must not be {@code null}.
+     * @return The required phase or {@code null} if the upstream project must have finished its build.
+     */
+    static String getRequiredPhase( MavenProject project, MavenProject upstream )
+    {
+        if ( isBuildInput( project, upstream ) )
+        {
+            return null;
+        }
+
+        String required = null;
+        int rank = 0;
+        for ( Dependency dependency : project.getDependencies() )
+        {
+            if ( !upstream.getGroupId().equals( dependency.getGroupId() )
+                || !upstream.getArtifactId().equals( dependency.getArtifactId() ) )
+            {
+                continue;
+            }
+
+            String type = dependency.getType();
+            String classifier = dependency.getClassifier();
+            if ( ( "jar".equals( type ) || "ejb-client".equals( type ) )
+                && ( classifier == null || classifier.isEmpty() ) )
+            {
+                if ( rank < 1 )
+                {
+                    required = "process-classes";
+                    rank = 1;
+                }
+            }
+            else if ( "test-jar".equals( type ) || ( "jar".equals( type ) && "tests".equals( classifier ) ) )
+            {
+                if ( rank < 2 )
+                {
+                    required = "process-test-classes";
+                    rank = 2;
+                }
+            }
+            else
+            {
+                return null;
+            }
+        }
+        return required;
+    }
+
+    /**
+     * Tells whether the given upstream project is the parent, a build plugin (or one of its dependencies) or a build
+     * extension of the given project, i.e. whether its packaged artifact is needed to even set up the build.
+     */
+    private static boolean isBuildInput( MavenProject project, MavenProject upstream )
+    {
+        Parent parent = project.getModel().getParent();
+        if ( parent != null && matches( upstream, parent.getGroupId(), parent.getArtifactId() ) )
+        {
+            return true;
+        }
+
+        for ( Plugin plugin : project.getBuildPlugins() )
+        {
+            if ( matches( upstream, plugin.getGroupId(), plugin.getArtifactId() ) )
+            {
+                return true;
+            }
+            for ( Dependency dependency : plugin.getDependencies() )
+            {
+                if ( matches( upstream, dependency.getGroupId(), dependency.getArtifactId() ) )
+                {
+                    return true;
+                }
+            }
+        }
+
+        for ( Extension extension : project.getBuildExtensions() )
+        {
+            if ( matches( upstream, extension.getGroupId(), extension.getArtifactId() ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean matches( MavenProject project, String groupId, String artifactId )
+    {
+        return project.getGroupId().equals( groupId ) && project.getArtifactId().equals( artifactId );
+    }
+}
@@ -0,0 +1,214 @@
+package org.apache.maven.lifecycle.internal.builder.pipelined;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.maven.lifecycle.internal.ReactorBuildStatus;
+import org.apache.maven.lifecycle.internal.UpstreamFailureException;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Tracks how far the default lifecycle of a project has progressed during a pipelined build. Every time a mojo of
+ * the project is about to run, all phases before the phase of that mojo are known to be complete and the
+ * coordinator is notified. Before the first mojo of the packaging phases runs, the project additionally waits for
+ * all its upstream projects to finish so that it never packages against incomplete upstream artifacts. If the reactor
+ * banned the project meanwhile because an upstream project failed, the project stops there and is reported as skipped.
+ *
+ * @since 3.4.0
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+class ProjectProgress
+{
+
+    /**
+     * The phase index denoting that the project must have finished its whole build.
+     */
+    static final int COMPLETE = Integer.MAX_VALUE;
+
+    private static final String PACKAGING_PHASE = "prepare-package";
+
+    private final MavenProject project;
+
+    private final List<String> phases;
+
+    private final Queue<ProjectProgress> events;
+
+    private final ReactorBuildStatus reactorBuildStatus;
+
+    private final Map<ProjectProgress, Integer> upstreamRequirements = new LinkedHashMap<>();
+
+    private final int packagingPhase;
+
+    private final CountDownLatch finished = new CountDownLatch( 1 );
+
+    private volatile int completedPhase = -1;
+
+    private boolean upstreamAwaited;
+
+    /**
+     * @param project The project whose progress is tracked.
+     * @param phases The phases of the default lifecycle, in execution order.
+     * @param events The queue to post this progress to whenever it changes.
+     * @param reactorBuildStatus The status of the reactor, used to tell whether the project was banned.
+     */
+    ProjectProgress( MavenProject project, List<String> phases, Queue<ProjectProgress> events,
+                     ReactorBuildStatus reactorBuildStatus )
+    {
+        this.project = project;
+        this.phases = phases;
+        this.events = events;
+        this.reactorBuildStatus = reactorBuildStatus;
+        this.packagingPhase = getPhaseIndex( PACKAGING_PHASE );
+    }
+
+    public MavenProject getProject()
+    {
+        return project;
+    }
+
+    /**
+     * Gets the position of the given phase within the default lifecycle.
+     *
+     * @param phase The phase, may be {@code null}.
+     * @return The index of the phase or {@link #COMPLETE} if the phase is not part of the default lifecycle.
+     */
+    int getPhaseIndex( String phase )
+    {
+        int index = ( phase != null ) ? phases.indexOf( phase ) : -1;
+        return ( index >= 0 ) ? index : COMPLETE;
+    }
+
+    /**
+     * Declares that this project may only start once the given upstream project completed the given phase.
+     *
+     * @param upstream The progress of the upstream project.
+     * @param phase The index of the phase the upstream project must have completed, or {@link #COMPLETE}.
+     */
+    void addUpstream( ProjectProgress upstream, int phase )
+    {
+        Integer previous = upstreamRequirements.get( upstream );
+        upstreamRequirements.put( upstream, ( previous != null ) ? Math.max( previous, phase ) : phase );
+    }
+
+    /**
+     * Tells whether all upstream projects have progressed far enough for this project to start.
+     */
+    boolean isReady()
+    {
+        for ( Map.Entry<ProjectProgress, Integer> requirement : upstreamRequirements.entrySet() )
+        {
+            if ( !requirement.getKey().hasCompleted( requirement.getValue() ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether the project has completed the given phase, either because a mojo of a later phase has started
+     * or because the project finished its build.
+     */
+    boolean hasCompleted( int phase )
+    {
+        return isFinished() || completedPhase >= phase;
+    }
+
+    boolean isFinished()
+    {
+        return finished.getCount() <= 0;
+    }
+
+    void beforeMojoExecution( MojoExecution execution )
+        throws MojoExecutionException
+    {
+        int phase = getPhaseIndex( execution.getLifecyclePhase() );
+        if ( phase == COMPLETE )
+        {
+            return;
+        }
+
+        if ( phase - 1 > completedPhase )
+        {
+            completedPhase = phase - 1;
+            events.offer( this );
+        }
+
+        if ( phase >= packagingPhase && !upstreamAwaited )
+        {
+            awaitUpstream();
+            upstreamAwaited = true;
+        }
+    }
+
+    private void awaitUpstream()
+        throws MojoExecutionException
+    {
+        for ( ProjectProgress upstream : upstreamRequirements.keySet() )
+        {
+            try
+            {
+                upstream.awaitFinished();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException( "Interrupted while waiting for upstream project "
+                    + upstream.getProject().getId() + " to finish", e );
+            }
+            if ( reactorBuildStatus.isHaltedOrBlacklisted( project ) )
+            {
+                throw new UpstreamFailureException( project, upstream.getProject() );
+            }
+        }
+    }
+
+    /**
+     * Marks the build of the project as finished and notifies the coordinator.
+     */
+    void markFinished()
+    {
+        finished.countDown();
+        events.offer( this );
+    }
+
+    /**
+     * Waits until the build of the project has finished.
+     */
+    void awaitFinished()
+        throws InterruptedException
+    {
+        finished.await();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.valueOf( project );
+    }
+}
@@ -21,12 +21,14 @@
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.ExtensionDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.classworlds.realm.ClassRealm;
@@ -110,6 +112,8 @@ public String toString()
 
     protected final Map<Key, CacheRecord> cache = new ConcurrentHashMap<>();
 
+    private volatile RealmPool pool;
+
     @Override
     public Key createKey( List<Artifact> extensionArtifacts )
     {
@@ -118,7 +122,16 @@ public Key createKey( List<Artifact> extensionArtifacts )
 
     public CacheRecord get( Key key )
     {
-        return cache.get( key );
+        CacheRecord record = cache.get( key );
+
+        RealmPool pool = this.pool;
+        if ( record != null && pool != null && !pool.isCurrent( key ) )
+        {
+            cache.remove( key );
+            record = null;
+        }
+
+        return record;
     }
 
     public CacheRecord put( Key key, ClassRealm extensionRealm, ExtensionDescriptor extensionDescriptor,
@@ -135,6 +148,11 @@ public CacheRecord put( Key key, ClassRealm extensionRealm, ExtensionDescriptor
 
         cache.put( key, record );
 
+        if ( pool != null )
+        {
+            pool.add( key, extensionRealm, artifacts );
+        }
+
         return record;
     }
 
@@ -153,6 +171,41 @@ public void flush()
             }
         }
         cache.clear();
+        if ( pool != null )
+        {
+            pool.clear();
+        }
+    }
+
+    /**
+     * Enables the realm pool if the session asks for it and registers the session with the pool.
+     *
+     * @param session The session that begins, must not be {@code null}.
+     * @since 3.4.0
+     */
+    public synchronized void beginPool( MavenSession session )
+    {
+        pool = RealmPool.begin( pool, session );
+    }
+
+    /**
+     * Evicts the least recently used realms that exceed the budget of the realm pool and, once no session is running
+     * anymore, disposes the realms that were evicted or went stale.
+     *
+     * @return The disposed realms, never {@code null}.
+     * @since 3.4.0
+     */
+    public synchronized List<ClassRealm> trimPool()
+    {
+        if ( pool == null )
+        {
+            return Collections.emptyList();
+        }
+        for ( Object key : pool.trim() )
+        {
+            cache.remove( key );
+        }
+        return pool.dispose();
     }
 
     public void register( MavenProject project, Key key, CacheRecord record )
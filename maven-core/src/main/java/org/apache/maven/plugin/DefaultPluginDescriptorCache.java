@@ -20,9 +20,15 @@
  */
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.model.Plugin;
@@ -41,6 +47,9 @@
  * data like the plugin realm. <strong>Warning:</strong> This is an internal utility interface that is only public for
  * technical reasons, it is not part of the public API. In particular, this interface can be changed or deleted without
  * prior notice.
+ * <p>
+ * Each descriptor is loaded at most once per key, threads asking for a descriptor that is currently being loaded wait
+ * for that load instead of starting their own. Failed loads are not cached.
  *
  * @since 3.0
  * @author Benjamin Bentmann
@@ -50,7 +59,13 @@
     implements PluginDescriptorCache
 {
 
-    private Map<Key, PluginDescriptor> descriptors = new HashMap<>( 128 );
+    private final ConcurrentMap<Key, FutureTask<PluginDescriptor>> descriptors = new ConcurrentHashMap<>( 128 );
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong loadTime = new AtomicLong();
 
     public void flush()
     {
@@ -64,12 +79,195 @@ public Key createKey( Plugin plugin, List<RemoteRepository> repositories, Reposi
 
     public PluginDescriptor get( Key cacheKey )
     {
-        return clone( descriptors.get( cacheKey ) );
+        FutureTask<PluginDescriptor> task = descriptors.get( cacheKey );
+
+        if ( task == null )
+        {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        try
+        {
+            return clone( getUninterruptibly( task ) );
+        }
+        catch ( ExecutionException e )
+        {
+            // the thread that started the load reports the failure
+            return null;
+        }
+    }
+
+    /**
+     * Loads a plugin descriptor that is not cached yet.
+     *
+     * @since 3.4.0
+     */
+    public interface PluginDescriptorSupplier
+    {
+        PluginDescriptor load()
+            throws PluginResolutionException, PluginDescriptorParsingException, InvalidPluginDescriptorException;
+    }
+
+    /**
+     * Gets the plugin descriptor for the specified key, using the supplier to load it if the descriptor is not cached
+     * yet. Concurrent requests for the same key share a single load while requests for different keys do not block
+     * each other.
+     *
+     * @param cacheKey The cache key, must not be {@code null}.
+     * @param supplier The supplier to load the descriptor on a cache miss, must not be {@code null}.
+     * @return The plugin descriptor, never {@code null}.
+     * @since 3.4.0
+     */
+    public PluginDescriptor get( Key cacheKey, final PluginDescriptorSupplier supplier )
+        throws PluginResolutionException, PluginDescriptorParsingException, InvalidPluginDescriptorException
+    {
+        FutureTask<PluginDescriptor> task = descriptors.get( cacheKey );
+
+        if ( task == null )
+        {
+            FutureTask<PluginDescriptor> newTask = new FutureTask<>( new Callable<PluginDescriptor>()
+            {
+                public PluginDescriptor call()
+                    throws Exception
+                {
+                    long start = System.nanoTime();
+                    try
+                    {
+                        return DefaultPluginDescriptorCache.clone( supplier.load() );
+                    }
+                    finally
+                    {
+                        loadTime.addAndGet( System.nanoTime() - start );
+                    }
+                }
+            } );
+
+            task = descriptors.putIfAbsent( cacheKey, newTask );
+
+            if ( task == null )
+            {
+                misses.incrementAndGet();
+                task = newTask;
+                task.run();
+            }
+            else
+            {
+                hits.incrementAndGet();
+            }
+        }
+        else
+        {
+            hits.incrementAndGet();
+        }
+
+        try
+        {
+            return clone( getUninterruptibly( task ) );
+        }
+        catch ( ExecutionException e )
+        {
+            // do not cache failures, the next request will retry the load
+            descriptors.remove( cacheKey, task );
+
+            Throwable cause = e.getCause();
+            if ( cause instanceof PluginResolutionException )
+            {
+                throw (PluginResolutionException) cause;
+            }
+            if ( cause instanceof PluginDescriptorParsingException )
+            {
+                throw (PluginDescriptorParsingException) cause;
+            }
+            if ( cause instanceof InvalidPluginDescriptorException )
+            {
+                throw (InvalidPluginDescriptorException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( cause );
+        }
     }
 
     public void put( Key cacheKey, PluginDescriptor pluginDescriptor )
     {
-        descriptors.put( cacheKey, clone( pluginDescriptor ) );
+        final PluginDescriptor clone = clone( pluginDescriptor );
+
+        FutureTask<PluginDescriptor> task = new FutureTask<>( new Callable<PluginDescriptor>()
+        {
+            public PluginDescriptor call()
+            {
+                return clone;
+            }
+        } );
+        task.run();
+
+        descriptors.put( cacheKey, task );
+    }
+
+    private static <T> T getUninterruptibly( Future<T> future )
+        throws ExecutionException
+    {
+        boolean interrupted = false;
+        try
+        {
+            while ( true )
+            {
+                try
+                {
+                    return future.get();
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of lookups that found a loaded or loading descriptor.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a descriptor in the cache.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Gets the total time spent loading descriptors on cache misses.
+     *
+     * @param unit The time unit of the result, must not be {@code null}.
+     * @return The total load time in the given unit.
+     */
+    public long getLoadTime( TimeUnit unit )
+    {
+        return unit.convert( loadTime.get(), TimeUnit.NANOSECONDS );
     }
 
     protected static PluginDescriptor clone( PluginDescriptor original )
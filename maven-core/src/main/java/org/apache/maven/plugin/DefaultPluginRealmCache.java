@@ -27,6 +27,7 @@
 
 import org.apache.commons.lang3.Validate;
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.classworlds.realm.ClassRealm;
@@ -149,6 +150,18 @@ private static <T> boolean eq( T s1, T s2 )
 
     protected final Map<Key, CacheRecord> cache = new ConcurrentHashMap<>();
 
+    private final Object[] locks = new Object[64];
+
+    private volatile RealmPool pool;
+
+    public DefaultPluginRealmCache()
+    {
+        for ( int i = 0; i < locks.length; i++ )
+        {
+            locks[i] = new Object();
+        }
+    }
+
     public Key createKey( Plugin plugin, ClassLoader parentRealm, Map<String, ClassLoader> foreignImports,
                           DependencyFilter dependencyFilter, List<RemoteRepository> repositories,
                           RepositorySystemSession session )
@@ -158,7 +171,71 @@ public Key createKey( Plugin plugin, ClassLoader parentRealm, Map<String, ClassL
 
     public CacheRecord get( Key key )
     {
-        return cache.get( key );
+        CacheRecord record = cache.get( key );
+
+        RealmPool pool = this.pool;
+        if ( record != null && pool != null && !pool.isCurrent( key ) )
+        {
+            cache.remove( key );
+            record = null;
+        }
+
+        return record;
+    }
+
+    /**
+     * Creates the plugin realm that is not cached yet.
+     *
+     * @since 3.4.0
+     */
+    public interface PluginRealmSupplier
+    {
+        CacheRecord load()
+            throws PluginResolutionException, PluginContainerException;
+    }
+
+    /**
+     * Gets the cache record for the specified key, using the supplier to create the plugin realm if it is not cached
+     * yet. Concurrent requests for the same key share a single realm while requests for different keys do not block
+     * each other.
+     *
+     * @param key The cache key, must not be {@code null}.
+     * @param supplier The supplier to create the realm on a cache miss, must not be {@code null}.
+     * @return The cache record, never {@code null}.
+     * @since 3.4.0
+     */
+    public CacheRecord get( Key key, PluginRealmSupplier supplier )
+        throws PluginResolutionException, PluginContainerException
+    {
+        CacheRecord record = get( key );
+
+        if ( record == null )
+        {
+            synchronized ( getLock( key ) )
+            {
+                record = cache.get( key );
+
+                if ( record == null )
+                {
+                    record = supplier.load();
+
+                    cache.put( key, record );
+
+                    if ( pool != null )
+                    {
+                        pool.add( key, record.realm, record.artifacts );
+                    }
+                }
+            }
+        }
+
+        return record;
+    }
+
+    private Object getLock( Key key )
+    {
+        int hash = key.hashCode();
+        return locks[( hash ^ ( hash >>> 16 ) ) & ( locks.length - 1 )];
     }
 
     public CacheRecord put( Key key, ClassRealm pluginRealm, List<Artifact> pluginArtifacts )
@@ -175,6 +252,11 @@ public CacheRecord put( Key key, ClassRealm pluginRealm, List<Artifact> pluginAr
 
         cache.put( key, record );
 
+        if ( pool != null )
+        {
+            pool.add( key, pluginRealm, pluginArtifacts );
+        }
+
         return record;
     }
 
@@ -193,6 +275,44 @@ public void flush()
             }
         }
         cache.clear();
+        if ( pool != null )
+        {
+            pool.clear();
+        }
+    }
+
+    /**
+     * Enables the realm pool if the session asks for it and registers the session with the pool.
+     *
+     * @param session The session that begins, must not be {@code null}.
+     * @since 3.4.0
+     */
+    public synchronized void beginPool( MavenSession session )
+    {
+        pool = RealmPool.begin( pool, session );
+    }
+
+    RealmPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Evicts the least recently used realms that exceed the budget of the realm pool and, once no session is running
+     * anymore, disposes the realms that were evicted or went stale.
+     *
+     * @since 3.4.0
+     */
+    public synchronized void trimPool()
+    {
+        if ( pool != null )
+        {
+            for ( Object key : pool.trim() )
+            {
+                cache.remove( key );
+            }
+            pool.dispose();
+        }
     }
 
     protected static int pluginHashCode( Plugin plugin )
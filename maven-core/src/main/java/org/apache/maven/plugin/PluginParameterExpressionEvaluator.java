@@ -21,16 +21,16 @@
 
 import java.io.File;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
-import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.path.PathTranslator;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
 import org.codehaus.plexus.component.configurator.expression.TypeAwareExpressionEvaluator;
 import org.codehaus.plexus.logging.Logger;
-import org.codehaus.plexus.util.introspection.ReflectionValueExtractor;
 
 /**
  * Evaluator for plugin parameters expressions. Content surrounded by <code>${</code> and <code>}</code> is evaluated.
@@ -73,6 +73,14 @@
 public class PluginParameterExpressionEvaluator
     implements TypeAwareExpressionEvaluator
 {
+    private static final int MAX_EXPRESSIONS = 1024;
+
+    /**
+     * The parsed form of the <code>${...}</code> expressions seen so far, keyed by the unstripped expression, so
+     * repeated evaluations skip the token stripping and the lookup of the expression root.
+     */
+    private static final ConcurrentMap<String, ParsedExpression> EXPRESSIONS = new ConcurrentHashMap<>();
+
     private MavenSession session;
 
     private MojoExecution mojoExecution;
@@ -154,8 +162,8 @@ public Object evaluate( String expr, Class<?> type )
             return null;
         }
 
-        String expression = stripTokens( expr );
-        if ( expression.equals( expr ) )
+        ParsedExpression parsed = getParsedExpression( expr );
+        if ( parsed == null )
         {
             int index = expr.indexOf( "${" );
             if ( index >= 0 )
@@ -189,191 +197,75 @@ public Object evaluate( String expr, Class<?> type )
             }
 
             // Was not an expression
-            if ( expression.contains( "$$" ) )
+            if ( expr.contains( "$$" ) )
             {
-                return expression.replaceAll( "\\$\\$", "\\$" );
+                return expr.replaceAll( "\\$\\$", "\\$" );
             }
             else
             {
-                return expression;
+                return expr;
             }
         }
 
-        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
-
-        if ( "localRepository".equals( expression ) )
-        {
-            value = session.getLocalRepository();
-        }
-        else if ( "session".equals( expression ) )
-        {
-            value = session;
-        }
-        else if ( expression.startsWith( "session" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
+        String expression = parsed.expression;
 
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, session );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), session );
-                }
-            }
-            catch ( Exception e )
-            {
-                // TODO: don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( "reactorProjects".equals( expression ) )
-        {
-            value = session.getProjects();
-        }
-        else if ( "mojoExecution".equals( expression ) )
-        {
-            value = mojoExecution;
-        }
-        else if ( "project".equals( expression ) )
-        {
-            value = project;
-        }
-        else if ( "executedProject".equals( expression ) )
-        {
-            value = project.getExecutionProject();
-        }
-        else if ( expression.startsWith( "project" ) || expression.startsWith( "pom" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
-
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 0, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, project );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), project );
-                }
-            }
-            catch ( Exception e )
-            {
-                // TODO: don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( expression.equals( "repositorySystemSession" ) )
-        {
-            value = session.getRepositorySession();
-        }
-        else if ( expression.equals( "mojo" ) )
-        {
-            value = mojoExecution;
-        }
-        else if ( expression.startsWith( "mojo" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
-
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, mojoExecution );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), mojoExecution );
-                }
-            }
-            catch ( Exception e )
-            {
-                // TODO: don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( expression.equals( "plugin" ) )
-        {
-            value = mojoDescriptor.getPluginDescriptor();
-        }
-        else if ( expression.startsWith( "plugin" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
-
-                PluginDescriptor pluginDescriptor = mojoDescriptor.getPluginDescriptor();
+        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
 
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, pluginDescriptor );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
-                {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), pluginDescriptor );
-                }
-            }
-            catch ( Exception e )
-            {
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( "settings".equals( expression ) )
+        switch ( parsed.kind )
         {
-            value = session.getSettings();
-        }
-        else if ( expression.startsWith( "settings" ) )
-        {
-            try
-            {
-                int pathSeparator = expression.indexOf( '/' );
-
-                if ( pathSeparator > 0 )
-                {
-                    String pathExpression = expression.substring( 1, pathSeparator );
-                    value = ReflectionValueExtractor.evaluate( pathExpression, session.getSettings() );
-                    value = value + expression.substring( pathSeparator );
-                }
-                else
+            case LOCAL_REPOSITORY:
+                value = session.getLocalRepository();
+                break;
+            case SESSION:
+                value = session;
+                break;
+            case SESSION_PATH:
+                value = evaluatePath( parsed, session );
+                break;
+            case REACTOR_PROJECTS:
+                value = session.getProjects();
+                break;
+            case MOJO_EXECUTION:
+                value = mojoExecution;
+                break;
+            case PROJECT:
+                value = project;
+                break;
+            case EXECUTED_PROJECT:
+                value = project.getExecutionProject();
+                break;
+            case PROJECT_PATH:
+                value = evaluatePath( parsed, project );
+                break;
+            case REPOSITORY_SYSTEM_SESSION:
+                value = session.getRepositorySession();
+                break;
+            case MOJO_PATH:
+                value = evaluatePath( parsed, mojoExecution );
+                break;
+            case PLUGIN:
+                value = mojoDescriptor.getPluginDescriptor();
+                break;
+            case PLUGIN_PATH:
+                value = evaluatePath( parsed, mojoDescriptor.getPluginDescriptor() );
+                break;
+            case SETTINGS:
+                value = session.getSettings();
+                break;
+            case SETTINGS_PATH:
+                value = evaluatePath( parsed, session.getSettings() );
+                break;
+            case BASEDIR:
+                value = basedir;
+                break;
+            case BASEDIR_PATH:
+                if ( parsed.suffix != null )
                 {
-                    value = ReflectionValueExtractor.evaluate( expression.substring( 1 ), session.getSettings() );
+                    value = basedir + parsed.suffix;
                 }
-            }
-            catch ( Exception e )
-            {
-                // TODO: don't catch exception
-                throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: " + expression,
-                                                         e );
-            }
-        }
-        else if ( "basedir".equals( expression ) )
-        {
-            value = basedir;
-        }
-        else if ( expression.startsWith( "basedir" ) )
-        {
-            int pathSeparator = expression.indexOf( '/' );
-
-            if ( pathSeparator > 0 )
-            {
-                value = basedir + expression.substring( pathSeparator );
-            }
+                break;
+            default:
+                break;
         }
 
         /*
@@ -445,7 +337,7 @@ private static boolean isTypeCompatible( Class<?> type, Object value )
                         && value.getClass().getName().startsWith( "java.lang." ) );
     }
 
-    private String stripTokens( String expr )
+    private static String stripTokens( String expr )
     {
         if ( expr.startsWith( "${" ) && ( expr.indexOf( '}' ) == expr.length() - 1 ) )
         {
@@ -454,6 +346,125 @@ private String stripTokens( String expr )
         return expr;
     }
 
+    private static ParsedExpression getParsedExpression( String expr )
+    {
+        ParsedExpression parsed = EXPRESSIONS.get( expr );
+
+        if ( parsed == null )
+        {
+            String expression = stripTokens( expr );
+            if ( expression.equals( expr ) )
+            {
+                return null;
+            }
+
+            parsed = parse( expression );
+
+            if ( EXPRESSIONS.size() >= MAX_EXPRESSIONS )
+            {
+                EXPRESSIONS.clear();
+            }
+            EXPRESSIONS.put( expr, parsed );
+        }
+
+        return parsed;
+    }
+
+    private static ParsedExpression parse( String expression )
+    {
+        if ( "localRepository".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.LOCAL_REPOSITORY );
+        }
+        else if ( "session".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.SESSION );
+        }
+        else if ( expression.startsWith( "session" ) )
+        {
+            return new ParsedExpression( expression, Kind.SESSION_PATH, 1 );
+        }
+        else if ( "reactorProjects".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.REACTOR_PROJECTS );
+        }
+        else if ( "mojoExecution".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.MOJO_EXECUTION );
+        }
+        else if ( "project".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.PROJECT );
+        }
+        else if ( "executedProject".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.EXECUTED_PROJECT );
+        }
+        else if ( expression.startsWith( "project" ) || expression.startsWith( "pom" ) )
+        {
+            // unlike the other roots, a project path with a trailing file path keeps its first character
+            int pathSeparator = expression.indexOf( '/' );
+            return new ParsedExpression( expression, Kind.PROJECT_PATH, ( pathSeparator > 0 ) ? 0 : 1 );
+        }
+        else if ( expression.equals( "repositorySystemSession" ) )
+        {
+            return new ParsedExpression( expression, Kind.REPOSITORY_SYSTEM_SESSION );
+        }
+        else if ( expression.equals( "mojo" ) )
+        {
+            return new ParsedExpression( expression, Kind.MOJO_EXECUTION );
+        }
+        else if ( expression.startsWith( "mojo" ) )
+        {
+            return new ParsedExpression( expression, Kind.MOJO_PATH, 1 );
+        }
+        else if ( expression.equals( "plugin" ) )
+        {
+            return new ParsedExpression( expression, Kind.PLUGIN );
+        }
+        else if ( expression.startsWith( "plugin" ) )
+        {
+            return new ParsedExpression( expression, Kind.PLUGIN_PATH, 1 );
+        }
+        else if ( "settings".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.SETTINGS );
+        }
+        else if ( expression.startsWith( "settings" ) )
+        {
+            return new ParsedExpression( expression, Kind.SETTINGS_PATH, 1 );
+        }
+        else if ( "basedir".equals( expression ) )
+        {
+            return new ParsedExpression( expression, Kind.BASEDIR );
+        }
+        else if ( expression.startsWith( "basedir" ) )
+        {
+            return new ParsedExpression( expression, Kind.BASEDIR_PATH, 0 );
+        }
+        return new ParsedExpression( expression, Kind.PROPERTY );
+    }
+
+    private static Object evaluatePath( ParsedExpression parsed, Object root )
+        throws ExpressionEvaluationException
+    {
+        try
+        {
+            Object value = PropertyPathEvaluator.evaluate( parsed.path, root );
+            if ( parsed.suffix != null )
+            {
+                value = value + parsed.suffix;
+            }
+            return value;
+        }
+        catch ( Exception e )
+        {
+            // TODO: don't catch exception
+            throw new ExpressionEvaluationException( "Error evaluating plugin parameter expression: "
+                + parsed.expression, e );
+        }
+    }
+
     @Override
     public File alignToBaseDirectory( File file )
     {
@@ -479,4 +490,57 @@ else if ( file.getPath().startsWith( File.separator ) )
         return file;
     }
 
+    /**
+     * The root an expression is evaluated against.
+     */
+    private enum Kind
+    {
+        LOCAL_REPOSITORY, SESSION, SESSION_PATH, REACTOR_PROJECTS, MOJO_EXECUTION, PROJECT, EXECUTED_PROJECT,
+        PROJECT_PATH, REPOSITORY_SYSTEM_SESSION, MOJO_PATH, PLUGIN, PLUGIN_PATH, SETTINGS, SETTINGS_PATH, BASEDIR,
+        BASEDIR_PATH, PROPERTY
+    }
+
+    /**
+     * A stripped expression along with its root and, for property paths, the path to evaluate against the root and
+     * the file path suffix to append to the result.
+     */
+    private static final class ParsedExpression
+    {
+
+        final String expression;
+
+        final Kind kind;
+
+        final String path;
+
+        final String suffix;
+
+        ParsedExpression( String expression, Kind kind )
+        {
+            this.expression = expression;
+            this.kind = kind;
+            this.path = null;
+            this.suffix = null;
+        }
+
+        ParsedExpression( String expression, Kind kind, int pathStart )
+        {
+            this.expression = expression;
+            this.kind = kind;
+
+            int pathSeparator = expression.indexOf( '/' );
+            if ( pathSeparator > 0 )
+            {
+                this.path = expression.substring( pathStart, pathSeparator );
+                this.suffix = expression.substring( pathSeparator );
+            }
+            else
+            {
+                this.path = expression.substring( pathStart );
+                this.suffix = null;
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,209 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.introspection.ClassMap;
+import org.codehaus.plexus.util.introspection.ReflectionValueExtractor;
+
+/**
+ * Evaluates the property paths of plugin parameter expressions like <code>project.build.directory</code>. Simple
+ * dotted paths are split once and cached by expression string, and the getter resolved for each property is cached
+ * per runtime class, so repeated evaluations only cost one reflective call per segment. Anything beyond plain dotted
+ * paths (indexed or mapped access) is delegated to {@link ReflectionValueExtractor}, whose semantics this class
+ * follows: the first segment names the root and is skipped, and a <code>null</code> intermediate value yields
+ * <code>null</code>.
+ *
+ * @since 3.4.0
+ */
+final class PropertyPathEvaluator
+{
+
+    private static final int MAX_EXPRESSIONS = 1024;
+
+    private static final String[] NOT_COMPILABLE = new String[0];
+
+    private static final Object NO_METHOD = new Object();
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final ConcurrentMap<String, String[]> EXPRESSIONS = new ConcurrentHashMap<>();
+
+    private static final ClassValue<Accessors> ACCESSORS = new ClassValue<Accessors>()
+    {
+        @Override
+        protected Accessors computeValue( Class<?> type )
+        {
+            return new Accessors( type );
+        }
+    };
+
+    private PropertyPathEvaluator()
+    {
+        // hide constructor
+    }
+
+    /**
+     * Evaluates the specified property path against the given root object.
+     *
+     * @param expression The property path, including the (ignored) name of the root, must not be {@code null}.
+     * @param root The object to evaluate the path against, may be {@code null}.
+     * @return The value of the path or {@code null} if any segment evaluated to {@code null}.
+     * @throws Exception If a getter failed.
+     */
+    public static Object evaluate( String expression, Object root )
+        throws Exception
+    {
+        String[] properties = compile( expression );
+
+        if ( properties == NOT_COMPILABLE )
+        {
+            return ReflectionValueExtractor.evaluate( expression, root );
+        }
+
+        Object value = root;
+
+        for ( int i = 0; i < properties.length && value != null; i++ )
+        {
+            Method method = ACCESSORS.get( value.getClass() ).getMethod( properties[i] );
+
+            value = ( method != null ) ? method.invoke( value, NO_ARGS ) : null;
+        }
+
+        return value;
+    }
+
+    private static String[] compile( String expression )
+    {
+        String[] properties = EXPRESSIONS.get( expression );
+
+        if ( properties == null )
+        {
+            properties = parse( expression );
+
+            if ( EXPRESSIONS.size() >= MAX_EXPRESSIONS )
+            {
+                EXPRESSIONS.clear();
+            }
+            EXPRESSIONS.put( expression, properties );
+        }
+
+        return properties;
+    }
+
+    /**
+     * Splits a path of the form <code>root.property(.property)*</code> into its properties (without the root).
+     */
+    static String[] parse( String expression )
+    {
+        int length = expression.length();
+
+        if ( length <= 0 || !Character.isJavaIdentifierStart( expression.charAt( 0 ) ) )
+        {
+            return NOT_COMPILABLE;
+        }
+
+        int segments = 0;
+        int start = 0;
+        for ( int i = 0; i <= length; i++ )
+        {
+            if ( i == length || expression.charAt( i ) == '.' )
+            {
+                if ( i == start )
+                {
+                    return NOT_COMPILABLE;
+                }
+                segments++;
+                start = i + 1;
+            }
+            else if ( !Character.isJavaIdentifierPart( expression.charAt( i ) ) )
+            {
+                return NOT_COMPILABLE;
+            }
+        }
+
+        if ( segments < 2 )
+        {
+            return NOT_COMPILABLE;
+        }
+
+        String[] properties = new String[segments - 1];
+        start = expression.indexOf( '.' ) + 1;
+        for ( int i = 0; i < properties.length; i++ )
+        {
+            int end = expression.indexOf( '.', start );
+            if ( end < 0 )
+            {
+                end = length;
+            }
+            properties[i] = expression.substring( start, end );
+            start = end + 1;
+        }
+
+        return properties;
+    }
+
+    /**
+     * The getters of a class, resolved lazily by property name.
+     */
+    private static final class Accessors
+    {
+
+        private final ClassMap classMap;
+
+        private final ConcurrentMap<String, Object> methods = new ConcurrentHashMap<>();
+
+        Accessors( Class<?> type )
+        {
+            classMap = new ClassMap( type );
+        }
+
+        Method getMethod( String property )
+            throws Exception
+        {
+            Object method = methods.get( property );
+
+            if ( method == null )
+            {
+                String name = StringUtils.capitalizeFirstLetter( property );
+
+                method = classMap.findMethod( "get" + name, NO_ARGS );
+                if ( method == null )
+                {
+                    method = classMap.findMethod( "is" + name, NO_ARGS );
+                }
+                if ( method == null )
+                {
+                    method = NO_METHOD;
+                }
+
+                methods.put( property, method );
+            }
+
+            return ( method != NO_METHOD ) ? (Method) method : null;
+        }
+
+    }
+
+}
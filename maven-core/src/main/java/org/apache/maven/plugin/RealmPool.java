@@ -0,0 +1,363 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.classworlds.realm.NoSuchRealmException;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Keeps track of the class realms of a realm cache so that they can be reused across the sessions of a long-lived
+ * container. A pooled realm is reused only as long as the files of its artifacts are unchanged, which is checked once
+ * per session by size and modification time, falling back to a content hash when only the modification time changed.
+ * When a session ends, the least recently used realms are evicted until the total size of their artifact files fits
+ * into the budget. Stale and evicted realms are only disposed once no session is running anymore, so a realm is never
+ * pulled away from a build that still uses it, even if several sessions share the container.
+ *
+ * @since 3.4.0
+ */
+class RealmPool
+{
+
+    /**
+     * The name of the user or system property that enables realm pooling.
+     */
+    static final String ENABLED_PROPERTY = "maven.realmPool";
+
+    /**
+     * The name of the user or system property that sets the budget of the pool, as the total size of the artifact
+     * files in bytes.
+     */
+    static final String MAX_SIZE_PROPERTY = "maven.realmPool.maxSize";
+
+    static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    private long maxSize;
+
+    private final Map<Object, Entry> entries = new LinkedHashMap<>( 64, 0.75f, true );
+
+    private final List<ClassRealm> retired = new ArrayList<>();
+
+    private long size;
+
+    private int generation;
+
+    private int sessions;
+
+    RealmPool( long maxSize )
+    {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Begins a session with the given pool. The pool is created by the first session that enables pooling, later
+     * sessions update its budget. Once created, the pool keeps track of its realms for all sessions.
+     *
+     * @param pool The current pool of the realm cache, may be {@code null}.
+     * @param session The session that begins, must not be {@code null}.
+     * @return The pool to use from now on or {@code null} if pooling is disabled.
+     */
+    public static RealmPool begin( RealmPool pool, MavenSession session )
+    {
+        boolean enabled = Boolean.parseBoolean( getProperty( session, ENABLED_PROPERTY ) );
+        if ( enabled )
+        {
+            long maxSize = getMaxSize( session );
+            if ( pool == null )
+            {
+                pool = new RealmPool( maxSize );
+            }
+            else
+            {
+                pool.setMaxSize( maxSize );
+            }
+        }
+        if ( pool != null )
+        {
+            pool.begin();
+        }
+        return pool;
+    }
+
+    private static long getMaxSize( MavenSession session )
+    {
+        String value = getProperty( session, MAX_SIZE_PROPERTY );
+        try
+        {
+            return ( value != null ) ? Long.parseLong( value.trim() ) : DEFAULT_MAX_SIZE;
+        }
+        catch ( NumberFormatException e )
+        {
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    private static String getProperty( MavenSession session, String key )
+    {
+        Properties userProperties = session.getUserProperties();
+        String value = ( userProperties != null ) ? userProperties.getProperty( key ) : null;
+        if ( value == null && session.getSystemProperties() != null )
+        {
+            value = session.getSystemProperties().getProperty( key );
+        }
+        return value;
+    }
+
+    synchronized void setMaxSize( long maxSize )
+    {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Registers a running session, realms are not disposed until it ended.
+     */
+    synchronized void begin()
+    {
+        sessions++;
+    }
+
+    /**
+     * Checks whether the realm pooled for the given key can still be used and marks it as recently used. A realm whose
+     * artifact files changed is removed from the pool and disposed once no session is running.
+     *
+     * @param key The cache key, must not be {@code null}.
+     * @return {@code true} if the realm is current or not pooled, {@code false} if the caller must drop it.
+     */
+    public synchronized boolean isCurrent( Object key )
+    {
+        Entry entry = entries.get( key );
+        if ( entry == null || entry.generation == generation )
+        {
+            return true;
+        }
+        for ( FileStamp file : entry.files )
+        {
+            if ( !file.isCurrent() )
+            {
+                entries.remove( key );
+                size -= entry.size;
+                retired.add( entry.realm );
+                return false;
+            }
+        }
+        entry.generation = generation;
+        return true;
+    }
+
+    public synchronized void add( Object key, ClassRealm realm, List<Artifact> artifacts )
+    {
+        Entry entry = new Entry( realm, generation );
+        for ( Artifact artifact : artifacts )
+        {
+            File file = artifact.getFile();
+            if ( file != null && file.isFile() )
+            {
+                FileStamp stamp = new FileStamp( file );
+                entry.files.add( stamp );
+                entry.size += stamp.size;
+            }
+        }
+        Entry previous = entries.put( key, entry );
+        if ( previous != null )
+        {
+            size -= previous.size;
+        }
+        size += entry.size;
+    }
+
+    /**
+     * Ends a session: evicts the least recently used realms that exceed the budget. The evicted realms and those that
+     * went stale are disposed by {@link #dispose()} once no session is running anymore.
+     *
+     * @return The keys of the evicted realms which the caller must remove from its cache, never {@code null}.
+     */
+    public synchronized List<Object> trim()
+    {
+        sessions = Math.max( 0, sessions - 1 );
+        generation++;
+
+        List<Object> evicted = new ArrayList<>();
+        for ( Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator(); it.hasNext() && size > maxSize; )
+        {
+            Map.Entry<Object, Entry> entry = it.next();
+            it.remove();
+            size -= entry.getValue().size;
+            retired.add( entry.getValue().realm );
+            evicted.add( entry.getKey() );
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Disposes the realms that were evicted or went stale, unless a session is still running and might use them.
+     *
+     * @return The disposed realms, never {@code null}.
+     */
+    public synchronized List<ClassRealm> dispose()
+    {
+        if ( sessions > 0 || retired.isEmpty() )
+        {
+            return new ArrayList<>();
+        }
+
+        List<ClassRealm> disposed = new ArrayList<>( retired );
+        for ( ClassRealm realm : disposed )
+        {
+            dispose( realm );
+        }
+        retired.clear();
+
+        return disposed;
+    }
+
+    public synchronized void clear()
+    {
+        for ( ClassRealm realm : retired )
+        {
+            dispose( realm );
+        }
+        entries.clear();
+        retired.clear();
+        size = 0;
+    }
+
+    synchronized long size()
+    {
+        return size;
+    }
+
+    static void dispose( ClassRealm realm )
+    {
+        try
+        {
+            realm.getWorld().disposeRealm( realm.getId() );
+        }
+        catch ( NoSuchRealmException e )
+        {
+            // ignore
+        }
+    }
+
+    private static class Entry
+    {
+
+        final ClassRealm realm;
+
+        final List<FileStamp> files = new ArrayList<>();
+
+        long size;
+
+        int generation;
+
+        Entry( ClassRealm realm, int generation )
+        {
+            this.realm = realm;
+            this.generation = generation;
+        }
+
+    }
+
+    private static class FileStamp
+    {
+
+        final File file;
+
+        final long size;
+
+        long lastModified;
+
+        private byte[] hash;
+
+        FileStamp( File file )
+        {
+            this.file = file;
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        boolean isCurrent()
+        {
+            if ( file.length() != size )
+            {
+                return false;
+            }
+            long modified = file.lastModified();
+            if ( modified == lastModified )
+            {
+                if ( hash == null )
+                {
+                    // the file is unchanged, remember its contents in case it is only touched later on
+                    hash = hash( file );
+                }
+                return true;
+            }
+            // the file was touched, e.g. by a reinstall of the same artifact, but may still have the same contents
+            if ( hash != null && Arrays.equals( hash, hash( file ) ) )
+            {
+                lastModified = modified;
+                return true;
+            }
+            return false;
+        }
+
+        private static byte[] hash( File file )
+        {
+            InputStream in = null;
+            try
+            {
+                MessageDigest digest = MessageDigest.getInstance( "SHA-1" );
+                in = new FileInputStream( file );
+                byte[] buffer = new byte[8192];
+                for ( int n; ( n = in.read( buffer ) ) >= 0; )
+                {
+                    digest.update( buffer, 0, n );
+                }
+                return digest.digest();
+            }
+            catch ( IOException | NoSuchAlgorithmException e )
+            {
+                return null;
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.DefaultProjectRealmCache;
+import org.apache.maven.project.ProjectRealmCache;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+
+/**
+ * Registers each session with the pooled plugin and extension realms and trims them at the end of the session. The
+ * project realms that import from disposed extension realms are evicted along with them. Only sessions that were
+ * registered are ended, as the end of a session is signalled even if the build failed before or during the start of
+ * the session.
+ *
+ * @since 3.4.0
+ */
+@Component( role = AbstractMavenLifecycleParticipant.class, hint = "realm-pool" )
+public class RealmPoolLifecycleParticipant
+    extends AbstractMavenLifecycleParticipant
+{
+
+    @Requirement
+    private PluginRealmCache pluginRealmCache;
+
+    @Requirement
+    private ExtensionRealmCache extensionRealmCache;
+
+    @Requirement
+    private ProjectRealmCache projectRealmCache;
+
+    private final Set<MavenSession> sessions =
+        Collections.synchronizedSet( Collections.newSetFromMap( new IdentityHashMap<MavenSession, Boolean>() ) );
+
+    @Override
+    public void afterSessionStart( MavenSession session )
+    {
+        if ( !sessions.add( session ) )
+        {
+            return;
+        }
+        if ( pluginRealmCache instanceof DefaultPluginRealmCache )
+        {
+            ( (DefaultPluginRealmCache) pluginRealmCache ).beginPool( session );
+        }
+        if ( extensionRealmCache instanceof DefaultExtensionRealmCache )
+        {
+            ( (DefaultExtensionRealmCache) extensionRealmCache ).beginPool( session );
+        }
+    }
+
+    @Override
+    public void afterSessionEnd( MavenSession session )
+    {
+        if ( !sessions.remove( session ) )
+        {
+            return;
+        }
+        if ( pluginRealmCache instanceof DefaultPluginRealmCache )
+        {
+            ( (DefaultPluginRealmCache) pluginRealmCache ).trimPool();
+        }
+        if ( extensionRealmCache instanceof DefaultExtensionRealmCache )
+        {
+            List<ClassRealm> disposed = ( (DefaultExtensionRealmCache) extensionRealmCache ).trimPool();
+            if ( projectRealmCache instanceof DefaultProjectRealmCache )
+            {
+                ( (DefaultProjectRealmCache) projectRealmCache ).evict( disposed );
+            }
+        }
+    }
+
+}
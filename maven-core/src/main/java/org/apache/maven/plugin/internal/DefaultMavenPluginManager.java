@@ -29,6 +29,8 @@
 import org.apache.maven.monitor.logging.DefaultLog;
 import org.apache.maven.plugin.ContextEnabled;
 import org.apache.maven.plugin.DebugConfigurationListener;
+import org.apache.maven.plugin.DefaultPluginDescriptorCache;
+import org.apache.maven.plugin.DefaultPluginRealmCache;
 import org.apache.maven.plugin.ExtensionRealmCache;
 import org.apache.maven.plugin.InvalidPluginDescriptorException;
 import org.apache.maven.plugin.MavenPluginManager;
@@ -166,26 +168,52 @@
 
     private PluginDescriptorBuilder builder = new PluginDescriptorBuilder();
 
-    public synchronized PluginDescriptor getPluginDescriptor( Plugin plugin, List<RemoteRepository> repositories,
-                                                              RepositorySystemSession session )
+    public PluginDescriptor getPluginDescriptor( final Plugin plugin, final List<RemoteRepository> repositories,
+                                                 final RepositorySystemSession session )
         throws PluginResolutionException, PluginDescriptorParsingException, InvalidPluginDescriptorException
     {
         PluginDescriptorCache.Key cacheKey = pluginDescriptorCache.createKey( plugin, repositories, session );
 
-        PluginDescriptor pluginDescriptor = pluginDescriptorCache.get( cacheKey );
+        DefaultPluginDescriptorCache.PluginDescriptorSupplier supplier =
+            new DefaultPluginDescriptorCache.PluginDescriptorSupplier()
+            {
+                public PluginDescriptor load()
+                    throws PluginResolutionException, PluginDescriptorParsingException,
+                    InvalidPluginDescriptorException
+                {
+                    org.eclipse.aether.artifact.Artifact artifact =
+                        pluginDependenciesResolver.resolve( plugin, repositories, session );
 
-        if ( pluginDescriptor == null )
-        {
-            org.eclipse.aether.artifact.Artifact artifact =
-                pluginDependenciesResolver.resolve( plugin, repositories, session );
+                    Artifact pluginArtifact = RepositoryUtils.toArtifact( artifact );
+
+                    PluginDescriptor descriptor = extractPluginDescriptor( pluginArtifact, plugin );
 
-            Artifact pluginArtifact = RepositoryUtils.toArtifact( artifact );
+                    descriptor.setRequiredMavenVersion( artifact.getProperty( "requiredMavenVersion", null ) );
 
-            pluginDescriptor = extractPluginDescriptor( pluginArtifact, plugin );
+                    return descriptor;
+                }
+            };
 
-            pluginDescriptor.setRequiredMavenVersion( artifact.getProperty( "requiredMavenVersion", null ) );
+        PluginDescriptor pluginDescriptor;
 
-            pluginDescriptorCache.put( cacheKey, pluginDescriptor );
+        if ( pluginDescriptorCache instanceof DefaultPluginDescriptorCache )
+        {
+            pluginDescriptor = ( (DefaultPluginDescriptorCache) pluginDescriptorCache ).get( cacheKey, supplier );
+        }
+        else
+        {
+            // custom caches only offer get/put, so loading has to be serialized like before
+            synchronized ( this )
+            {
+                pluginDescriptor = pluginDescriptorCache.get( cacheKey );
+
+                if ( pluginDescriptor == null )
+                {
+                    pluginDescriptor = supplier.load();
+
+                    pluginDescriptorCache.put( cacheKey, pluginDescriptor );
+                }
+            }
         }
 
         pluginDescriptor.setPlugin( plugin );
@@ -313,8 +341,8 @@ public void checkRequiredMavenVersion( PluginDescriptor pluginDescriptor )
         }
     }
 
-    public synchronized void setupPluginRealm( PluginDescriptor pluginDescriptor, MavenSession session,
-                                               ClassLoader parent, List<String> imports, DependencyFilter filter )
+    public void setupPluginRealm( final PluginDescriptor pluginDescriptor, final MavenSession session,
+                                  final ClassLoader parent, List<String> imports, final DependencyFilter filter )
         throws PluginResolutionException, PluginContainerException
     {
         Plugin plugin = pluginDescriptor.getPlugin();
@@ -348,29 +376,51 @@ public synchronized void setupPluginRealm( PluginDescriptor pluginDescriptor, Ma
         }
         else
         {
-            Map<String, ClassLoader> foreignImports = calcImports( project, parent, imports );
+            final Map<String, ClassLoader> foreignImports = calcImports( project, parent, imports );
 
             PluginRealmCache.Key cacheKey = pluginRealmCache.createKey( plugin, parent, foreignImports, filter,
                                                                         project.getRemotePluginRepositories(),
                                                                         session.getRepositorySession() );
 
-            PluginRealmCache.CacheRecord cacheRecord = pluginRealmCache.get( cacheKey );
-
-            if ( cacheRecord != null )
+            DefaultPluginRealmCache.PluginRealmSupplier supplier = new DefaultPluginRealmCache.PluginRealmSupplier()
             {
-                pluginDescriptor.setClassRealm( cacheRecord.realm );
-                pluginDescriptor.setArtifacts( new ArrayList<>( cacheRecord.artifacts ) );
-                for ( ComponentDescriptor<?> componentDescriptor : pluginDescriptor.getComponents() )
+                public PluginRealmCache.CacheRecord load()
+                    throws PluginResolutionException, PluginContainerException
                 {
-                    componentDescriptor.setRealm( cacheRecord.realm );
+                    createPluginRealm( pluginDescriptor, session, parent, foreignImports, filter );
+
+                    return new PluginRealmCache.CacheRecord( pluginDescriptor.getClassRealm(),
+                                                             pluginDescriptor.getArtifacts() );
                 }
+            };
+
+            PluginRealmCache.CacheRecord cacheRecord;
+
+            if ( pluginRealmCache instanceof DefaultPluginRealmCache )
+            {
+                cacheRecord = ( (DefaultPluginRealmCache) pluginRealmCache ).get( cacheKey, supplier );
             }
             else
             {
-                createPluginRealm( pluginDescriptor, session, parent, foreignImports, filter );
+                // custom caches only offer get/put, so realm creation has to be serialized like before
+                synchronized ( this )
+                {
+                    cacheRecord = pluginRealmCache.get( cacheKey );
 
-                cacheRecord =
-                    pluginRealmCache.put( cacheKey, pluginDescriptor.getClassRealm(), pluginDescriptor.getArtifacts() );
+                    if ( cacheRecord == null )
+                    {
+                        PluginRealmCache.CacheRecord created = supplier.load();
+
+                        cacheRecord = pluginRealmCache.put( cacheKey, created.realm, created.artifacts );
+                    }
+                }
+            }
+
+            pluginDescriptor.setClassRealm( cacheRecord.realm );
+            pluginDescriptor.setArtifacts( new ArrayList<>( cacheRecord.artifacts ) );
+            for ( ComponentDescriptor<?> componentDescriptor : pluginDescriptor.getComponents() )
+            {
+                componentDescriptor.setRealm( cacheRecord.realm );
             }
 
             pluginRealmCache.register( project, cacheKey, cacheRecord );
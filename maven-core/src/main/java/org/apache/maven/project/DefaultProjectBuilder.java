@@ -26,10 +26,20 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.Artifact;
@@ -80,6 +90,23 @@
     implements ProjectBuilder
 {
 
+    /**
+     * The name of the user or system property that sets the number of threads used to build the models of a reactor.
+     * Values greater than {@code 1} build the raw and the effective models of the modules concurrently, the default
+     * builds them one after the other.
+     *
+     * @since 3.4.0
+     */
+    public static final String THREADS_PROPERTY = "maven.projectBuilder.threads";
+
+    /**
+     * The name of the user or system property that limits the number of entries in the model cache of a reactor build.
+     * The least recently used entries are evicted beyond that limit, by default the cache is unbounded.
+     *
+     * @since 3.4.0
+     */
+    public static final String MODEL_CACHE_SIZE_PROPERTY = "maven.modelCache.maxSize";
+
     @Requirement
     private Logger logger;
 
@@ -352,65 +379,132 @@ public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive
 
         ReactorModelPool modelPool = new ReactorModelPool();
 
-        ReactorModelCache modelCache = new ReactorModelCache();
+        ReactorModelCache modelCache = new ReactorModelCache( getInteger( request, MODEL_CACHE_SIZE_PROPERTY, 0 ) );
 
         InternalConfig config = new InternalConfig( request, modelPool, modelCache );
 
         Map<String, MavenProject> projectIndex = new HashMap<>( 256 );
 
-        boolean noErrors =
-            build( results, interimResults, projectIndex, pomFiles, new LinkedHashSet<File>(), true, recursive,
-                   config );
-
-        populateReactorModelPool( modelPool, interimResults );
+        int threads = getInteger( request, THREADS_PROPERTY, 1 );
 
-        ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor =
+            threads > 1 ? Executors.newFixedThreadPool( threads, new ModelBuilderThreadFactory() ) : null;
 
         try
         {
-            noErrors =
-                build( results, new ArrayList<MavenProject>(), projectIndex, interimResults, request,
-                       new HashMap<File, Boolean>() ) && noErrors;
+            Executor modelExecutor = executor != null ? executor : new Executor()
+            {
+                public void execute( Runnable command )
+                {
+                    command.run();
+                }
+            };
+
+            List<Future<ModelNode>> nodes =
+                build( modelExecutor, pomFiles, Collections.<File>emptySet(), true, recursive, config );
+
+            boolean noErrors = build( results, interimResults, projectIndex, nodes );
+
+            populateReactorModelPool( modelPool, interimResults );
+
+            Map<InterimResult, Future<ModelBuildingResult>> effectiveModels = null;
+            if ( executor != null )
+            {
+                effectiveModels = new IdentityHashMap<>();
+                buildEffectiveModels( executor, interimResults, effectiveModels );
+            }
+
+            ClassLoader oldContextClassLoader = Thread.currentThread().getContextClassLoader();
+
+            try
+            {
+                noErrors =
+                    build( results, new ArrayList<MavenProject>(), projectIndex, interimResults, request,
+                           new HashMap<File, Boolean>(), effectiveModels ) && noErrors;
+            }
+            finally
+            {
+                Thread.currentThread().setContextClassLoader( oldContextClassLoader );
+            }
+
+            if ( logger.isDebugEnabled() )
+            {
+                logger.debug( "Reactor model cache: " + modelCache );
+            }
+
+            if ( !noErrors )
+            {
+                throw new ProjectBuildingException( results );
+            }
         }
         finally
         {
-            Thread.currentThread().setContextClassLoader( oldContextClassLoader );
+            if ( executor != null )
+            {
+                executor.shutdownNow();
+            }
         }
 
-        if ( !noErrors )
+        return results;
+    }
+
+    private static int getInteger( ProjectBuildingRequest request, String key, int defaultValue )
+    {
+        String value = request.getUserProperties().getProperty( key );
+        if ( value == null )
         {
-            throw new ProjectBuildingException( results );
+            value = request.getSystemProperties().getProperty( key );
+        }
+        try
+        {
+            return ( value != null ) ? Integer.parseInt( value.trim() ) : defaultValue;
+        }
+        catch ( NumberFormatException e )
+        {
+            return defaultValue;
         }
-
-        return results;
     }
 
-    private boolean build( List<ProjectBuildingResult> results, List<InterimResult> interimResults,
-                           Map<String, MavenProject> projectIndex, List<File> pomFiles, Set<File> aggregatorFiles,
-                           boolean isRoot, boolean recursive, InternalConfig config )
+    /**
+     * Submits the raw model builds of the given POMs. Each build submits the builds of its modules once it knows them,
+     * so with a direct executor the POMs are processed in the same depth-first order as a plain recursion.
+     */
+    private List<Future<ModelNode>> build( Executor executor, List<File> pomFiles, Set<File> aggregatorFiles,
+                                           boolean isRoot, boolean recursive, InternalConfig config )
     {
-        boolean noErrors = true;
+        List<Future<ModelNode>> nodes = new ArrayList<>( pomFiles.size() );
 
         for ( File pomFile : pomFiles )
         {
-            aggregatorFiles.add( pomFile );
-
-            if ( !build( results, interimResults, projectIndex, pomFile, aggregatorFiles, isRoot, recursive, config ) )
-            {
-                noErrors = false;
-            }
+            Set<File> moduleAggregatorFiles = new LinkedHashSet<>( aggregatorFiles );
+            moduleAggregatorFiles.add( pomFile );
 
-            aggregatorFiles.remove( pomFile );
+            FutureTask<ModelNode> node =
+                newModelNodeTask( executor, pomFile, moduleAggregatorFiles, isRoot, recursive, config );
+            nodes.add( node );
+            executor.execute( node );
         }
 
-        return noErrors;
+        return nodes;
     }
 
-    private boolean build( List<ProjectBuildingResult> results, List<InterimResult> interimResults,
-                           Map<String, MavenProject> projectIndex, File pomFile, Set<File> aggregatorFiles,
-                           boolean isRoot, boolean recursive, InternalConfig config )
+    private FutureTask<ModelNode> newModelNodeTask( final Executor executor, final File pomFile,
+                                                    final Set<File> aggregatorFiles, final boolean isRoot,
+                                                    final boolean recursive, final InternalConfig config )
     {
-        boolean noErrors = true;
+        return new FutureTask<>( new Callable<ModelNode>()
+        {
+            public ModelNode call()
+            {
+                return build( executor, pomFile, aggregatorFiles, isRoot, recursive, config );
+            }
+        } );
+    }
+
+    private ModelNode build( Executor executor, File pomFile, Set<File> aggregatorFiles, boolean isRoot,
+                             boolean recursive, InternalConfig config )
+    {
+        ModelNode node = new ModelNode();
 
         ModelBuildingRequest request = getModelBuildingRequest( config );
 
@@ -430,10 +524,9 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
 
             Model model = result.getEffectiveModel();
 
-            projectIndex.put( result.getModelIds().get( 0 ), project );
-
-            InterimResult interimResult = new InterimResult( pomFile, request, result, listener, isRoot );
-            interimResults.add( interimResult );
+            node.modelId = result.getModelIds().get( 0 );
+            node.project = project;
+            node.interimResult = new InterimResult( pomFile, request, result, listener, isRoot );
 
             if ( recursive && !model.getModules().isEmpty() )
             {
@@ -465,7 +558,7 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
                                                      -1, null );
                         result.getProblems().add( problem );
 
-                        noErrors = false;
+                        node.noErrors = false;
 
                         continue;
                     }
@@ -502,7 +595,7 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
                                                      ModelProblem.Version.BASE, model, -1, -1, null );
                         result.getProblems().add( problem );
 
-                        noErrors = false;
+                        node.noErrors = false;
 
                         continue;
                     }
@@ -510,23 +603,131 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
                     moduleFiles.add( moduleFile );
                 }
 
-                interimResult.modules = new ArrayList<>();
+                node.modules = build( executor, moduleFiles, aggregatorFiles, false, recursive, config );
+            }
+        }
+        catch ( ModelBuildingException e )
+        {
+            node.failure = new DefaultProjectBuildingResult( e.getModelId(), pomFile, e.getProblems() );
+        }
+
+        return node;
+    }
+
+    /**
+     * Collects the raw model builds in the order of the reactor, waiting for those that are still running.
+     */
+    private boolean build( List<ProjectBuildingResult> results, List<InterimResult> interimResults,
+                           Map<String, MavenProject> projectIndex, List<Future<ModelNode>> nodes )
+    {
+        boolean noErrors = true;
+
+        for ( Future<ModelNode> future : nodes )
+        {
+            ModelNode node = get( future );
+
+            if ( node.failure != null )
+            {
+                results.add( node.failure );
+
+                noErrors = false;
+
+                continue;
+            }
 
-                if ( !build( results, interimResult.modules, projectIndex, moduleFiles, aggregatorFiles, false,
-                             recursive, config ) )
+            projectIndex.put( node.modelId, node.project );
+
+            interimResults.add( node.interimResult );
+
+            if ( !node.noErrors )
+            {
+                noErrors = false;
+            }
+
+            if ( node.modules != null )
+            {
+                node.interimResult.modules = new ArrayList<>();
+
+                if ( !build( results, node.interimResult.modules, projectIndex, node.modules ) )
                 {
                     noErrors = false;
                 }
             }
         }
-        catch ( ModelBuildingException e )
+
+        return noErrors;
+    }
+
+    private static <T> T get( Future<T> future )
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while building the reactor models", e );
+        }
+        catch ( ExecutionException e )
         {
-            results.add( new DefaultProjectBuildingResult( e.getModelId(), pomFile, e.getProblems() ) );
+            throw rethrow( e );
+        }
+    }
 
-            noErrors = false;
+    private static RuntimeException rethrow( ExecutionException e )
+    {
+        Throwable cause = e.getCause();
+        if ( cause instanceof RuntimeException )
+        {
+            throw (RuntimeException) cause;
         }
+        if ( cause instanceof Error )
+        {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException( cause );
+    }
+
+    /**
+     * Creates the named daemon threads that build the models of a reactor, so an unfinished build never keeps an
+     * embedding JVM alive.
+     */
+    static final class ModelBuilderThreadFactory
+        implements ThreadFactory
+    {
+
+        static final String THREAD_NAME_PREFIX = "maven-project-builder-";
+
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger( 1 );
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, THREAD_NAME_PREFIX + THREAD_NUMBER.getAndIncrement() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
+    /**
+     * The outcome of building the raw model of a single POM.
+     */
+    static class ModelNode
+    {
+
+        String modelId;
+
+        MavenProject project;
+
+        InterimResult interimResult;
+
+        ProjectBuildingResult failure;
+
+        boolean noErrors = true;
+
+        List<Future<ModelNode>> modules;
 
-        return noErrors;
     }
 
     static class InterimResult
@@ -567,9 +768,28 @@ private void populateReactorModelPool( ReactorModelPool reactorModelPool, List<I
         }
     }
 
+    private void buildEffectiveModels( ExecutorService executor, List<InterimResult> interimResults,
+                                       Map<InterimResult, Future<ModelBuildingResult>> effectiveModels )
+    {
+        for ( final InterimResult interimResult : interimResults )
+        {
+            effectiveModels.put( interimResult, executor.submit( new Callable<ModelBuildingResult>()
+            {
+                public ModelBuildingResult call()
+                    throws ModelBuildingException
+                {
+                    return modelBuilder.build( interimResult.request, interimResult.result );
+                }
+            } ) );
+
+            buildEffectiveModels( executor, interimResult.modules, effectiveModels );
+        }
+    }
+
     private boolean build( List<ProjectBuildingResult> results, List<MavenProject> projects,
                            Map<String, MavenProject> projectIndex, List<InterimResult> interimResults,
-                           ProjectBuildingRequest request, Map<File, Boolean> profilesXmls )
+                           ProjectBuildingRequest request, Map<File, Boolean> profilesXmls,
+                           Map<InterimResult, Future<ModelBuildingResult>> effectiveModels )
     {
         boolean noErrors = true;
 
@@ -577,14 +797,15 @@ private boolean build( List<ProjectBuildingResult> results, List<MavenProject> p
         {
             try
             {
-                ModelBuildingResult result = modelBuilder.build( interimResult.request, interimResult.result );
+                ModelBuildingResult result = build( interimResult, effectiveModels );
 
                 MavenProject project = interimResult.listener.getProject();
                 initProject( project, projectIndex, result, profilesXmls, request );
 
                 List<MavenProject> modules = new ArrayList<>();
                 noErrors =
-                    build( results, modules, projectIndex, interimResult.modules, request, profilesXmls ) && noErrors;
+                    build( results, modules, projectIndex, interimResult.modules, request, profilesXmls,
+                           effectiveModels ) && noErrors;
 
                 projects.addAll( modules );
                 projects.add( project );
@@ -606,6 +827,43 @@ private boolean build( List<ProjectBuildingResult> results, List<MavenProject> p
         return noErrors;
     }
 
+    private ModelBuildingResult build( InterimResult interimResult,
+                                       Map<InterimResult, Future<ModelBuildingResult>> effectiveModels )
+        throws ModelBuildingException
+    {
+        if ( effectiveModels == null )
+        {
+            return modelBuilder.build( interimResult.request, interimResult.result );
+        }
+
+        ModelBuildingResult result;
+        try
+        {
+            result = effectiveModels.get( interimResult ).get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while building the reactor models", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof ModelBuildingException )
+            {
+                throw (ModelBuildingException) e.getCause();
+            }
+            throw rethrow( e );
+        }
+
+        if ( interimResult.request.isProcessPlugins() )
+        {
+            // the build extensions were assembled on a worker thread, select the project realm like it did
+            projectBuildingHelper.selectProjectRealm( interimResult.listener.getProject() );
+        }
+
+        return result;
+    }
+
     private void initProject( MavenProject project, Map<String, MavenProject> projects, ModelBuildingResult result,
                               Map<File, Boolean> profilesXmls, ProjectBuildingRequest projectBuildingRequest )
     {
@@ -19,6 +19,7 @@
  * under the License.
  */
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -165,11 +166,21 @@ public DependencyResolutionResult resolve( DependencyResolutionRequest request )
         DependencyRequest depRequest = new DependencyRequest( collect, filter );
         depRequest.setTrace( trace );
 
-        DependencyNode node;
+        DependencyGraphLock lock = DependencyGraphLock.newInstance( project, session );
+        DependencyNode node = ( lock != null ) ? lock.load( collect ) : null;
+        boolean locked = node != null;
         try
         {
             collect.setTrace( RequestTrace.newChild( trace, depRequest ) );
-            node = repoSystem.collectDependencies( session, collect ).getRoot();
+            DependencySubgraphCache subgraphCache = DependencySubgraphCache.newInstance( session );
+            if ( node == null && subgraphCache != null )
+            {
+                node = subgraphCache.collect( repoSystem, session, collect );
+            }
+            if ( node == null )
+            {
+                node = repoSystem.collectDependencies( session, collect ).getRoot();
+            }
             result.setDependencyGraph( node );
         }
         catch ( DependencyCollectionException e )
@@ -212,6 +223,22 @@ public DependencyResolutionResult resolve( DependencyResolutionRequest request )
                 + project.getId() + ": " + e.getMessage(), e );
         }
 
+        if ( lock != null && !locked )
+        {
+            try
+            {
+                lock.store( collect, node );
+            }
+            catch ( IOException e )
+            {
+                logger.debug( "Could not write dependency lock file " + lock.getFile() + ": " + e.getMessage(), e );
+            }
+        }
+        else if ( locked && logger.isDebugEnabled() )
+        {
+            logger.debug( "Dependency graph of " + project.getId() + " restored from " + lock.getFile() );
+        }
+
         return result;
     }
 
@@ -19,7 +19,9 @@
  * under the License.
  */
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -133,6 +135,39 @@ public void flush()
         cache.clear();
     }
 
+    /**
+     * Removes and disposes the project realms that import from any of the given extension realms. Used when the
+     * extension realms themselves are disposed, the project realms would otherwise be left with dangling imports.
+     *
+     * @param extensionRealms The disposed extension realms, must not be {@code null}.
+     * @since 3.4.0
+     */
+    public void evict( Collection<? extends ClassRealm> extensionRealms )
+    {
+        if ( extensionRealms.isEmpty() )
+        {
+            return;
+        }
+        for ( Iterator<Map.Entry<Key, CacheRecord>> it = cache.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry<Key, CacheRecord> entry = it.next();
+            if ( entry.getKey() instanceof CacheKey
+                && !Collections.disjoint( ( (CacheKey) entry.getKey() ).extensionRealms, extensionRealms ) )
+            {
+                it.remove();
+                ClassRealm realm = entry.getValue().realm;
+                try
+                {
+                    realm.getWorld().disposeRealm( realm.getId() );
+                }
+                catch ( NoSuchRealmException e )
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
     public void register( MavenProject project, Key key, CacheRecord record )
     {
         // default cache does not track record usage
@@ -0,0 +1,615 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Repository;
+import org.apache.maven.repository.internal.MavenWorkspaceReader;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.WriterFactory;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.Xpp3DomWriter;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.util.ConfigUtils;
+import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
+
+/**
+ * Persists the collected dependency graph of a project in a lock file next to its POM, so that later builds can skip
+ * the dependency collection as long as nothing that went into the collection changed. The lock file records a hash
+ * over the collect request, i.e. the dependencies, the dependency management and the repositories of the project,
+ * and over the session settings that affect the collection. Reactor projects within the graph are recorded along with
+ * a digest of their dependency-relevant model parts. Graphs with snapshots outside of the reactor or with version
+ * ranges are never locked because their collection depends on the state of the repositories.
+ *
+ * @since 3.4.0
+ */
+class DependencyGraphLock
+{
+
+    /**
+     * The name of the configuration property that enables reading and writing dependency lock files.
+     */
+    static final String ENABLED_PROPERTY = "maven.dependencyLock";
+
+    /**
+     * The name of the lock file within the base directory of a project.
+     */
+    static final String FILE_NAME = "dependencies.lock";
+
+    private static final String FORMAT_VERSION = "1";
+
+    private static final int MAX_NODES = 50000;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The age after which a temporary lock file is considered left over by a killed build rather than being written by
+     * a concurrent one.
+     */
+    private static final long STALE_TEMP_AGE = 60L * 1000;
+
+    private static final String[] SYSTEM_PROPERTIES = { "java.version", "java.vendor", "os.name", "os.arch",
+        "os.version" };
+
+    private final File file;
+
+    private final RepositorySystemSession session;
+
+    private DependencyGraphLock( File file, RepositorySystemSession session )
+    {
+        this.file = file;
+        this.session = session;
+    }
+
+    public static DependencyGraphLock newInstance( MavenProject project, RepositorySystemSession session )
+    {
+        if ( project.getBasedir() == null || !ConfigUtils.getBoolean( session, false, ENABLED_PROPERTY )
+            || ConfigUtils.getBoolean( session, false, DependencyManagerUtils.CONFIG_PROP_VERBOSE ) )
+        {
+            // verbose graphs carry conflict data that the lock file cannot represent
+            return null;
+        }
+        return new DependencyGraphLock( new File( project.getBasedir(), FILE_NAME ), session );
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Loads the dependency graph for the given request from the lock file.
+     *
+     * @param request The collect request of the project, must not be {@code null}.
+     * @return The root of the dependency graph or {@code null} if the lock file is missing or out of date.
+     */
+    public DependencyNode load( CollectRequest request )
+    {
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        Xpp3Dom dom;
+        Reader reader = null;
+        try
+        {
+            reader = ReaderFactory.newXmlReader( file );
+            dom = Xpp3DomBuilder.build( reader );
+        }
+        catch ( Exception e )
+        {
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+
+        if ( !FORMAT_VERSION.equals( dom.getAttribute( "version" ) )
+            || !hash( request ).equals( dom.getAttribute( "hash" ) ) )
+        {
+            return null;
+        }
+
+        for ( Xpp3Dom workspace : dom.getChildren( "workspace" ) )
+        {
+            String digest = workspaceDigest( new DefaultArtifact( workspace.getAttribute( "artifact" ) ) );
+            if ( digest == null || !digest.equals( workspace.getAttribute( "digest" ) ) )
+            {
+                return null;
+            }
+        }
+
+        Map<String, RemoteRepository> repositories = new LinkedHashMap<>();
+        for ( RemoteRepository repository : request.getRepositories() )
+        {
+            repositories.put( repository.getId(), repository );
+        }
+
+        DefaultDependencyNode root = new DefaultDependencyNode( request.getRootArtifact() );
+        root.setRequestContext( request.getRequestContext() );
+        root.setRepositories( request.getRepositories() );
+        try
+        {
+            for ( Xpp3Dom child : dom.getChildren( "node" ) )
+            {
+                root.getChildren().add( toNode( child, repositories ) );
+            }
+        }
+        catch ( IllegalArgumentException e )
+        {
+            return null;
+        }
+        return root;
+    }
+
+    /**
+     * Writes the given dependency graph to the lock file, unless the graph cannot be locked.
+     *
+     * @param request The collect request of the project, must not be {@code null}.
+     * @param root The root of the collected dependency graph, must not be {@code null}.
+     * @return {@code true} if the lock file was written, {@code false} if the graph cannot be locked.
+     * @throws IOException If the lock file could not be written.
+     */
+    public boolean store( CollectRequest request, DependencyNode root )
+        throws IOException
+    {
+        Xpp3Dom dom = new Xpp3Dom( "dependencyLock" );
+        dom.setAttribute( "version", FORMAT_VERSION );
+        dom.setAttribute( "hash", hash( request ) );
+
+        Map<String, String> workspace = new TreeMap<>();
+        List<Xpp3Dom> nodes = new ArrayList<>();
+        Map<DependencyNode, Object> path = new IdentityHashMap<>();
+        int[] count = { 0 };
+        for ( DependencyNode child : root.getChildren() )
+        {
+            Xpp3Dom node = toDom( child, request.getRepositories(), workspace, path, count );
+            if ( node == null )
+            {
+                return false;
+            }
+            nodes.add( node );
+        }
+
+        for ( Map.Entry<String, String> entry : workspace.entrySet() )
+        {
+            Xpp3Dom dependency = new Xpp3Dom( "workspace" );
+            dependency.setAttribute( "artifact", entry.getKey() );
+            dependency.setAttribute( "digest", entry.getValue() );
+            dom.addChild( dependency );
+        }
+        for ( Xpp3Dom node : nodes )
+        {
+            dom.addChild( node );
+        }
+
+        // a unique temporary file next to the lock file in the project directory, concurrent builds must not write into
+        // the same file and the rename must not cross file systems
+        File directory = file.getAbsoluteFile().getParentFile();
+        directory.mkdirs();
+        deleteStaleTempFiles( directory );
+        File tmp = File.createTempFile( file.getName(), TEMP_SUFFIX, directory );
+        Writer writer = null;
+        try
+        {
+            writer = WriterFactory.newXmlWriter( tmp );
+            Xpp3DomWriter.write( writer, dom );
+            writer.close();
+            writer = null;
+
+            if ( !tmp.renameTo( file ) && !( file.delete() && tmp.renameTo( file ) ) )
+            {
+                throw new IOException( "Could not write " + file );
+            }
+        }
+        finally
+        {
+            IOUtil.close( writer );
+            if ( tmp.exists() )
+            {
+                tmp.delete();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the temporary files that builds killed while writing the lock file left behind in the project directory.
+     */
+    private void deleteStaleTempFiles( File directory )
+    {
+        File[] files = directory.listFiles();
+        if ( files == null )
+        {
+            return;
+        }
+        long limit = System.currentTimeMillis() - STALE_TEMP_AGE;
+        for ( File candidate : files )
+        {
+            String name = candidate.getName();
+            if ( name.startsWith( file.getName() ) && name.endsWith( TEMP_SUFFIX ) && candidate.lastModified() < limit )
+            {
+                candidate.delete();
+            }
+        }
+    }
+
+    private Xpp3Dom toDom( DependencyNode node, List<RemoteRepository> repositories, Map<String, String> workspace,
+                           Map<DependencyNode, Object> path, int[] count )
+    {
+        Dependency dependency = node.getDependency();
+        Artifact artifact = dependency.getArtifact();
+
+        if ( path.containsKey( node ) || ++count[0] > MAX_NODES
+            || ( node.getVersionConstraint() != null && node.getVersionConstraint().getRange() != null ) )
+        {
+            return null;
+        }
+
+        String digest = workspaceDigest( artifact );
+        if ( digest != null )
+        {
+            workspace.put( artifact.toString(), digest );
+        }
+        else if ( artifact.isSnapshot() )
+        {
+            return null;
+        }
+
+        Xpp3Dom dom = new Xpp3Dom( "node" );
+        dom.setAttribute( "artifact", artifact.toString() );
+        dom.setAttribute( "scope", dependency.getScope() );
+        if ( dependency.getOptional() != null )
+        {
+            dom.setAttribute( "optional", dependency.getOptional().toString() );
+        }
+        if ( node.getRequestContext() != null )
+        {
+            dom.setAttribute( "context", node.getRequestContext() );
+        }
+        dom.setAttribute( "managedBits", String.valueOf( node.getManagedBits() ) );
+
+        StringBuilder ids = new StringBuilder();
+        for ( RemoteRepository repository : node.getRepositories() )
+        {
+            if ( !repositories.contains( repository ) )
+            {
+                // repositories introduced by dependency POMs cannot be restored from the project
+                return null;
+            }
+            ids.append( ( ids.length() > 0 ) ? "," : "" ).append( repository.getId() );
+        }
+        dom.setAttribute( "repositories", ids.toString() );
+
+        for ( Map.Entry<String, String> property : new TreeMap<>( artifact.getProperties() ).entrySet() )
+        {
+            Xpp3Dom child = new Xpp3Dom( "property" );
+            child.setAttribute( "key", property.getKey() );
+            child.setAttribute( "value", property.getValue() );
+            dom.addChild( child );
+        }
+        for ( Exclusion exclusion : dependency.getExclusions() )
+        {
+            Xpp3Dom child = new Xpp3Dom( "exclusion" );
+            child.setAttribute( "groupId", exclusion.getGroupId() );
+            child.setAttribute( "artifactId", exclusion.getArtifactId() );
+            child.setAttribute( "classifier", exclusion.getClassifier() );
+            child.setAttribute( "extension", exclusion.getExtension() );
+            dom.addChild( child );
+        }
+        for ( Artifact relocation : node.getRelocations() )
+        {
+            Xpp3Dom child = new Xpp3Dom( "relocation" );
+            child.setAttribute( "artifact", relocation.toString() );
+            dom.addChild( child );
+        }
+
+        path.put( node, node );
+        try
+        {
+            for ( DependencyNode child : node.getChildren() )
+            {
+                Xpp3Dom childDom = toDom( child, repositories, workspace, path, count );
+                if ( childDom == null )
+                {
+                    return null;
+                }
+                dom.addChild( childDom );
+            }
+        }
+        finally
+        {
+            path.remove( node );
+        }
+
+        return dom;
+    }
+
+    private static DependencyNode toNode( Xpp3Dom dom, Map<String, RemoteRepository> repositories )
+    {
+        Map<String, String> properties = new LinkedHashMap<>();
+        List<Exclusion> exclusions = new ArrayList<>();
+        List<Artifact> relocations = new ArrayList<>();
+        List<DependencyNode> children = new ArrayList<>();
+        for ( Xpp3Dom child : dom.getChildren() )
+        {
+            if ( "property".equals( child.getName() ) )
+            {
+                properties.put( child.getAttribute( "key" ), child.getAttribute( "value" ) );
+            }
+            else if ( "exclusion".equals( child.getName() ) )
+            {
+                exclusions.add( new Exclusion( child.getAttribute( "groupId" ), child.getAttribute( "artifactId" ),
+                                               child.getAttribute( "classifier" ),
+                                               child.getAttribute( "extension" ) ) );
+            }
+            else if ( "relocation".equals( child.getName() ) )
+            {
+                relocations.add( new DefaultArtifact( child.getAttribute( "artifact" ) ) );
+            }
+            else if ( "node".equals( child.getName() ) )
+            {
+                children.add( toNode( child, repositories ) );
+            }
+        }
+
+        Artifact artifact = new DefaultArtifact( dom.getAttribute( "artifact" ) ).setProperties( properties );
+        String optional = dom.getAttribute( "optional" );
+        Dependency dependency =
+            new Dependency( artifact, dom.getAttribute( "scope" ),
+                            ( optional != null ) ? Boolean.valueOf( optional ) : null, exclusions );
+
+        List<RemoteRepository> nodeRepositories = new ArrayList<>();
+        String ids = dom.getAttribute( "repositories" );
+        if ( ids != null && ids.length() > 0 )
+        {
+            for ( String id : ids.split( "," ) )
+            {
+                RemoteRepository repository = repositories.get( id );
+                if ( repository == null )
+                {
+                    throw new IllegalArgumentException( "unknown repository " + id );
+                }
+                nodeRepositories.add( repository );
+            }
+        }
+
+        DefaultDependencyNode node = new DefaultDependencyNode( dependency );
+        node.setRequestContext( dom.getAttribute( "context" ) );
+        node.setRepositories( nodeRepositories );
+        node.setRelocations( relocations );
+        node.setManagedBits( Integer.parseInt( dom.getAttribute( "managedBits" ) ) );
+        node.setChildren( children );
+        return node;
+    }
+
+    /**
+     * Calculates the digest of the dependency-relevant parts of the model of a reactor project.
+     *
+     * @return The digest or {@code null} if the artifact does not belong to a reactor project.
+     */
+    private String workspaceDigest( Artifact artifact )
+    {
+        WorkspaceReader workspace = session.getWorkspaceReader();
+        if ( !( workspace instanceof MavenWorkspaceReader ) )
+        {
+            return null;
+        }
+        Model model = ( (MavenWorkspaceReader) workspace ).findModel( artifact );
+        if ( model == null )
+        {
+            return null;
+        }
+
+        StringBuilder buffer = new StringBuilder( 1024 );
+        buffer.append( model.getId() ).append( '\n' );
+        for ( org.apache.maven.model.Dependency dependency : model.getDependencies() )
+        {
+            append( buffer.append( "dependency " ), dependency );
+        }
+        if ( model.getDependencyManagement() != null )
+        {
+            for ( org.apache.maven.model.Dependency dependency : model.getDependencyManagement().getDependencies() )
+            {
+                append( buffer.append( "managed " ), dependency );
+            }
+        }
+        for ( Repository repository : model.getRepositories() )
+        {
+            buffer.append( "repository " ).append( repository.getId() ).append( ' ' ).append( repository.getUrl() );
+            buffer.append( '\n' );
+        }
+        if ( model.getDistributionManagement() != null && model.getDistributionManagement().getRelocation() != null )
+        {
+            buffer.append( "relocated\n" );
+        }
+        return digest( buffer );
+    }
+
+    private static void append( StringBuilder buffer, org.apache.maven.model.Dependency dependency )
+    {
+        buffer.append( dependency.getManagementKey() ).append( ':' ).append( dependency.getVersion() );
+        buffer.append( ' ' ).append( dependency.getScope() ).append( ' ' ).append( dependency.getOptional() );
+        buffer.append( ' ' ).append( dependency.getSystemPath() );
+        for ( org.apache.maven.model.Exclusion exclusion : dependency.getExclusions() )
+        {
+            buffer.append( ' ' ).append( exclusion.getGroupId() ).append( ':' ).append( exclusion.getArtifactId() );
+        }
+        buffer.append( '\n' );
+    }
+
+    /**
+     * Calculates the hash over everything that determines the collected graph of a project.
+     */
+    private String hash( CollectRequest request )
+    {
+        StringBuilder buffer = new StringBuilder( 4096 );
+        buffer.append( FORMAT_VERSION ).append( '\n' );
+        buffer.append( "root " ).append( request.getRootArtifact() ).append( '\n' );
+        buffer.append( "context " ).append( request.getRequestContext() ).append( '\n' );
+        for ( Dependency dependency : request.getDependencies() )
+        {
+            append( buffer.append( "dependency " ), dependency );
+        }
+        for ( Dependency dependency : request.getManagedDependencies() )
+        {
+            append( buffer.append( "managed " ), dependency );
+        }
+        for ( RemoteRepository repository : request.getRepositories() )
+        {
+            buffer.append( "repository " ).append( repository.getId() ).append( ' ' ).append( repository.getUrl() );
+            buffer.append( ' ' ).append( repository.getContentType() ).append( '\n' );
+        }
+
+        Object[] strategies =
+            { session.getDependencySelector(), session.getDependencyManager(), session.getDependencyTraverser(),
+                session.getVersionFilter(), session.getDependencyGraphTransformer() };
+        for ( Object strategy : strategies )
+        {
+            append( buffer.append( "strategy " ), strategy );
+        }
+        for ( Map.Entry<String, Object> property : new TreeMap<>( session.getConfigProperties() ).entrySet() )
+        {
+            // the resolver's own settings configure the strategies, e.g. the verbosity of the conflict resolver
+            if ( property.getKey().startsWith( "aether." ) )
+            {
+                Object value = property.getValue();
+                buffer.append( "config " ).append( property.getKey() ).append( '=' );
+                buffer.append( isSimple( value ) ? value : value.getClass().getName() ).append( '\n' );
+            }
+        }
+
+        for ( String key : SYSTEM_PROPERTIES )
+        {
+            buffer.append( key ).append( '=' ).append( session.getSystemProperties().get( key ) ).append( '\n' );
+        }
+        for ( Map.Entry<String, String> property : new TreeMap<>( session.getUserProperties() ).entrySet() )
+        {
+            buffer.append( "user " ).append( property.getKey() ).append( '=' ).append( property.getValue() );
+            buffer.append( '\n' );
+        }
+
+        return digest( buffer );
+    }
+
+    /**
+     * Appends the class of the strategy and, if the strategy implements them, its {@code equals()} state and string
+     * representation. Strategies that do neither are described by their class only, their state must then come from
+     * the configuration properties.
+     */
+    private static void append( StringBuilder buffer, Object strategy )
+    {
+        if ( strategy != null )
+        {
+            buffer.append( strategy.getClass().getName() );
+            if ( overrides( strategy, "hashCode" ) )
+            {
+                buffer.append( ' ' ).append( strategy.hashCode() );
+            }
+            if ( overrides( strategy, "toString" ) )
+            {
+                buffer.append( ' ' ).append( strategy );
+            }
+        }
+        else
+        {
+            buffer.append( "null" );
+        }
+        buffer.append( '\n' );
+    }
+
+    private static boolean overrides( Object object, String method )
+    {
+        try
+        {
+            return object.getClass().getMethod( method ).getDeclaringClass() != Object.class;
+        }
+        catch ( NoSuchMethodException e )
+        {
+            return false;
+        }
+    }
+
+    private static boolean isSimple( Object value )
+    {
+        return value == null || value instanceof String || value instanceof Number || value instanceof Boolean;
+    }
+
+    private static void append( StringBuilder buffer, Dependency dependency )
+    {
+        Artifact artifact = dependency.getArtifact();
+        buffer.append( artifact ).append( ' ' ).append( new TreeMap<>( artifact.getProperties() ) );
+        buffer.append( ' ' ).append( dependency.getScope() ).append( ' ' ).append( dependency.getOptional() );
+        TreeSet<String> exclusions = new TreeSet<>();
+        for ( Exclusion exclusion : dependency.getExclusions() )
+        {
+            exclusions.add( exclusion.toString() );
+        }
+        buffer.append( ' ' ).append( exclusions ).append( '\n' );
+    }
+
+    private static String digest( CharSequence data )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-1" );
+            byte[] bytes = digest.digest( data.toString().getBytes( StandardCharsets.UTF_8 ) );
+            StringBuilder hex = new StringBuilder( bytes.length * 2 );
+            for ( byte b : bytes )
+            {
+                hex.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) ).append( Character.forDigit( b & 0x0F, 16 ) );
+            }
+            return hex.toString();
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+}
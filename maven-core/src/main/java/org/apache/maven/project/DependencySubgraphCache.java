@@ -0,0 +1,357 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositoryException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.collection.DependencyGraphTransformationContext;
+import org.eclipse.aether.collection.DependencyGraphTransformer;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Shares the collected dependency graphs of direct dependencies between the projects of a build session. The
+ * collector derives the graph below a direct dependency solely from that dependency, the dependency management and
+ * the repositories of the project and the collection strategies of the session, so projects that agree on these,
+ * e.g. because they import the same BOM, can reuse the graph collected for another project. The graphs are kept
+ * untransformed, each project gets its own copy which is then transformed like the collector would have done.
+ * Whenever a graph cannot be reused, the caller falls back to the regular collection.
+ *
+ * @since 3.4.0
+ */
+class DependencySubgraphCache
+{
+
+    /**
+     * The name of the configuration property that enables sharing collected dependency graphs between projects.
+     */
+    static final String ENABLED_PROPERTY = "maven.dependencyCollection.shareSubgraphs";
+
+    private static final Object STORE_KEY = DependencySubgraphCache.class.getName() + ".store";
+
+    private static final Artifact SUBGRAPH_ROOT =
+        new DefaultArtifact( "org.apache.maven.internal", "dependency-subgraph", "pom", "0" );
+
+    private final ConcurrentMap<Context, ConcurrentMap<Dependency, DependencyNode>> store;
+
+    @SuppressWarnings( "unchecked" )
+    private DependencySubgraphCache( RepositorySystemSession session )
+    {
+        RepositoryCache cache = session.getCache();
+
+        synchronized ( cache )
+        {
+            Object store = cache.get( session, STORE_KEY );
+            if ( store == null )
+            {
+                store = new ConcurrentHashMap<Context, ConcurrentMap<Dependency, DependencyNode>>();
+                cache.put( session, STORE_KEY, store );
+            }
+            this.store = (ConcurrentMap<Context, ConcurrentMap<Dependency, DependencyNode>>) store;
+        }
+    }
+
+    public static DependencySubgraphCache newInstance( RepositorySystemSession session )
+    {
+        if ( session.getCache() == null || !ConfigUtils.getBoolean( session, false, ENABLED_PROPERTY ) )
+        {
+            return null;
+        }
+        else
+        {
+            return new DependencySubgraphCache( session );
+        }
+    }
+
+    /**
+     * Collects the transformed dependency graph for the given request, reusing the graphs of direct dependencies
+     * collected earlier in the session.
+     *
+     * @param repoSystem The repository system to collect missing graphs with, must not be {@code null}.
+     * @param session The repository session, must not be {@code null}.
+     * @param request The collect request, must have a root artifact.
+     * @return The root of the dependency graph or {@code null} if the graph needs to be collected regularly.
+     */
+    public DependencyNode collect( RepositorySystem repoSystem, RepositorySystemSession session,
+                                   CollectRequest request )
+    {
+        Context context = new Context( session, request );
+        ConcurrentMap<Dependency, DependencyNode> subgraphs = store.get( context );
+        if ( subgraphs == null )
+        {
+            subgraphs = new ConcurrentHashMap<>();
+            ConcurrentMap<Dependency, DependencyNode> existing = store.putIfAbsent( context, subgraphs );
+            if ( existing != null )
+            {
+                subgraphs = existing;
+            }
+        }
+
+        List<Dependency> missing = new ArrayList<>();
+        for ( Dependency dependency : request.getDependencies() )
+        {
+            if ( !subgraphs.containsKey( dependency ) )
+            {
+                missing.add( dependency );
+            }
+        }
+
+        if ( !missing.isEmpty() && !collectMissing( repoSystem, session, request, missing, subgraphs ) )
+        {
+            return null;
+        }
+
+        DefaultDependencyNode root = new DefaultDependencyNode( request.getRootArtifact() );
+        root.setRequestContext( request.getRequestContext() );
+        root.setRepositories( request.getRepositories() );
+
+        Map<List<DependencyNode>, List<DependencyNode>> copies = new IdentityHashMap<>();
+        for ( Dependency dependency : request.getDependencies() )
+        {
+            DependencyNode copy = copy( subgraphs.get( dependency ), request.getRootArtifact(), copies );
+            if ( copy == null )
+            {
+                return null;
+            }
+            root.getChildren().add( copy );
+        }
+
+        DependencyGraphTransformer transformer = session.getDependencyGraphTransformer();
+        if ( transformer == null )
+        {
+            return root;
+        }
+        try
+        {
+            return transformer.transformGraph( root, new TransformationContext( session ) );
+        }
+        catch ( RepositoryException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Collects the graphs of the given direct dependencies below a neutral root, so the graphs do not depend on the
+     * project that requested them first.
+     */
+    private boolean collectMissing( RepositorySystem repoSystem, RepositorySystemSession session,
+                                    CollectRequest request, List<Dependency> missing,
+                                    ConcurrentMap<Dependency, DependencyNode> subgraphs )
+    {
+        CollectRequest subgraphRequest =
+            new CollectRequest( missing, request.getManagedDependencies(), request.getRepositories() );
+        subgraphRequest.setRootArtifact( SUBGRAPH_ROOT );
+        subgraphRequest.setRequestContext( request.getRequestContext() );
+        subgraphRequest.setTrace( request.getTrace() );
+
+        DefaultRepositorySystemSession untransformed = new DefaultRepositorySystemSession( session );
+        untransformed.setDependencyGraphTransformer( null );
+
+        List<DependencyNode> children;
+        try
+        {
+            children = repoSystem.collectDependencies( untransformed, subgraphRequest ).getRoot().getChildren();
+        }
+        catch ( DependencyCollectionException e )
+        {
+            // let the regular collection report the problem
+            return false;
+        }
+
+        // version ranges and relocations break the correspondence between the dependencies and the nodes
+        if ( children.size() != missing.size() )
+        {
+            return false;
+        }
+        for ( int i = 0; i < children.size(); i++ )
+        {
+            if ( !isNodeOf( children.get( i ), missing.get( i ) ) )
+            {
+                return false;
+            }
+        }
+
+        for ( int i = 0; i < children.size(); i++ )
+        {
+            subgraphs.putIfAbsent( missing.get( i ), children.get( i ) );
+        }
+        return true;
+    }
+
+    private static boolean isNodeOf( DependencyNode node, Dependency dependency )
+    {
+        Artifact a = node.getArtifact();
+        Artifact b = dependency.getArtifact();
+        return a.getGroupId().equals( b.getGroupId() ) && a.getArtifactId().equals( b.getArtifactId() )
+            && a.getExtension().equals( b.getExtension() ) && a.getClassifier().equals( b.getClassifier() );
+    }
+
+    /**
+     * Deep copies the given graph, preserving shared child lists and cycles. Returns {@code null} if the graph
+     * contains the root artifact because the collector would have cut the graph at this point.
+     */
+    private static DependencyNode copy( DependencyNode node, Artifact root,
+                                        Map<List<DependencyNode>, List<DependencyNode>> copies )
+    {
+        Artifact artifact = node.getArtifact();
+        if ( artifact.getGroupId().equals( root.getGroupId() )
+            && artifact.getArtifactId().equals( root.getArtifactId() ) )
+        {
+            return null;
+        }
+
+        DefaultDependencyNode copy = new DefaultDependencyNode( node );
+
+        List<DependencyNode> children = copies.get( node.getChildren() );
+        if ( children == null )
+        {
+            children = new ArrayList<>( node.getChildren().size() );
+            copies.put( node.getChildren(), children );
+            for ( DependencyNode child : node.getChildren() )
+            {
+                DependencyNode childCopy = copy( child, root, copies );
+                if ( childCopy == null )
+                {
+                    return null;
+                }
+                children.add( childCopy );
+            }
+        }
+        copy.setChildren( children );
+
+        return copy;
+    }
+
+    /**
+     * Everything besides the direct dependency itself that determines its collected graph.
+     */
+    static class Context
+    {
+
+        private final List<Dependency> managedDependencies;
+
+        private final List<RemoteRepository> repositories;
+
+        private final String requestContext;
+
+        private final Object[] strategies;
+
+        private final Map<String, Object> configProperties;
+
+        private final int hashCode;
+
+        Context( RepositorySystemSession session, CollectRequest request )
+        {
+            managedDependencies = request.getManagedDependencies();
+            repositories = request.getRepositories();
+            requestContext = request.getRequestContext();
+            strategies =
+                new Object[] { session.getDependencySelector(), session.getDependencyManager(),
+                    session.getDependencyTraverser(), session.getVersionFilter(),
+                    session.getArtifactDescriptorPolicy(),
+                    ( session.getWorkspaceReader() != null ) ? session.getWorkspaceReader().getRepository() : null };
+            configProperties = session.getConfigProperties();
+
+            int hash = 17;
+            hash = hash * 31 + managedDependencies.hashCode();
+            hash = hash * 31 + repositories.hashCode();
+            hash = hash * 31 + String.valueOf( requestContext ).hashCode();
+            hash = hash * 31 + Arrays.hashCode( strategies );
+            hashCode = hash;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Context ) )
+            {
+                return false;
+            }
+            Context that = (Context) obj;
+            return hashCode == that.hashCode && managedDependencies.equals( that.managedDependencies )
+                && repositories.equals( that.repositories )
+                && String.valueOf( requestContext ).equals( String.valueOf( that.requestContext ) )
+                && Arrays.equals( strategies, that.strategies )
+                && configProperties.equals( that.configProperties );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+    static class TransformationContext
+        implements DependencyGraphTransformationContext
+    {
+
+        private final RepositorySystemSession session;
+
+        private final Map<Object, Object> map = new HashMap<>();
+
+        TransformationContext( RepositorySystemSession session )
+        {
+            this.session = session;
+        }
+
+        public RepositorySystemSession getSession()
+        {
+            return session;
+        }
+
+        public Object get( Object key )
+        {
+            return map.get( key );
+        }
+
+        public Object put( Object key, Object value )
+        {
+            return ( value != null ) ? map.put( key, value ) : map.remove( key );
+        }
+
+    }
+
+}
@@ -19,85 +19,33 @@
  * under the License.
  */
 
-import java.util.HashMap;
-import java.util.Map;
-
-import org.apache.maven.model.building.ModelCache;
+import org.apache.maven.model.building.BoundedModelCache;
 
 /**
- * A simple model cache used to accelerate model building during a reactor build.
+ * A simple model cache used to accelerate model building during a reactor build. The cache is thread-safe so it can be
+ * shared by concurrent model builds. If a maximum size is given, the least recently used entries are evicted once the
+ * cache grows beyond it. The hits and misses are counted per tag to show how often parent and imported models are
+ * reused.
  *
  * @author Benjamin Bentmann
  */
 class ReactorModelCache
-    implements ModelCache
+    extends BoundedModelCache
 {
 
-    private final Map<CacheKey, Object> models = new HashMap<>( 256 );
-
-    public Object get( String groupId, String artifactId, String version, String tag )
-    {
-        return models.get( new CacheKey( groupId, artifactId, version, tag ) );
-    }
-
-    public void put( String groupId, String artifactId, String version, String tag, Object data )
+    ReactorModelCache()
     {
-        models.put( new CacheKey( groupId, artifactId, version, tag ), data );
+        this( 0 );
     }
 
-    private static final class CacheKey
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize The maximum number of entries to keep, a non-positive value for no limit.
+     */
+    ReactorModelCache( int maxSize )
     {
-
-        private final String groupId;
-
-        private final String artifactId;
-
-        private final String version;
-
-        private final String tag;
-
-        private final int hashCode;
-
-        public CacheKey( String groupId, String artifactId, String version, String tag )
-        {
-            this.groupId = ( groupId != null ) ? groupId : "";
-            this.artifactId = ( artifactId != null ) ? artifactId : "";
-            this.version = ( version != null ) ? version : "";
-            this.tag = ( tag != null ) ? tag : "";
-
-            int hash = 17;
-            hash = hash * 31 + this.groupId.hashCode();
-            hash = hash * 31 + this.artifactId.hashCode();
-            hash = hash * 31 + this.version.hashCode();
-            hash = hash * 31 + this.tag.hashCode();
-            hashCode = hash;
-        }
-
-        @Override
-        public boolean equals( Object obj )
-        {
-            if ( this == obj )
-            {
-                return true;
-            }
-
-            if ( !( obj instanceof CacheKey ) )
-            {
-                return false;
-            }
-
-            CacheKey that = (CacheKey) obj;
-
-            return artifactId.equals( that.artifactId ) && groupId.equals( that.groupId )
-                && version.equals( that.version ) && tag.equals( that.tag );
-        }
-
-        @Override
-        public int hashCode()
-        {
-            return hashCode;
-        }
-
+        super( maxSize );
     }
 
 }
@@ -20,19 +20,20 @@
  */
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Holds all POM files that are known to the reactor. This allows the project builder to resolve imported POMs from the
- * reactor when building another project's effective model.
+ * reactor when building another project's effective model. The pool may be read by several threads while the models of
+ * the reactor are built concurrently.
  *
  * @author Benjamin Bentmann
  */
 class ReactorModelPool
 {
 
-    private final Map<CacheKey, File> pomFiles = new HashMap<>();
+    private final Map<CacheKey, File> pomFiles = new ConcurrentHashMap<>();
 
     public File get( String groupId, String artifactId, String version )
     {
@@ -41,7 +42,10 @@ public File get( String groupId, String artifactId, String version )
 
     public void put( String groupId, String artifactId, String version, File pomFile )
     {
-        pomFiles.put( new CacheKey( groupId, artifactId, version ), pomFile );
+        if ( pomFile != null )
+        {
+            pomFiles.put( new CacheKey( groupId, artifactId, version ), pomFile );
+        }
     }
 
     private static final class CacheKey
@@ -53,13 +53,7 @@ public static void addEnvVars( Properties props )
             if ( envVars == null )
             {
                 Properties tmp = new Properties();
-                boolean caseSensitive = !Os.isFamily( Os.FAMILY_WINDOWS );
-                for ( Map.Entry<String, String> entry : System.getenv().entrySet() )
-                {
-                    String key =
-                        "env." + ( caseSensitive ? entry.getKey() : entry.getKey().toUpperCase( Locale.ENGLISH ) );
-                    tmp.setProperty( key, entry.getValue() );
-                }
+                addEnvVars( tmp, System.getenv() );
                 envVars = tmp;
             }
 
@@ -67,4 +61,26 @@ public static void addEnvVars( Properties props )
         }
     }
 
+    /**
+     * Adds the given environment variables in the same form as {@link #addEnvVars(Properties)}, e.g. the environment
+     * of a client process that asked for a build.
+     *
+     * @param props The properties to add the environment variables to, may be {@code null}.
+     * @param env The environment variables to add, must not be {@code null}.
+     * @since 3.4.0
+     */
+    public static void addEnvVars( Properties props, Map<String, String> env )
+    {
+        if ( props != null )
+        {
+            boolean caseSensitive = !Os.isFamily( Os.FAMILY_WINDOWS );
+            for ( Map.Entry<String, String> entry : env.entrySet() )
+            {
+                String key =
+                    "env." + ( caseSensitive ? entry.getKey() : entry.getKey().toUpperCase( Locale.ENGLISH ) );
+                props.setProperty( key, entry.getValue() );
+            }
+        }
+    }
+
 }
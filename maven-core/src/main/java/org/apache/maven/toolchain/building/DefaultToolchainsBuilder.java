@@ -20,6 +20,7 @@
  */
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,7 @@
 import org.apache.maven.building.ProblemCollector;
 import org.apache.maven.building.ProblemCollectorFactory;
 import org.apache.maven.building.Source;
+import org.apache.maven.building.SourceCache;
 import org.apache.maven.toolchain.io.ToolchainsParseException;
 import org.apache.maven.toolchain.io.ToolchainsReader;
 import org.apache.maven.toolchain.merge.MavenToolchainMerger;
@@ -53,12 +55,24 @@
     @Inject
     private ToolchainsReader toolchainsReader;
 
+    private final SourceCache<ToolchainsBuildingResult> cache = new SourceCache<>();
+
     @Override
     public ToolchainsBuildingResult build( ToolchainsBuildingRequest request )
         throws ToolchainsBuildingException
     {
         ProblemCollector problems = ProblemCollectorFactory.newInstance( null );
-        
+
+        SourceCache<ToolchainsBuildingResult> cache = getCache();
+        Object cacheKey = SourceCache.newKey(
+            Arrays.asList( request.getGlobalToolchainsSource(), request.getUserToolchainsSource() ) );
+        ToolchainsBuildingResult cached = cache.get( cacheKey );
+        if ( cached != null )
+        {
+            return new DefaultToolchainsBuildingResult( cached.getEffectiveToolchains().clone(),
+                                                        cached.getProblems() );
+        }
+
         PersistedToolchains globalToolchains = readToolchains( request.getGlobalToolchainsSource(), request, problems );
 
         PersistedToolchains userToolchains = readToolchains( request.getUserToolchainsSource(), request, problems );
@@ -71,11 +85,17 @@ public ToolchainsBuildingResult build( ToolchainsBuildingRequest request )
         {
             throw new ToolchainsBuildingException( problems.getProblems() );
         }
-        
-        
+
+        cache.put( cacheKey, new DefaultToolchainsBuildingResult( userToolchains.clone(), problems.getProblems() ) );
+
         return new DefaultToolchainsBuildingResult( userToolchains, problems.getProblems() );
     }
 
+    private SourceCache<ToolchainsBuildingResult> getCache()
+    {
+        return SourceCache.isSharingEnabled() ? SourceCache.<ToolchainsBuildingResult>getShared( "toolchains" ) : cache;
+    }
+
     private PersistedToolchains readToolchains( Source toolchainsSource, ToolchainsBuildingRequest request,
                                                 ProblemCollector problems )
     {
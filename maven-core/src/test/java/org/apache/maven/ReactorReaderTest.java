@@ -0,0 +1,134 @@
+package org.apache.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.BuildSuccess;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+public class ReactorReaderTest
+    extends TestCase
+{
+
+    private MavenProject upstream;
+
+    private MavenProject downstream;
+
+    private MavenSession session;
+
+    private ReactorReader reader;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        upstream = newProject( "upstream" );
+        downstream = newProject( "downstream" );
+
+        Map<String, MavenProject> projects = new HashMap<>();
+        projects.put( ArtifactUtils.key( upstream.getGroupId(), upstream.getArtifactId(), upstream.getVersion() ),
+                      upstream );
+        projects.put( ArtifactUtils.key( downstream.getGroupId(), downstream.getArtifactId(),
+                                         downstream.getVersion() ), downstream );
+
+        session =
+            new MavenSession( null, null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult() );
+        session.setProjectMap( projects );
+
+        reader = new ReactorReader( session );
+    }
+
+    /**
+     * The downstream project runs its tests while the upstream project is packaging, as in a pipelined build.
+     */
+    public void testResolvesUpstreamClassesDuringDownstreamTestsUntilUpstreamIsPackaged()
+        throws Exception
+    {
+        Artifact jar = newArtifact( "upstream" );
+        File classes = new File( upstream.getBuild().getOutputDirectory() );
+
+        upstream.addLifecyclePhase( "compile" );
+        downstream.addLifecyclePhase( "test" );
+        assertEquals( classes, reader.findArtifact( jar ) );
+
+        // package phase started, but the jar has not been created yet
+        upstream.addLifecyclePhase( "package" );
+        assertEquals( classes, reader.findArtifact( jar ) );
+
+        File file = File.createTempFile( "upstream", ".jar" );
+        file.deleteOnExit();
+        upstream.getArtifact().setFile( file );
+        assertEquals( file, reader.findArtifact( jar ) );
+    }
+
+    public void testDoesNotResolveClassesOfFinishedProjectWithoutArtifact()
+    {
+        Artifact jar = newArtifact( "upstream" );
+
+        upstream.addLifecyclePhase( "compile" );
+        upstream.addLifecyclePhase( "package" );
+        session.getResult().addBuildSummary( new BuildSuccess( upstream, 1 ) );
+
+        assertNull( reader.findArtifact( jar ) );
+    }
+
+    private static Artifact newArtifact( String artifactId )
+    {
+        return new DefaultArtifact( "test", artifactId, "", "jar", "1.0", Collections.singletonMap( "type", "jar" ),
+                                    (File) null );
+    }
+
+    private static MavenProject newProject( String artifactId )
+    {
+        Model model = new Model();
+        model.setGroupId( "test" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        File outputDirectory = new File( "target/reactor-reader/" + artifactId + "/classes" );
+        model.getBuild().setOutputDirectory( outputDirectory.getAbsolutePath() );
+
+        MavenProject project = new MavenProject( model );
+        project.setArtifact( new org.apache.maven.artifact.DefaultArtifact( "test", artifactId,
+                                                                            VersionRange.createFromVersion( "1.0" ),
+                                                                            null, "jar", null,
+                                                                            new DefaultArtifactHandler( "jar" ) ) );
+        return project;
+    }
+
+}
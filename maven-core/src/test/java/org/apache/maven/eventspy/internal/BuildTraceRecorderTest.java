@@ -0,0 +1,141 @@
+package org.apache.maven.eventspy.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+public class BuildTraceRecorderTest
+    extends TestCase
+{
+
+    public void testWritesChromeTrace()
+        throws Exception
+    {
+        File file = new File( "target/build-trace/trace.json" );
+        file.delete();
+        BuildTraceRecorder recorder = new BuildTraceRecorder( file );
+
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.test" );
+        model.setArtifactId( "traced" );
+        model.setVersion( "1.0" );
+        model.setPackaging( "jar" );
+        MavenProject project = new MavenProject( model );
+
+        PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setArtifactId( "maven-compiler-plugin" );
+        MojoDescriptor mojo = new MojoDescriptor();
+        mojo.setGoal( "compile" );
+        mojo.setPluginDescriptor( plugin );
+        MojoExecution execution = new MojoExecution( mojo, "default-compile" );
+
+        recorder.record( new Event( ExecutionEvent.Type.SessionStarted, null, null ) );
+        recorder.record( new Event( ExecutionEvent.Type.ProjectStarted, project, null ) );
+        recorder.record( new Event( ExecutionEvent.Type.MojoStarted, project, execution ) );
+        recorder.record( new RepositoryEvent.Builder( new DefaultRepositorySystemSession(),
+                                                      RepositoryEvent.EventType.ARTIFACT_DOWNLOADING )
+            .setArtifact( new DefaultArtifact( "org.apache.maven.its:a:jar:0.1" ) ).build() );
+        recorder.record( "unrelated" );
+        recorder.record( new Event( ExecutionEvent.Type.MojoFailed, project, execution ) );
+        recorder.record( new Event( ExecutionEvent.Type.ProjectFailed, project, null ) );
+        recorder.record( new Event( ExecutionEvent.Type.SessionEnded, null, null ) );
+        recorder.write();
+
+        String trace = FileUtils.fileRead( file, "UTF-8" );
+        assertTrue( trace, trace.startsWith( "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[" ) );
+        assertTrue( trace, trace.contains( "\"name\":\"thread_name\"" ) );
+        assertTrue( trace, trace.contains( "{\"ph\":\"B\",\"cat\":\"project\"" ) );
+        assertTrue( trace, trace.contains( "\"name\":\"org.apache.maven.test:traced:jar:1.0\"" ) );
+        assertTrue( trace, trace.contains( "\"name\":\"maven-compiler-plugin:compile (default-compile)\"" ) );
+        assertTrue( trace, trace.contains( "\"project\":\"org.apache.maven.test:traced:jar:1.0\"" ) );
+        assertTrue( trace, trace.contains( "{\"ph\":\"b\",\"cat\":\"transfer\"" ) );
+        assertTrue( trace, trace.contains( "\"failed\":true" ) );
+        assertEquals( 7, count( trace, "\"cat\":" ) );
+    }
+
+    private static int count( String text, String token )
+    {
+        int count = 0;
+        for ( int i = text.indexOf( token ); i >= 0; i = text.indexOf( token, i + 1 ) )
+        {
+            count++;
+        }
+        return count;
+    }
+
+    private static class Event
+        implements ExecutionEvent
+    {
+
+        private final Type type;
+
+        private final MavenProject project;
+
+        private final MojoExecution mojoExecution;
+
+        Event( Type type, MavenProject project, MojoExecution mojoExecution )
+        {
+            this.type = type;
+            this.project = project;
+            this.mojoExecution = mojoExecution;
+        }
+
+        public Type getType()
+        {
+            return type;
+        }
+
+        public MavenSession getSession()
+        {
+            return null;
+        }
+
+        public MavenProject getProject()
+        {
+            return project;
+        }
+
+        public MojoExecution getMojoExecution()
+        {
+            return mojoExecution;
+        }
+
+        public Exception getException()
+        {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,349 @@
+package org.apache.maven.eventspy.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.maven.eventspy.AbstractEventSpy;
+import org.apache.maven.eventspy.EventSpy;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusTestCase;
+
+public class EventSpyDispatcherTest
+    extends PlexusTestCase
+{
+
+    private EventSpyDispatcher dispatcher;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        dispatcher = lookup( EventSpyDispatcher.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        dispatcher = null;
+        super.tearDown();
+    }
+
+    public void testSynchronousDispatchByDefault()
+        throws Exception
+    {
+        RecordingSpy spy = new RecordingSpy( null );
+        dispatcher.setEventSpies( Collections.<EventSpy>singletonList( spy ) );
+        dispatcher.init( newContext( new Properties() ) );
+
+        dispatcher.onEvent( "event" );
+
+        assertEquals( Thread.currentThread(), spy.threads.get( 0 ) );
+        dispatcher.close();
+    }
+
+    public void testAsynchronousDispatchPreservesOrder()
+        throws Exception
+    {
+        Properties props = new Properties();
+        props.setProperty( EventSpyDispatcher.DISPATCH_PROPERTY, "async" );
+        props.setProperty( EventSpyDispatcher.QUEUE_SIZE_PROPERTY, "16" );
+        RecordingSpy first = new RecordingSpy( null );
+        RecordingSpy second = new RecordingSpy( null );
+        dispatcher.setEventSpies( Arrays.<EventSpy>asList( first, second ) );
+        dispatcher.init( newContext( props ) );
+
+        List<Object> expected = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            expected.add( i );
+            dispatcher.onEvent( i );
+        }
+        dispatcher.close();
+
+        assertEquals( expected, first.events );
+        assertEquals( expected, second.events );
+        assertNotSame( Thread.currentThread(), first.threads.get( 0 ) );
+        assertTrue( first.closed );
+    }
+
+    public void testDropOnOverflow()
+        throws Exception
+    {
+        Properties props = new Properties();
+        props.setProperty( EventSpyDispatcher.DISPATCH_PROPERTY, "async" );
+        props.setProperty( EventSpyDispatcher.QUEUE_SIZE_PROPERTY, "4" );
+        props.setProperty( EventSpyDispatcher.OVERFLOW_PROPERTY, "drop" );
+        CountDownLatch latch = new CountDownLatch( 1 );
+        RecordingSpy spy = new RecordingSpy( latch );
+        dispatcher.setEventSpies( Collections.<EventSpy>singletonList( spy ) );
+        dispatcher.init( newContext( props ) );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            dispatcher.onEvent( i );
+        }
+        latch.countDown();
+        dispatcher.close();
+
+        assertTrue( spy.events.size() < 100 );
+        assertEquals( 0, spy.events.get( 0 ) );
+        for ( int i = 1; i < spy.events.size(); i++ )
+        {
+            assertTrue( (Integer) spy.events.get( i - 1 ) < (Integer) spy.events.get( i ) );
+        }
+    }
+
+    public void testAsynchronousDispatchSnapshotsExecutionEvents()
+        throws Exception
+    {
+        Properties props = new Properties();
+        props.setProperty( EventSpyDispatcher.DISPATCH_PROPERTY, "async" );
+        CountDownLatch latch = new CountDownLatch( 1 );
+        RecordingSpy spy = new RecordingSpy( latch );
+        dispatcher.setEventSpies( Collections.<EventSpy>singletonList( spy ) );
+        dispatcher.init( newContext( props ) );
+
+        MavenProject first = new MavenProject();
+        MutableExecutionEvent event = new MutableExecutionEvent();
+        event.project = first;
+        dispatcher.onEvent( event );
+        event.project = new MavenProject();
+        latch.countDown();
+        dispatcher.close();
+
+        ExecutionEvent delivered = (ExecutionEvent) spy.events.get( 0 );
+        assertNotSame( event, delivered );
+        assertSame( first, delivered.getProject() );
+        assertEquals( ExecutionEvent.Type.ProjectStarted, delivered.getType() );
+    }
+
+    public void testTraceRecorderIsReleasedAfterSessionEnded()
+        throws Exception
+    {
+        File file = new File( "target/event-spy-dispatcher/trace.json" ).getAbsoluteFile();
+        file.delete();
+        Properties props = new Properties();
+        props.setProperty( BuildTraceRecorder.FILE_PROPERTY, file.getPath() );
+        dispatcher.setEventSpies( Collections.<EventSpy>emptyList() );
+        dispatcher.init( newContext( props ) );
+
+        ExecutionListener listener = new AbstractExecutionListener();
+        assertNotSame( listener, dispatcher.chainListener( listener ) );
+
+        MutableExecutionEvent event = new MutableExecutionEvent();
+        event.type = ExecutionEvent.Type.SessionEnded;
+        dispatcher.onEvent( event );
+
+        assertTrue( file.isFile() );
+        assertSame( listener, dispatcher.chainListener( listener ) );
+
+        dispatcher.init( newContext( props ) );
+        dispatcher.close();
+        assertSame( listener, dispatcher.chainListener( listener ) );
+    }
+
+    public void testPublishFromConsumerThreadDoesNotBlock()
+        throws Exception
+    {
+        Properties props = new Properties();
+        props.setProperty( EventSpyDispatcher.DISPATCH_PROPERTY, "async" );
+        props.setProperty( EventSpyDispatcher.QUEUE_SIZE_PROPERTY, "4" );
+        props.setProperty( EventSpyDispatcher.OVERFLOW_PROPERTY, "block" );
+        final CountDownLatch published = new CountDownLatch( 1 );
+        final RecordingSpy spy = new RecordingSpy( null )
+        {
+            @Override
+            public void onEvent( Object event )
+                throws Exception
+            {
+                super.onEvent( event );
+                if ( "outer".equals( event ) )
+                {
+                    for ( int i = 0; i < 100; i++ )
+                    {
+                        dispatcher.onEvent( i );
+                    }
+                    published.countDown();
+                }
+            }
+        };
+        dispatcher.setEventSpies( Collections.<EventSpy>singletonList( spy ) );
+        dispatcher.init( newContext( props ) );
+
+        dispatcher.onEvent( "outer" );
+        published.await();
+        dispatcher.close();
+
+        assertEquals( 101, spy.events.size() );
+        assertEquals( "outer", spy.events.get( 0 ) );
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( i, spy.events.get( i + 1 ) );
+        }
+    }
+
+    public void testPublishFromConsumerThreadKeepsOrderWhenFull()
+        throws Exception
+    {
+        Properties props = new Properties();
+        props.setProperty( EventSpyDispatcher.DISPATCH_PROPERTY, "async" );
+        props.setProperty( EventSpyDispatcher.QUEUE_SIZE_PROPERTY, "4" );
+        props.setProperty( EventSpyDispatcher.OVERFLOW_PROPERTY, "block" );
+        CountDownLatch latch = new CountDownLatch( 1 );
+        final CountDownLatch published = new CountDownLatch( 1 );
+        RecordingSpy spy = new RecordingSpy( latch )
+        {
+            @Override
+            public void onEvent( Object event )
+                throws Exception
+            {
+                super.onEvent( event );
+                if ( "outer".equals( event ) )
+                {
+                    dispatcher.onEvent( "nested" );
+                    published.countDown();
+                }
+            }
+        };
+        dispatcher.setEventSpies( Collections.<EventSpy>singletonList( spy ) );
+        dispatcher.init( newContext( props ) );
+
+        // the consumer waits in the spy with the first event while the others fill the buffer
+        dispatcher.onEvent( "outer" );
+        for ( int i = 0; i < 4; i++ )
+        {
+            dispatcher.onEvent( i );
+        }
+        latch.countDown();
+        published.await();
+        dispatcher.close();
+
+        assertEquals( Arrays.<Object>asList( "outer", 0, 1, 2, 3, "nested" ), spy.events );
+    }
+
+    private static EventSpy.Context newContext( Properties userProperties )
+    {
+        final Map<String, Object> data = new HashMap<>();
+        data.put( "userProperties", userProperties );
+        data.put( "systemProperties", new Properties() );
+        return new EventSpy.Context()
+        {
+            @Override
+            public Map<String, Object> getData()
+            {
+                return data;
+            }
+        };
+    }
+
+    private static class MutableExecutionEvent
+        implements ExecutionEvent
+    {
+
+        Type type = Type.ProjectStarted;
+
+        MavenProject project;
+
+        @Override
+        public Type getType()
+        {
+            return type;
+        }
+
+        @Override
+        public MavenSession getSession()
+        {
+            return null;
+        }
+
+        @Override
+        public MavenProject getProject()
+        {
+            return project;
+        }
+
+        @Override
+        public MojoExecution getMojoExecution()
+        {
+            return null;
+        }
+
+        @Override
+        public Exception getException()
+        {
+            return null;
+        }
+
+    }
+
+    private static class RecordingSpy
+        extends AbstractEventSpy
+    {
+
+        final List<Object> events = new ArrayList<>();
+
+        final List<Thread> threads = new ArrayList<>();
+
+        final CountDownLatch latch;
+
+        volatile boolean closed;
+
+        RecordingSpy( CountDownLatch latch )
+        {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onEvent( Object event )
+            throws Exception
+        {
+            if ( latch != null )
+            {
+                latch.await();
+            }
+            events.add( event );
+            threads.add( Thread.currentThread() );
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+    }
+
+}
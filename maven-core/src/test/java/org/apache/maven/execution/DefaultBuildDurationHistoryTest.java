@@ -0,0 +1,185 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+
+public class DefaultBuildDurationHistoryTest
+    extends TestCase
+{
+
+    private File buildDirectory;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        buildDirectory = new File( "target/test-build-durations/target" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( buildDirectory );
+    }
+
+    public void testDisabledByDefault()
+    {
+        MavenProject project = newProject();
+        MavenSession session = newSession( project, false );
+
+        DefaultBuildDurationHistory history = new DefaultBuildDurationHistory();
+        history.load( session );
+        assertFalse( history.isEnabled( session ) );
+
+        history.recordMojoDuration( session, project, newMojoExecution(), 100 );
+        session.getResult().addBuildSummary( new BuildSuccess( project, 200 ) );
+        history.save( session );
+
+        assertFalse( new File( buildDirectory, DefaultBuildDurationHistory.FILE_NAME ).exists() );
+    }
+
+    public void testRollingAverageAcrossSessions()
+    {
+        MavenProject project = newProject();
+        MojoExecution mojoExecution = newMojoExecution();
+
+        DefaultBuildDurationHistory history = new DefaultBuildDurationHistory();
+
+        MavenSession session = newSession( project, true );
+        history.load( session );
+        assertTrue( history.isEnabled( session ) );
+        assertNull( history.getProjectDuration( session, project ) );
+        history.recordMojoDuration( session, project, mojoExecution, 40 );
+        history.recordMojoDuration( session, project, mojoExecution, 20 );
+        session.getResult().addBuildSummary( new BuildSuccess( project, 100 ) );
+        history.save( session );
+
+        assertTrue( new File( buildDirectory, DefaultBuildDurationHistory.FILE_NAME ).isFile() );
+
+        // a fresh instance reads the history back from disk
+        history = new DefaultBuildDurationHistory();
+        session = newSession( project, true );
+        history.load( session );
+        assertEquals( Long.valueOf( 100 ), history.getProjectDuration( session, project ) );
+        assertEquals( Long.valueOf( 60 ), history.getMojoDuration( session, project, mojoExecution ) );
+
+        session.getResult().addBuildSummary( new BuildSuccess( project, 200 ) );
+        history.save( session );
+
+        assertFalse( history.isEnabled( session ) );
+
+        session = newSession( project, true );
+        history.load( session );
+        assertEquals( Long.valueOf( 150 ), history.getProjectDuration( session, project ) );
+        assertEquals( Long.valueOf( 60 ), history.getMojoDuration( session, project, mojoExecution ) );
+    }
+
+    public void testConcurrentSessionsKeepSeparateState()
+    {
+        MavenProject project = newProject();
+        MojoExecution mojoExecution = newMojoExecution();
+
+        DefaultBuildDurationHistory history = new DefaultBuildDurationHistory();
+
+        MavenSession enabled = newSession( project, true );
+        MavenSession disabled = newSession( project, false );
+        history.load( enabled );
+        history.load( disabled );
+        assertTrue( history.isEnabled( enabled ) );
+        assertFalse( history.isEnabled( disabled ) );
+
+        history.recordMojoDuration( enabled, project, mojoExecution, 30 );
+        history.recordMojoDuration( disabled, project, mojoExecution, 1000 );
+        history.save( disabled );
+        assertTrue( history.isEnabled( enabled ) );
+
+        enabled.getResult().addBuildSummary( new BuildSuccess( project, 100 ) );
+        history.save( enabled );
+
+        MavenSession session = newSession( project, true );
+        history.load( session );
+        assertEquals( Long.valueOf( 100 ), history.getProjectDuration( session, project ) );
+        assertEquals( Long.valueOf( 30 ), history.getMojoDuration( session, project, mojoExecution ) );
+    }
+
+    public void testFailedProjectsAreNotRecorded()
+    {
+        MavenProject project = newProject();
+
+        DefaultBuildDurationHistory history = new DefaultBuildDurationHistory();
+        MavenSession session = newSession( project, true );
+        history.load( session );
+        session.getResult().addBuildSummary( new BuildFailure( project, 100, new Exception() ) );
+        history.save( session );
+
+        session = newSession( project, true );
+        history.load( session );
+        assertNull( history.getProjectDuration( session, project ) );
+    }
+
+    private MavenProject newProject()
+    {
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.test" );
+        model.setArtifactId( "test" );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        model.getBuild().setDirectory( buildDirectory.getPath() );
+
+        MavenProject project = new MavenProject( model );
+        project.setExecutionRoot( true );
+        return project;
+    }
+
+    private MojoExecution newMojoExecution()
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( "org.apache.maven.plugins" );
+        pluginDescriptor.setArtifactId( "maven-compiler-plugin" );
+        pluginDescriptor.setVersion( "3.5.1" );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( "compile" );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+
+        return new MojoExecution( mojoDescriptor, "default-compile" );
+    }
+
+    private MavenSession newSession( MavenProject project, boolean enabled )
+    {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        if ( enabled )
+        {
+            request.getUserProperties().setProperty( BuildDurationHistory.ENABLED_PROPERTY, "true" );
+        }
+        MavenSession session = new MavenSession( null, null, request, new DefaultMavenExecutionResult() );
+        session.setProjects( Collections.singletonList( project ) );
+        return session;
+    }
+
+}
@@ -135,6 +135,24 @@ public void testGetUpstreamProjects()
         assertEquals( aProject, downstreamProjects.get( 0 ) );
     }
 
+    public void testTransitiveUpstreamProjects()
+        throws CycleDetectedException, DuplicateProjectException
+    {
+        final ProjectDependencyGraph graph = new DefaultProjectDependencyGraph(
+            Arrays.asList( depender1, transitiveOnly, depender2, depender3, aProject ) );
+
+        assertEquals( Arrays.asList( depender3 ), graph.getUpstreamProjects( transitiveOnly, false ) );
+        assertEquals( Arrays.asList( aProject, depender3 ), graph.getUpstreamProjects( transitiveOnly, true ) );
+        // callers get their own modifiable copy
+        graph.getUpstreamProjects( transitiveOnly, true ).clear();
+        graph.getDownstreamProjects( aProject, false ).clear();
+        graph.getSortedProjects().clear();
+        assertEquals( Arrays.asList( aProject, depender3 ), graph.getUpstreamProjects( transitiveOnly, true ) );
+        assertFalse( graph.getDownstreamProjects( aProject, false ).isEmpty() );
+        assertTrue( graph.getUpstreamProjects( aProject, true ).isEmpty() );
+        assertTrue( graph.getDownstreamProjects( transitiveOnly, true ).isEmpty() );
+    }
+
     private ProjectDependencyGraph threeProjectsDependingOnASingle()
         throws CycleDetectedException, DuplicateProjectException
     {
@@ -20,6 +20,7 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.AbstractCoreMavenComponentTestCase;
 import org.apache.maven.exception.ExceptionHandler;
@@ -36,6 +37,7 @@
 import org.apache.maven.lifecycle.internal.LifecycleTaskSegmentCalculator;
 import org.apache.maven.lifecycle.internal.MojoDescriptorCreator;
 import org.apache.maven.lifecycle.internal.TaskSegment;
+import org.apache.maven.model.Extension;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -44,6 +46,8 @@
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 
 public class LifecycleExecutorTest
     extends AbstractCoreMavenComponentTestCase
@@ -251,6 +255,83 @@ public void testCalculationOfBuildPlanWithMultipleExecutionsOfModello()
                           "configuration/models[1]/model" ) );
     }
 
+    public void testCalculationOfBuildPlanSharedBetweenIdenticalProjects()
+        throws Exception
+    {
+        File pom = getProject( "project-with-multiple-executions" );
+        MavenSession session = createMavenSession( pom );
+        DefaultRepositorySystemSession repoSession = (DefaultRepositorySystemSession) session.getRepositorySession();
+        repoSession.setCache( new DefaultRepositoryCache() );
+        String storeKey = "org.apache.maven.lifecycle.internal.ExecutionPlanTemplateCache.store";
+
+        calculateExecutionPlan( session, "clean", "install" );
+        assertNull( "plans must not be shared by default", repoSession.getCache().get( repoSession, storeKey ) );
+
+        repoSession.setConfigProperty( "maven.executionPlan.shareTemplates", "true" );
+        List<MojoExecution> calculated = getExecutions( calculateExecutionPlan( session, "clean", "install" ) );
+        Map<?, ?> templates = (Map<?, ?>) repoSession.getCache().get( repoSession, storeKey );
+        assertEquals( 1, templates.size() );
+        List<MojoExecution> shared = getExecutions( calculateExecutionPlan( session, "clean", "install" ) );
+
+        assertEquals( calculated.size(), shared.size() );
+        for ( int i = 0; i < calculated.size(); i++ )
+        {
+            MojoExecution expected = calculated.get( i );
+            MojoExecution actual = shared.get( i );
+            assertNotSame( expected, actual );
+            // the descriptor carries the plugin realm of the project, so it is looked up for each project
+            assertNotSame( expected.getMojoDescriptor(), actual.getMojoDescriptor() );
+            assertEquals( expected.getMojoDescriptor().getId(), actual.getMojoDescriptor().getId() );
+            assertEquals( expected.getExecutionId(), actual.getExecutionId() );
+            assertEquals( expected.getLifecyclePhase(), actual.getLifecyclePhase() );
+            assertEquals( expected.getConfiguration(), actual.getConfiguration() );
+            assertNotSame( expected.getConfiguration(), actual.getConfiguration() );
+        }
+
+        // a project with a different configuration must not get the shared plan
+        Plugin plugin = session.getCurrentProject().getPlugin( "org.apache.maven.its.plugins:maven-it-plugin" );
+        Xpp3Dom configuration = (Xpp3Dom) plugin.getExecutions().get( 0 ).getConfiguration();
+        configuration.getChild( "models" ).getChild( 0 ).setValue( "src/main/mdo/other.mdo" );
+
+        List<MojoExecution> reconfigured = getExecutions( calculateExecutionPlan( session, "clean", "install" ) );
+        assertEquals( 2, templates.size() );
+        assertEquals( "src/main/mdo/other.mdo",
+                      new MojoExecutionXPathContainer( reconfigured.get( 1 ) ).getValue(
+                          "configuration/models[1]/model" ) );
+    }
+
+    public void testCalculationOfBuildPlanNotSharedBetweenProjectsWithDifferentExtensions()
+        throws Exception
+    {
+        File pom = getProject( "project-with-multiple-executions" );
+        MavenSession session = createMavenSession( pom );
+        DefaultRepositorySystemSession repoSession = (DefaultRepositorySystemSession) session.getRepositorySession();
+        repoSession.setCache( new DefaultRepositoryCache() );
+        repoSession.setConfigProperty( "maven.executionPlan.shareTemplates", "true" );
+
+        calculateExecutionPlan( session, "clean", "install" );
+        Map<?, ?> templates = (Map<?, ?>) repoSession.getCache().get(
+            repoSession, "org.apache.maven.lifecycle.internal.ExecutionPlanTemplateCache.store" );
+        assertEquals( 1, templates.size() );
+
+        // a project with build extensions gets its own realm and thereby its own plugin realms
+        MavenProject project = session.getCurrentProject();
+        Extension extension = new Extension();
+        extension.setGroupId( "org.apache.maven.its" );
+        extension.setArtifactId( "extension" );
+        extension.setVersion( "0.1" );
+        project.getBuild().addExtension( extension );
+        calculateExecutionPlan( session, "clean", "install" );
+        assertEquals( 2, templates.size() );
+
+        project.setClassRealm( getContainer().createChildRealm( "project>org.apache.maven.its:extension:0.1" ) );
+        calculateExecutionPlan( session, "clean", "install" );
+        assertEquals( 3, templates.size() );
+
+        calculateExecutionPlan( session, "clean", "install" );
+        assertEquals( 3, templates.size() );
+    }
+
     public void testLifecycleQueryingUsingADefaultLifecyclePhase()
         throws Exception
     {
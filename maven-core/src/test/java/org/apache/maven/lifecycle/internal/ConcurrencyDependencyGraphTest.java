@@ -91,4 +91,26 @@ public void testConcurrencyGraphDifferentCompletionOrder()
         assertEquals( Y, bDescendants.get( 1 ) );
     }
 
+    public void testActiveDependenciesAndRepeatedFinish()
+        throws InvalidPluginDescriptorException, PluginVersionResolutionException, PluginDescriptorParsingException,
+        NoPluginFoundForPrefixException, MojoNotFoundException, PluginNotFoundException, PluginResolutionException,
+        LifecyclePhaseNotFoundException, LifecycleNotFoundException
+    {
+        ProjectDependencyGraph dependencyGraph = new ProjectDependencyGraphStub();
+        final MavenSession session = ProjectDependencyGraphStub.getMavenSession();
+        ConcurrencyDependencyGraph graph =
+            new ConcurrencyDependencyGraph( getProjectBuildList( session ), dependencyGraph );
+
+        graph.markAsFinished( A );
+        graph.markAsFinished( B );
+        final List<MavenProject> activeDependencies = graph.getActiveDependencies( X );
+        assertEquals( 1, activeDependencies.size() );
+        assertEquals( C, activeDependencies.get( 0 ) );
+
+        // finishing a project twice must not count it twice
+        assertTrue( graph.markAsFinished( B ).contains( Y ) );
+        assertFalse( graph.markAsFinished( B ).contains( X ) );
+        assertTrue( graph.markAsFinished( C ).contains( X ) );
+    }
+
 }
@@ -0,0 +1,124 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.graph.DefaultProjectDependencyGraph;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.ProjectArtifactsCache;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+
+public class LifecycleDependencyPrefetcherTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/lifecycle-executor";
+    }
+
+    public void testPrefetchIsDisabledByDefault()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( getProject( "project-basic" ) );
+        MavenProject project = session.getCurrentProject();
+
+        lookup( LifecycleDependencyPrefetcher.class ).prefetch( session, newProjectBuildList( session, "compile" ) );
+
+        assertNull( project.getDependencyArtifacts() );
+    }
+
+    public void testPrefetchFillsProjectArtifactsCache()
+        throws Exception
+    {
+        MavenSession session = createMavenSession( getProject( "project-basic" ) );
+        session.getUserProperties().setProperty( LifecycleDependencyPrefetcher.THREADS_PROPERTY, "2" );
+        MavenProject project = session.getCurrentProject();
+
+        lookup( LifecycleDependencyPrefetcher.class ).prefetch( session, newProjectBuildList( session, "compile" ) );
+
+        assertNotNull( project.getDependencyArtifacts() );
+
+        List<Object> tasks = Collections.<Object>singletonList( new LifecycleTask( "compile" ) );
+        List<MojoExecution> mojoExecutions = lookup( LifecycleExecutionPlanCalculator.class )
+            .calculateExecutionPlan( session, project, tasks ).getMojoExecutions();
+        DependencyContext dependencyContext =
+            lookup( MojoExecutor.class ).newDependencyContext( project, mojoExecutions );
+
+        ProjectArtifactsCache cache = lookup( ProjectArtifactsCache.class );
+        ProjectArtifactsCache.Key key =
+            cache.createKey( project, dependencyContext.getScopesToCollectForCurrentProject(),
+                             dependencyContext.getScopesToResolveForCurrentProject(), false,
+                             session.getRepositorySession() );
+        assertNotNull( cache.get( key ) );
+    }
+
+    public void testAggregatingFlagComesFromFirstMojoRequiringDependencies()
+        throws Exception
+    {
+        MojoDescriptor aggregator = new MojoDescriptor();
+        aggregator.setAggregator( true );
+        MojoDescriptor compiler = new MojoDescriptor();
+        compiler.setDependencyResolutionRequired( "compile" );
+
+        MavenProject project = new MavenProject();
+        MojoExecutor mojoExecutor = lookup( MojoExecutor.class );
+
+        DependencyContext dependencyContext = mojoExecutor.newDependencyContext(
+            project, Arrays.asList( new MojoExecution( aggregator ), new MojoExecution( compiler ) ) );
+        assertFalse( dependencyContext.isAggregating( true ) );
+
+        compiler.setAggregator( true );
+        aggregator.setAggregator( false );
+        dependencyContext = mojoExecutor.newDependencyContext(
+            project, Arrays.asList( new MojoExecution( aggregator ), new MojoExecution( compiler ) ) );
+        assertTrue( dependencyContext.isAggregating( false ) );
+    }
+
+    public void testAggregatingFlagComesFromExecutingMojoWithoutPrefetch()
+        throws Exception
+    {
+        MojoDescriptor compiler = new MojoDescriptor();
+        compiler.setDependencyResolutionRequired( "compile" );
+        List<MojoExecution> mojoExecutions = Collections.singletonList( new MojoExecution( compiler ) );
+
+        MavenSession session = createMavenSession( getProject( "project-basic" ) );
+        MojoExecutor mojoExecutor = lookup( MojoExecutor.class );
+
+        DependencyContext dependencyContext = mojoExecutor.newDependencyContext( session, mojoExecutions );
+        assertTrue( dependencyContext.isAggregating( true ) );
+        assertFalse( dependencyContext.isAggregating( false ) );
+
+        session.getUserProperties().setProperty( LifecycleDependencyPrefetcher.THREADS_PROPERTY, "2" );
+        dependencyContext = mojoExecutor.newDependencyContext( session, mojoExecutions );
+        assertFalse( dependencyContext.isAggregating( true ) );
+    }
+
+    private ProjectBuildList newProjectBuildList( MavenSession session, String phase )
+        throws Exception
+    {
+        session.setProjectDependencyGraph( new DefaultProjectDependencyGraph( session.getProjects() ) );
+        TaskSegment taskSegment = new TaskSegment( false, new LifecycleTask( phase ) );
+        return new ProjectBuildList( Collections.singletonList( new ProjectSegment( session.getCurrentProject(),
+                                                                                    taskSegment, session ) ) );
+    }
+}
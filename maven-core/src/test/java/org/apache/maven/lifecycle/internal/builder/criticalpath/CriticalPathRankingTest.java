@@ -0,0 +1,85 @@
+package org.apache.maven.lifecycle.internal.builder.criticalpath;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.A;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.B;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.C;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.X;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.Y;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.Z;
+import static org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub.getProjectBuildList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.internal.stub.ProjectDependencyGraphStub;
+import org.apache.maven.project.MavenProject;
+
+public class CriticalPathRankingTest
+    extends TestCase
+{
+    public void testRankByNumberOfDownstreamModules()
+        throws Exception
+    {
+        MavenSession session = ProjectDependencyGraphStub.getMavenSession();
+        CriticalPathRanking ranking =
+            new CriticalPathRanking( getProjectBuildList( session ), new ProjectDependencyGraphStub(),
+                                     Collections.<MavenProject, Long>emptyMap() );
+
+        assertEquals( 3, ranking.getRank( A ) );
+        assertEquals( 2, ranking.getRank( B ) );
+        assertEquals( 2, ranking.getRank( C ) );
+        assertEquals( 1, ranking.getRank( X ) );
+        assertEquals( 1, ranking.getRank( Y ) );
+        assertEquals( 1, ranking.getRank( Z ) );
+
+        // equal ranks keep the reactor order
+        List<MavenProject> ready = Arrays.asList( Z, C, B, X );
+        Collections.sort( ready, ranking );
+        assertEquals( Arrays.asList( B, C, X, Z ), ready );
+    }
+
+    public void testRankByEstimatedDurations()
+        throws Exception
+    {
+        Map<MavenProject, Long> durations = new HashMap<>();
+        durations.put( A, 10L );
+        durations.put( B, 10L );
+        durations.put( X, 10L );
+        durations.put( Y, 10L );
+        durations.put( Z, 100L );
+
+        MavenSession session = ProjectDependencyGraphStub.getMavenSession();
+        CriticalPathRanking ranking =
+            new CriticalPathRanking( getProjectBuildList( session ), new ProjectDependencyGraphStub(), durations );
+
+        // C has no estimate and is weighted with the average of the known durations
+        assertEquals( 128, ranking.getRank( C ) );
+        assertEquals( 20, ranking.getRank( B ) );
+        assertEquals( 138, ranking.getRank( A ) );
+
+        List<MavenProject> ready = Arrays.asList( B, C );
+        Collections.sort( ready, ranking );
+        assertEquals( Arrays.asList( C, B ), ready );
+    }
+}
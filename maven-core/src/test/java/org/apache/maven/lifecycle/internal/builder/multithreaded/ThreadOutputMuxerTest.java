@@ -86,6 +86,36 @@ public void testSingleThreaded()
         assertEquals( ( paid + in + full ).length(), byteArrayOutputStream.size() );
     }
 
+    public void testSpillsToFileAndKeepsBuildOrder()
+        throws Exception
+    {
+        ProjectBuildList src = getProjectBuildList();
+        ProjectBuildList projectBuildList =
+            new ProjectBuildList( Arrays.asList( src.get( 0 ), src.get( 1 ), src.get( 2 ) ) );
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        PrintStream systemOut = new PrintStream( byteArrayOutputStream );
+        ThreadOutputMuxer threadOutputMuxer = new ThreadOutputMuxer( projectBuildList, systemOut, 3 );
+
+        threadOutputMuxer.associateThreadWithProjectSegment( projectBuildList.get( 2 ) );
+        System.out.print( full ); // No, this does not print to system.out. It's part of the test
+        threadOutputMuxer.setThisModuleComplete( projectBuildList.get( 2 ) );
+        threadOutputMuxer.associateThreadWithProjectSegment( projectBuildList.get( 1 ) );
+        System.out.print( in ); // No, this does not print to system.out. It's part of the test
+        threadOutputMuxer.associateThreadWithProjectSegment( projectBuildList.get( 0 ) );
+        System.out.print( paid ); // No, this does not print to system.out. It's part of the test
+        assertEquals( paid, byteArrayOutputStream.toString() );
+
+        threadOutputMuxer.setThisModuleComplete( projectBuildList.get( 0 ) );
+        assertEquals( paid + in, byteArrayOutputStream.toString() );
+
+        threadOutputMuxer.associateThreadWithProjectSegment( projectBuildList.get( 1 ) );
+        System.out.print( in ); // No, this does not print to system.out. It's part of the test
+        threadOutputMuxer.setThisModuleComplete( projectBuildList.get( 1 ) );
+        threadOutputMuxer.close();
+        assertEquals( paid + in + in + full, byteArrayOutputStream.toString() );
+    }
+
     public void testMultiThreaded()
         throws Exception
     {
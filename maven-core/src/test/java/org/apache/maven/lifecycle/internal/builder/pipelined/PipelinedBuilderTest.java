@@ -0,0 +1,178 @@
+package org.apache.maven.lifecycle.internal.builder.pipelined;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.lifecycle.internal.ReactorBuildStatus;
+import org.apache.maven.lifecycle.internal.UpstreamFailureException;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+
+public class PipelinedBuilderTest
+    extends TestCase
+{
+    private static final List<String> PHASES =
+        Arrays.asList( "validate", "compile", "process-classes", "test-compile", "process-test-classes", "test",
+                       "prepare-package", "package", "install" );
+
+    public void testRequiredPhase()
+    {
+        MavenProject upstream = newProject( "upstream" );
+
+        assertNull( PipelinedBuilder.getRequiredPhase( newProject( "none" ), upstream ) );
+        assertEquals( "process-classes",
+                      PipelinedBuilder.getRequiredPhase( newProject( "jar", newDependency( "jar", null ) ),
+                                                         upstream ) );
+        assertEquals( "process-test-classes",
+                      PipelinedBuilder.getRequiredPhase( newProject( "tests", newDependency( "jar", null ),
+                                                                     newDependency( "test-jar", null ) ),
+                                                         upstream ) );
+        assertEquals( "process-test-classes",
+                      PipelinedBuilder.getRequiredPhase( newProject( "classifier", newDependency( "jar", "tests" ) ),
+                                                         upstream ) );
+        assertNull( PipelinedBuilder.getRequiredPhase( newProject( "war", newDependency( "jar", null ),
+                                                                   newDependency( "war", null ) ), upstream ) );
+    }
+
+    public void testRequiredPhaseOfReactorPlugin()
+    {
+        MavenProject upstream = newProject( "upstream" );
+
+        MavenProject plugin = newProject( "plugin", newDependency( "jar", null ) );
+        Plugin buildPlugin = new Plugin();
+        buildPlugin.setGroupId( "test" );
+        buildPlugin.setArtifactId( "upstream" );
+        plugin.getModel().setBuild( new Build() );
+        plugin.getModel().getBuild().addPlugin( buildPlugin );
+        assertNull( PipelinedBuilder.getRequiredPhase( plugin, upstream ) );
+
+        MavenProject extension = newProject( "extension", newDependency( "jar", null ) );
+        Extension buildExtension = new Extension();
+        buildExtension.setGroupId( "test" );
+        buildExtension.setArtifactId( "upstream" );
+        extension.getModel().setBuild( new Build() );
+        extension.getModel().getBuild().addExtension( buildExtension );
+        assertNull( PipelinedBuilder.getRequiredPhase( extension, upstream ) );
+
+        MavenProject child = newProject( "child", newDependency( "jar", null ) );
+        Parent parent = new Parent();
+        parent.setGroupId( "test" );
+        parent.setArtifactId( "upstream" );
+        child.getModel().setParent( parent );
+        assertNull( PipelinedBuilder.getRequiredPhase( child, upstream ) );
+    }
+
+    public void testProgress()
+        throws Exception
+    {
+        Queue<ProjectProgress> events = new LinkedBlockingQueue<>();
+        ReactorBuildStatus status = new ReactorBuildStatus( null );
+        ProjectProgress upstream = new ProjectProgress( newProject( "upstream" ), PHASES, events, status );
+        ProjectProgress downstream = new ProjectProgress( newProject( "downstream" ), PHASES, events, status );
+        downstream.addUpstream( upstream, upstream.getPhaseIndex( "process-classes" ) );
+
+        assertFalse( downstream.isReady() );
+
+        upstream.beforeMojoExecution( newExecution( "compile" ) );
+        assertFalse( downstream.isReady() );
+
+        upstream.beforeMojoExecution( newExecution( "test-compile" ) );
+        assertTrue( downstream.isReady() );
+        assertEquals( 2, events.size() );
+
+        // mojos outside of the default lifecycle do not change the progress
+        upstream.beforeMojoExecution( newExecution( "clean" ) );
+        upstream.beforeMojoExecution( newExecution( "compile" ) );
+        assertEquals( 2, events.size() );
+
+        // the failure of the upstream project banned the downstream project
+        status.blackList( downstream.getProject() );
+        upstream.markFinished();
+        assertTrue( upstream.hasCompleted( ProjectProgress.COMPLETE ) );
+        assertEquals( 3, events.size() );
+
+        downstream.beforeMojoExecution( newExecution( "test" ) );
+        try
+        {
+            downstream.beforeMojoExecution( newExecution( "package" ) );
+            fail( "a banned project must stop before packaging" );
+        }
+        catch ( UpstreamFailureException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "upstream" ) );
+        }
+    }
+
+    public void testProgressContinuesAfterUpstreamFailureIfNotBanned()
+        throws Exception
+    {
+        Queue<ProjectProgress> events = new LinkedBlockingQueue<>();
+        ReactorBuildStatus status = new ReactorBuildStatus( null );
+        ProjectProgress upstream = new ProjectProgress( newProject( "upstream" ), PHASES, events, status );
+        ProjectProgress downstream = new ProjectProgress( newProject( "downstream" ), PHASES, events, status );
+        downstream.addUpstream( upstream, upstream.getPhaseIndex( "process-classes" ) );
+
+        // --fail-never does not ban any project
+        upstream.markFinished();
+        downstream.beforeMojoExecution( newExecution( "package" ) );
+        downstream.beforeMojoExecution( newExecution( "install" ) );
+    }
+
+    private static MojoExecution newExecution( String phase )
+    {
+        MojoExecution execution = new MojoExecution( new MojoDescriptor() );
+        execution.setLifecyclePhase( phase );
+        return execution;
+    }
+
+    private static Dependency newDependency( String type, String classifier )
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "test" );
+        dependency.setArtifactId( "upstream" );
+        dependency.setVersion( "1.0" );
+        dependency.setType( type );
+        dependency.setClassifier( classifier );
+        return dependency;
+    }
+
+    private static MavenProject newProject( String artifactId, Dependency... dependencies )
+    {
+        Model model = new Model();
+        model.setGroupId( "test" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        model.setDependencies( Arrays.asList( dependencies ) );
+        return new MavenProject( model );
+    }
+}
@@ -0,0 +1,149 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+
+import junit.framework.TestCase;
+
+public class DefaultPluginDescriptorCacheTest
+    extends TestCase
+{
+
+    public void testConcurrentRequestsLoadOnce()
+        throws Exception
+    {
+        final DefaultPluginDescriptorCache cache = new DefaultPluginDescriptorCache();
+        final PluginDescriptorCache.Key key = new PluginDescriptorCache.Key()
+        {
+        };
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch( 1 );
+
+        final DefaultPluginDescriptorCache.PluginDescriptorSupplier supplier =
+            new DefaultPluginDescriptorCache.PluginDescriptorSupplier()
+            {
+                public PluginDescriptor load()
+                {
+                    loads.incrementAndGet();
+                    try
+                    {
+                        Thread.sleep( 50 );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    return newDescriptor();
+                }
+            };
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<PluginDescriptor>> results = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                results.add( executor.submit( new Callable<PluginDescriptor>()
+                {
+                    public PluginDescriptor call()
+                        throws Exception
+                    {
+                        start.await();
+                        return cache.get( key, supplier );
+                    }
+                } ) );
+            }
+            start.countDown();
+
+            for ( Future<PluginDescriptor> result : results )
+            {
+                assertEquals( "test-plugin", result.get().getArtifactId() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals( 1, loads.get() );
+        assertEquals( 1, cache.getMissCount() );
+        assertEquals( threads - 1, cache.getHitCount() );
+    }
+
+    public void testFailedLoadIsNotCached()
+        throws Exception
+    {
+        DefaultPluginDescriptorCache cache = new DefaultPluginDescriptorCache();
+        PluginDescriptorCache.Key key = new PluginDescriptorCache.Key()
+        {
+        };
+
+        try
+        {
+            cache.get( key, new DefaultPluginDescriptorCache.PluginDescriptorSupplier()
+            {
+                public PluginDescriptor load()
+                    throws PluginResolutionException
+                {
+                    throw new PluginResolutionException( new Plugin(), new Exception( "failed" ) );
+                }
+            } );
+            fail( "PluginResolutionException expected" );
+        }
+        catch ( PluginResolutionException e )
+        {
+            // expected
+        }
+
+        assertNull( cache.get( key ) );
+
+        PluginDescriptor descriptor = cache.get( key, new DefaultPluginDescriptorCache.PluginDescriptorSupplier()
+        {
+            public PluginDescriptor load()
+            {
+                return newDescriptor();
+            }
+        } );
+        assertEquals( "test-plugin", descriptor.getArtifactId() );
+        assertNotNull( cache.get( key ) );
+    }
+
+    private static PluginDescriptor newDescriptor()
+    {
+        PluginDescriptor descriptor = new PluginDescriptor();
+        descriptor.setGroupId( "org.apache.maven.test" );
+        descriptor.setArtifactId( "test-plugin" );
+        descriptor.setVersion( "1.0" );
+        return descriptor;
+    }
+
+}
@@ -178,6 +178,34 @@ public void testValueExtractionWithAPomValueContainingAPath()
         assertEquals( expected, actual );
     }
 
+    public void testRepeatedEvaluationUsesSameParsedExpression()
+        throws Exception
+    {
+        Build build = new Build();
+        build.setDirectory( "target" );
+
+        Model model = new Model();
+        model.setArtifactId( "test" );
+        model.setBuild( build );
+        model.addProperty( "key", "value" );
+
+        MavenProject project = new MavenProject( model );
+        project.setFile( new File( "pom.xml" ).getCanonicalFile() );
+
+        ExpressionEvaluator ee = createExpressionEvaluator( project, null, new Properties() );
+
+        for ( int i = 0; i < 2; i++ )
+        {
+            assertEquals( "target", ee.evaluate( "${project.build.directory}" ) );
+            assertEquals( "target/classes", ee.evaluate( "${project.build.directory}/classes" ) );
+            assertEquals( "test", ee.evaluate( "${pom.artifactId}" ) );
+            assertEquals( "value", ee.evaluate( "${key}" ) );
+            assertSame( project, ee.evaluate( "${project}" ) );
+            assertEquals( project.getBasedir().getAbsolutePath() + "/src", ee.evaluate( "${basedir}/src" ) );
+            assertEquals( "${key}", ee.evaluate( "$${key}" ) );
+        }
+    }
+
     public void testEscapedVariablePassthrough()
         throws Exception
     {
@@ -0,0 +1,81 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.codehaus.plexus.util.introspection.ReflectionValueExtractor;
+
+import junit.framework.TestCase;
+
+public class PropertyPathEvaluatorTest
+    extends TestCase
+{
+
+    private Model newModel()
+    {
+        Model model = new Model();
+        model.setArtifactId( "test" );
+        model.setBuild( new Build() );
+        model.getBuild().setDirectory( "target" );
+        Dependency dependency = new Dependency();
+        dependency.setArtifactId( "dep" );
+        model.addDependency( dependency );
+        model.addProperty( "key", "value" );
+        return model;
+    }
+
+    public void testParse()
+    {
+        assertEquals( 2, PropertyPathEvaluator.parse( "project.build.directory" ).length );
+        assertEquals( "directory", PropertyPathEvaluator.parse( "project.build.directory" )[1] );
+        assertEquals( 0, PropertyPathEvaluator.parse( "project" ).length );
+        assertEquals( 0, PropertyPathEvaluator.parse( "project..build" ).length );
+        assertEquals( 0, PropertyPathEvaluator.parse( "project.dependencies[0]" ).length );
+        assertEquals( 0, PropertyPathEvaluator.parse( "1project.build" ).length );
+    }
+
+    public void testMatchesReflectionValueExtractor()
+        throws Exception
+    {
+        Model model = newModel();
+        String[] expressions =
+            { "project.build.directory", "pom.artifactId", "roject.build", "project.missing", "project.build.missing",
+                "project.scm.url", "project.dependencies[0].artifactId", "project.properties(key)", "project", "",
+                "project.", "project.build.directory.empty", "x.build" };
+
+        for ( String expression : expressions )
+        {
+            assertEquals( expression, ReflectionValueExtractor.evaluate( expression, model ),
+                          PropertyPathEvaluator.evaluate( expression, model ) );
+            // second evaluation uses the cached path and getters
+            assertEquals( expression, ReflectionValueExtractor.evaluate( expression, model ),
+                          PropertyPathEvaluator.evaluate( expression, model ) );
+        }
+    }
+
+    public void testNullRoot()
+        throws Exception
+    {
+        assertNull( PropertyPathEvaluator.evaluate( "project.build", null ) );
+    }
+
+}
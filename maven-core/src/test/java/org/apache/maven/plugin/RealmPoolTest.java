@@ -0,0 +1,194 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.Maven;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.util.FileUtils;
+
+public class RealmPoolTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private File directory;
+
+    private ClassWorld world;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        directory = new File( "target/realm-pool" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+        world = new ClassWorld();
+    }
+
+    public void testRealmWithUnchangedFilesIsReused()
+        throws Exception
+    {
+        RealmPool pool = new RealmPool( RealmPool.DEFAULT_MAX_SIZE );
+        File file = write( "plugin.jar", "content" );
+        ClassRealm realm = world.newRealm( "plugin" );
+        pool.add( "key", realm, artifacts( file ) );
+
+        assertTrue( pool.trim().isEmpty() );
+        assertTrue( pool.isCurrent( "key" ) );
+        assertTrue( pool.trim().isEmpty() );
+        assertTrue( file.setLastModified( file.lastModified() - 10000 ) );
+        assertTrue( pool.isCurrent( "key" ) );
+        assertTrue( pool.dispose().isEmpty() );
+        assertNotNull( world.getClassRealm( "plugin" ) );
+    }
+
+    public void testRealmWithChangedFilesIsDisposedAtSessionEnd()
+        throws Exception
+    {
+        RealmPool pool = new RealmPool( RealmPool.DEFAULT_MAX_SIZE );
+        File file = write( "plugin.jar", "content" );
+        ClassRealm realm = world.newRealm( "plugin" );
+        pool.add( "key", realm, artifacts( file ) );
+        pool.trim();
+
+        write( "plugin.jar", "changed" );
+        assertTrue( file.setLastModified( file.lastModified() - 10000 ) );
+        assertFalse( pool.isCurrent( "key" ) );
+        assertNotNull( world.getClassRealm( "plugin" ) );
+
+        pool.trim();
+        assertEquals( Collections.singletonList( realm ), pool.dispose() );
+        assertNull( world.getClassRealm( "plugin" ) );
+        assertEquals( 0, pool.size() );
+    }
+
+    public void testRealmsAreNotDisposedWhileAnotherSessionIsRunning()
+        throws Exception
+    {
+        RealmPool pool = new RealmPool( RealmPool.DEFAULT_MAX_SIZE );
+        pool.begin();
+        File file = write( "plugin.jar", "content" );
+        pool.add( "key", world.newRealm( "plugin" ), artifacts( file ) );
+        pool.trim();
+
+        pool.begin();
+        pool.begin();
+        write( "plugin.jar", "changed!" );
+        assertFalse( pool.isCurrent( "key" ) );
+
+        pool.trim();
+        assertTrue( pool.dispose().isEmpty() );
+        assertNotNull( world.getClassRealm( "plugin" ) );
+
+        pool.trim();
+        assertEquals( 1, pool.dispose().size() );
+        assertNull( world.getClassRealm( "plugin" ) );
+    }
+
+    public void testPoolIsConfiguredBySessionProperties()
+    {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        MavenSession session = new MavenSession( null, null, request, new DefaultMavenExecutionResult() );
+        assertNull( RealmPool.begin( null, session ) );
+
+        request.getUserProperties().setProperty( RealmPool.ENABLED_PROPERTY, "true" );
+        request.getUserProperties().setProperty( RealmPool.MAX_SIZE_PROPERTY, "10" );
+        RealmPool pool = RealmPool.begin( null, session );
+        assertNotNull( pool );
+        assertSame( pool, RealmPool.begin( pool, session ) );
+    }
+
+    public void testLeastRecentlyUsedRealmsAreEvicted()
+        throws Exception
+    {
+        RealmPool pool = new RealmPool( 10 );
+        pool.add( "a", world.newRealm( "a" ), artifacts( write( "a.jar", "123456" ) ) );
+        pool.add( "b", world.newRealm( "b" ), artifacts( write( "b.jar", "123456" ) ) );
+        pool.isCurrent( "a" );
+
+        assertEquals( Collections.<Object>singletonList( "b" ), pool.trim() );
+        pool.dispose();
+        assertNull( world.getClassRealm( "b" ) );
+        assertNotNull( world.getClassRealm( "a" ) );
+        assertEquals( 6, pool.size() );
+    }
+
+    public void testSessionEndsWhenBuildFailsBeforeLifecycleStarts()
+        throws Exception
+    {
+        MavenExecutionRequest request = createMavenExecutionRequest( getProject( "cyclic-reference" ) );
+        request.getUserProperties().setProperty( RealmPool.ENABLED_PROPERTY, "true" );
+
+        MavenExecutionResult result = lookup( Maven.class ).execute( request );
+        assertTrue( result.hasExceptions() );
+
+        RealmPool pool = ( (DefaultPluginRealmCache) lookup( PluginRealmCache.class ) ).getPool();
+        assertNotNull( pool );
+
+        // no session is left running, so a retired realm is disposed right away
+        File file = write( "plugin.jar", "content" );
+        pool.add( "key", world.newRealm( "plugin" ), artifacts( file ) );
+        pool.begin();
+        pool.trim();
+        write( "plugin.jar", "changed!" );
+        assertFalse( pool.isCurrent( "key" ) );
+        assertEquals( 1, pool.dispose().size() );
+        assertNull( world.getClassRealm( "plugin" ) );
+    }
+
+    @Override
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/default-maven";
+    }
+
+    private File write( String name, String content )
+        throws Exception
+    {
+        File file = new File( directory, name );
+        FileUtils.fileWrite( file, "UTF-8", content );
+        return file;
+    }
+
+    private static List<Artifact> artifacts( File file )
+    {
+        Artifact artifact =
+            new DefaultArtifact( "org.apache.maven.test", file.getName(), VersionRange.createFromVersion( "1.0" ),
+                                 "compile", "jar", null, new DefaultArtifactHandler( "jar" ) );
+        artifact.setFile( file );
+        return Collections.singletonList( artifact );
+    }
+
+}
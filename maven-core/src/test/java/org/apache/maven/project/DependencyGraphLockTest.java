@@ -0,0 +1,223 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.graph.selector.AndDependencySelector;
+import org.eclipse.aether.util.graph.selector.ExclusionDependencySelector;
+import org.eclipse.aether.util.graph.selector.OptionalDependencySelector;
+import org.eclipse.aether.util.graph.selector.ScopeDependencySelector;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+
+public class DependencyGraphLockTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private RepositorySystem repoSystem;
+
+    private DefaultRepositorySystemSession repoSession;
+
+    private List<RemoteRepository> repositories;
+
+    private MavenProject project;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        repoSystem = lookup( RepositorySystem.class );
+
+        MavenSession session = createMavenSession( null );
+        repoSession = (DefaultRepositorySystemSession) session.getRepositorySession();
+        repoSession.setConfigProperty( DependencyGraphLock.ENABLED_PROPERTY, Boolean.TRUE );
+        repositories = RepositoryUtils.toRepos( getRemoteRepositories() );
+
+        File basedir = new File( getBasedir(), "target/dependency-lock" );
+        FileUtils.deleteDirectory( basedir );
+        basedir.mkdirs();
+        project = new MavenProject( new Model() );
+        project.setFile( new File( basedir, "pom.xml" ) );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        repoSystem = null;
+        repoSession = null;
+        project = null;
+        super.tearDown();
+    }
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/project-dependencies-resolver";
+    }
+
+    public void testDisabledByDefault()
+    {
+        repoSession.setConfigProperty( DependencyGraphLock.ENABLED_PROPERTY, null );
+        assertNull( DependencyGraphLock.newInstance( project, repoSession ) );
+    }
+
+    public void testStoreAndLoad()
+        throws Exception
+    {
+        CollectRequest request = newCollectRequest( "0.1" );
+        DependencyNode collected = repoSystem.collectDependencies( repoSession, request ).getRoot();
+
+        DependencyGraphLock lock = DependencyGraphLock.newInstance( project, repoSession );
+        assertNull( lock.load( request ) );
+        assertTrue( lock.store( request, collected ) );
+        assertTrue( lock.getFile().isFile() );
+        assertEquals( 1, lock.getFile().getParentFile().list().length );
+
+        DependencyNode loaded =
+            DependencyGraphLock.newInstance( project, repoSession ).load( newCollectRequest( "0.1" ) );
+        assertNotNull( loaded );
+        assertEquals( dump( collected ), dump( loaded ) );
+        assertEquals( collected.getChildren().get( 0 ).getRepositories(),
+                      loaded.getChildren().get( 0 ).getRepositories() );
+    }
+
+    public void testStaleTempFilesAreDeleted()
+        throws Exception
+    {
+        File directory = project.getBasedir();
+        File stale = new File( directory, DependencyGraphLock.FILE_NAME + "123.tmp" );
+        File fresh = new File( directory, DependencyGraphLock.FILE_NAME + "456.tmp" );
+        File unrelated = new File( directory, "other.tmp" );
+        assertTrue( stale.createNewFile() );
+        assertTrue( fresh.createNewFile() );
+        assertTrue( unrelated.createNewFile() );
+        assertTrue( stale.setLastModified( System.currentTimeMillis() - 10 * 60 * 1000 ) );
+        assertTrue( unrelated.setLastModified( System.currentTimeMillis() - 10 * 60 * 1000 ) );
+
+        CollectRequest request = newCollectRequest( "0.1" );
+        DependencyNode collected = repoSystem.collectDependencies( repoSession, request ).getRoot();
+        assertTrue( DependencyGraphLock.newInstance( project, repoSession ).store( request, collected ) );
+
+        assertFalse( stale.exists() );
+        assertTrue( fresh.exists() );
+        assertTrue( unrelated.exists() );
+    }
+
+    public void testChangedDependenciesInvalidateLock()
+        throws Exception
+    {
+        CollectRequest request = newCollectRequest( "0.1" );
+        DependencyNode collected = repoSystem.collectDependencies( repoSession, request ).getRoot();
+        DependencyGraphLock lock = DependencyGraphLock.newInstance( project, repoSession );
+        assertTrue( lock.store( request, collected ) );
+
+        assertNull( lock.load( newCollectRequest( "0.2" ) ) );
+
+        CollectRequest scoped = newCollectRequest( "0.1" );
+        scoped.setDependencies( null );
+        scoped.addDependency( new Dependency( new DefaultArtifact( "org.apache.maven.its", "b", "jar", "0.1" ),
+                                              "test" ) );
+        assertNull( lock.load( scoped ) );
+    }
+
+    public void testChangedStrategiesInvalidateLock()
+        throws Exception
+    {
+        CollectRequest request = newCollectRequest( "0.1" );
+        DependencyNode collected = repoSystem.collectDependencies( repoSession, request ).getRoot();
+        DependencyGraphLock lock = DependencyGraphLock.newInstance( project, repoSession );
+        assertTrue( lock.store( request, collected ) );
+        assertNotNull( DependencyGraphLock.newInstance( project, repoSession ).load( request ) );
+
+        // same classes, different state
+        DependencySelector selector = repoSession.getDependencySelector();
+        repoSession.setDependencySelector( new AndDependencySelector( new ScopeDependencySelector( "test" ),
+                                                                      new OptionalDependencySelector(),
+                                                                      new ExclusionDependencySelector() ) );
+        assertNull( DependencyGraphLock.newInstance( project, repoSession ).load( request ) );
+        repoSession.setDependencySelector( selector );
+
+        repoSession.setConfigProperty( ConflictResolver.CONFIG_PROP_VERBOSE, Boolean.TRUE );
+        assertNull( DependencyGraphLock.newInstance( project, repoSession ).load( request ) );
+    }
+
+    public void testSnapshotsAreNotLocked()
+        throws Exception
+    {
+        CollectRequest request = newCollectRequest( "0.1" );
+        DependencyNode collected = repoSystem.collectDependencies( repoSession, request ).getRoot();
+        DependencyNode child = collected.getChildren().get( 0 );
+        child.setArtifact( child.getArtifact().setVersion( "0.1-SNAPSHOT" ) );
+
+        DependencyGraphLock lock = DependencyGraphLock.newInstance( project, repoSession );
+        assertFalse( lock.store( request, collected ) );
+        assertFalse( lock.getFile().exists() );
+    }
+
+    private CollectRequest newCollectRequest( String version )
+    {
+        CollectRequest request = new CollectRequest();
+        request.setRootArtifact( new DefaultArtifact( "org.apache.maven.test", "project", "jar", "1.0" ) );
+        request.setRequestContext( "project" );
+        request.setRepositories( repositories );
+        request.addDependency( new Dependency( new DefaultArtifact( "org.apache.maven.its", "b", "jar", version ),
+                                               "compile" ) );
+        return request;
+    }
+
+    private static String dump( DependencyNode node )
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        dump( node, "", buffer );
+        return buffer.toString();
+    }
+
+    private static void dump( DependencyNode node, String indent, StringBuilder buffer )
+    {
+        buffer.append( indent ).append( node.getArtifact() );
+        if ( node.getDependency() != null )
+        {
+            buffer.append( ':' ).append( node.getDependency().getScope() );
+            buffer.append( ':' ).append( node.getDependency().getOptional() );
+            buffer.append( ':' ).append( new TreeMap<>( node.getArtifact().getProperties() ) );
+        }
+        buffer.append( '\n' );
+        for ( DependencyNode child : node.getChildren() )
+        {
+            dump( child, indent + "  ", buffer );
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+
+import org.apache.maven.AbstractCoreMavenComponentTestCase;
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RemoteRepository;
+
+public class DependencySubgraphCacheTest
+    extends AbstractCoreMavenComponentTestCase
+{
+
+    private RepositorySystem repoSystem;
+
+    private DefaultRepositorySystemSession repoSession;
+
+    private List<RemoteRepository> repositories;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        repoSystem = lookup( RepositorySystem.class );
+
+        MavenSession session = createMavenSession( null );
+        repoSession = (DefaultRepositorySystemSession) session.getRepositorySession();
+        repoSession.setCache( new DefaultRepositoryCache() );
+        repoSession.setConfigProperty( DependencySubgraphCache.ENABLED_PROPERTY, Boolean.TRUE );
+        repositories = RepositoryUtils.toRepos( getRemoteRepositories() );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        repoSystem = null;
+        repoSession = null;
+        super.tearDown();
+    }
+
+    protected String getProjectsDirectory()
+    {
+        return "src/test/projects/project-dependencies-resolver";
+    }
+
+    public void testDisabledByDefault()
+    {
+        repoSession.setConfigProperty( DependencySubgraphCache.ENABLED_PROPERTY, null );
+        assertNull( DependencySubgraphCache.newInstance( repoSession ) );
+    }
+
+    public void testSharedSubgraphsMatchRegularCollection()
+        throws Exception
+    {
+        DependencyNode first =
+            DependencySubgraphCache.newInstance( repoSession ).collect( repoSystem, repoSession,
+                                                                        newCollectRequest( "first" ) );
+        DependencyNode second =
+            DependencySubgraphCache.newInstance( repoSession ).collect( repoSystem, repoSession,
+                                                                        newCollectRequest( "second" ) );
+        DependencyNode regular = repoSystem.collectDependencies( repoSession, newCollectRequest( "second" ) ).getRoot();
+
+        assertNotNull( first );
+        assertNotNull( second );
+        assertEquals( "second", second.getArtifact().getArtifactId() );
+        assertEquals( dump( regular ), dump( second ) );
+        assertNotSame( first.getChildren().get( 0 ), second.getChildren().get( 0 ) );
+    }
+
+    public void testSubgraphContainingRootIsNotShared()
+        throws Exception
+    {
+        CollectRequest request = newCollectRequest( "a" );
+        request.setRootArtifact( new DefaultArtifact( "org.apache.maven.its", "a", "jar", "0.2" ) );
+
+        assertNull( DependencySubgraphCache.newInstance( repoSession ).collect( repoSystem, repoSession, request ) );
+    }
+
+    private CollectRequest newCollectRequest( String artifactId )
+    {
+        CollectRequest request = new CollectRequest();
+        request.setRootArtifact( new DefaultArtifact( "org.apache.maven.test", artifactId, "jar", "1.0" ) );
+        request.setRequestContext( "project" );
+        request.setRepositories( repositories );
+        request.addDependency( new Dependency( new DefaultArtifact( "org.apache.maven.its", "b", "jar", "0.1" ),
+                                               "compile" ) );
+        return request;
+    }
+
+    private static String dump( DependencyNode node )
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        dump( node, "", buffer );
+        return buffer.toString();
+    }
+
+    private static void dump( DependencyNode node, String indent, StringBuilder buffer )
+    {
+        buffer.append( indent ).append( node.getArtifact() );
+        if ( node.getDependency() != null )
+        {
+            buffer.append( ':' ).append( node.getDependency().getScope() );
+        }
+        buffer.append( '\n' );
+        for ( DependencyNode child : node.getChildren() )
+        {
+            dump( child, indent + "  ", buffer );
+        }
+    }
+}
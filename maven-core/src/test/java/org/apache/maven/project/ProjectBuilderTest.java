@@ -20,12 +20,25 @@
  */
 
 import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.AbstractCoreMavenComponentTestCase;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
 import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.model.building.ModelProblem;
 import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.building.Result;
 
 public class ProjectBuilderTest
     extends AbstractCoreMavenComponentTestCase
@@ -84,4 +97,105 @@ public void testVersionlessManagedDependency()
             // this is expected
         }
     }
+
+    public void testConcurrentReactorBuildMatchesSequentialBuild()
+        throws Exception
+    {
+        File pomFile = getProject( "mng-3023" );
+        MavenSession mavenSession = createMavenSession( null );
+
+        ProjectBuildingRequest configuration = new DefaultProjectBuildingRequest();
+        configuration.setRepositorySession( mavenSession.getRepositorySession() );
+
+        DefaultProjectBuilder projectBuilder = (DefaultProjectBuilder) lookup( org.apache.maven.project.ProjectBuilder.class );
+        Field field = DefaultProjectBuilder.class.getDeclaredField( "modelBuilder" );
+        field.setAccessible( true );
+        ModelBuilder modelBuilder = (ModelBuilder) field.get( projectBuilder );
+        ThreadRecordingModelBuilder recorder = new ThreadRecordingModelBuilder( modelBuilder );
+        field.set( projectBuilder, recorder );
+        try
+        {
+            List<String> sequential = buildReactor( projectBuilder, pomFile, configuration );
+            assertEquals( Collections.singleton( Thread.currentThread() ), recorder.threads );
+            recorder.threads.clear();
+
+            Properties userProperties = new Properties();
+            userProperties.setProperty( DefaultProjectBuilder.THREADS_PROPERTY, "4" );
+            configuration.setUserProperties( userProperties );
+            List<String> concurrent = buildReactor( projectBuilder, pomFile, configuration );
+
+            assertEquals( 3, sequential.size() );
+            assertEquals( sequential, concurrent );
+
+            String prefix = DefaultProjectBuilder.ModelBuilderThreadFactory.THREAD_NAME_PREFIX;
+            assertFalse( recorder.threads.isEmpty() );
+            for ( Thread thread : recorder.threads )
+            {
+                assertTrue( thread.getName(), thread.getName().startsWith( prefix ) );
+                assertTrue( thread.getName(), thread.isDaemon() );
+            }
+        }
+        finally
+        {
+            field.set( projectBuilder, modelBuilder );
+        }
+    }
+
+    private List<String> buildReactor( org.apache.maven.project.ProjectBuilder projectBuilder, File pomFile,
+                                       ProjectBuildingRequest configuration )
+        throws Exception
+    {
+        List<ProjectBuildingResult> results =
+            projectBuilder.build( Collections.singletonList( pomFile ), true, configuration );
+
+        List<String> summaries = new ArrayList<>();
+        for ( ProjectBuildingResult result : results )
+        {
+            StringBuilder summary = new StringBuilder( result.getProject().getId() );
+            summary.append( ' ' ).append( result.getProject().getDependencies().size() );
+            for ( ModelProblem problem : result.getProblems() )
+            {
+                summary.append( ' ' ).append( problem.getSeverity() ).append( ':' ).append( problem.getMessage() );
+            }
+            summaries.add( summary.toString() );
+        }
+        return summaries;
+    }
+
+    /**
+     * Records the threads that build models.
+     */
+    static class ThreadRecordingModelBuilder
+        implements ModelBuilder
+    {
+
+        final Set<Thread> threads = Collections.newSetFromMap( new ConcurrentHashMap<Thread, Boolean>() );
+
+        private final ModelBuilder delegate;
+
+        ThreadRecordingModelBuilder( ModelBuilder delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        public ModelBuildingResult build( ModelBuildingRequest request )
+            throws ModelBuildingException
+        {
+            threads.add( Thread.currentThread() );
+            return delegate.build( request );
+        }
+
+        public ModelBuildingResult build( ModelBuildingRequest request, ModelBuildingResult result )
+            throws ModelBuildingException
+        {
+            threads.add( Thread.currentThread() );
+            return delegate.build( request, result );
+        }
+
+        public Result<? extends Model> buildRawModel( File pomFile, int validationLevel, boolean locationTracking )
+        {
+            return delegate.buildRawModel( pomFile, validationLevel, locationTracking );
+        }
+
+    }
 }
@@ -0,0 +1,59 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+
+public class ReactorModelCacheTest
+    extends TestCase
+{
+
+    public void testCountsHitsAndMissesPerTag()
+    {
+        ReactorModelCache cache = new ReactorModelCache();
+
+        assertNull( cache.get( "g", "a", "1", "raw" ) );
+        cache.put( "g", "a", "1", "raw", "model" );
+        assertEquals( "model", cache.get( "g", "a", "1", "raw" ) );
+        assertEquals( "model", cache.get( "g", "a", "1", "raw" ) );
+        assertNull( cache.get( "g", "a", "1", "import" ) );
+
+        assertEquals( 2, cache.getHitCount( "raw" ) );
+        assertEquals( 1, cache.getMissCount( "raw" ) );
+        assertEquals( 0, cache.getHitCount( "import" ) );
+        assertEquals( 1, cache.getMissCount( "import" ) );
+    }
+
+    public void testEvictsLeastRecentlyUsedEntries()
+    {
+        ReactorModelCache cache = new ReactorModelCache( 2 );
+
+        cache.put( "g", "a", "1", "raw", "a" );
+        cache.put( "g", "b", "1", "raw", "b" );
+        assertEquals( "a", cache.get( "g", "a", "1", "raw" ) );
+        cache.put( "g", "c", "1", "raw", "c" );
+
+        assertEquals( 2, cache.size() );
+        assertEquals( "a", cache.get( "g", "a", "1", "raw" ) );
+        assertNull( cache.get( "g", "b", "1", "raw" ) );
+        assertEquals( "c", cache.get( "g", "c", "1", "raw" ) );
+    }
+
+}
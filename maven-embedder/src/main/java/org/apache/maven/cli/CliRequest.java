@@ -20,6 +20,7 @@
  */
 
 import java.io.File;
+import java.util.Map;
 import java.util.Properties;
 
 import org.apache.commons.cli.CommandLine;
@@ -49,6 +50,11 @@
 
     Properties systemProperties = new Properties();
 
+    /**
+     * The environment variables of the build, {@code null} to use those of the current process.
+     */
+    Map<String, String> environment;
+
     MavenExecutionRequest request;
 
     CliRequest( String[] args, ClassWorld classWorld )
@@ -0,0 +1,203 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The wire protocol between {@link MavenDaemon} and {@link MavenDaemonClient}. A client sends the protocol version,
+ * the token of the daemon, the working directory, the multi-module project directory, the command line arguments and
+ * its environment variables. The daemon answers with a sequence of output frames, each consisting of the stream type,
+ * the length and the bytes, followed by an exit frame carrying the exit code. The daemon listens on the loopback
+ * interface only and publishes its port and a random token in an info file of its own that is only readable by its
+ * owner.
+ *
+ * @since 3.4.0
+ */
+final class DaemonProtocol
+{
+
+    /**
+     * The name of the system property that sets the directory holding the daemon info files.
+     */
+    static final String DIRECTORY_PROPERTY = "maven.daemon.dir";
+
+    static final String INFO_FILE_PREFIX = "daemon-";
+
+    static final String INFO_FILE_SUFFIX = ".properties";
+
+    static final String PORT = "port";
+
+    static final String TOKEN = "token";
+
+    static final int VERSION = 2;
+
+    /**
+     * The time in milliseconds the daemon waits for a client to send its request.
+     */
+    static final int REQUEST_TIMEOUT = 10000;
+
+    static final byte EXIT = 0;
+
+    static final byte STDOUT = 1;
+
+    static final byte STDERR = 2;
+
+    /**
+     * The argument that asks the daemon to shut down.
+     */
+    static final String STOP = "--stop-daemon";
+
+    private DaemonProtocol()
+    {
+        // hide constructor
+    }
+
+    static File getInfoDirectory()
+    {
+        String directory = System.getProperty( DIRECTORY_PROPERTY );
+        if ( directory == null )
+        {
+            directory = new File( System.getProperty( "user.home" ), ".m2/daemon" ).getPath();
+        }
+        return new File( directory );
+    }
+
+    /**
+     * Gets the info file of the daemon listening on the given port, each daemon has a file of its own.
+     */
+    static File getInfoFile( int port )
+    {
+        return new File( getInfoDirectory(), INFO_FILE_PREFIX + port + INFO_FILE_SUFFIX );
+    }
+
+    /**
+     * Gets the info files of all daemons, the most recently started daemon first.
+     */
+    static File[] getInfoFiles()
+    {
+        File[] files = getInfoDirectory().listFiles( new FileFilter()
+        {
+            public boolean accept( File file )
+            {
+                return file.getName().startsWith( INFO_FILE_PREFIX ) && file.getName().endsWith( INFO_FILE_SUFFIX )
+                    && file.isFile();
+            }
+        } );
+        if ( files == null )
+        {
+            return new File[0];
+        }
+        Arrays.sort( files, new Comparator<File>()
+        {
+            public int compare( File f1, File f2 )
+            {
+                return Long.compare( f2.lastModified(), f1.lastModified() );
+            }
+        } );
+        return files;
+    }
+
+    static void writeExit( DataOutputStream out, int exitCode )
+        throws IOException
+    {
+        synchronized ( out )
+        {
+            out.writeByte( EXIT );
+            out.writeInt( exitCode );
+            out.flush();
+        }
+    }
+
+    static void close( Closeable closeable )
+    {
+        if ( closeable != null )
+        {
+            try
+            {
+                closeable.close();
+            }
+            catch ( IOException e )
+            {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Wraps the bytes written to it into output frames of the given stream type.
+     */
+    static class FrameOutputStream
+        extends OutputStream
+    {
+
+        private final DataOutputStream out;
+
+        private final byte type;
+
+        FrameOutputStream( DataOutputStream out, byte type )
+        {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            write( new byte[] { (byte) b }, 0, 1 );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            if ( len <= 0 )
+            {
+                return;
+            }
+            synchronized ( out )
+            {
+                out.writeByte( type );
+                out.writeInt( len );
+                out.write( b, off, len );
+            }
+        }
+
+        @Override
+        public void flush()
+            throws IOException
+        {
+            synchronized ( out )
+            {
+                out.flush();
+            }
+        }
+
+    }
+
+}
@@ -79,6 +79,7 @@
 import org.apache.maven.extension.internal.CoreExports;
 import org.apache.maven.extension.internal.CoreExtensionEntry;
 import org.apache.maven.lifecycle.LifecycleExecutionException;
+import org.apache.maven.lifecycle.internal.builder.multithreaded.ThreadOutputMuxer;
 import org.apache.maven.model.Profile;
 import org.apache.maven.model.Repository;
 import org.apache.maven.model.building.DefaultModelProblem;
@@ -186,6 +187,12 @@
 
     private ProfileSelector profileSelector;
 
+    private boolean resident;
+
+    private DefaultPlexusContainer residentContainer;
+
+    private String residentContainerKey;
+
     public MavenCli()
     {
         this( null );
@@ -334,13 +341,45 @@ public int doMain( CliRequest cliRequest )
         }
         finally
         {
-            if ( localContainer != null )
+            if ( localContainer != null && localContainer != residentContainer )
             {
                 localContainer.dispose();
             }
         }
     }
 
+    /**
+     * Keeps the container alive after an invocation so that later invocations with the same core extensions can reuse
+     * it along with the plugin realms and other state cached by its components.
+     *
+     * @param resident {@code true} to keep the container alive between invocations.
+     * @since 3.4.0
+     */
+    public void setResident( boolean resident )
+    {
+        this.resident = resident;
+    }
+
+    DefaultPlexusContainer getResidentContainer()
+    {
+        return residentContainer;
+    }
+
+    /**
+     * Disposes the container that was kept alive between invocations, if any.
+     *
+     * @since 3.4.0
+     */
+    public void dispose()
+    {
+        if ( residentContainer != null )
+        {
+            residentContainer.dispose();
+            residentContainer = null;
+            residentContainerKey = null;
+        }
+    }
+
     void initialize( CliRequest cliRequest )
         throws ExitException
     {
@@ -500,12 +539,36 @@ else if ( cliRequest.quiet )
             }
         }
 
+        if ( isOutputMuxEnabled( cliRequest.commandLine ) )
+        {
+            // the logger captures System.out on activation, so the routing stream must be in place before
+            ThreadOutputMuxer.installConsole();
+        }
+
         slf4jConfiguration.activate();
 
         plexusLoggerManager = new Slf4jLoggerManager();
         slf4jLogger = slf4jLoggerFactory.getLogger( this.getClass().getName() );
     }
 
+    private static boolean isOutputMuxEnabled( CommandLine commandLine )
+    {
+        String[] defStrs = commandLine.getOptionValues( CLIManager.SET_SYSTEM_PROPERTY );
+        if ( defStrs != null )
+        {
+            for ( String defStr : defStrs )
+            {
+                int i = defStr.indexOf( '=' );
+                String name = ( i <= 0 ) ? defStr.trim() : defStr.substring( 0, i ).trim();
+                if ( ThreadOutputMuxer.ENABLED_PROPERTY.equals( name ) )
+                {
+                    return i <= 0 || Boolean.parseBoolean( defStr.substring( i + 1 ) );
+                }
+            }
+        }
+        return Boolean.getBoolean( ThreadOutputMuxer.ENABLED_PROPERTY );
+    }
+
     private void version( CliRequest cliRequest )
     {
         if ( cliRequest.debug || cliRequest.commandLine.hasOption( CLIManager.SHOW_VERSION ) )
@@ -533,7 +596,8 @@ else if ( MavenExecutionRequest.CHECKSUM_POLICY_FAIL.equals( cliRequest.request.
 
     private void properties( CliRequest cliRequest )
     {
-        populateProperties( cliRequest.commandLine, cliRequest.systemProperties, cliRequest.userProperties );
+        populateProperties( cliRequest.commandLine, cliRequest.environment, cliRequest.systemProperties,
+                            cliRequest.userProperties );
     }
 
     private PlexusContainer container( CliRequest cliRequest )
@@ -552,6 +616,18 @@ private PlexusContainer container( CliRequest cliRequest )
 
         List<File> extClassPath = parseExtClasspath( cliRequest );
 
+        String containerKey = resident ? getContainerKey( cliRequest, extClassPath ) : null;
+        if ( residentContainer != null )
+        {
+            if ( residentContainerKey.equals( containerKey ) )
+            {
+                Thread.currentThread().setContextClassLoader( residentContainer.getContainerRealm() );
+                initEventSpies( cliRequest, residentContainer );
+                return residentContainer;
+            }
+            dispose();
+        }
+
         CoreExtensionEntry coreEntry = CoreExtensionEntry.discoverFrom( coreRealm );
         List<CoreExtensionEntry> extensions =
             loadCoreExtensions( cliRequest, coreRealm, coreEntry.getExportedArtifacts() );
@@ -600,17 +676,7 @@ protected void configure()
 
         eventSpyDispatcher = container.lookup( EventSpyDispatcher.class );
 
-        DefaultEventSpyContext eventSpyContext = new DefaultEventSpyContext();
-        Map<String, Object> data = eventSpyContext.getData();
-        data.put( "plexus", container );
-        data.put( "workingDirectory", cliRequest.workingDirectory );
-        data.put( "systemProperties", cliRequest.systemProperties );
-        data.put( "userProperties", cliRequest.userProperties );
-        data.put( "versionProperties", CLIReportingUtils.getBuildProperties() );
-        eventSpyDispatcher.init( eventSpyContext );
-
-        // refresh logger in case container got customized by spy
-        slf4jLogger = slf4jLoggerFactory.getLogger( this.getClass().getName() );
+        initEventSpies( cliRequest, container );
 
         maven = container.lookup( Maven.class );
 
@@ -626,9 +692,56 @@ protected void configure()
 
         profileSelector = container.lookup( ProfileSelector.class );
 
+        if ( resident )
+        {
+            residentContainer = container;
+            residentContainerKey = containerKey;
+        }
+
         return container;
     }
 
+    private void initEventSpies( CliRequest cliRequest, PlexusContainer container )
+    {
+        DefaultEventSpyContext eventSpyContext = new DefaultEventSpyContext();
+        Map<String, Object> data = eventSpyContext.getData();
+        data.put( "plexus", container );
+        data.put( "workingDirectory", cliRequest.workingDirectory );
+        data.put( "systemProperties", cliRequest.systemProperties );
+        data.put( "userProperties", cliRequest.userProperties );
+        data.put( "versionProperties", CLIReportingUtils.getBuildProperties() );
+        eventSpyDispatcher.init( eventSpyContext );
+
+        // refresh logger in case container got customized by spy
+        slf4jLogger = slf4jLoggerFactory.getLogger( this.getClass().getName() );
+    }
+
+    /**
+     * Describes the inputs that shape the container, i.e. the logging level, the extension class path and the core
+     * extensions. The logging level is part of it since the thresholds of the loggers handed out by the container can't
+     * be changed afterwards.
+     */
+    private static String getContainerKey( CliRequest cliRequest, List<File> extClassPath )
+    {
+        StringBuilder key = new StringBuilder( 256 );
+        key.append( cliRequest.request.getLoggingLevel() ).append( '\n' );
+        for ( File file : extClassPath )
+        {
+            key.append( file.getAbsolutePath() ).append( ':' ).append( file.lastModified() ).append( ':' );
+            key.append( file.length() ).append( '\n' );
+        }
+        if ( cliRequest.multiModuleProjectDirectory != null )
+        {
+            File extensionsFile = new File( cliRequest.multiModuleProjectDirectory, EXTENSIONS_FILENAME );
+            if ( extensionsFile.isFile() )
+            {
+                key.append( extensionsFile.getAbsolutePath() ).append( ':' ).append( extensionsFile.lastModified() );
+                key.append( ':' ).append( extensionsFile.length() ).append( '\n' );
+            }
+        }
+        return key.toString();
+    }
+
     private List<CoreExtensionEntry> loadCoreExtensions( CliRequest cliRequest, ClassRealm containerRealm,
                                                          Set<String> providedArtifacts )
     {
@@ -1636,7 +1749,20 @@ else if ( file.getPath().startsWith( File.separator ) )
 
     static void populateProperties( CommandLine commandLine, Properties systemProperties, Properties userProperties )
     {
-        EnvironmentUtils.addEnvVars( systemProperties );
+        populateProperties( commandLine, null, systemProperties, userProperties );
+    }
+
+    static void populateProperties( CommandLine commandLine, Map<String, String> environment,
+                                    Properties systemProperties, Properties userProperties )
+    {
+        if ( environment != null )
+        {
+            EnvironmentUtils.addEnvVars( systemProperties, environment );
+        }
+        else
+        {
+            EnvironmentUtils.addEnvVars( systemProperties );
+        }
 
         // ----------------------------------------------------------------------
         // Options that are set on the command line become system properties
@@ -0,0 +1,297 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.util.IOUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A resident Maven process that executes build requests from {@link MavenDaemonClient}. The daemon keeps its Plexus
+ * container, including the core extensions, the plugin realms and the component caches, alive between requests as long
+ * as the extension class path and the core extensions of a request match the previous one. Each request still runs in
+ * its own {@link org.apache.maven.execution.MavenSession} with its own settings and the environment of the client, in
+ * batch mode since the standard input is not forwarded. The system properties, the working directory and the standard
+ * streams are restored after each request. Requests are executed one at a time.
+ *
+ * @since 3.4.0
+ */
+public class MavenDaemon
+{
+
+    /**
+     * The property that enables the realm pool of the core, resident containers should not keep stale plugin realms.
+     */
+    private static final String REALM_POOL_PROPERTY = "maven.realmPool";
+
+    private final Logger logger = LoggerFactory.getLogger( MavenDaemon.class );
+
+    private final MavenCli cli;
+
+    private final ClassWorld classWorld;
+
+    private final ServerSocket server;
+
+    private final String token;
+
+    private final File infoFile;
+
+    private volatile boolean running = true;
+
+    public MavenDaemon( ClassWorld classWorld )
+        throws IOException
+    {
+        this.classWorld =
+            ( classWorld != null ) ? classWorld
+                            : new ClassWorld( "plexus.core", Thread.currentThread().getContextClassLoader() );
+        this.cli = new MavenCli( this.classWorld );
+        this.cli.setResident( true );
+
+        this.server = new ServerSocket( 0, 50, InetAddress.getLoopbackAddress() );
+        this.token = new BigInteger( 130, new SecureRandom() ).toString( 32 );
+        this.infoFile = DaemonProtocol.getInfoFile( server.getLocalPort() );
+        writeInfoFile();
+    }
+
+    public static void main( String[] args )
+        throws IOException
+    {
+        main( args, null );
+    }
+
+    /**
+     * @noinspection ConfusingMainMethod
+     */
+    public static void main( String[] args, ClassWorld classWorld )
+        throws IOException
+    {
+        MavenDaemon daemon = new MavenDaemon( classWorld );
+        daemon.logger.info( "Maven daemon listening on port " + daemon.getPort() + ", info in " + daemon.infoFile );
+        daemon.run();
+    }
+
+    MavenCli getCli()
+    {
+        return cli;
+    }
+
+    public int getPort()
+    {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Serves requests until a client asks the daemon to stop.
+     */
+    public void run()
+    {
+        try
+        {
+            while ( running )
+            {
+                Socket socket = server.accept();
+                try
+                {
+                    handle( socket );
+                }
+                catch ( IOException e )
+                {
+                    logger.warn( "Maven daemon failed to serve request: " + e.getMessage(), e );
+                }
+                finally
+                {
+                    DaemonProtocol.close( socket );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.error( "Maven daemon stopped: " + e.getMessage(), e );
+        }
+        finally
+        {
+            DaemonProtocol.close( server );
+            infoFile.delete();
+            cli.dispose();
+        }
+    }
+
+    private void handle( Socket socket )
+        throws IOException
+    {
+        // a client that connects but never sends its request must not block the daemon forever
+        socket.setSoTimeout( DaemonProtocol.REQUEST_TIMEOUT );
+
+        DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+
+        if ( in.readInt() != DaemonProtocol.VERSION || !token.equals( in.readUTF() ) )
+        {
+            return;
+        }
+
+        String workingDirectory = in.readUTF();
+        String multiModuleProjectDirectory = in.readUTF();
+        String[] args = new String[in.readInt()];
+        for ( int i = 0; i < args.length; i++ )
+        {
+            args[i] = in.readUTF();
+        }
+        Map<String, String> environment = new HashMap<>();
+        for ( int i = in.readInt(); i > 0; i-- )
+        {
+            environment.put( in.readUTF(), in.readUTF() );
+        }
+
+        if ( args.length == 1 && DaemonProtocol.STOP.equals( args[0] ) )
+        {
+            running = false;
+            DaemonProtocol.writeExit( out, 0 );
+            return;
+        }
+
+        socket.setSoTimeout( 0 );
+        int exitCode = execute( workingDirectory, multiModuleProjectDirectory, args, environment, out );
+        DaemonProtocol.writeExit( out, exitCode );
+    }
+
+    private int execute( String workingDirectory, String multiModuleProjectDirectory, String[] args,
+                         Map<String, String> environment, DataOutputStream out )
+    {
+        Properties systemProperties = (Properties) System.getProperties().clone();
+        InputStream oldIn = System.in;
+        PrintStream oldOut = System.out;
+        PrintStream oldErr = System.err;
+        ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+
+        PrintStream stdout =
+            new PrintStream( new DaemonProtocol.FrameOutputStream( out, DaemonProtocol.STDOUT ), true );
+        PrintStream stderr =
+            new PrintStream( new DaemonProtocol.FrameOutputStream( out, DaemonProtocol.STDERR ), true );
+        try
+        {
+            // the client does not forward its standard input
+            System.setIn( new ByteArrayInputStream( new byte[0] ) );
+            System.setOut( stdout );
+            System.setErr( stderr );
+            System.setProperty( "user.dir", workingDirectory );
+
+            CliRequest request = new CliRequest( toBatchMode( args ), classWorld );
+            request.workingDirectory = workingDirectory;
+            request.environment = environment;
+            if ( System.getProperty( REALM_POOL_PROPERTY ) == null )
+            {
+                // a default for this request only, -D on the command line still overrides it
+                request.userProperties.setProperty( REALM_POOL_PROPERTY, "true" );
+            }
+            // the daemon's own multi-module directory belongs to another build, fall back to the working directory
+            request.multiModuleProjectDirectory =
+                new File( multiModuleProjectDirectory.length() > 0 ? multiModuleProjectDirectory : workingDirectory );
+
+            return cli.doMain( request );
+        }
+        finally
+        {
+            stdout.flush();
+            stderr.flush();
+            System.setIn( oldIn );
+            System.setOut( oldOut );
+            System.setErr( oldErr );
+            System.setProperties( systemProperties );
+            Thread.currentThread().setContextClassLoader( oldClassLoader );
+        }
+    }
+
+    private static String[] toBatchMode( String[] args )
+    {
+        List<String> list = new ArrayList<>( Arrays.asList( args ) );
+        if ( !list.contains( "-" + CLIManager.BATCH_MODE ) && !list.contains( "--batch-mode" ) )
+        {
+            list.add( 0, "-" + CLIManager.BATCH_MODE );
+        }
+        return list.toArray( new String[list.size()] );
+    }
+
+    private void writeInfoFile()
+        throws IOException
+    {
+        // the file holds the token, create it readable by the owner only instead of restricting it afterwards
+        Path file = infoFile.toPath();
+        Files.deleteIfExists( file );
+        if ( file.getFileSystem().supportedFileAttributeViews().contains( "posix" ) )
+        {
+            Files.createDirectories( file.getParent(), PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString( "rwx------" ) ) );
+            Files.createFile( file, PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString( "rw-------" ) ) );
+        }
+        else
+        {
+            Files.createDirectories( file.getParent() );
+            Files.createFile( file );
+            infoFile.setReadable( false, false );
+            infoFile.setWritable( false, false );
+            infoFile.setReadable( true, true );
+            infoFile.setWritable( true, true );
+        }
+
+        Properties info = new Properties();
+        info.setProperty( DaemonProtocol.PORT, String.valueOf( getPort() ) );
+        info.setProperty( DaemonProtocol.TOKEN, token );
+        OutputStream os = new FileOutputStream( infoFile );
+        try
+        {
+            info.store( os, "Maven daemon" );
+        }
+        finally
+        {
+            IOUtil.close( os );
+        }
+        infoFile.deleteOnExit();
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A thin client that forwards its command line and environment to a running {@link MavenDaemon} and replays the output
+ * of the build. The standard input is not forwarded, the daemon runs every build in batch mode. The client deliberately
+ * depends on nothing but the JRE so that it starts without loading the Maven core.
+ *
+ * @since 3.4.0
+ */
+public class MavenDaemonClient
+{
+
+    public static void main( String[] args )
+    {
+        System.exit( run( args, System.out, System.err ) );
+    }
+
+    /**
+     * Executes the given command line in the running daemon.
+     *
+     * @param args The command line arguments, {@code --stop-daemon} shuts the daemon down.
+     * @param stdout The stream receiving the standard output of the build.
+     * @param stderr The stream receiving the error output of the build.
+     * @return The exit code of the build.
+     */
+    public static int run( String[] args, PrintStream stdout, PrintStream stderr )
+    {
+        for ( File infoFile : DaemonProtocol.getInfoFiles() )
+        {
+            Properties info = new Properties();
+            Socket socket = null;
+            try
+            {
+                InputStream is = new FileInputStream( infoFile );
+                try
+                {
+                    info.load( is );
+                }
+                finally
+                {
+                    DaemonProtocol.close( is );
+                }
+
+                socket = new Socket( InetAddress.getLoopbackAddress(),
+                                     Integer.parseInt( info.getProperty( DaemonProtocol.PORT, "-1" ) ) );
+            }
+            catch ( IOException | IllegalArgumentException e )
+            {
+                // the daemon is gone or its info file is corrupt, try the next one
+                DaemonProtocol.close( socket );
+                continue;
+            }
+
+            try
+            {
+                return execute( socket, info.getProperty( DaemonProtocol.TOKEN, "" ), args, stdout, stderr );
+            }
+            catch ( IOException e )
+            {
+                stderr.println( "[ERROR] Lost connection to the Maven daemon: " + e.getMessage() );
+                return 1;
+            }
+            finally
+            {
+                DaemonProtocol.close( socket );
+            }
+        }
+
+        stderr.println( "[ERROR] No Maven daemon is running, no daemon info file found in "
+            + DaemonProtocol.getInfoDirectory() );
+        return 1;
+    }
+
+    private static int execute( Socket socket, String token, String[] args, PrintStream stdout, PrintStream stderr )
+        throws IOException
+    {
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+        out.writeInt( DaemonProtocol.VERSION );
+        out.writeUTF( token );
+        out.writeUTF( System.getProperty( "user.dir" ) );
+        out.writeUTF( System.getProperty( MavenCli.MULTIMODULE_PROJECT_DIRECTORY, "" ) );
+        out.writeInt( args.length );
+        for ( String arg : args )
+        {
+            out.writeUTF( arg );
+        }
+        // the build interpolates env.* properties, so it must see the environment of the client
+        Map<String, String> environment = System.getenv();
+        out.writeInt( environment.size() );
+        for ( Map.Entry<String, String> entry : environment.entrySet() )
+        {
+            out.writeUTF( entry.getKey() );
+            out.writeUTF( entry.getValue() );
+        }
+        out.flush();
+
+        DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+        byte[] buffer = new byte[8192];
+        while ( true )
+        {
+            byte type = in.readByte();
+            if ( type == DaemonProtocol.EXIT )
+            {
+                return in.readInt();
+            }
+
+            PrintStream target = ( type == DaemonProtocol.STDERR ) ? stderr : stdout;
+            int remaining = in.readInt();
+            while ( remaining > 0 )
+            {
+                int n = in.read( buffer, 0, Math.min( remaining, buffer.length ) );
+                if ( n < 0 )
+                {
+                    throw new EOFException();
+                }
+                target.write( buffer, 0, n );
+                remaining -= n;
+            }
+            target.flush();
+        }
+    }
+
+}
@@ -20,6 +20,8 @@
  */
 
 import java.io.File;
+import java.util.Collections;
+import java.util.Properties;
 
 import junit.framework.TestCase;
 
@@ -107,4 +109,18 @@ public void testMavenConfigInvalid()
 
         }
     }
+
+    public void testPopulatePropertiesFromGivenEnvironment()
+        throws Exception
+    {
+        Properties systemProperties = new Properties();
+        Properties userProperties = new Properties();
+
+        MavenCli.populateProperties( new CLIManager().parse( new String[] { "-Dfoo=bar" } ),
+                                     Collections.singletonMap( "MAVEN_DAEMON_TEST", "client" ), systemProperties,
+                                     userProperties );
+
+        assertEquals( "client", systemProperties.getProperty( "env.MAVEN_DAEMON_TEST" ) );
+        assertEquals( "bar", userProperties.getProperty( "foo" ) );
+    }
 }
@@ -0,0 +1,190 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.util.FileUtils;
+
+public class MavenDaemonTest
+    extends TestCase
+{
+
+    private File directory;
+
+    private String origDirectory;
+
+    private String origBasedir;
+
+    private String origUserDir;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        directory = new File( "target/daemon-" + System.nanoTime() ).getAbsoluteFile();
+        origDirectory = System.getProperty( DaemonProtocol.DIRECTORY_PROPERTY );
+        origBasedir = System.getProperty( MavenCli.MULTIMODULE_PROJECT_DIRECTORY );
+        origUserDir = System.getProperty( "user.dir" );
+        System.setProperty( DaemonProtocol.DIRECTORY_PROPERTY, directory.getPath() );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        restore( DaemonProtocol.DIRECTORY_PROPERTY, origDirectory );
+        restore( MavenCli.MULTIMODULE_PROJECT_DIRECTORY, origBasedir );
+        restore( "user.dir", origUserDir );
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    private static void restore( String key, String value )
+    {
+        if ( value != null )
+        {
+            System.setProperty( key, value );
+        }
+        else
+        {
+            System.getProperties().remove( key );
+        }
+    }
+
+    public void testClientWithoutDaemon()
+    {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = MavenDaemonClient.run( new String[] { "-v" }, new PrintStream( new ByteArrayOutputStream() ),
+                                              new PrintStream( err, true ) );
+
+        assertEquals( 1, exitCode );
+        assertTrue( err.toString(), err.toString().contains( "No Maven daemon is running" ) );
+    }
+
+    public void testExecuteAndStop()
+        throws Exception
+    {
+        System.setProperty( MavenCli.MULTIMODULE_PROJECT_DIRECTORY, new File( "" ).getAbsolutePath() );
+
+        final MavenDaemon daemon = new MavenDaemon( null );
+        Thread thread = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                daemon.run();
+            }
+        } );
+        thread.start();
+
+        try
+        {
+            Path infoFile = DaemonProtocol.getInfoFile( daemon.getPort() ).toPath();
+            assertTrue( Files.isRegularFile( infoFile ) );
+            if ( infoFile.getFileSystem().supportedFileAttributeViews().contains( "posix" ) )
+            {
+                assertEquals( "rw-------", PosixFilePermissions.toString( Files.getPosixFilePermissions( infoFile ) ) );
+                assertEquals( "rwx------",
+                              PosixFilePermissions.toString( Files.getPosixFilePermissions( infoFile.getParent() ) ) );
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int exitCode =
+                MavenDaemonClient.run( new String[] { "-v" }, new PrintStream( out, true ), new PrintStream( err, true ) );
+
+            assertEquals( err.toString(), 0, exitCode );
+            assertTrue( out.toString(), out.toString().contains( "Java version" ) );
+        }
+        finally
+        {
+            MavenDaemonClient.run( new String[] { DaemonProtocol.STOP }, System.out, System.err );
+            thread.join( 10000 );
+        }
+
+        assertFalse( thread.isAlive() );
+        assertFalse( DaemonProtocol.getInfoFile( daemon.getPort() ).exists() );
+    }
+
+    public void testBuildsReuseContainer()
+        throws Exception
+    {
+        File basedir = new File( directory, "project" );
+        basedir.mkdirs();
+        FileUtils.fileWrite( new File( basedir, "pom.xml" ), "UTF-8",
+                             "<project><modelVersion>4.0.0</modelVersion><groupId>org.apache.maven.its</groupId>"
+                                 + "<artifactId>daemon</artifactId><version>1.0</version><packaging>pom</packaging>"
+                                 + "</project>" );
+        System.setProperty( MavenCli.MULTIMODULE_PROJECT_DIRECTORY, basedir.getAbsolutePath() );
+
+        final MavenDaemon daemon = new MavenDaemon( null );
+        Thread thread = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                daemon.run();
+            }
+        } );
+        thread.start();
+
+        try
+        {
+            String[] args = { "-o", "-f", new File( basedir, "pom.xml" ).getAbsolutePath(), "validate" };
+
+            assertEquals( 0, build( args ) );
+            DefaultPlexusContainer container = daemon.getCli().getResidentContainer();
+            assertNotNull( container );
+            ClassRealm realm = container.getContainerRealm();
+
+            assertEquals( 0, build( args ) );
+            assertSame( container, daemon.getCli().getResidentContainer() );
+            assertSame( realm, daemon.getCli().getResidentContainer().getContainerRealm() );
+
+            // the request properties must not leak into the daemon's own system properties
+            assertNull( System.getProperty( "maven.realmPool" ) );
+            assertEquals( origUserDir, System.getProperty( "user.dir" ) );
+        }
+        finally
+        {
+            MavenDaemonClient.run( new String[] { DaemonProtocol.STOP }, System.out, System.err );
+            thread.join( 10000 );
+        }
+    }
+
+    private static int build( String[] args )
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitCode = MavenDaemonClient.run( args, new PrintStream( out, true ), new PrintStream( out, true ) );
+        assertTrue( out.toString(), out.toString().contains( "BUILD SUCCESS" ) );
+        return exitCode;
+    }
+
+}
@@ -0,0 +1,229 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe model cache that counts its hits and misses per tag. If a maximum size is given, the least recently
+ * used entries are evicted once the cache grows beyond it. <strong>Warning:</strong> This is an internal utility class
+ * that is only public for technical reasons, it is not part of the public API. In particular, this class can be
+ * changed or deleted without prior notice.
+ *
+ * @since 3.4.0
+ */
+public class BoundedModelCache
+    implements ModelCache
+{
+
+    private final Map<Key, Object> models;
+
+    private final ConcurrentMap<String, AtomicLong> hits = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> misses = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize The maximum number of entries to keep, a non-positive value for no limit.
+     */
+    public BoundedModelCache( int maxSize )
+    {
+        if ( maxSize > 0 )
+        {
+            models = Collections.synchronizedMap( new LruMap( maxSize ) );
+        }
+        else
+        {
+            models = new ConcurrentHashMap<>( 256 );
+        }
+    }
+
+    @Override
+    public Object get( String groupId, String artifactId, String version, String tag )
+    {
+        Object data = models.get( new Key( groupId, artifactId, version, tag ) );
+        increment( ( data != null ) ? hits : misses, tag );
+        return data;
+    }
+
+    @Override
+    public void put( String groupId, String artifactId, String version, String tag, Object data )
+    {
+        if ( data != null )
+        {
+            models.put( new Key( groupId, artifactId, version, tag ), data );
+        }
+    }
+
+    /**
+     * Gets the number of entries in the cache.
+     *
+     * @return The number of cached entries.
+     */
+    public int size()
+    {
+        return models.size();
+    }
+
+    /**
+     * Gets the number of lookups of the specified tag that found an entry.
+     *
+     * @param tag The tag, may be {@code null}.
+     * @return The number of hits.
+     */
+    public long getHitCount( String tag )
+    {
+        return count( hits, tag );
+    }
+
+    /**
+     * Gets the number of lookups of the specified tag that found no entry.
+     *
+     * @param tag The tag, may be {@code null}.
+     * @return The number of misses.
+     */
+    public long getMissCount( String tag )
+    {
+        return count( misses, tag );
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        buffer.append( models.size() ).append( " models" );
+        Set<String> tags = new TreeSet<>( hits.keySet() );
+        tags.addAll( misses.keySet() );
+        for ( String tag : tags )
+        {
+            buffer.append( ", " ).append( tag ).append( ": " ).append( getHitCount( tag ) ).append( " hits/" );
+            buffer.append( getMissCount( tag ) ).append( " misses" );
+        }
+        return buffer.toString();
+    }
+
+    private static void increment( ConcurrentMap<String, AtomicLong> counts, String tag )
+    {
+        String name = ( tag != null ) ? tag : "";
+        AtomicLong count = counts.get( name );
+        if ( count == null )
+        {
+            AtomicLong created = new AtomicLong();
+            count = counts.putIfAbsent( name, created );
+            if ( count == null )
+            {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private static long count( ConcurrentMap<String, AtomicLong> counts, String tag )
+    {
+        AtomicLong count = counts.get( ( tag != null ) ? tag : "" );
+        return ( count != null ) ? count.get() : 0;
+    }
+
+    private static final class LruMap
+        extends LinkedHashMap<Key, Object>
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LruMap( int maxSize )
+        {
+            super( 256, 0.75f, true );
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<Key, Object> eldest )
+        {
+            return size() > maxSize;
+        }
+
+    }
+
+    private static final class Key
+    {
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String version;
+
+        private final String tag;
+
+        private final int hashCode;
+
+        Key( String groupId, String artifactId, String version, String tag )
+        {
+            this.groupId = ( groupId != null ) ? groupId : "";
+            this.artifactId = ( artifactId != null ) ? artifactId : "";
+            this.version = ( version != null ) ? version : "";
+            this.tag = ( tag != null ) ? tag : "";
+
+            int hash = 17;
+            hash = hash * 31 + this.groupId.hashCode();
+            hash = hash * 31 + this.artifactId.hashCode();
+            hash = hash * 31 + this.version.hashCode();
+            hash = hash * 31 + this.tag.hashCode();
+            hashCode = hash;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+
+            Key that = (Key) obj;
+
+            return artifactId.equals( that.artifactId ) && groupId.equals( that.groupId )
+                && version.equals( that.version ) && tag.equals( that.tag );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+    }
+
+}
@@ -431,6 +431,89 @@ else if ( !parentIds.add( parentData.getId() ) )
     @Override
     public ModelBuildingResult build( ModelBuildingRequest request, ModelBuildingResult result )
         throws ModelBuildingException
+    {
+        File cacheDirectory = EffectiveModelCache.getDirectory( request );
+
+        // the imported POMs built while recording an effective model are recorded along with their own imports
+        if ( cacheDirectory != null && result instanceof DefaultModelBuildingResult
+            && !EffectiveModelCache.isRecording( request.getModelCache() ) )
+        {
+            return build( request, (DefaultModelBuildingResult) result, cacheDirectory );
+        }
+
+        return buildEffectiveModel( request, result );
+    }
+
+    private ModelBuildingResult build( ModelBuildingRequest request, DefaultModelBuildingResult result,
+                                       File cacheDirectory )
+        throws ModelBuildingException
+    {
+        String key = EffectiveModelCache.getKey( request, result );
+
+        Model cachedModel = ( key != null ) ? EffectiveModelCache.load( cacheDirectory, key, request ) : null;
+
+        if ( cachedModel != null )
+        {
+            cachedModel.setPomFile( result.getEffectiveModel().getPomFile() );
+            result.setEffectiveModel( cachedModel );
+
+            DefaultModelProblemCollector problems = new DefaultModelProblemCollector( result );
+            problems.setSource( cachedModel );
+            problems.setRootModel( cachedModel );
+
+            fireEvent( cachedModel, request, problems, ModelBuildingEventCatapult.BUILD_EXTENSIONS_ASSEMBLED );
+
+            if ( hasModelErrors( problems ) )
+            {
+                throw problems.newModelBuildingException();
+            }
+
+            return result;
+        }
+
+        if ( key == null )
+        {
+            return buildEffectiveModel( request, result );
+        }
+
+        final EffectiveModelCache.RecordingProperties systemProperties =
+            new EffectiveModelCache.RecordingProperties( request.getSystemProperties() );
+
+        final EffectiveModelCache.Recorder recorder = new EffectiveModelCache.Recorder( request.getModelCache() );
+
+        ModelBuildingRequest recordingRequest = new FilterModelBuildingRequest( request )
+        {
+
+            @Override
+            public Properties getSystemProperties()
+            {
+                return systemProperties;
+            }
+
+            @Override
+            public ModelCache getModelCache()
+            {
+                return recorder;
+            }
+
+        };
+
+        int problemCount = result.getProblems().size();
+
+        buildEffectiveModel( recordingRequest, result );
+
+        // only models built without any problems are cached as the problems would be lost on a cache hit
+        if ( result.getProblems().size() == problemCount )
+        {
+            EffectiveModelCache.store( cacheDirectory, key, result.getEffectiveModel(), systemProperties, recorder,
+                                       request );
+        }
+
+        return result;
+    }
+
+    private ModelBuildingResult buildEffectiveModel( ModelBuildingRequest request, ModelBuildingResult result )
+        throws ModelBuildingException
     {
         // phase 2
         Model resultModel = result.getEffectiveModel();
@@ -1148,6 +1231,8 @@ private ModelData readParentLocally( Model childModel, ModelSource childSource,
         /*
          * if ( version == null || !version.equals( parent.getVersion() ) ) { return null; }
          */
+        EffectiveModelCache.recordSource( request.getModelCache(), candidateSource );
+
         ModelData parentData = new ModelData( candidateSource, candidateModel, groupId, artifactId, version );
 
         return parentData;
@@ -1187,6 +1272,8 @@ private ModelData readParentExternally( Model childModel, ModelBuildingRequest r
         Validate.notNull( modelResolver, "request.modelResolver cannot be null (parent POM %s and POM %s)",
             ModelProblemUtils.toId( groupId, artifactId, version ), ModelProblemUtils.toSourceHint( childModel ) );
 
+        EffectiveModelCache.recordModel( request.getModelCache(), groupId, artifactId, version );
+
         ModelSource modelSource;
         try
         {
@@ -1371,6 +1458,11 @@ private void importDependencyManagement( Model model, String scope, ModelBuildin
                         try
                         {
                             importModel = workspaceResolver.resolveEffectiveModel( groupId, artifactId, version );
+                            if ( importModel != null )
+                            {
+                                // the lineage of the effective model cannot be verified later on
+                                EffectiveModelCache.recordUnverifiable( request.getModelCache() );
+                            }
                         }
                         catch ( UnresolvableModelException e )
                         {
@@ -1456,6 +1548,9 @@ private Model buildImportModelFromRepository( final ModelBuildingRequest targetM
             final String imported = String.format( "%s:%s:%s", dependency.getGroupId(), dependency.getArtifactId(),
                 dependency.getVersion() );
 
+            EffectiveModelCache.recordModel( targetModelBuildingRequest.getModelCache(), dependency.getGroupId(),
+                                             dependency.getArtifactId(), dependency.getVersion() );
+
             final Dependency resolvedDependency = dependency.clone();
             final ModelSource importSource =
                 targetModelBuildingRequest.getModelResolver().resolveModel( resolvedDependency );
@@ -0,0 +1,942 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Stores effective models on disk so later invocations need not build them again. An entry is keyed by a digest of the
+ * raw models of the lineage, their active profiles, the active external profiles, the user properties and the location
+ * of the POM, the build extensions and extension plugins that may contribute packagings and lifecycles, as well as the
+ * version of the Maven runtime, whose super POM and default bindings end up in the model. Each entry also records the
+ * system properties read while building the model and the content digests of the imported POMs, their parents and the
+ * POMs they import in turn, and is only used as long as these did not change. Models whose imports cannot be verified
+ * that way, e.g. because an import or one of its parents uses a version range, are not cached. The cache is enabled
+ * by setting the user or system property {@value #DIRECTORY_PROPERTY} to the directory holding the entries. Entries
+ * that were not used for {@value #MAX_AGE_PROPERTY} days (default {@value #DEFAULT_MAX_AGE}) are deleted. Models
+ * referring to the build timestamp are never cached.
+ * <p>
+ * Entries use a fixed binary layout that holds plain strings and the model as compressed POM XML, followed by a digest
+ * of the content. Files that do not match this layout or their digest are deleted, nothing in them is ever
+ * instantiated. Input locations are not stored, so a model loaded from the cache has none.
+ *
+ * @since 3.4.0
+ */
+class EffectiveModelCache
+{
+
+    static final String DIRECTORY_PROPERTY = "maven.effectiveModelCache";
+
+    static final String MAX_AGE_PROPERTY = "maven.effectiveModelCache.maxAge";
+
+    static final int DEFAULT_MAX_AGE = 30;
+
+    private static final String FORMAT = "3";
+
+    private static final int MAGIC = 0x4D454D43;
+
+    private static final int DIGEST_LENGTH = 20;
+
+    private static final String EXTENSION = ".model";
+
+    private static final String PRUNE_MARKER = ".pruned";
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final String BUILDER_VERSION = getBuilderVersion();
+
+    private EffectiveModelCache()
+    {
+        // hide constructor
+    }
+
+    /**
+     * Gets the cache directory configured for the specified request.
+     *
+     * @param request The model building request, must not be {@code null}.
+     * @return The cache directory or {@code null} if the cache is disabled.
+     */
+    static File getDirectory( ModelBuildingRequest request )
+    {
+        String directory = request.getUserProperties().getProperty( DIRECTORY_PROPERTY );
+        if ( directory == null )
+        {
+            directory = request.getSystemProperties().getProperty( DIRECTORY_PROPERTY );
+        }
+        return ( directory != null && directory.length() > 0 ) ? new File( directory ) : null;
+    }
+
+    /**
+     * Computes the cache key for the second phase of the specified model building.
+     *
+     * @param request The model building request, must not be {@code null}.
+     * @param result The result of the first phase, must not be {@code null}.
+     * @return The cache key or {@code null} if it could not be computed.
+     */
+    static String getKey( ModelBuildingRequest request, ModelBuildingResult result )
+    {
+        try
+        {
+            MessageDigest digest = newDigest();
+            Writer writer = new OutputStreamWriter( new DigestOutputStream( new NullOutputStream(), digest ), "UTF-8" );
+
+            writer.write( FORMAT );
+            writer.write( '\n' );
+            writer.write( String.valueOf( request.getPomFile() != null ? request.getPomFile().getAbsoluteFile()
+                            : null ) );
+            writer.write( '\n' );
+            writer.write( request.getValidationLevel() + ":" + request.isProcessPlugins() + ":"
+                + request.isLocationTracking() );
+            writer.write( '\n' );
+            writer.write( BUILDER_VERSION + ":" + request.getSystemProperties().getProperty( "maven.version" ) + ":"
+                + request.getSystemProperties().getProperty( "maven.build.version" ) );
+            writer.write( '\n' );
+
+            for ( String modelId : result.getModelIds() )
+            {
+                writer.write( modelId );
+                writer.write( '\n' );
+                if ( !write( writer, result.getRawModel( modelId ) ) )
+                {
+                    return null;
+                }
+                for ( Profile profile : result.getActivePomProfiles( modelId ) )
+                {
+                    writer.write( profile.getId() );
+                    writer.write( '\n' );
+                }
+            }
+
+            Model externalProfiles = new Model();
+            externalProfiles.setProfiles( result.getActiveExternalProfiles() );
+            if ( !write( writer, externalProfiles ) )
+            {
+                return null;
+            }
+
+            if ( !writeExtensions( writer, result.getEffectiveModel(), request.getModelResolver() ) )
+            {
+                return null;
+            }
+
+            for ( Map.Entry<Object, Object> property : new TreeMap<>( request.getUserProperties() ).entrySet() )
+            {
+                writer.write( property.getKey() + "=" + property.getValue() );
+                writer.write( '\n' );
+            }
+
+            writer.flush();
+
+            return toHex( digest.digest() );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the version of this model builder, which comes with the super POM.
+     */
+    private static String getBuilderVersion()
+    {
+        String resource = "/META-INF/maven/org.apache.maven/maven-model-builder/pom.properties";
+
+        try ( InputStream in = EffectiveModelCache.class.getResourceAsStream( resource ) )
+        {
+            if ( in != null )
+            {
+                Properties properties = new Properties();
+                properties.load( in );
+                return properties.getProperty( "version" );
+            }
+        }
+        catch ( IOException e )
+        {
+            // fall back to the manifest
+        }
+
+        Package pkg = EffectiveModelCache.class.getPackage();
+        return ( pkg != null ) ? pkg.getImplementationVersion() : null;
+    }
+
+    /**
+     * Writes the specified model, unless it refers to the build timestamp which differs between invocations.
+     */
+    private static boolean write( Writer writer, Model model )
+        throws IOException
+    {
+        StringWriter buffer = new StringWriter( 4096 );
+        new MavenXpp3Writer().write( buffer, model );
+
+        String xml = buffer.toString();
+        if ( xml.contains( "build.timestamp" ) )
+        {
+            return false;
+        }
+
+        writer.write( xml );
+        return true;
+    }
+
+    /**
+     * Writes the coordinates of the build extensions and extension plugins, which may provide packagings and lifecycle
+     * mappings. Snapshots are identified by the digest of their current POM. Extensions without a fixed version cannot
+     * be identified, so the model is not cached.
+     */
+    private static boolean writeExtensions( Writer writer, Model model, ModelResolver modelResolver )
+        throws IOException
+    {
+        Build build = model.getBuild();
+        if ( build == null )
+        {
+            return true;
+        }
+
+        List<Dependency> extensions = new ArrayList<>();
+        for ( Extension extension : build.getExtensions() )
+        {
+            extensions.add( newDependency( extension.getGroupId(), extension.getArtifactId(),
+                                           extension.getVersion() ) );
+        }
+        PluginManagement pluginManagement = build.getPluginManagement();
+        for ( Plugin plugin : build.getPlugins() )
+        {
+            if ( !plugin.isExtensions() )
+            {
+                continue;
+            }
+            String version = plugin.getVersion();
+            if ( version == null && pluginManagement != null )
+            {
+                Plugin managed = pluginManagement.getPluginsAsMap().get( plugin.getKey() );
+                version = ( managed != null ) ? managed.getVersion() : null;
+            }
+            extensions.add( newDependency( plugin.getGroupId(), plugin.getArtifactId(), version ) );
+        }
+
+        for ( Dependency extension : extensions )
+        {
+            String version = extension.getVersion();
+            if ( version == null || version.length() <= 0 || version.contains( "${" ) || version.startsWith( "[" )
+                || version.startsWith( "(" ) || "LATEST".equals( version ) || "RELEASE".equals( version ) )
+            {
+                return false;
+            }
+
+            writer.write( extension.getGroupId() + ":" + extension.getArtifactId() + ":" + version );
+            if ( version.endsWith( "SNAPSHOT" ) )
+            {
+                String digest = getDigest( modelResolver, extension );
+                if ( digest == null )
+                {
+                    return false;
+                }
+                writer.write( ":" + digest );
+            }
+            writer.write( '\n' );
+        }
+
+        return true;
+    }
+
+    private static Dependency newDependency( String groupId, String artifactId, String version )
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( groupId );
+        dependency.setArtifactId( artifactId );
+        dependency.setVersion( version );
+        dependency.setType( "pom" );
+        return dependency;
+    }
+
+    /**
+     * Loads the effective model stored under the specified key.
+     *
+     * @param directory The cache directory, must not be {@code null}.
+     * @param key The cache key, must not be {@code null}.
+     * @param request The model building request, must not be {@code null}.
+     * @return The effective model or {@code null} if none is stored or the stored one is out of date.
+     */
+    static Model load( File directory, String key, ModelBuildingRequest request )
+    {
+        File file = new File( directory, key + EXTENSION );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        Entry entry;
+        try
+        {
+            entry = read( file );
+        }
+        catch ( IOException | XmlPullParserException | RuntimeException e )
+        {
+            entry = null;
+        }
+        if ( entry == null || !key.equals( entry.key ) )
+        {
+            file.delete();
+            return null;
+        }
+
+        Properties systemProperties = request.getSystemProperties();
+        for ( int i = 0; i < entry.propertyKeys.length; i++ )
+        {
+            if ( !Objects.equals( systemProperties.getProperty( entry.propertyKeys[i] ), entry.propertyValues[i] ) )
+            {
+                return null;
+            }
+        }
+
+        for ( int i = 0; i < entry.imports.length; i++ )
+        {
+            if ( !entry.importDigests[i].equals( getDigest( request.getModelResolver(), entry.imports[i] ) ) )
+            {
+                return null;
+            }
+        }
+
+        for ( int i = 0; i < entry.sources.length; i++ )
+        {
+            if ( !entry.sourceDigests[i].equals( getDigest( new File( entry.sources[i] ) ) ) )
+            {
+                return null;
+            }
+        }
+
+        // keep entries in use from being pruned, at most one write per day
+        long now = System.currentTimeMillis();
+        if ( now - file.lastModified() > DAY )
+        {
+            file.setLastModified( now );
+        }
+
+        return entry.model;
+    }
+
+    /**
+     * Stores the specified effective model under the specified key. Failures are ignored, the model is simply built
+     * again next time.
+     *
+     * @param directory The cache directory, must not be {@code null}.
+     * @param key The cache key, must not be {@code null}.
+     * @param model The effective model, must not be {@code null}.
+     * @param systemProperties The system properties that were read while building the model, must not be {@code null}.
+     * @param recorder The POMs that were imported while building the model, must not be {@code null}.
+     * @param request The model building request, must not be {@code null}.
+     */
+    static void store( File directory, String key, Model model, RecordingProperties systemProperties,
+                       Recorder recorder, ModelBuildingRequest request )
+    {
+        if ( !recorder.verifiable )
+        {
+            return;
+        }
+
+        Entry entry = new Entry();
+        entry.key = key;
+        entry.model = model;
+
+        Map<String, String> reads = systemProperties.getReads();
+        entry.propertyKeys = reads.keySet().toArray( new String[reads.size()] );
+        entry.propertyValues = reads.values().toArray( new String[reads.size()] );
+
+        entry.imports = recorder.models.values().toArray( new Dependency[recorder.models.size()] );
+        entry.importDigests = new String[entry.imports.length];
+        for ( int i = 0; i < entry.imports.length; i++ )
+        {
+            entry.importDigests[i] = getDigest( request.getModelResolver(), entry.imports[i] );
+            if ( entry.importDigests[i] == null )
+            {
+                return;
+            }
+        }
+
+        entry.sources = recorder.sources.toArray( new String[recorder.sources.size()] );
+        entry.sourceDigests = new String[entry.sources.length];
+        for ( int i = 0; i < entry.sources.length; i++ )
+        {
+            entry.sourceDigests[i] = getDigest( new File( entry.sources[i] ) );
+            if ( entry.sourceDigests[i] == null )
+            {
+                return;
+            }
+        }
+
+        prune( directory, request );
+
+        File file = new File( directory, key + EXTENSION );
+        File tmp = null;
+        try
+        {
+            directory.mkdirs();
+            tmp = File.createTempFile( key, ".tmp", directory );
+
+            write( tmp, entry );
+
+            if ( !tmp.renameTo( file ) )
+            {
+                file.delete();
+                tmp.renameTo( file );
+            }
+        }
+        catch ( IOException e )
+        {
+            // not cached
+        }
+        finally
+        {
+            if ( tmp != null && tmp.exists() )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes the specified entry in the layout read by {@link #read(File)}.
+     */
+    static void write( File file, Entry entry )
+        throws IOException
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream( 8192 );
+        MessageDigest digest = newDigest();
+
+        try ( DataOutputStream out = new DataOutputStream( new DigestOutputStream( buffer, digest ) ) )
+        {
+            out.writeInt( MAGIC );
+            writeString( out, FORMAT );
+            writeString( out, entry.key );
+
+            out.writeInt( entry.propertyKeys.length );
+            for ( int i = 0; i < entry.propertyKeys.length; i++ )
+            {
+                writeString( out, entry.propertyKeys[i] );
+                writeString( out, entry.propertyValues[i] );
+            }
+
+            out.writeInt( entry.imports.length );
+            for ( int i = 0; i < entry.imports.length; i++ )
+            {
+                writeString( out, entry.imports[i].getGroupId() );
+                writeString( out, entry.imports[i].getArtifactId() );
+                writeString( out, entry.imports[i].getVersion() );
+                writeString( out, entry.importDigests[i] );
+            }
+
+            out.writeInt( entry.sources.length );
+            for ( int i = 0; i < entry.sources.length; i++ )
+            {
+                writeString( out, entry.sources[i] );
+                writeString( out, entry.sourceDigests[i] );
+            }
+
+            ByteArrayOutputStream xml = new ByteArrayOutputStream( 8192 );
+            try ( Writer writer = new OutputStreamWriter( new DeflaterOutputStream( xml ), "UTF-8" ) )
+            {
+                new MavenXpp3Writer().write( writer, entry.model );
+            }
+            out.writeInt( xml.size() );
+            xml.writeTo( out );
+        }
+
+        try ( OutputStream out = new FileOutputStream( file ) )
+        {
+            buffer.writeTo( out );
+            out.write( digest.digest() );
+        }
+    }
+
+    /**
+     * Reads an entry written by {@link #write(File, Entry)}.
+     *
+     * @return The entry or {@code null} if the file does not have the expected layout or digest.
+     */
+    static Entry read( File file )
+        throws IOException, XmlPullParserException
+    {
+        byte[] bytes = Files.readAllBytes( file.toPath() );
+        int length = bytes.length - DIGEST_LENGTH;
+        if ( length < 4 )
+        {
+            return null;
+        }
+
+        MessageDigest digest = newDigest();
+        digest.update( bytes, 0, length );
+        if ( !MessageDigest.isEqual( digest.digest(), Arrays.copyOfRange( bytes, length, bytes.length ) ) )
+        {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream( new ByteArrayInputStream( bytes, 0, length ) );
+        if ( in.readInt() != MAGIC || !FORMAT.equals( readString( in ) ) )
+        {
+            return null;
+        }
+
+        Entry entry = new Entry();
+        entry.key = readString( in );
+
+        int properties = readCount( in );
+        entry.propertyKeys = new String[properties];
+        entry.propertyValues = new String[properties];
+        for ( int i = 0; i < properties; i++ )
+        {
+            entry.propertyKeys[i] = readString( in );
+            entry.propertyValues[i] = readString( in );
+        }
+
+        int imports = readCount( in );
+        entry.imports = new Dependency[imports];
+        entry.importDigests = new String[imports];
+        for ( int i = 0; i < imports; i++ )
+        {
+            entry.imports[i] = newDependency( readString( in ), readString( in ), readString( in ) );
+            entry.importDigests[i] = readString( in );
+            if ( entry.importDigests[i] == null )
+            {
+                return null;
+            }
+        }
+
+        int sources = readCount( in );
+        entry.sources = new String[sources];
+        entry.sourceDigests = new String[sources];
+        for ( int i = 0; i < sources; i++ )
+        {
+            entry.sources[i] = readString( in );
+            entry.sourceDigests[i] = readString( in );
+            if ( entry.sources[i] == null || entry.sourceDigests[i] == null )
+            {
+                return null;
+            }
+        }
+
+        byte[] xml = new byte[readCount( in )];
+        in.readFully( xml );
+        if ( in.read() >= 0 )
+        {
+            return null;
+        }
+        try ( InputStreamReader reader =
+            new InputStreamReader( new InflaterInputStream( new ByteArrayInputStream( xml ) ), "UTF-8" ) )
+        {
+            entry.model = new MavenXpp3Reader().read( reader, true );
+        }
+
+        return entry;
+    }
+
+    private static void writeString( DataOutputStream out, String value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            out.writeInt( -1 );
+        }
+        else
+        {
+            byte[] bytes = value.getBytes( "UTF-8" );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+        }
+    }
+
+    private static String readString( DataInputStream in )
+        throws IOException
+    {
+        int length = in.readInt();
+        if ( length < 0 )
+        {
+            return null;
+        }
+        if ( length > in.available() )
+        {
+            throw new EOFException();
+        }
+        byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return new String( bytes, "UTF-8" );
+    }
+
+    private static int readCount( DataInputStream in )
+        throws IOException
+    {
+        int count = in.readInt();
+        if ( count < 0 || count > in.available() )
+        {
+            throw new EOFException();
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the entries that were not used for the configured number of days. The directory is scanned at most once
+     * a day, tracked by the modification time of a marker file.
+     */
+    static void prune( File directory, ModelBuildingRequest request )
+    {
+        long now = System.currentTimeMillis();
+
+        File marker = new File( directory, PRUNE_MARKER );
+        if ( marker.isFile() && now - marker.lastModified() < DAY )
+        {
+            return;
+        }
+
+        try
+        {
+            directory.mkdirs();
+            if ( !marker.createNewFile() )
+            {
+                marker.setLastModified( now );
+            }
+        }
+        catch ( IOException e )
+        {
+            return;
+        }
+
+        String maxAge = request.getUserProperties().getProperty( MAX_AGE_PROPERTY );
+        if ( maxAge == null )
+        {
+            maxAge = request.getSystemProperties().getProperty( MAX_AGE_PROPERTY );
+        }
+
+        long limit;
+        try
+        {
+            limit = now - ( ( maxAge != null ) ? Integer.parseInt( maxAge.trim() ) : DEFAULT_MAX_AGE ) * DAY;
+        }
+        catch ( NumberFormatException e )
+        {
+            limit = now - DEFAULT_MAX_AGE * DAY;
+        }
+
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                String name = file.getName();
+                if ( ( name.endsWith( EXTENSION ) || name.endsWith( ".tmp" ) ) && file.lastModified() < limit )
+                {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private static String getDigest( ModelResolver modelResolver, Dependency dependency )
+    {
+        if ( modelResolver == null )
+        {
+            return null;
+        }
+
+        try ( InputStream in = modelResolver.newCopy().resolveModel( dependency.clone() ).getInputStream() )
+        {
+            MessageDigest digest = newDigest();
+            byte[] buffer = new byte[8192];
+            for ( int n; ( n = in.read( buffer ) ) >= 0; )
+            {
+                digest.update( buffer, 0, n );
+            }
+            return toHex( digest.digest() );
+        }
+        catch ( IOException | UnresolvableModelException | RuntimeException e )
+        {
+            return null;
+        }
+    }
+
+    private static String getDigest( File file )
+    {
+        try
+        {
+            MessageDigest digest = newDigest();
+            digest.update( Files.readAllBytes( file.toPath() ) );
+            return toHex( digest.digest() );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether the specified model cache belongs to a model that is being recorded for the cache.
+     */
+    static boolean isRecording( ModelCache modelCache )
+    {
+        return modelCache instanceof Recorder;
+    }
+
+    /**
+     * Records a POM that is resolved through the model resolver while recording a model.
+     */
+    static void recordModel( ModelCache modelCache, String groupId, String artifactId, String version )
+    {
+        if ( modelCache instanceof Recorder )
+        {
+            ( (Recorder) modelCache ).recordModel( groupId, artifactId, version );
+        }
+    }
+
+    /**
+     * Records a POM that is read from the file system while recording a model.
+     */
+    static void recordSource( ModelCache modelCache, ModelSource source )
+    {
+        if ( modelCache instanceof Recorder )
+        {
+            ( (Recorder) modelCache ).recordSource( source );
+        }
+    }
+
+    /**
+     * Records that the model being recorded depends on a POM that cannot be verified later on.
+     */
+    static void recordUnverifiable( ModelCache modelCache )
+    {
+        if ( modelCache instanceof Recorder )
+        {
+            ( (Recorder) modelCache ).verifiable = false;
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static String toHex( byte[] bytes )
+    {
+        StringBuilder buffer = new StringBuilder( bytes.length * 2 );
+        for ( byte b : bytes )
+        {
+            buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+            buffer.append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * A copy of the system properties that records which properties are read.
+     */
+    static class RecordingProperties
+        extends Properties
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, String> reads = new TreeMap<>();
+
+        RecordingProperties( Properties properties )
+        {
+            putAll( properties );
+        }
+
+        @Override
+        public synchronized Object get( Object key )
+        {
+            Object value = super.get( key );
+            if ( key instanceof String )
+            {
+                reads.put( (String) key, ( value instanceof String ) ? (String) value : null );
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized String getProperty( String key )
+        {
+            String value = super.getProperty( key );
+            reads.put( key, value );
+            return value;
+        }
+
+        synchronized Map<String, String> getReads()
+        {
+            return new TreeMap<>( reads );
+        }
+
+    }
+
+    static class Entry
+    {
+
+        String key;
+
+        String[] propertyKeys;
+
+        String[] propertyValues;
+
+        Dependency[] imports;
+
+        String[] importDigests;
+
+        String[] sources;
+
+        String[] sourceDigests;
+
+        Model model;
+
+    }
+
+    /**
+     * Records the POMs that contribute to a model besides its own lineage: the imported POMs, their parents and the
+     * POMs they import in turn. It is used as the model cache of the request while the model is built and thereby
+     * reaches the builds of the imported POMs. It never hands out cached data, so each of these POMs is actually read
+     * and recorded, while new data is still passed on to the actual model cache.
+     */
+    static class Recorder
+        implements ModelCache
+    {
+
+        private final ModelCache modelCache;
+
+        final Map<String, Dependency> models = new LinkedHashMap<>();
+
+        final List<String> sources = new ArrayList<>();
+
+        boolean verifiable = true;
+
+        Recorder( ModelCache modelCache )
+        {
+            this.modelCache = modelCache;
+        }
+
+        void recordModel( String groupId, String artifactId, String version )
+        {
+            if ( version == null || version.startsWith( "[" ) || version.startsWith( "(" ) )
+            {
+                // a version range may resolve to a different POM later on
+                verifiable = false;
+            }
+            else
+            {
+                models.put( groupId + ':' + artifactId + ':' + version,
+                            newDependency( groupId, artifactId, version ) );
+            }
+        }
+
+        void recordSource( ModelSource source )
+        {
+            URI uri = ( source instanceof ModelSource2 ) ? ( (ModelSource2) source ).getLocationURI() : null;
+            if ( uri != null && "file".equals( uri.getScheme() ) )
+            {
+                String path = new File( uri ).getAbsolutePath();
+                if ( !sources.contains( path ) )
+                {
+                    sources.add( path );
+                }
+            }
+            else
+            {
+                verifiable = false;
+            }
+        }
+
+        @Override
+        public void put( String groupId, String artifactId, String version, String tag, Object data )
+        {
+            if ( modelCache != null )
+            {
+                modelCache.put( groupId, artifactId, version, tag, data );
+            }
+        }
+
+        @Override
+        public Object get( String groupId, String artifactId, String version, String tag )
+        {
+            return null;
+        }
+
+    }
+
+    static class NullOutputStream
+        extends OutputStream
+    {
+
+        @Override
+        public void write( int b )
+        {
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+        }
+
+    }
+
+}
@@ -0,0 +1,352 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.codehaus.plexus.util.FileUtils;
+
+import junit.framework.TestCase;
+
+public class EffectiveModelCacheTest
+    extends TestCase
+{
+
+    private File directory;
+
+    private ModelBuilder builder;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        directory = new File( "target/effective-model-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( directory );
+
+        builder = new DefaultModelBuilderFactory().newInstance();
+    }
+
+    private ModelBuildingResult build( String value )
+        throws Exception
+    {
+        return build( value, "3.4.0" );
+    }
+
+    private ModelBuildingResult build( String value, String mavenVersion )
+        throws Exception
+    {
+        return build( value, mavenVersion, "simple.xml", null );
+    }
+
+    private ModelBuildingResult build( String value, String mavenVersion, String pom, ModelResolver modelResolver )
+        throws Exception
+    {
+        Properties userProperties = new Properties();
+        userProperties.setProperty( EffectiveModelCache.DIRECTORY_PROPERTY, directory.getPath() );
+
+        Properties systemProperties = new Properties();
+        systemProperties.setProperty( "test.value", value );
+        systemProperties.setProperty( "unrelated", String.valueOf( System.nanoTime() ) );
+        systemProperties.setProperty( "maven.version", mavenVersion );
+
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile( new File( "src/test/resources/poms/cache/" + pom ).getAbsoluteFile() );
+        request.setModelResolver( modelResolver );
+        request.setUserProperties( userProperties );
+        request.setSystemProperties( systemProperties );
+
+        return builder.build( request );
+    }
+
+    private File[] getEntries()
+    {
+        File[] entries = directory.listFiles( new FilenameFilter()
+        {
+            @Override
+            public boolean accept( File dir, String name )
+            {
+                return name.endsWith( ".model" );
+            }
+        } );
+        assertNotNull( entries );
+        return entries;
+    }
+
+    private File getEntry()
+    {
+        File[] entries = getEntries();
+        assertEquals( 1, entries.length );
+        return entries[0];
+    }
+
+    public void testStoresAndReusesEffectiveModel()
+        throws Exception
+    {
+        assertEquals( "a", build( "a" ).getEffectiveModel().getDescription() );
+
+        File file = getEntry();
+
+        EffectiveModelCache.Entry entry = EffectiveModelCache.read( file );
+        assertNotNull( entry );
+        entry.model.setDescription( "cached" );
+        EffectiveModelCache.write( file, entry );
+
+        ModelBuildingResult result = build( "a" );
+        assertEquals( "cached", result.getEffectiveModel().getDescription() );
+        assertEquals( new File( "src/test/resources/poms/cache/simple.xml" ).getAbsoluteFile(),
+                      result.getEffectiveModel().getPomFile() );
+    }
+
+    public void testDeletesEntryWithBadDigest()
+        throws Exception
+    {
+        build( "a" );
+        File file = getEntry();
+
+        EffectiveModelCache.Entry entry = EffectiveModelCache.read( file );
+        entry.model.setDescription( "tampered" );
+        EffectiveModelCache.write( file, entry );
+        try ( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+        {
+            raf.seek( raf.length() - 1 );
+            int last = raf.read();
+            raf.seek( raf.length() - 1 );
+            raf.write( last ^ 0xFF );
+        }
+
+        assertEquals( "a", build( "a" ).getEffectiveModel().getDescription() );
+        assertNotNull( EffectiveModelCache.read( getEntry() ) );
+    }
+
+    public void testDeletesSerializedObjects()
+        throws Exception
+    {
+        build( "a" );
+        File file = getEntry();
+
+        try ( ObjectOutputStream out = new ObjectOutputStream( new FileOutputStream( file ) ) )
+        {
+            out.writeObject( new java.util.ArrayList<String>() );
+        }
+        assertNull( EffectiveModelCache.read( file ) );
+
+        assertEquals( "a", build( "a" ).getEffectiveModel().getDescription() );
+        assertNotNull( EffectiveModelCache.read( getEntry() ) );
+    }
+
+    public void testRebuildsWhenSnapshotExtensionChanges()
+        throws Exception
+    {
+        PomResolver resolver = new PomResolver();
+
+        resolver.pom = "<project><version>1</version></project>";
+        build( "a", "3.4.0", "extension.xml", resolver );
+        build( "a", "3.4.0", "extension.xml", resolver );
+        assertEquals( 1, getEntries().length );
+
+        resolver.pom = "<project><version>2</version></project>";
+        build( "a", "3.4.0", "extension.xml", resolver );
+        assertEquals( 2, getEntries().length );
+    }
+
+    public void testDoesNotCacheUnresolvableSnapshotExtension()
+        throws Exception
+    {
+        assertEquals( "a", build( "a", "3.4.0", "extension.xml", null ).getEffectiveModel().getDescription() );
+        assertFalse( directory.exists() && getEntries().length > 0 );
+    }
+
+    public void testRebuildsWhenReadSystemPropertyChanges()
+        throws Exception
+    {
+        assertEquals( "a", build( "a" ).getEffectiveModel().getDescription() );
+        assertEquals( "b", build( "b" ).getEffectiveModel().getDescription() );
+        assertEquals( "b", build( "b" ).getEffectiveModel().getDescription() );
+        getEntry();
+    }
+
+    public void testRebuildsWhenMavenVersionChanges()
+        throws Exception
+    {
+        build( "a", "3.4.0" );
+        build( "a", "3.4.1" );
+        assertEquals( 2, getEntries().length );
+    }
+
+    private static String getManagedVersion( ModelBuildingResult result )
+    {
+        return result.getEffectiveModel().getDependencyManagement().getDependencies().get( 0 ).getVersion();
+    }
+
+    private static String newBom( String parentVersion, String imports )
+    {
+        return "<project><modelVersion>4.0.0</modelVersion>"
+            + "<parent><groupId>test</groupId><artifactId>bom-parent</artifactId><version>" + parentVersion
+            + "</version></parent><artifactId>bom</artifactId><packaging>pom</packaging>"
+            + "<dependencyManagement><dependencies>" + imports + "</dependencies></dependencyManagement></project>";
+    }
+
+    private static String newParent( String depVersion )
+    {
+        return "<project><modelVersion>4.0.0</modelVersion><groupId>test</groupId><artifactId>bom-parent</artifactId>"
+            + "<version>1</version><packaging>pom</packaging><properties><dep.version>" + depVersion
+            + "</dep.version></properties></project>";
+    }
+
+    private static String newNested( String depVersion )
+    {
+        return "<project><modelVersion>4.0.0</modelVersion><groupId>test</groupId><artifactId>nested</artifactId>"
+            + "<version>1</version><packaging>pom</packaging><dependencyManagement><dependencies><dependency>"
+            + "<groupId>test</groupId><artifactId>dep</artifactId><version>" + depVersion + "</version>"
+            + "</dependency></dependencies></dependencyManagement></project>";
+    }
+
+    private static String newImport( String artifactId, String version )
+    {
+        return "<dependency><groupId>test</groupId><artifactId>" + artifactId + "</artifactId><version>" + version
+            + "</version><type>pom</type><scope>import</scope></dependency>";
+    }
+
+    public void testRebuildsWhenParentOfImportChanges()
+        throws Exception
+    {
+        PomResolver resolver = new PomResolver();
+        resolver.poms.put( "bom", newBom( "1", "<dependency><groupId>test</groupId><artifactId>dep</artifactId>"
+            + "<version>${dep.version}</version></dependency>" ) );
+        resolver.poms.put( "bom-parent", newParent( "1.0" ) );
+
+        assertEquals( "1.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+        assertEquals( "1.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+        getEntry();
+
+        resolver.poms.put( "bom-parent", newParent( "2.0" ) );
+        assertEquals( "2.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+    }
+
+    public void testRebuildsWhenNestedImportChanges()
+        throws Exception
+    {
+        PomResolver resolver = new PomResolver();
+        resolver.poms.put( "bom", newBom( "1", newImport( "nested", "1" ) ) );
+        resolver.poms.put( "bom-parent", newParent( "1.0" ) );
+        resolver.poms.put( "nested", newNested( "1.0" ) );
+
+        assertEquals( "1.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+        assertEquals( "1.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+        getEntry();
+
+        resolver.poms.put( "nested", newNested( "2.0" ) );
+        assertEquals( "2.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+    }
+
+    public void testDoesNotCacheImportWithVersionRange()
+        throws Exception
+    {
+        PomResolver resolver = new PomResolver();
+        resolver.poms.put( "bom", newBom( "1", newImport( "nested", "[1,2)" ) ) );
+        resolver.poms.put( "bom-parent", newParent( "1.0" ) );
+        resolver.poms.put( "nested", newNested( "1.0" ) );
+
+        assertEquals( "1.0", getManagedVersion( build( "a", "3.4.0", "import.xml", resolver ) ) );
+        assertFalse( directory.exists() && getEntries().length > 0 );
+    }
+
+    public void testPrunesUnusedEntries()
+        throws Exception
+    {
+        build( "a" );
+        File used = getEntry();
+
+        File stale = new File( directory, "stale.model" );
+        assertTrue( stale.createNewFile() );
+        stale.setLastModified( System.currentTimeMillis() - ( EffectiveModelCache.DEFAULT_MAX_AGE + 1 ) * 24L * 60 * 60
+            * 1000 );
+
+        // the directory was already scanned today
+        build( "b" );
+        assertTrue( stale.exists() );
+
+        assertTrue( new File( directory, ".pruned" ).setLastModified( 0 ) );
+        build( "c" );
+        assertFalse( stale.exists() );
+        assertTrue( used.exists() );
+    }
+
+    /**
+     * Resolves the POMs to configurable content, by artifact id or else the same for all.
+     */
+    static class PomResolver
+        implements ModelResolver
+    {
+
+        String pom;
+
+        final Map<String, String> poms = new HashMap<>();
+
+        @Override
+        public ModelSource resolveModel( String groupId, String artifactId, String version )
+        {
+            return new StringModelSource( poms.containsKey( artifactId ) ? poms.get( artifactId ) : pom );
+        }
+
+        @Override
+        public ModelSource resolveModel( Parent parent )
+        {
+            return resolveModel( parent.getGroupId(), parent.getArtifactId(), parent.getVersion() );
+        }
+
+        @Override
+        public ModelSource resolveModel( Dependency dependency )
+        {
+            return resolveModel( dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion() );
+        }
+
+        @Override
+        public void addRepository( Repository repository )
+        {
+        }
+
+        @Override
+        public void addRepository( Repository repository, boolean replace )
+        {
+        }
+
+        @Override
+        public ModelResolver newCopy()
+        {
+            return this;
+        }
+
+    }
+
+}
@@ -23,12 +23,14 @@
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.building.FileSource;
 import org.apache.maven.building.Source;
+import org.apache.maven.building.SourceCache;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.TrackableBase;
 import org.apache.maven.settings.io.SettingsParseException;
@@ -45,7 +47,8 @@
 import org.codehaus.plexus.interpolation.RegexBasedInterpolator;
 
 /**
- * Builds the effective settings from a user settings file and/or a global settings file.
+ * Builds the effective settings from a user settings file and/or a global settings file. Settings built from files are
+ * cached by the file stamps and the interpolation inputs, see {@link SourceCache}.
  *
  * @author Benjamin Bentmann
  */
@@ -65,6 +68,8 @@
 
     private MavenSettingsMerger settingsMerger = new MavenSettingsMerger();
 
+    private final SourceCache<SettingsBuildingResult> cache = new SourceCache<>();
+
     public DefaultSettingsBuilder setSettingsReader( SettingsReader settingsReader )
     {
         this.settingsReader = settingsReader;
@@ -91,10 +96,20 @@ public SettingsBuildingResult build( SettingsBuildingRequest request )
 
         Source globalSettingsSource =
             getSettingsSource( request.getGlobalSettingsFile(), request.getGlobalSettingsSource() );
-        Settings globalSettings = readSettings( globalSettingsSource, request, problems );
-
         Source userSettingsSource =
             getSettingsSource( request.getUserSettingsFile(), request.getUserSettingsSource() );
+
+        SourceCache<SettingsBuildingResult> cache = getCache();
+        Object cacheKey = SourceCache.newKey( Arrays.asList( globalSettingsSource, userSettingsSource ),
+                                              request.getUserProperties(), request.getSystemProperties() );
+        SettingsBuildingResult cached = cache.get( cacheKey );
+        if ( cached != null )
+        {
+            return new DefaultSettingsBuildingResult( cached.getEffectiveSettings().clone(), cached.getProblems() );
+        }
+
+        Settings globalSettings = readSettings( globalSettingsSource, request, problems );
+
         Settings userSettings = readSettings( userSettingsSource, request, problems );
 
         settingsMerger.merge( userSettings, globalSettings, TrackableBase.GLOBAL_LEVEL );
@@ -119,9 +134,16 @@ public SettingsBuildingResult build( SettingsBuildingRequest request )
             throw new SettingsBuildingException( problems.getProblems() );
         }
 
+        cache.put( cacheKey, new DefaultSettingsBuildingResult( userSettings.clone(), problems.getProblems() ) );
+
         return new DefaultSettingsBuildingResult( userSettings, problems.getProblems() );
     }
 
+    private SourceCache<SettingsBuildingResult> getCache()
+    {
+        return SourceCache.isSharingEnabled() ? SourceCache.<SettingsBuildingResult>getShared( "settings" ) : cache;
+    }
+
     private boolean hasErrors( List<SettingsProblem> problems )
     {
         if ( problems != null )
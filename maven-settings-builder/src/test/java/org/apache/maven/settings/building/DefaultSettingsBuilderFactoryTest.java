@@ -20,6 +20,7 @@
  */
 
 import java.io.File;
+import java.util.Properties;
 
 import junit.framework.TestCase;
 
@@ -50,4 +51,31 @@ public void testCompleteWiring()
         assertNotNull( result.getEffectiveSettings() );
     }
 
+    public void testCachedSettings()
+        throws Exception
+    {
+        SettingsBuilder builder = new DefaultSettingsBuilderFactory().newInstance();
+
+        Properties userProperties = new Properties();
+        userProperties.setProperty( "user.home", "/home/a" );
+
+        DefaultSettingsBuildingRequest request = new DefaultSettingsBuildingRequest();
+        request.setSystemProperties( System.getProperties() );
+        request.setUserProperties( userProperties );
+        request.setUserSettingsFile( getSettings( "simple" ) );
+
+        SettingsBuildingResult first = builder.build( request );
+        first.getEffectiveSettings().setOffline( true );
+
+        SettingsBuildingResult second = builder.build( request );
+        assertNotSame( first.getEffectiveSettings(), second.getEffectiveSettings() );
+        assertFalse( second.getEffectiveSettings().isOffline() );
+        assertEquals( "/home/a/.m2/repository", second.getEffectiveSettings().getLocalRepository() );
+
+        userProperties.setProperty( "user.home", "/home/b" );
+        request.setUserProperties( userProperties );
+        SettingsBuildingResult third = builder.build( request );
+        assertEquals( "/home/b/.m2/repository", third.getEffectiveSettings().getLocalRepository() );
+    }
+
 }